@@ -368,6 +368,86 @@ public class ConfigDefaults {
      */
     public static final String UNIFY_CUSTOM_CHANNEL_MANAGEMENT = "java.unify_custom_channel_management";
 
+    /**
+     * Maximum number of validated API session keys kept in memory
+     */
+    public static final String API_SESSION_CACHE_SIZE = "java.api_session_cache_size";
+
+    /**
+     * Time in seconds after which a cached API session key has to be validated again
+     */
+    public static final String API_SESSION_CACHE_TTL = "java.api_session_cache_ttl";
+
+    /**
+     * Splice the cached package entries into the repository metadata instead of re-serializing them
+     */
+    public static final String SPLICE_REPODATA = "java.splice_repodata";
+
+    /**
+     * Update the package profile of minions with set based statements instead of per package lookups
+     */
+    public static final String BULK_PACKAGE_PROFILE_UPDATE = "java.bulk_package_profile_update";
+
+    /**
+     * Maximum number of verified download tokens kept in memory
+     */
+    public static final String DOWNLOAD_TOKEN_CACHE_SIZE = "java.download_token_cache_size";
+
+    /**
+     * Time in seconds after which a cached download token is checked against the database again
+     */
+    public static final String DOWNLOAD_TOKEN_CACHE_TTL = "java.download_token_cache_ttl";
+
+    /**
+     * Maximum number of package file paths kept in memory for the download endpoint
+     */
+    public static final String DOWNLOAD_PATH_CACHE_SIZE = "java.download_path_cache_size";
+
+    /**
+     * Time in seconds after which the download endpoint checks again if the content of a channel changed
+     */
+    public static final String DOWNLOAD_PATH_CACHE_CHECK_INTERVAL = "java.download_path_cache_check_interval";
+
+    /**
+     * Maximum number of total counts of paged web lists kept in memory
+     */
+    public static final String PAGED_LIST_COUNT_CACHE_SIZE = "java.paged_list_count_cache_size";
+
+    /**
+     * Time in seconds during which the total count of a paged web list is reused
+     */
+    public static final String PAGED_LIST_COUNT_CACHE_TTL = "java.paged_list_count_cache_ttl";
+
+    /**
+     * Maximum number of HTTP connections to Cobbler kept open
+     */
+    public static final String COBBLER_MAX_CONNECTIONS = "java.cobbler_max_connections";
+
+    /**
+     * Time in seconds to wait for a connection to Cobbler, or for a free one in the pool
+     */
+    public static final String COBBLER_CONNECT_TIMEOUT = "java.cobbler_connect_timeout";
+
+    /**
+     * Time in seconds to wait for data from Cobbler
+     */
+    public static final String COBBLER_SOCKET_TIMEOUT = "java.cobbler_socket_timeout";
+
+    /**
+     * Maximum number of messages waiting to be sent to a notification WebSocket session
+     */
+    public static final String NOTIFICATIONS_WEBSOCKET_QUEUE_SIZE = "java.notifications_websocket_queue_size";
+
+    /**
+     * Time in milliseconds during which notification WebSocket updates are collected before being sent
+     */
+    public static final String NOTIFICATIONS_WEBSOCKET_COALESCE_WINDOW = "java.notifications_websocket_coalesce_window";
+
+    /**
+     * Number of threads of taskomatic's SSH push job contacting systems in parallel
+     */
+    public static final String SSH_PUSH_WORKERS = "taskomatic.ssh_push_workers";
+
     private ConfigDefaults() {
     }
 
@@ -1129,4 +1209,153 @@ public class ConfigDefaults {
         return Config.get().getBoolean(UNIFY_CUSTOM_CHANNEL_MANAGEMENT, true);
     }
 
+    /**
+     * Returns the maximum number of validated API session keys kept in memory
+     *
+     * @return the cache size, 0 disables the cache
+     */
+    public int getApiSessionCacheSize() {
+        return Config.get().getInt(API_SESSION_CACHE_SIZE, 10000);
+    }
+
+    /**
+     * Returns the time in seconds after which a cached API session key has to be validated again
+     *
+     * @return the time to live of the cached session keys, in seconds
+     */
+    public int getApiSessionCacheTtl() {
+        return Config.get().getInt(API_SESSION_CACHE_TTL, 60);
+    }
+
+    /**
+     * Return true if the repository metadata files are assembled from the package entries
+     * cached in the database, each one written as its own gzip member
+     * @return true or false
+     */
+    public boolean spliceRepodata() {
+        return Config.get().getBoolean(SPLICE_REPODATA, false);
+    }
+
+    /**
+     * Return true if the installed packages of a minion are updated with set based
+     * statements, resolving and diffing the whole profile in the database
+     * @return true or false
+     */
+    public boolean isBulkPackageProfileUpdate() {
+        return Config.get().getBoolean(BULK_PACKAGE_PROFILE_UPDATE, false);
+    }
+
+    /**
+     * Returns the maximum number of verified download tokens kept in memory
+     *
+     * @return the cache size, 0 disables the cache
+     */
+    public int getDownloadTokenCacheSize() {
+        return Config.get().getInt(DOWNLOAD_TOKEN_CACHE_SIZE, 10000);
+    }
+
+    /**
+     * Returns the time in seconds after which a cached download token is checked against the database again
+     *
+     * @return the time to live of the cached tokens, in seconds
+     */
+    public int getDownloadTokenCacheTtl() {
+        return Config.get().getInt(DOWNLOAD_TOKEN_CACHE_TTL, 60);
+    }
+
+    /**
+     * Returns the maximum number of package file paths kept in memory for the download endpoint
+     *
+     * @return the cache size, 0 disables the cache
+     */
+    public int getDownloadPathCacheSize() {
+        return Config.get().getInt(DOWNLOAD_PATH_CACHE_SIZE, 100000);
+    }
+
+    /**
+     * Returns the time in seconds after which the download endpoint checks again if the content of a
+     * channel changed, dropping the cached package file paths of the channel if it did
+     *
+     * @return the check interval, in seconds
+     */
+    public int getDownloadPathCacheCheckInterval() {
+        return Config.get().getInt(DOWNLOAD_PATH_CACHE_CHECK_INTERVAL, 10);
+    }
+
+    /**
+     * Returns the maximum number of total counts of paged web lists kept in memory
+     *
+     * @return the maximum number of cached counts
+     */
+    public int getPagedListCountCacheSize() {
+        return Config.get().getInt(PAGED_LIST_COUNT_CACHE_SIZE, 1000);
+    }
+
+    /**
+     * Returns the time in seconds during which the total count of a paged web list is reused
+     *
+     * @return the time to live of the cached counts, in seconds
+     */
+    public int getPagedListCountCacheTtl() {
+        return Config.get().getInt(PAGED_LIST_COUNT_CACHE_TTL, 10);
+    }
+
+    /**
+     * Returns the maximum number of HTTP connections to the Cobbler XML-RPC API kept open
+     *
+     * @return the maximum number of connections
+     */
+    public int getCobblerMaxConnections() {
+        return Config.get().getInt(COBBLER_MAX_CONNECTIONS, 10);
+    }
+
+    /**
+     * Returns the time to wait for a connection to Cobbler to be established, or
+     * for a pooled one to become free.
+     *
+     * @return the connect timeout in seconds
+     */
+    public int getCobblerConnectTimeout() {
+        return Config.get().getInt(COBBLER_CONNECT_TIMEOUT, 10);
+    }
+
+    /**
+     * Returns the time to wait for data once connected to Cobbler. Some calls,
+     * like a sync, can take several minutes.
+     *
+     * @return the socket timeout in seconds
+     */
+    public int getCobblerSocketTimeout() {
+        return Config.get().getInt(COBBLER_SOCKET_TIMEOUT, 10 * 60);
+    }
+
+    /**
+     * Returns the maximum number of messages waiting to be sent to a notification WebSocket session.
+     * Sessions not keeping up are closed.
+     *
+     * @return the maximum number of queued messages per session
+     */
+    public int getNotificationsWebsocketQueueSize() {
+        return Config.get().getInt(NOTIFICATIONS_WEBSOCKET_QUEUE_SIZE, 100);
+    }
+
+    /**
+     * Returns the time in milliseconds during which notification WebSocket updates are collected, so that
+     * each session gets at most one message per window
+     *
+     * @return the coalescing window, in milliseconds
+     */
+    public int getNotificationsWebsocketCoalesceWindow() {
+        return Config.get().getInt(NOTIFICATIONS_WEBSOCKET_COALESCE_WINDOW, 500);
+    }
+
+    /**
+     * Returns the number of systems taskomatic's SSH push job contacts in parallel
+     *
+     * @return the number of SSH push workers
+     */
+    public int getSSHPushWorkers() {
+        return Config.get().getInt(SSH_PUSH_WORKERS, 5);
+    }
+
 }
@@ -20,7 +20,6 @@ import com.redhat.rhn.common.db.NamedPreparedStatement;
 import com.redhat.rhn.common.hibernate.HibernateHelper;
 import com.redhat.rhn.common.hibernate.HibernateRuntimeException;
 import com.redhat.rhn.common.translation.SqlExceptionTranslator;
-import com.redhat.rhn.common.util.MethodUtil;
 import com.redhat.rhn.common.util.StringUtil;
 
 import org.apache.logging.log4j.LogManager;
@@ -40,6 +39,7 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -641,12 +641,18 @@ public class CachedStatement implements Serializable {
                         "Column, " + getColumn() + ", not found in elaborator results");
             }
 
+            // resolve the target class and its column bindings once for the whole result set
+            RowBinder binder = null;
+            if (className != null && !className.equals("java.util.Map")) {
+                binder = RowBinder.forColumns(Class.forName(className), columns);
+            }
+
             // loop through the results, adding them to the displayMap
             while (rs.next()) {
                 /*
                  * If no className was specified *or* if the caller wants a Map
                  */
-                if (className == null || className.equals("java.util.Map")) {
+                if (binder == null) {
                     Row resultMap;
                     if (pointers == null) {
                         resultMap = new Row();
@@ -676,10 +682,9 @@ public class CachedStatement implements Serializable {
                  * Otherwise, try to set the results to the class given.
                  */
                 else {
-                    Class<?> clazz = Class.forName(className);
                     Object obj;
                     if (pointers == null) {
-                        obj = clazz.newInstance();
+                        obj = binder.newInstance();
                     }
                     else {
                         Integer pos = pointers.get(getObject(rs, getColumn()));
@@ -691,7 +696,7 @@ public class CachedStatement implements Serializable {
                         obj = currentResults.get(pos);
                     }
                     // if pointers are null, we are doing an elaborator.
-                    addToObject(columns, rs, obj, (pointers != null));
+                    addToObject(columns, rs, obj, binder, (pointers != null));
                     // bug 141664: Don't add to the DataResult if we are
                     // elaborating the data.
                     if (pointers == null) {
@@ -716,7 +721,7 @@ public class CachedStatement implements Serializable {
         catch (SQLException e) {
             throw SqlExceptionTranslator.sqlException(e);
         }
-        catch (ClassNotFoundException | IllegalAccessException | InstantiationException e) {
+        catch (ClassNotFoundException e) {
             throw new ObjectCreateWrapperException("Could not create " + className, e);
         }
         finally {
@@ -767,9 +772,8 @@ public class CachedStatement implements Serializable {
         }
     }
 
-    @SuppressWarnings("unchecked")
     private void addToObject(List<String> columns, ResultSet rs, Object obj,
-            boolean elaborator)
+            RowBinder binder, boolean elaborator)
         throws SQLException {
 
         List<String> columnSkip;
@@ -779,57 +783,25 @@ public class CachedStatement implements Serializable {
             columnSkip = cb.getCallBackColumns();
         }
         else {
-            columnSkip = new ArrayList<>();
+            columnSkip = Collections.emptyList();
         }
 
-        for (String columnName : columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            String columnName = columns.get(i);
             if (columnSkip.contains(columnName.toLowerCase())) {
                 continue;
             }
 
-            String setName = StringUtil.beanify("set " + columnName.toLowerCase());
-            String getName = StringUtil.beanify("get " + columnName.toLowerCase());
-
-            boolean isList = false;
-            Method[] methods = obj.getClass().getMethods();
             /*
-             * Now loop through the methods and find the set method for this
-             * column then decide if it takes a collection Note: This action
-             * might not complete correctly if there are two set methods with
-             * the same name
+             * Collection properties (set method taking a Collection) get the
+             * value appended to the list returned by the matching get method.
+             * Otherwise the set method is called for every row, so if the
+             * result set should be a list but has a non-Collection set method,
+             * the attribute will ultimately contain the last item found for
+             * this column.
              */
-            for (Method methodIn : methods) {
-                // getName() gets the name of the set method
-                // setName is the name of the set method
-                if (methodIn.getName().equals(setName)) {
-                    Class<?> paramType = methodIn.getParameterTypes()[0];
-                    if (Collection.class.isAssignableFrom(paramType)) {
-                        isList = true;
-                    }
-                    break;
-                }
-            }
-
-            if (isList) { // requires matching get method returning the same
-                // list
-                Collection<Object> c = (Collection<Object>) MethodUtil.callMethod(obj,
-                        getName, new Object[0]);
-                if (c == null) {
-                    c = new ArrayList<>();
-                }
-                c.add(getObject(rs, columnName));
-                MethodUtil.callMethod(obj, setName, c);
-                continue;
-            }
-            /*
-             * Just call the set method. This will call the same set method
-             * multiple times. If the result set should be a list, but has a
-             * non-Collection set method, the attribute corresponding to this
-             * column will ultimately contain the last item found for this
-             * column.
-             */
-            MethodUtil.callMethod(obj, setName, getObject(rs, columnName));
-        } // while
+            binder.bind(obj, i, getObject(rs, columnName));
+        }
     }
 
     /**
@@ -905,7 +877,7 @@ public class CachedStatement implements Serializable {
         if (obj instanceof Map) {
             return ((Map<String, Object>) obj).get(key);
         }
-        return MethodUtil.callMethod(obj, StringUtil.beanify("get " + key), new Object[0]);
+        return RowBinder.readProperty(obj, key);
     }
 
     private Map<Object, Integer> generatePointers(List<Object> dr, String key) {
@@ -921,9 +893,7 @@ public class CachedStatement implements Serializable {
                 pointers.put(((Row) row).get(key), pos);
             }
             else {
-                Object keyData = MethodUtil.callMethod(row,
-                        StringUtil.beanify("get " + key), new Object[0]);
-                pointers.put(keyData, pos);
+                pointers.put(RowBinder.readProperty(row, key), pos);
             }
             pos++;
         }
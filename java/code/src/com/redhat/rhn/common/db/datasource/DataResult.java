@@ -41,6 +41,7 @@ public class DataResult<T> extends ArrayList<T> {
     private String filterData;
     private boolean filter;
     private Map<String, Object> elabParams;
+    private String nextCursor;
 
     /**
      * Create a new DataResult object
@@ -56,6 +57,7 @@ public class DataResult<T> extends ArrayList<T> {
         filterData = dr.getFilterData();
         filter = dr.hasFilter();
         elabParams = dr.getElaborationParams();
+        nextCursor = dr.getNextCursor();
     }
 
     /**
@@ -208,6 +210,22 @@ public class DataResult<T> extends ArrayList<T> {
         this.totalSize = ts;
     }
 
+    /**
+     * Get the cursor to fetch the page following this one, if the list supports keyset paging
+     * @return the cursor or null
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Set the cursor to fetch the page following this one
+     * @param cursor the cursor
+     */
+    public void setNextCursor(String cursor) {
+        this.nextCursor = cursor;
+    }
+
     /**
      * Get the index of the first element in the list
      * @return the index of the first element of the list
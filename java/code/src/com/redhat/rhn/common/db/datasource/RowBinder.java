@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.db.datasource;
+
+import com.redhat.rhn.common.MethodInvocationException;
+import com.redhat.rhn.common.ObjectCreateWrapperException;
+import com.redhat.rhn.common.util.MethodUtil;
+import com.redhat.rhn.common.util.StringUtil;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the columns of a query result row to the properties of a DTO class.
+ *
+ * Setters, getters and the no-arg constructor are resolved once per
+ * (class, column list) and then invoked through {@link MethodHandle}s, so
+ * binding a row does not need to scan the class methods again. Columns whose
+ * setter cannot be bound unambiguously (overloaded or missing setters) are
+ * delegated to {@link MethodUtil#callMethod(Object, String, Object...)} to keep
+ * the exact same semantics as before, as are values that need a type translation.
+ */
+public final class RowBinder {
+
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE =
+            MethodType.methodType(Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private static final Map<Class<?>, Map<List<String>, RowBinder>> BINDERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, Map<String, MethodHandle>> GETTERS = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, MethodHandle> CONSTRUCTORS = new ConcurrentHashMap<>();
+
+    private final Class<?> clazz;
+    private final ColumnBinding[] bindings;
+
+    private RowBinder(Class<?> clazzIn, List<String> columns) {
+        clazz = clazzIn;
+        bindings = new ColumnBinding[columns.size()];
+        for (int i = 0; i < bindings.length; i++) {
+            bindings[i] = new ColumnBinding(clazzIn, columns.get(i));
+        }
+    }
+
+    /**
+     * Returns the binder for the given class and result set columns, creating it on first use.
+     * @param clazz the DTO class rows are bound to
+     * @param columns the lower-cased column names of the result set, in order
+     * @return the binder
+     */
+    public static RowBinder forColumns(Class<?> clazz, List<String> columns) {
+        return BINDERS.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(List.copyOf(columns), cols -> new RowBinder(clazz, cols));
+    }
+
+    /**
+     * Creates a new instance of the bound class using its public no-arg constructor.
+     * @return the new instance
+     */
+    public Object newInstance() {
+        MethodHandle constructor = CONSTRUCTORS.computeIfAbsent(clazz, RowBinder::findConstructor);
+        try {
+            return constructor.invokeExact();
+        }
+        catch (RuntimeException e) {
+            throw e;
+        }
+        catch (Throwable t) {
+            throw new ObjectCreateWrapperException("Could not create " + clazz.getName(), t);
+        }
+    }
+
+    /**
+     * Sets the value of the column at the given position on the object.
+     * @param obj the object to set the value on
+     * @param columnIndex the zero-based position of the column in the column list
+     * @param value the value read from the result set
+     */
+    public void bind(Object obj, int columnIndex, Object value) {
+        bindings[columnIndex].bind(obj, value);
+    }
+
+    /**
+     * Reads a bean property through its public getter, caching the resolved getter per class.
+     * @param bean the object to read from
+     * @param property the property name, as found in the query columns
+     * @return the property value
+     */
+    public static Object readProperty(Object bean, String property) {
+        String getName = StringUtil.beanify("get " + property);
+        MethodHandle getter = GETTERS.computeIfAbsent(bean.getClass(), c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(getName, n -> findGetter(bean.getClass(), n));
+        if (getter == null) {
+            return MethodUtil.callMethod(bean, getName);
+        }
+        return invokeGetter(getter, bean, getName);
+    }
+
+    private static MethodHandle findConstructor(Class<?> clazz) {
+        try {
+            return MethodHandles.publicLookup()
+                    .findConstructor(clazz, MethodType.methodType(void.class))
+                    .asType(CONSTRUCTOR_TYPE);
+        }
+        catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ObjectCreateWrapperException("Could not create " + clazz.getName(), e);
+        }
+    }
+
+    /*
+     * Returns null if no single public getter can be bound, in which case callers
+     * fall back to MethodUtil.
+     */
+    private static MethodHandle findGetter(Class<?> clazz, String getName) {
+        Method found = null;
+        for (Method method : clazz.getMethods()) {
+            if (method.getName().equals(getName) && method.getParameterCount() == 0) {
+                found = method;
+                break;
+            }
+        }
+        return unreflect(found, GETTER_TYPE);
+    }
+
+    private static MethodHandle unreflect(Method method, MethodType type) {
+        if (method == null || Modifier.isStatic(method.getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup().unreflect(method).asType(type);
+        }
+        catch (IllegalAccessException e) {
+            // public method declared in a non-public class
+            return null;
+        }
+    }
+
+    private static Object invokeGetter(MethodHandle getter, Object bean, String getName) {
+        try {
+            return getter.invokeExact(bean);
+        }
+        catch (RuntimeException e) {
+            throw new MethodInvocationException("Something bad happened when calling " + getName, e);
+        }
+        catch (Throwable t) {
+            throw new MethodInvocationException("Could not call " + getName, t);
+        }
+    }
+
+    /**
+     * Pre-resolved binding of one result set column to one bean property.
+     */
+    private static final class ColumnBinding {
+
+        private final String setName;
+        private final String getName;
+        private final MethodHandle setter;
+        private final MethodHandle getter;
+        private final Class<?> paramType;
+        private final Class<?> boxedParamType;
+        private final boolean isList;
+
+        ColumnBinding(Class<?> clazz, String column) {
+            setName = StringUtil.beanify("set " + column.toLowerCase());
+            getName = StringUtil.beanify("get " + column.toLowerCase());
+
+            List<Method> setters = new ArrayList<>();
+            for (Method method : clazz.getMethods()) {
+                if (method.getName().equals(setName)) {
+                    setters.add(method);
+                }
+            }
+            // Same as the reflective path: the first setter found decides whether
+            // the property is a collection
+            isList = !setters.isEmpty() && setters.get(0).getParameterCount() > 0 &&
+                    Collection.class.isAssignableFrom(setters.get(0).getParameterTypes()[0]);
+
+            Method single = setters.size() == 1 && setters.get(0).getParameterCount() == 1 ?
+                    setters.get(0) : null;
+            setter = unreflect(single, SETTER_TYPE);
+            paramType = setter != null ? single.getParameterTypes()[0] : null;
+            boxedParamType = paramType != null ? MethodType.methodType(paramType).wrap().returnType() : null;
+            getter = isList ? findGetter(clazz, getName) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        void bind(Object obj, Object value) {
+            if (isList) {
+                Collection<Object> c = (Collection<Object>) (getter != null ?
+                        invokeGetter(getter, obj, getName) : MethodUtil.callMethod(obj, getName));
+                if (c == null) {
+                    c = new ArrayList<>();
+                }
+                c.add(value);
+                set(obj, c);
+            }
+            else {
+                set(obj, value);
+            }
+        }
+
+        private void set(Object obj, Object value) {
+            // values needing a type translation take the reflective path
+            if (setter == null || (value == null ? paramType.isPrimitive() : !boxedParamType.isInstance(value))) {
+                MethodUtil.callMethod(obj, setName, value);
+                return;
+            }
+            try {
+                setter.invokeExact(obj, value);
+            }
+            catch (RuntimeException e) {
+                throw new MethodInvocationException("Something bad happened when calling " + setName, e);
+            }
+            catch (Throwable t) {
+                throw new MethodInvocationException("Could not call " + setName, t);
+            }
+        }
+    }
+}
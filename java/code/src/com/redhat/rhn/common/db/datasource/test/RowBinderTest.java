@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.db.datasource.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.redhat.rhn.common.db.datasource.RowBinder;
+import com.redhat.rhn.frontend.dto.PackageDto;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * RowBinderTest
+ */
+public class RowBinderTest {
+
+    @Test
+    public void testBindersAreCached() {
+        List<String> columns = List.of("id", "pin", "test_column");
+        RowBinder binder = RowBinder.forColumns(AdvDataSourceDto.class, columns);
+        assertSame(binder, RowBinder.forColumns(AdvDataSourceDto.class, new ArrayList<>(columns)));
+    }
+
+    @Test
+    public void testBind() {
+        RowBinder binder = RowBinder.forColumns(AdvDataSourceDto.class, List.of("id", "test_column", "foobar"));
+        AdvDataSourceDto dto = (AdvDataSourceDto) binder.newInstance();
+        binder.bind(dto, 0, 42L);
+        binder.bind(dto, 1, "column");
+        binder.bind(dto, 2, null);
+
+        assertEquals(42L, dto.getId());
+        assertEquals("column", dto.getTestColumn());
+        assertNull(dto.getFoobar());
+        assertEquals(42L, RowBinder.readProperty(dto, "id"));
+        assertEquals("column", RowBinder.readProperty(dto, "test_column"));
+    }
+
+    @Test
+    public void testBindCollection() {
+        RowBinder binder = RowBinder.forColumns(CollectionDto.class, List.of("name"));
+        CollectionDto dto = (CollectionDto) binder.newInstance();
+        binder.bind(dto, 0, "foo");
+        binder.bind(dto, 0, "bar");
+
+        assertEquals(List.of("foo", "bar"), dto.getName());
+    }
+
+    @Test
+    public void testBindWithTranslation() {
+        RowBinder binder = RowBinder.forColumns(PackageDto.class, List.of("id", "package_size"));
+        PackageDto dto = (PackageDto) binder.newInstance();
+        // PackageDto.setId takes a Long, a BigDecimal has to go through the Translator
+        binder.bind(dto, 0, new BigDecimal(7));
+        binder.bind(dto, 1, 1024L);
+
+        assertEquals(7L, dto.getId());
+        assertEquals(1024L, dto.getPackageSize());
+    }
+
+    /**
+     * Bean with a collection property
+     */
+    public static class CollectionDto {
+        private Collection<String> name;
+
+        /**
+         * @return the names
+         */
+        public Collection<String> getName() {
+            return name;
+        }
+
+        /**
+         * @param nameIn the names to set
+         */
+        public void setName(Collection<String> nameIn) {
+            name = nameIn;
+        }
+    }
+}
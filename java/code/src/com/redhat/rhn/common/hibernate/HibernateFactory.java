@@ -57,6 +57,8 @@ import javax.persistence.FlushModeType;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.Root;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 
 /**
  * HibernateFactory - Helper superclass that contains methods for fetching and
@@ -366,6 +368,51 @@ public abstract class HibernateFactory {
         connectionManager.commitTransaction();
     }
 
+    /**
+     * Runs an action once the transaction of the current session has been committed,
+     * or right away if no transaction is pending. The action is not run if the
+     * transaction is rolled back.
+     *
+     * @param action the action to run
+     */
+    public static void doAfterCommit(Runnable action) {
+        if (!inTransaction()) {
+            action.run();
+            return;
+        }
+        getSession().getTransaction().registerSynchronization(new Synchronization() {
+            @Override
+            public void beforeCompletion() {
+                // nothing to do before the commit
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != Status.STATUS_COMMITTED) {
+                    return;
+                }
+                try {
+                    action.run();
+                }
+                catch (RuntimeException e) {
+                    LOG.warn("Error running an action after commit", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs an action right away and again once the transaction of the current session has
+     * been committed. Meant to drop cached copies of data changed by the transaction: other
+     * threads still read the former data until the commit and may cache it again meanwhile.
+     *
+     * @param action the action to run
+     */
+    public static void doNowAndAfterCommit(Runnable action) {
+        action.run();
+        doAfterCommit(action);
+    }
+
     /**
      * Roll back transaction in case it is not committed and close the Hibernate session.
      *
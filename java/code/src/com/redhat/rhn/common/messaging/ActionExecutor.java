@@ -31,6 +31,7 @@ class ActionExecutor implements Runnable {
 
     private EventMessage msg;
     private List<MessageAction> actionHandlers = new ArrayList<>();
+    private final long queuedAt = System.nanoTime();
 
     /**
      * Constructor
@@ -75,6 +76,13 @@ class ActionExecutor implements Runnable {
         }
     }
 
+    /**
+     * @return the time this message was published, as returned by {@link System#nanoTime()}
+     */
+    long getQueuedAt() {
+        return queuedAt;
+    }
+
     /**
      * Return true if all message actions in this executor can run concurrently, else false.
      *
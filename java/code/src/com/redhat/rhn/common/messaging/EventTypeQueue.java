@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.messaging;
+
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The pending messages of one event type.
+ *
+ * A queue that has messages is listed once in the ready list shared by all the types.
+ * The dispatcher takes one message from the first ready queue and puts the queue back at
+ * the end of the list if it still has messages, so that event types are served in turn.
+ */
+public class EventTypeQueue {
+
+    private final Class<? extends EventMessage> eventType;
+    private final BlockingQueue<EventTypeQueue> ready;
+    private final Queue<ActionExecutor> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    /**
+     * Constructor
+     * @param eventTypeIn the event type
+     * @param readyIn the list of queues having messages
+     */
+    EventTypeQueue(Class<? extends EventMessage> eventTypeIn, BlockingQueue<EventTypeQueue> readyIn) {
+        eventType = eventTypeIn;
+        ready = readyIn;
+    }
+
+    /**
+     * Queues a message, listing this queue as ready if it was not already.
+     * @param executor the message and its actions
+     */
+    void add(ActionExecutor executor) {
+        messages.add(executor);
+        depth.incrementAndGet();
+        published.increment();
+        if (scheduled.compareAndSet(false, true)) {
+            ready.add(this);
+        }
+    }
+
+    /**
+     * Takes the oldest message and lists this queue as ready again if it has more.
+     * Only called by the dispatcher thread.
+     * @return the oldest message, or null if there is none
+     */
+    ActionExecutor poll() {
+        ActionExecutor executor = messages.poll();
+        if (executor != null) {
+            depth.decrementAndGet();
+            waitNanos.add(System.nanoTime() - executor.getQueuedAt());
+        }
+        if (!messages.isEmpty()) {
+            ready.add(this);
+        }
+        else {
+            scheduled.set(false);
+            // a message might have been added before the flag was cleared
+            if (!messages.isEmpty() && scheduled.compareAndSet(false, true)) {
+                ready.add(this);
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * @return the event type
+     */
+    public Class<? extends EventMessage> getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return the number of messages waiting to be dispatched
+     */
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * @return the number of messages published since startup
+     */
+    public long getPublished() {
+        return published.sum();
+    }
+
+    /**
+     * @return the total time the dispatched messages waited in the queue, in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+}
@@ -35,7 +35,7 @@ import java.util.concurrent.TimeUnit;
 public class MessageDispatcher implements Runnable {
 
     private static Logger log = LogManager.getLogger(MessageDispatcher.class);
-    private boolean isStopped = false;
+    private volatile boolean isStopped = false;
 
     /* Thread pool for concurrent execution of message actions */
     private ExecutorService threadPool = new MessageQueueThreadPool(
@@ -63,7 +63,7 @@ public class MessageDispatcher implements Runnable {
      * Returns the current stop state
      * @return true if stopped, else false
      */
-    public synchronized boolean isStopped() {
+    public boolean isStopped() {
         return isStopped;
     }
 
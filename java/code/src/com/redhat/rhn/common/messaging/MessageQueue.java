@@ -64,17 +64,26 @@ import com.suse.manager.webui.services.iface.SaltApi;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Stream;
 
-import EDU.oswego.cs.dl.util.concurrent.Channel;
-import EDU.oswego.cs.dl.util.concurrent.LinkedQueue;
-
 /**
  * A class that passes messages from the sender to an action class
+ *
+ * Publishing does not take any lock: actions are looked up in a copy-on-write registry
+ * and messages are appended to a non-blocking queue per event type. The dispatcher serves
+ * the event types in turn, so that a flood of messages of one type does not delay the
+ * messages of the other types.
  */
 public class MessageQueue {
 
@@ -84,11 +93,14 @@ public class MessageQueue {
     private static Logger logger = LogManager.getLogger(MessageQueue.class);
 
     private static final Map<Class<? extends EventMessage>, List<MessageAction>> ACTIONS =
-            new HashMap<>();
-    private static Channel messages = new LinkedQueue();
+            new ConcurrentHashMap<>();
+    private static final Map<Class<? extends EventMessage>, EventTypeQueue> QUEUES = new ConcurrentHashMap<>();
+    private static final BlockingQueue<EventTypeQueue> READY = new LinkedBlockingQueue<>();
+    private static final AtomicInteger MESSAGE_COUNT = new AtomicInteger();
+    private static final LongAdder PUBLISH_COUNT = new LongAdder();
+    private static final LongAdder PUBLISH_NANOS = new LongAdder();
     private static Thread dispatcherThread = null;
-    private static MessageDispatcher dispatcher = null;
-    private static int messageCount;
+    private static volatile MessageDispatcher dispatcher = null;
 
     /**
      * Util class so we don't have a usable constructor
@@ -109,23 +121,19 @@ public class MessageQueue {
             startMessaging();
         }
         if (msg != null) {
-            synchronized (ACTIONS) {
-                List<MessageAction> handlers = ACTIONS.get(msg.getClass());
-                if (handlers != null && !handlers.isEmpty()) {
-                    logger.debug("creating ActionExecutor");
-                    ActionExecutor executor = new ActionExecutor(handlers, msg);
-                    try {
-                        messages.put(executor);
-                        messageCount++;
-                    }
-                    catch (InterruptedException e) {
-                        logger.error(e.getMessage(), e);
-                    }
-                }
-                else {
-                    logger.debug("handlers is null, not processing!");
-                }
+            long start = System.nanoTime();
+            List<MessageAction> handlers = ACTIONS.get(msg.getClass());
+            if (handlers != null && !handlers.isEmpty()) {
+                logger.debug("creating ActionExecutor");
+                ActionExecutor executor = new ActionExecutor(handlers, msg);
+                MESSAGE_COUNT.incrementAndGet();
+                QUEUES.computeIfAbsent(msg.getClass(), type -> new EventTypeQueue(type, READY)).add(executor);
+            }
+            else {
+                logger.debug("handlers is null, not processing!");
             }
+            PUBLISH_COUNT.increment();
+            PUBLISH_NANOS.add(System.nanoTime() - start);
         }
 
         if (logger.isDebugEnabled()) {
@@ -139,15 +147,22 @@ public class MessageQueue {
      * @return actions
      */
     public static Stream<MessageAction> getActionsFor(EventMessage message) {
-        return ACTIONS.get(message.getClass()).stream();
+        return ACTIONS.getOrDefault(message.getClass(), Collections.emptyList()).stream();
     }
 
+    /**
+     * Takes the next message to dispatch, from the event type whose turn it is.
+     * @return the message and its actions, or null if none was published within 500 ms
+     * @throws InterruptedException if interrupted while waiting
+     */
     static ActionExecutor popEventMessage() throws InterruptedException {
-        ActionExecutor retval = (ActionExecutor) messages.poll(500);
+        EventTypeQueue queue = READY.poll(500, TimeUnit.MILLISECONDS);
+        if (queue == null) {
+            return null;
+        }
+        ActionExecutor retval = queue.poll();
         if (retval != null) {
-            synchronized (ACTIONS) {
-                messageCount--;
-            }
+            MESSAGE_COUNT.decrementAndGet();
         }
         return retval;
     }
@@ -190,7 +205,29 @@ public class MessageQueue {
      * @return int number of messages in queue.
      */
     public static int getMessageCount() {
-        return messageCount;
+        return MESSAGE_COUNT.get();
+    }
+
+    /**
+     * Get the queues of the event types that have been published so far
+     * @return the queues, for monitoring
+     */
+    public static Collection<EventTypeQueue> getEventTypeQueues() {
+        return Collections.unmodifiableCollection(QUEUES.values());
+    }
+
+    /**
+     * @return the number of messages published since startup
+     */
+    public static long getPublishCount() {
+        return PUBLISH_COUNT.sum();
+    }
+
+    /**
+     * @return the total time spent publishing messages since startup, in nanoseconds
+     */
+    public static long getPublishNanos() {
+        return PUBLISH_NANOS.sum();
     }
 
     /**
@@ -202,10 +239,7 @@ public class MessageQueue {
         if (logger.isDebugEnabled()) {
             logger.debug("registerAction(MessageAction, Class) - : {} class: {}", act, eventType.getName());
         }
-        synchronized (ACTIONS) {
-            List<MessageAction> handlers = ACTIONS.computeIfAbsent(eventType, k -> new ArrayList<>());
-            handlers.add(act);
-        }
+        ACTIONS.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(act);
     }
 
     /**
@@ -217,8 +251,8 @@ public class MessageQueue {
         if (logger.isDebugEnabled()) {
             logger.debug("deRegisterAction(MessageAction, Class) - start");
         }
-        synchronized (ACTIONS) {
-            List<MessageAction> handlers = ACTIONS.get(eventType);
+        List<MessageAction> handlers = ACTIONS.get(eventType);
+        if (handlers != null) {
             handlers.remove(act);
         }
         if (logger.isDebugEnabled()) {
@@ -236,14 +270,13 @@ public class MessageQueue {
             logger.debug("getRegisteredEventNames() - start");
         }
         String[] retval = null;
-        synchronized (ACTIONS) {
-            if (!ACTIONS.keySet().isEmpty()) {
-                retval = new String[ACTIONS.keySet().size()];
-                int index = 0;
-                for (Class<? extends EventMessage> klazz : ACTIONS.keySet()) {
-                    retval[index] = klazz.getName();
-                    index++;
-                }
+        List<Class<? extends EventMessage>> types = List.copyOf(ACTIONS.keySet());
+        if (!types.isEmpty()) {
+            retval = new String[types.size()];
+            int index = 0;
+            for (Class<? extends EventMessage> klazz : types) {
+                retval[index] = klazz.getName();
+                index++;
             }
         }
 
@@ -25,11 +25,16 @@ import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Message queue thread pool for concurrent dispatching of messages.
+ *
+ * Submitting a message blocks until a thread is idle, so that pending messages stay in the
+ * queues of {@link MessageQueue}, where the event types are served in turn.
  */
 public class MessageQueueThreadPool extends ThreadPoolExecutor {
 
@@ -39,6 +44,8 @@ public class MessageQueueThreadPool extends ThreadPoolExecutor {
     /* A warning is logged if the queue is growing bigger than this */
     private static final int QUEUE_SIZE_WARNING_THRESHOLD = 100;
 
+    private final Semaphore idleThreads;
+
     /**
      * Constructor for creating a thread pool for being used with the message queue.
      *
@@ -46,6 +53,7 @@ public class MessageQueueThreadPool extends ThreadPoolExecutor {
      */
     public MessageQueueThreadPool(int size) {
         super(size, size, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        idleThreads = new Semaphore(size);
         setThreadFactory(new BasicThreadFactory.Builder().namingPattern("message-queue-thread-%d").build());
         log.info("Started message queue thread pool (size: {})", size);
     }
@@ -59,12 +67,20 @@ public class MessageQueueThreadPool extends ThreadPoolExecutor {
         else if (log.isDebugEnabled()) {
             log.debug("Thread pool queue size is: {}", queueSize);
         }
-        super.execute(command);
+        idleThreads.acquireUninterruptibly();
+        try {
+            super.execute(command);
+        }
+        catch (RejectedExecutionException e) {
+            idleThreads.release();
+            throw e;
+        }
     }
 
     @Override
     protected void afterExecute(Runnable task, Throwable thrown) {
         super.afterExecute(task, thrown);
+        idleThreads.release();
 
         if (thrown == null && task instanceof Future<?>) {
             try {
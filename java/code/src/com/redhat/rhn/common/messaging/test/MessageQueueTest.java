@@ -15,10 +15,13 @@
 
 package com.redhat.rhn.common.messaging.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.messaging.EventMessage;
+import com.redhat.rhn.common.messaging.MessageAction;
 import com.redhat.rhn.common.messaging.MessageQueue;
 import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.testing.RhnBaseTestCase;
@@ -29,6 +32,12 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 public class MessageQueueTest extends RhnBaseTestCase {
 
     private static Logger logger = LogManager.getLogger(MessageQueueTest.class);
@@ -194,6 +203,48 @@ public class MessageQueueTest extends RhnBaseTestCase {
         logger.debug("testThreadKiller - end");
     }
 
+    @Test
+    public void testEventTypesAreServedInTurn() throws Exception {
+        List<String> handled = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+        MessageAction floodAction = new RecordingAction(handled, "flood", done) {
+            @Override
+            public void execute(EventMessage msg) {
+                started.countDown();
+                try {
+                    release.await();
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.execute(msg);
+            }
+        };
+        MessageAction otherAction = new RecordingAction(handled, "other", done);
+        MessageQueue.registerAction(floodAction, FloodEventMessage.class);
+        MessageQueue.registerAction(otherAction, OtherEventMessage.class);
+        try {
+            // keep the dispatcher busy with the first message while the others are published
+            MessageQueue.publish(new FloodEventMessage());
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            for (int i = 0; i < 4; i++) {
+                MessageQueue.publish(new FloodEventMessage());
+            }
+            MessageQueue.publish(new OtherEventMessage());
+            release.countDown();
+
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            // the flood type was ready first, then both types are served in turn
+            assertEquals(List.of("flood", "flood", "other", "flood", "flood", "flood"), handled);
+        }
+        finally {
+            MessageQueue.deRegisterAction(floodAction, FloodEventMessage.class);
+            MessageQueue.deRegisterAction(otherAction, OtherEventMessage.class);
+        }
+    }
+
     private void verifyMessageEvent(TestEventMessage me, boolean matchingValue)
             throws InterruptedException {
         MessageQueue.publish(me);
@@ -296,6 +347,60 @@ public class MessageQueueTest extends RhnBaseTestCase {
             }
         }
     }
-}
 
+    /**
+     * Action recording the messages it handled
+     */
+    private static class RecordingAction implements MessageAction {
+        private final List<String> handled;
+        private final String name;
+        private final CountDownLatch done;
+
+        RecordingAction(List<String> handledIn, String nameIn, CountDownLatch doneIn) {
+            handled = handledIn;
+            name = nameIn;
+            done = doneIn;
+        }
+
+        @Override
+        public void execute(EventMessage msg) {
+            handled.add(name);
+            done.countDown();
+        }
+
+        @Override
+        public boolean needsTransactionHandling() {
+            return false;
+        }
+    }
+
+    /**
+     * Message of a type published in bulk
+     */
+    private static class FloodEventMessage implements EventMessage {
+        @Override
+        public String toText() {
+            return "flood";
+        }
+
+        @Override
+        public Long getUserId() {
+            return null;
+        }
+    }
+
+    /**
+     * Message of another type
+     */
+    private static class OtherEventMessage implements EventMessage {
+        @Override
+        public String toText() {
+            return "other";
+        }
 
+        @Override
+        public Long getUserId() {
+            return null;
+        }
+    }
+}
@@ -15,30 +15,30 @@
 
 package com.redhat.rhn.common.security.acl;
 
-import com.redhat.rhn.common.IllegalRegexException;
 import com.redhat.rhn.common.MethodInvocationException;
 import com.redhat.rhn.common.localization.LocalizationService;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.oro.text.regex.MalformedPatternException;
-import org.apache.oro.text.regex.MatchResult;
-import org.apache.oro.text.regex.Pattern;
-import org.apache.oro.text.regex.PatternCompiler;
-import org.apache.oro.text.regex.PatternMatcher;
-import org.apache.oro.text.regex.Perl5Compiler;
-import org.apache.oro.text.regex.Perl5Matcher;
 
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.MethodDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Class for handling ACLs.
@@ -160,16 +160,16 @@ import java.util.TreeSet;
 public class Acl {
 
     /** RegEx to split ACL into multiple expressions */
-    private static final String ACL_SPLIT_REGEX = "\\s*;\\s*";
+    private static final Pattern ACL_SPLIT_REGEX = Pattern.compile("\\s*;\\s*");
 
     /** RegEx to split expressions into multiple statements */
-    private static final String EXPR_SPLIT_REGEX = "\\s+or\\s+";
+    private static final Pattern EXPR_SPLIT_REGEX = Pattern.compile("\\s+or\\s+");
 
     /** RegEx to parse statement to grab negation, function call, params */
-    private static final String STMT_PARSE_REGEX = "^(not +)?(.*)\\((.*)\\)$";
+    private static final Pattern STMT_PARSE_REGEX = Pattern.compile("^(not +)?(.*)\\((.*)\\)$");
 
     /** RegEx to split params */
-    private static final String PARAM_SPLIT_REGEX = "\\s*,\\s*";
+    private static final Pattern PARAM_SPLIT_REGEX = Pattern.compile("\\s*,\\s*");
 
     /** constant used to identify negation regex group within statement */
     private static final int NEGATION_GROUP = 1;
@@ -177,34 +177,21 @@ public class Acl {
     private static final int HANDLERNAME_GROUP = 2;
     /** constant used to identify param regex group within statement */
     private static final int PARAM_GROUP = 3;
-    /** total number of regex groups expected in statement */
-    private static final int EXPECTED_GROUPS = 4;
 
     /** prefix of acl handler method names */
     private static final String ACL_PREFIX = "acl";
 
+    /** Upper bound of compiled ACL strings kept by an instance */
+    private static final int MAX_COMPILED_ACLS = 10000;
+
     /** The log instance for this class */
     private static Logger log = LogManager.getLogger(Acl.class);
 
     /** Store acl handlers against keys referenced in acl statements */
-    private Map<String, InstanceMethodPair> handlers = new HashMap<>();
-
-    /** store the compiled regex that will be re-used for evalAcl invocations */
-    private static Pattern parsePattern = null;
+    private Map<String, HandlerBinding> handlers = new HashMap<>();
 
-    // initialize the parse pattern
-    static {
-        PatternCompiler compiler = new Perl5Compiler();
-        try {
-            parsePattern = compiler.compile(STMT_PARSE_REGEX);
-        }
-        catch (MalformedPatternException e) {
-            // we assume our regex is sane and tested
-            // and that we don't get here
-            throw new IllegalRegexException("Invalid when constructing parse " +
-                                            "pattern for acls.", e);
-        }
-    }
+    /** ACL strings already parsed and bound to the handlers of this instance */
+    private final Map<String, List<List<Statement>>> compiledAcls = new ConcurrentHashMap<>();
 
     /** Constructor for a new Acl instance without any default ACL handlers. */
     public Acl() {
@@ -307,10 +294,11 @@ public class Acl {
                     }
 
                     String aclName = methodNameToAclName(methodName);
-                    handlers.put(aclName,
-                            new InstanceMethodPair(aclHandler, method));
+                    handlers.put(aclName, new HandlerBinding(aclHandler, method));
                 }
             }
+            // statements compiled so far may be bound to replaced handlers
+            compiledAcls.clear();
         }
         // from reading the javadocs for IntrospectionException,
         // dont' really expect to get this one
@@ -364,6 +352,11 @@ public class Acl {
 
     /** Evaluates an ACL string within a given context.
      *  See class description for sample usage.
+     *  <p>
+     *  The ACL string is parsed the first time it is evaluated and the result
+     *  is kept by this instance. Within an {@link AclRequestCache} scope, the
+     *  results of the handlers are reused for identical handler, parameters
+     *  and context.
      *  @param context context in which the acl string is evaluated
      *  @param acl the ACL string.
      *  @return true if the ACL string and given context allow access,
@@ -380,23 +373,10 @@ public class Acl {
                              "bad-syntax", acl));
         }
 
-        String[] expressions = acl.split(ACL_SPLIT_REGEX);
-        int exprLen = expressions.length;
-
-        boolean result = false;
-
-        for (int exprIdx = 0; exprIdx < exprLen; ++exprIdx) {
-            String expression = expressions[exprIdx];
-            log.debug("expression[{}]: {}", exprIdx, expression);
-
-            String[] statements = expression.split(EXPR_SPLIT_REGEX);
-            int statementLen = statements.length;
-
-            for (int stmtIdx = 0; stmtIdx < statementLen; ++stmtIdx) {
-                String statement = statements[stmtIdx];
-                log.debug("statement[{}]: {}", stmtIdx, statement);
-
-                result = evalAclStatement(statement, context);
+        for (List<Statement> expression : compile(acl)) {
+            boolean result = false;
+            for (Statement statement : expression) {
+                result = statement.eval(context);
                 // break if we hit true, since we're in an or's loop
                 if (result) {
                     break;
@@ -405,7 +385,7 @@ public class Acl {
 
             // if we got a false, then return that, because we're in an and loop
             if (!result) {
-                return result;
+                return false;
             }
         }
 
@@ -414,113 +394,158 @@ public class Acl {
         return true;
     }
 
-    private boolean evalAclStatement(String statement, Map<String, Object> context) {
-        boolean result;
-        PatternMatcher matcher = new Perl5Matcher();
-        boolean itMatches = matcher.matches(statement, parsePattern);
-        MatchResult matchResult = matcher.getMatch();
-        if (!itMatches || matchResult == null || matchResult.groups() < EXPECTED_GROUPS) {
-            throw new IllegalArgumentException(
-                    LocalizationService.getInstance().getMessage(
-                            "bad-syntax", statement));
+    /**
+     * Splits an ACL string into expressions of statements bound to their handlers.
+     * Statements that cannot be parsed or refer to unknown handlers only fail
+     * when they get evaluated, as evaluation may stop before reaching them.
+     */
+    private List<List<Statement>> compile(String acl) {
+        List<List<Statement>> compiled = compiledAcls.get(acl);
+        if (compiled != null) {
+            return compiled;
         }
 
-        String negation = matchResult.group(NEGATION_GROUP);
-        String func = matchResult.group(HANDLERNAME_GROUP);
-        String params = matchResult.group(PARAM_GROUP);
-
-        log.debug("num groups: {}", matchResult.groups());
-        log.debug("not: {}", negation);
-        log.debug("handler: {}", func);
-        log.debug("params: {}", params);
-
-        boolean negated = negation != null;
-
-        InstanceMethodPair pair = handlers.get(func);
+        compiled = new ArrayList<>();
+        for (String expression : ACL_SPLIT_REGEX.split(acl)) {
+            List<Statement> statements = new ArrayList<>();
+            for (String statement : EXPR_SPLIT_REGEX.split(expression)) {
+                statements.add(compileStatement(statement));
+            }
+            compiled.add(statements);
+        }
 
-        if (pair == null) {
-            Object[] args = new Object[3];
-            args[0] = func;
-            args[1] = statement;
-            args[2] = new TreeSet<>(handlers.keySet()).toString();
-            throw new IllegalArgumentException(
-                    LocalizationService.getInstance().getMessage(
-                            "bad-handler", args));
+        if (compiledAcls.size() < MAX_COMPILED_ACLS) {
+            compiledAcls.put(acl, compiled);
         }
+        return compiled;
+    }
 
-        Method handler = pair.getMethod();
+    private Statement compileStatement(String statement) {
+        Matcher matcher = STMT_PARSE_REGEX.matcher(statement);
+        if (!matcher.matches()) {
+            return new Statement(statement, false, null, null);
+        }
 
-        String[] paramArray = params.split(PARAM_SPLIT_REGEX);
+        String func = matcher.group(HANDLERNAME_GROUP);
+        String[] paramArray = PARAM_SPLIT_REGEX.split(matcher.group(PARAM_GROUP));
 
         // if no args were givien, make sure we pass a 0-length array
         if (paramArray.length == 1 && paramArray[0].trim().equals("")) {
             paramArray = new String[0];
         }
 
-        result = invokeAcl(handler, pair.getInstance(), statement, context, paramArray);
-
-        if (negated) {
-            result = !result;
-        }
-        return result;
+        boolean negated = matcher.group(NEGATION_GROUP) != null;
+        return new Statement(statement, negated, func, paramArray);
     }
 
-    private boolean invokeAcl(Method handler, Object instance, String statement,
-                              Map<String, Object> context, String[] paramArray) {
-        boolean result;
-        try {
-            result = (Boolean) handler.invoke(instance, context, paramArray);
-        }
-        // we shouldn't hit any of these exceptions, because the
-        // handler classes should have been adequately junit-tested
-        catch (IllegalAccessException iae) {
-            Object[] args = new Object[3];
-            args[0] = handler.getName();
-            args[1] = statement;
-            args[2] = iae.getMessage();
-
-            throw new MethodInvocationException(
-                    LocalizationService.getInstance().getMessage(
-                            "illegal-access", args), iae);
+    /**
+     * A parsed statement of an ACL string.
+     */
+    private class Statement {
+        private final String text;
+        private final boolean negated;
+        private final String func;
+        private final String[] params;
+        private final HandlerBinding handler;
+
+        Statement(String textIn, boolean negatedIn, String funcIn, String[] paramsIn) {
+            text = textIn;
+            negated = negatedIn;
+            func = funcIn;
+            params = paramsIn;
+            handler = funcIn != null ? handlers.get(funcIn) : null;
         }
-        catch (InvocationTargetException ite) {
-            Object[] args = new Object[3];
-            args[0] = handler.getName();
-            args[1] = statement;
-            args[2] = ite.getMessage();
-
-            throw new MethodInvocationException(
-                    LocalizationService.getInstance().getMessage(
-                            "invocation-target-exception", args), ite);
+
+        boolean eval(Map<String, Object> context) {
+            log.debug("statement: {}", text);
+            if (func == null) {
+                throw new IllegalArgumentException(
+                        LocalizationService.getInstance().getMessage(
+                                "bad-syntax", text));
+            }
+            if (handler == null) {
+                Object[] args = new Object[3];
+                args[0] = func;
+                args[1] = text;
+                args[2] = new TreeSet<>(handlers.keySet()).toString();
+                throw new IllegalArgumentException(
+                        LocalizationService.getInstance().getMessage(
+                                "bad-handler", args));
+            }
+
+            // handlers get their own copy of the parameters, as they may change them
+            String[] paramArray = params.clone();
+            boolean result = AclRequestCache.lookup(handler, params, context,
+                    () -> handler.invoke(text, context, paramArray));
+            return negated != result;
         }
-        return result;
     }
 
-    private static class InstanceMethodPair {
-        private Method method;
-        private Object instance;
+    /**
+     * An ACL handler method bound to the handler instance.
+     */
+    private static class HandlerBinding {
+        private final String name;
+        private final MethodHandle handle;
+        private final IllegalAccessException accessError;
+
         /**
-         * Create a new InstanceMethodPair
+         * Create a new HandlerBinding
          * @param obj The object on which to call the method
          * @param meth The method to call
          */
-        InstanceMethodPair(Object obj, Method meth) {
-            instance = obj;
-            method = meth;
-        }
-        /**
-         * Get the object on which to invoke the method
-         * @return the object on which to invoke the method
-         */
-        public Object getInstance() {
-            return instance;
+        HandlerBinding(Object obj, Method meth) {
+            name = meth.getName();
+            MethodHandle mh = null;
+            IllegalAccessException error = null;
+            try {
+                mh = MethodHandles.lookup().unreflect(meth);
+                if (!Modifier.isStatic(meth.getModifiers())) {
+                    mh = mh.bindTo(obj);
+                }
+            }
+            catch (IllegalAccessException e) {
+                // reported when the handler is used, like a failed reflective call
+                error = e;
+            }
+            handle = mh;
+            accessError = error;
         }
+
         /**
-         * Get the method
-         * @return the Method to invoke
+         * Call the handler method
+         * @param statement the statement being evaluated, for error messages
+         * @param context the ACL context
+         * @param params the statement parameters
+         * @return the handler result
          */
-        public Method getMethod() {
-            return method;
+        boolean invoke(String statement, Map<String, Object> context, String[] params) {
+            // we shouldn't hit any of these exceptions, because the
+            // handler classes should have been adequately junit-tested
+            if (accessError != null) {
+                Object[] args = new Object[3];
+                args[0] = name;
+                args[1] = statement;
+                args[2] = accessError.getMessage();
+
+                throw new MethodInvocationException(
+                        LocalizationService.getInstance().getMessage(
+                                "illegal-access", args), accessError);
+            }
+            try {
+                return (boolean) handle.invokeExact(context, params);
+            }
+            catch (Throwable t) {
+                InvocationTargetException ite = new InvocationTargetException(t);
+                Object[] args = new Object[3];
+                args[0] = name;
+                args[1] = statement;
+                args[2] = ite.getMessage();
+
+                throw new MethodInvocationException(
+                        LocalizationService.getInstance().getMessage(
+                                "invocation-target-exception", args), ite);
+            }
         }
     }
 }
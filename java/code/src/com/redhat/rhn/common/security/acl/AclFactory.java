@@ -17,18 +17,24 @@ package com.redhat.rhn.common.security.acl;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Class to assist with creating Acls.  This Factory will setup
  * the Acl class as well as setup the default as well as the mixin AclHandlers
  * associated with the Acl.
  *
- * TODO - consider caching the Acl instances within the Factory so we don't have to
- * instantiate new ones each time. Not sure how to do this yet.
+ * The Acl instances are cached per list of mixins, so that the handlers are
+ * only introspected once and the ACL strings only parsed once. AclHandlers
+ * must therefore be stateless, and no further handlers may be registered on
+ * the returned instances.
  *
  */
 public class AclFactory {
 
     private final Access access;
+    private final Map<String, Acl> acls = new ConcurrentHashMap<>();
 
     /**
      * hidden constructor
@@ -44,11 +50,15 @@ public class AclFactory {
      * @return Acl created
      */
     public Acl getAcl(String mixinsIn) {
+        return acls.computeIfAbsent(StringUtils.defaultString(mixinsIn), this::createAcl);
+    }
+
+    private Acl createAcl(String mixinsIn) {
         Acl aclObj = new Acl();
         aclObj.registerHandler(access);
 
         // Add the mixin handlers as well.
-        if (mixinsIn != null) {
+        if (!mixinsIn.isEmpty()) {
             String[] mixin = StringUtils.split(mixinsIn, ",");
             for (String sIn : mixin) {
                 if (!sIn.equals(Access.class.getName())) {
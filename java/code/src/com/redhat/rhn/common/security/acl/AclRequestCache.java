@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.security.acl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Per-thread memo of ACL handler results for the duration of a request.
+ *
+ * Rendering a page evaluates the same handlers over and over, for instance for
+ * every node of the navigation tree, and many of them hit the database. Within
+ * an open scope, the result of a handler is reused when it is called again with
+ * the same parameters and an equal context. Outside of a scope handlers are
+ * always called.
+ *
+ * Scopes are opened by the {@link com.redhat.rhn.frontend.servlets.SessionFilter}
+ * around each web request:
+ * <pre>
+ *     boolean opened = AclRequestCache.open();
+ *     try {
+ *         ...
+ *     }
+ *     finally {
+ *         if (opened) {
+ *             AclRequestCache.close();
+ *         }
+ *     }
+ * </pre>
+ */
+public class AclRequestCache {
+
+    private static final ThreadLocal<Map<List<Object>, Boolean>> RESULTS = new ThreadLocal<>();
+
+    private AclRequestCache() {
+    }
+
+    /**
+     * Opens a scope for the current thread, unless one is open already.
+     * @return true if a scope was opened, in which case it has to be closed by the caller
+     */
+    public static boolean open() {
+        if (RESULTS.get() != null) {
+            return false;
+        }
+        RESULTS.set(new HashMap<>());
+        return true;
+    }
+
+    /**
+     * Closes the scope of the current thread and drops its results.
+     */
+    public static void close() {
+        RESULTS.remove();
+    }
+
+    /**
+     * @return true if a scope is open for the current thread
+     */
+    public static boolean isOpen() {
+        return RESULTS.get() != null;
+    }
+
+    /**
+     * Returns the memoized result of a handler call, calling it if needed.
+     * @param handler the handler binding, compared by identity
+     * @param params the parameters of the call
+     * @param context the ACL context of the call
+     * @param call calls the handler
+     * @return the result of the handler
+     */
+    static boolean lookup(Object handler, String[] params, Map<String, Object> context, BooleanSupplier call) {
+        Map<List<Object>, Boolean> results = RESULTS.get();
+        if (results == null) {
+            return call.getAsBoolean();
+        }
+
+        List<Object> key = Arrays.asList(handler, Arrays.asList(params), snapshot(context));
+        Boolean result = results.get(key);
+        if (result == null) {
+            result = call.getAsBoolean();
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Copy of the context as handlers may change it. Arrays, like request
+     * parameter values, are compared by content.
+     */
+    private static Map<String, Object> snapshot(Map<String, Object> context) {
+        Map<String, Object> copy = new HashMap<>();
+        if (context != null) {
+            context.forEach((k, v) -> copy.put(k, v instanceof Object[] ? Arrays.asList((Object[]) v) : v));
+        }
+        return copy;
+    }
+}
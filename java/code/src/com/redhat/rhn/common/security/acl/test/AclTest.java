@@ -15,12 +15,14 @@
 
 package com.redhat.rhn.common.security.acl.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.redhat.rhn.common.security.acl.Acl;
 import com.redhat.rhn.common.security.acl.AclHandler;
+import com.redhat.rhn.common.security.acl.AclRequestCache;
 import com.redhat.rhn.testing.RhnBaseTestCase;
 
 import com.mockobjects.ExpectationValue;
@@ -309,6 +311,65 @@ public class AclTest extends RhnBaseTestCase {
     }
 
 
+    @Test
+    public void testUnreachedBadStatement() {
+        // statements are only checked when evaluated, like before they were compiled
+        assertTrue(acl.evalAcl(context, "handler_zero(true) or handler_does_not_exist()"));
+        assertFalse(acl.evalAcl(context, "handler_zero(); not a statement"));
+    }
+
+    @Test
+    public void testCompiledAclWithNewHandler() {
+        try {
+            acl.evalAcl(context, "xml_test()");
+            fail("expected to fail");
+        }
+        catch (IllegalArgumentException e) {
+            // good
+        }
+        acl.registerHandler(MockAclHandlerWithFunkyNames.class);
+        assertTrue(acl.evalAcl(context, "xml_test()"));
+    }
+
+    @Test
+    public void testRequestCache() {
+        CountingAclHandler counting = new CountingAclHandler();
+        acl.registerHandler(counting);
+
+        assertTrue(acl.evalAcl(context, "counted(a)"));
+        assertTrue(acl.evalAcl(context, "counted(a)"));
+        assertEquals(2, counting.calls);
+
+        assertTrue(AclRequestCache.open());
+        try {
+            assertFalse(AclRequestCache.open());
+            assertTrue(acl.evalAcl(context, "counted(a)"));
+            assertFalse(acl.evalAcl(context, "not counted(a)"));
+            assertTrue(acl.evalAcl(context, "handler_zero(true); counted(a)"));
+            assertEquals(3, counting.calls);
+
+            // other parameters or context: called again
+            assertTrue(acl.evalAcl(context, "counted(b)"));
+            context.put("sid", new String[]{"1000"});
+            assertTrue(acl.evalAcl(context, "counted(a)"));
+            assertEquals(5, counting.calls);
+
+            // request parameter values are compared by content
+            context.put("sid", new String[]{"1000"});
+            assertTrue(acl.evalAcl(context, "counted(a)"));
+            assertEquals(5, counting.calls);
+
+        }
+        finally {
+            AclRequestCache.close();
+        }
+
+        // results are dropped when the scope is closed
+        assertFalse(AclRequestCache.isOpen());
+        assertTrue(acl.evalAcl(context, "counted(a)"));
+        assertEquals(6, counting.calls);
+    }
+
     // HELPER CLASSES
 
     /* Mock AclHandler that can be used to check that the Acl class
@@ -413,4 +474,14 @@ public class AclTest extends RhnBaseTestCase {
            return true;
        }
    }
+
+   /** A handler counting its calls */
+   public static class CountingAclHandler implements AclHandler {
+       private int calls;
+
+       public boolean aclCounted(Map<String, Object> ctx, String[] params) {
+           calls++;
+           return true;
+       }
+   }
 }
@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * Thread safe cache holding a bounded number of entries for a limited time.
+ *
+ * The least recently used entry is dropped when the cache is full, and entries
+ * are dropped once they are older than the time to live. Subclasses can also
+ * reject values which are not valid anymore, see {@link #isValid(Object)}.
+ * Lookups answered from the cache and missed lookups are counted.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+
+    private final Map<K, CachedValue<V>> entries;
+    private final long ttlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Standard constructor.
+     * @param maxSize the maximum number of entries, 0 disables the cache
+     * @param ttlMillisIn the time in milliseconds after which an entry is dropped
+     */
+    public BoundedCache(int maxSize, long ttlMillisIn) {
+        ttlMillis = ttlMillisIn;
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value cached for a key, if it is neither expired nor invalid.
+     * @param key the key
+     * @return the value or null
+     */
+    public V get(K key) {
+        CachedValue<V> cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+            if (cached != null && !isFresh(cached)) {
+                entries.remove(key);
+                cached = null;
+            }
+        }
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return cached.value;
+    }
+
+    /**
+     * Caches a value, unless it is already invalid.
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        if (!isValid(value)) {
+            return;
+        }
+        synchronized (entries) {
+            entries.put(key, new CachedValue<>(value));
+        }
+    }
+
+    /**
+     * Drops the entry of a key.
+     * @param key the key
+     */
+    public void remove(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drops the entries matching a condition.
+     * @param condition tells whether to drop an entry, given its key and value
+     */
+    public void removeIf(BiPredicate<? super K, ? super V> condition) {
+        synchronized (entries) {
+            entries.entrySet().removeIf(e -> condition.test(e.getKey(), e.getValue().value));
+        }
+    }
+
+    /**
+     * Drops all the entries.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups not answered from the cache
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Tells whether a value can still be used, regardless of its age. Values are
+     * always valid unless overridden.
+     * @param value the value
+     * @return true if the value is valid
+     */
+    protected boolean isValid(V value) {
+        return true;
+    }
+
+    private boolean isFresh(CachedValue<V> cached) {
+        return System.currentTimeMillis() - cached.cachedAt < ttlMillis && isValid(cached.value);
+    }
+
+    /**
+     * A value with the time it was cached.
+     */
+    private static class CachedValue<V> {
+        private final V value;
+        private final long cachedAt;
+
+        CachedValue(V valueIn) {
+            value = valueIn;
+            cachedAt = System.currentTimeMillis();
+        }
+    }
+}
@@ -15,7 +15,6 @@
 package com.redhat.rhn.common.util;
 
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -38,12 +37,10 @@ public class CompressionUtil {
      */
     public static byte[] gzipCompress(String string) {
         ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        try {
-            GZIPOutputStream gz = new GZIPOutputStream(stream);
-            BufferedOutputStream bufos = new BufferedOutputStream(gz, 5000000);
-            bufos.write(string.getBytes());
-            bufos.flush();
-            bufos.close();
+        // the whole string is written at once, buffering would only cost an allocation per call
+        try (GZIPOutputStream gz = new GZIPOutputStream(stream)) {
+            gz.write(string.getBytes());
+            gz.finish();
             return stream.toByteArray();
         }
         catch (IOException e) {
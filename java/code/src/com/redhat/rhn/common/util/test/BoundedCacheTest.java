@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.common.util.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.redhat.rhn.common.util.BoundedCache;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link BoundedCache}.
+ */
+public class BoundedCacheTest {
+
+    @Test
+    public void testLeastRecentlyUsedDropped() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, 60000);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertEquals(1, cache.get("a"));
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testExpiredEntriesDropped() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, 0);
+        cache.put("a", 1);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInvalidValuesNotCached() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, 60000) {
+            @Override
+            protected boolean isValid(Integer value) {
+                return value > 0;
+            }
+        };
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", -1);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get("c"));
+        assertEquals(1, cache.get("a"));
+    }
+
+    @Test
+    public void testRemoveIf() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 60000);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("c", 3);
+        cache.removeIf((key, value) -> key.equals("a") || value == 3);
+
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.get("b"));
+        cache.remove("b");
+        assertEquals(0, cache.size());
+    }
+}
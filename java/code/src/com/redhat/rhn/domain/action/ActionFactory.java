@@ -111,6 +111,10 @@ import java.util.stream.Stream;
  */
 public class ActionFactory extends HibernateFactory {
 
+    /** PostgreSQL notification channel signaling the commit of scheduled actions */
+    public static final String ACTION_SCHEDULED_CHANNEL = "suse_action_scheduled";
+    private static final int ACTION_SCHEDULED_IDS_PER_NOTIFICATION = 400;
+
     private static ActionFactory singleton = new ActionFactory();
     private static final Logger LOG = LogManager.getLogger(ActionFactory.class);
     private static Set<String> actionArchTypes;
@@ -541,8 +545,37 @@ public class ActionFactory extends HibernateFactory {
      * @return the count
      */
     public static Integer getServerActionCountByStatus(Action action, ActionStatus status) {
+        return getServerActionCountByStatus(action.getId(), status);
+    }
+
+    /**
+     * Lookup the number of server actions for a particular action that have a certain status,
+     * without loading the action
+     * @param actionId the action id
+     * @param status the status you want
+     * @return the count
+     */
+    public static Integer getServerActionCountByStatus(Long actionId, ActionStatus status) {
         return singleton.lookupObjectByNamedQuery("Action.getServerActionCountByStatus",
-                Map.of("aid", action.getId(), "stid", status.getId()));
+                Map.of("aid", actionId, "stid", status.getId()));
+    }
+
+    /**
+     * Notifies the listeners of {@link #ACTION_SCHEDULED_CHANNEL} that the given actions have been scheduled.
+     * The notification is only delivered once the current transaction commits, and not at all if it
+     * rolls back, so that the listeners can rely on the actions being visible when they get it.
+     * @param actionIds the ids of the scheduled actions
+     */
+    public static void notifyActionsScheduled(List<Long> actionIds) {
+        // NOTIFY payloads are limited to 8000 bytes
+        for (int i = 0; i < actionIds.size(); i += ACTION_SCHEDULED_IDS_PER_NOTIFICATION) {
+            String payload = actionIds.subList(i, Math.min(i + ACTION_SCHEDULED_IDS_PER_NOTIFICATION,
+                    actionIds.size())).stream().map(String::valueOf).collect(Collectors.joining(","));
+            getSession().createNativeQuery("SELECT count(pg_notify(:channel, :payload))")
+                    .setParameter("channel", ACTION_SCHEDULED_CHANNEL)
+                    .setParameter("payload", payload)
+                    .getSingleResult();
+        }
     }
 
 
@@ -661,9 +694,9 @@ public class ActionFactory extends HibernateFactory {
 
         singleton.saveObject(actionIn);
         if (actionIn.getServerActions() != null) {
-            actionIn.getServerActions().stream()
+            SystemManager.updateSystemOverview(actionIn.getServerActions().stream()
                     .map(sa -> sa.getServerId())
-                    .forEach(sid -> SystemManager.updateSystemOverview(sid));
+                    .collect(Collectors.toList()));
         }
         return actionIn;
     }
@@ -674,9 +707,9 @@ public class ActionFactory extends HibernateFactory {
      */
     public static void remove(Action actionIn) {
         singleton.removeObject(actionIn);
-        actionIn.getServerActions().stream()
+        SystemManager.updateSystemOverview(actionIn.getServerActions().stream()
                 .map(sa -> sa.getServerId())
-                .forEach(sid -> SystemManager.updateSystemOverview(sid));
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -806,10 +839,10 @@ public class ActionFactory extends HibernateFactory {
         .setParameter("failed", ActionFactory.STATUS_FAILED)
         .setParameter("queued", ActionFactory.STATUS_QUEUED).executeUpdate();
         removeInvalidResults(action);
-        action.getServerActions().stream()
+        SystemManager.updateSystemOverview(action.getServerActions().stream()
                 .filter(sa -> sa.isFailed())
                 .map(sa -> sa.getServerId())
-                .forEach(sid -> SystemManager.updateSystemOverview(sid));
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -824,9 +857,9 @@ public class ActionFactory extends HibernateFactory {
         .setParameter("tries", tries)
         .setParameter("queued", ActionFactory.STATUS_QUEUED).executeUpdate();
         removeInvalidResults(action);
-        action.getServerActions().stream()
+        SystemManager.updateSystemOverview(action.getServerActions().stream()
                 .map(sa -> sa.getServerId())
-                .forEach(sid -> SystemManager.updateSystemOverview(sid));
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -896,7 +929,7 @@ public class ActionFactory extends HibernateFactory {
         parameters.put("status", ActionFactory.STATUS_PICKED_UP.getId());
 
         udpateByIds(serverIds, "Action.updateServerActionsPickedUp", "server_ids", parameters);
-        serverIds.forEach(sid -> SystemManager.updateSystemOverview(sid));
+        SystemManager.updateSystemOverview(serverIds);
     }
 
     /**
@@ -912,7 +945,7 @@ public class ActionFactory extends HibernateFactory {
         parameters.put("status", status.getId());
 
         udpateByIds(serverIds, "Action.updateServerActions", "server_ids", parameters);
-        serverIds.forEach(sid -> SystemManager.updateSystemOverview(sid));
+        SystemManager.updateSystemOverview(serverIds);
     }
 
     /**
@@ -929,7 +962,7 @@ public class ActionFactory extends HibernateFactory {
             actionsId, "action_ids", query, query::list, new ArrayList<>(), ListUtils::union
         );
 
-        updatedServerIds.forEach(SystemManager::updateSystemOverview);
+        SystemManager.updateSystemOverview(updatedServerIds);
     }
 
     /**
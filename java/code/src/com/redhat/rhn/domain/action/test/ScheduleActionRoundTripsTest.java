@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.domain.action.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.domain.action.Action;
+import com.redhat.rhn.domain.action.ActionFactory;
+import com.redhat.rhn.domain.action.server.ServerAction;
+import com.redhat.rhn.domain.server.Server;
+import com.redhat.rhn.domain.server.test.ServerFactoryTest;
+import com.redhat.rhn.domain.task.Task;
+import com.redhat.rhn.testing.BaseTestCaseWithUser;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the database round trips needed to write entities. The benchmark schedules
+ * an action against many systems, with and without JDBC batching.
+ */
+public class ScheduleActionRoundTripsTest extends BaseTestCaseWithUser {
+
+    private static final Logger LOG = LogManager.getLogger(ScheduleActionRoundTripsTest.class);
+
+    private static final int SYSTEMS = 10000;
+    private static final int BATCH_SIZE = 50;
+
+    @Test
+    @Disabled("Benchmark, run manually")
+    public void benchmarkScheduleActionRoundTrips() {
+        List<Long> serverIds = createServers(SYSTEMS);
+
+        long unbatched = scheduleAction(serverIds, 0);
+        long batched = scheduleAction(serverIds, BATCH_SIZE);
+
+        LOG.info("Scheduling an action against {} systems took {} round trips without batching, {} with batches " +
+                "of {}", SYSTEMS, unbatched, batched, BATCH_SIZE);
+        assertTrue(unbatched >= SYSTEMS);
+        assertTrue(batched <= SYSTEMS / BATCH_SIZE + 10);
+    }
+
+    @Test
+    public void testPooledIdAllocation() {
+        Session session = HibernateFactory.getSession();
+        RoundTripCounter counter = new RoundTripCounter();
+        session.addEventListeners(counter);
+
+        // only the ids are fetched before the flush, in blocks of 50
+        for (int i = 0; i < 100; i++) {
+            Task task = new Task();
+            task.setOrg(user.getOrg());
+            task.setName("round_trips_test");
+            task.setData((long) i);
+            task.setPriority(0);
+            task.setEarliest(new Date());
+            session.save(task);
+        }
+        LOG.info("Allocating the ids of 100 tasks took {} round trips", counter.getCount());
+        assertTrue(counter.getCount() <= 3);
+        session.flush();
+    }
+
+    /**
+     * Creates systems as copies of a test server, so that every mandatory column
+     * gets a valid value.
+     */
+    private List<Long> createServers(int count) {
+        Server template = ServerFactoryTest.createTestServer(user);
+        Session session = HibernateFactory.getSession();
+        session.flush();
+        int created = session.createNativeQuery(
+                "INSERT INTO rhnServer (id, org_id, digital_server_id, server_arch_id, os, release, name, secret, " +
+                "                       creator_id, auto_update, contact_method_id, last_boot, payg) " +
+                "SELECT sequence_nextval('rhn_server_id_seq'), s.org_id, 'round-trips-' || g, s.server_arch_id, " +
+                "       s.os, s.release, 'round-trips-' || g, s.secret, " +
+                "       s.creator_id, s.auto_update, s.contact_method_id, s.last_boot, s.payg " +
+                "  FROM rhnServer s, generate_series(1, :count) g " +
+                " WHERE s.id = :template")
+                .setParameter("template", template.getId())
+                .setParameter("count", count)
+                .executeUpdate();
+        assertEquals(count, created);
+        List<?> ids = session.createNativeQuery(
+                "SELECT id FROM rhnServer WHERE org_id = :org AND digital_server_id LIKE 'round-trips-%'")
+                .setParameter("org", user.getOrg().getId())
+                .getResultList();
+        assertEquals(count, ids.size());
+        return ids.stream()
+                .map(id -> ((Number) id).longValue())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Writes an action and its server actions, returning the round trips of the flush.
+     */
+    private long scheduleAction(List<Long> serverIds, int batchSize) {
+        Session session = HibernateFactory.getSession();
+        session.setJdbcBatchSize(batchSize);
+
+        Action action = ActionFactoryTest.createEmptyAction(user, ActionFactory.TYPE_PACKAGES_REFRESH_LIST);
+        session.save(action);
+        for (Long serverId : serverIds) {
+            ServerAction sa = new ServerAction();
+            sa.setStatus(ActionFactory.STATUS_QUEUED);
+            sa.setRemainingTries(5L);
+            sa.setServerId(serverId);
+            sa.setParentAction(action);
+            session.save(sa);
+        }
+
+        RoundTripCounter counter = new RoundTripCounter();
+        session.addEventListeners(counter);
+        session.flush();
+        session.clear();
+        return counter.getCount();
+    }
+
+    /**
+     * Counts the statements and the batches sent to the database.
+     */
+    private static class RoundTripCounter extends BaseSessionEventListener {
+        private long count;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            count++;
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            count++;
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
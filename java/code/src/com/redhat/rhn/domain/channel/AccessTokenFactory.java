@@ -18,6 +18,7 @@ import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.domain.server.MinionServer;
 
 import com.suse.manager.webui.utils.DownloadTokenBuilder;
+import com.suse.manager.webui.utils.DownloadTokenCache;
 import com.suse.utils.Opt;
 
 import org.apache.logging.log4j.LogManager;
@@ -87,12 +88,16 @@ public class AccessTokenFactory extends HibernateFactory {
     }
 
     /**
-     * Saves the AccessToken to the database.
+     * Saves the AccessToken to the database. Invalid tokens are dropped from the
+     * cache of the download endpoint.
      * @param accessToken the AccessToken to save
      * @return the saved AccessToken
      */
     public static AccessToken save(AccessToken accessToken) {
         singleton.saveObject(accessToken);
+        if (!accessToken.getValid()) {
+            evictCachedToken(accessToken.getToken());
+        }
         return accessToken;
     }
 
@@ -228,6 +233,12 @@ public class AccessTokenFactory extends HibernateFactory {
      */
     public static void delete(AccessToken token) {
         HibernateFactory.getSession().delete(token);
+        evictCachedToken(token.getToken());
+    }
+
+    private static void evictCachedToken(String token) {
+        DownloadTokenCache cache = DownloadTokenCache.getInstance();
+        HibernateFactory.doNowAndAfterCommit(() -> cache.remove(token));
     }
 
     /**
@@ -45,6 +45,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -408,6 +409,17 @@ public class ChannelFactory extends HibernateFactory {
                 Map.of("channel_label", channelLabel, ORG_ID, orgId)) > 0;
     }
 
+    /**
+     * Returns the last time the content of a channel changed.
+     *
+     * @param channelLabel the channel label
+     * @return the last modification date, null if the channel does not exist
+     */
+    public static Date lookupLastModifiedByLabel(String channelLabel) {
+        return singleton.lookupObjectByNamedQuery("Channel.findLastModifiedByLabel",
+                Map.of(LABEL, channelLabel));
+    }
+
     /**
      * Checks if a channel is accessible by a User.
      *
@@ -1155,13 +1167,38 @@ public class ChannelFactory extends HibernateFactory {
      */
     public static void addErrataToChannel(Set<Long> eids, Long cid) {
         WriteMode m = ModeFactory.getWriteMode(CHANNEL_QUERIES,
-                "add_cloned_erratum_to_channel");
+                "add_cloned_errata_to_channel");
         Map<String, Object> params = new HashMap<>();
         params.put("cid", cid);
-        for (Long eid : eids) {
-            params.put("eid", eid);
-            m.executeUpdate(params);
+        m.executeUpdate(params, new ArrayList<>(eids));
+    }
+
+    /**
+     * Sets the packages of a channel. Only the difference to the current content of the channel is
+     * written, with set based statements, and the channel is refreshed afterwards.
+     * @param channel the channel
+     * @param packageIds the ids of the packages the channel has to contain
+     */
+    public static void setPackages(Channel channel, Set<Long> packageIds) {
+        Set<Long> currentIds = new HashSet<>(getPackageIds(channel.getId()));
+        List<Long> removedIds = currentIds.stream()
+                .filter(id -> !packageIds.contains(id))
+                .collect(Collectors.toList());
+        List<Long> addedIds = packageIds.stream()
+                .filter(id -> !currentIds.contains(id))
+                .collect(Collectors.toList());
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("cid", channel.getId());
+        if (!removedIds.isEmpty()) {
+            WriteMode remove = ModeFactory.getWriteMode(CHANNEL_QUERIES, "remove_packages");
+            remove.executeUpdate(params, removedIds);
+        }
+        if (!addedIds.isEmpty()) {
+            WriteMode add = ModeFactory.getWriteMode(CHANNEL_QUERIES, "add_channel_packages");
+            add.executeUpdate(params, addedIds);
         }
+        HibernateFactory.getSession().refresh(channel);
     }
 
     /**
@@ -34,6 +34,11 @@ public class ModularPackageFilter extends PackageFilter {
         return pack.getPackageEvr().getRelease().contains(".module");
     }
 
+    @Override
+    public boolean test(PackageFilterRow pack) {
+        return pack.getRelease().contains(".module");
+    }
+
     @Override
     public void setCriteria(FilterCriteria criteriaIn) {
         throw new UnsupportedOperationException("Criteria cannot be set for the modular package filter.");
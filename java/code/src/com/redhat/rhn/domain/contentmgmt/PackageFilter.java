@@ -17,7 +17,10 @@ package com.redhat.rhn.domain.contentmgmt;
 
 import com.redhat.rhn.domain.rhnpackage.Package;
 import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+import com.redhat.rhn.domain.rhnpackage.PackageType;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.regex.Pattern;
 
 import javax.persistence.DiscriminatorValue;
@@ -32,72 +35,110 @@ import javax.persistence.Transient;
 public class PackageFilter extends ContentFilter<Package> {
 
     private Pattern pattern;
+    private String nameAndArch;
+    private final Map<PackageType, PackageEvr> filterEvrs = new EnumMap<>(PackageType.class);
 
     @Override
     public boolean test(Package pack) {
+        if (getCriteria().getMatcher() == FilterCriteria.Matcher.PROVIDES_NAME) {
+            String value = getCriteria().getValue();
+            return pack.getProvides().stream()
+                    .map(p -> p.getCapability().getName())
+                    .anyMatch(n -> n.equals(value));
+        }
+        return test(new PackageFilterRow(pack.getId(), pack.getPackageName().getName(), pack.getPackageEvr(),
+                pack.getPackageArch().getLabel()));
+    }
+
+    /**
+     * Tests a package projection against this filter. The names of the capabilities matched by a
+     * {@code provides_name} criteria have to be attached to the row beforehand.
+     * @param pack the package
+     * @return true if the filter matches the package
+     */
+    public boolean test(PackageFilterRow pack) {
         FilterCriteria.Matcher matcher = getCriteria().getMatcher();
         String field = getCriteria().getField();
         String value = getCriteria().getValue();
 
         switch (matcher) {
             case CONTAINS:
-                return getField(pack, field, String.class).contains(value);
+                return getField(pack, field).contains(value);
             case LOWER:
-                return checkNameAndArch(field, value, pack) && pack.getPackageEvr().compareTo(
-                        PackageEvr.parsePackageEvr(pack.getPackageType(), getEvr(field, value))) < 0;
+                return checkNameAndArch(field, value, pack) && compareEvr(field, value, pack) < 0;
             case LOWEREQ:
-                return checkNameAndArch(field, value, pack) && pack.getPackageEvr().compareTo(
-                        PackageEvr.parsePackageEvr(pack.getPackageType(), getEvr(field, value))) <= 0;
+                return checkNameAndArch(field, value, pack) && compareEvr(field, value, pack) <= 0;
             case EQUALS:
-                return getField(pack, field, String.class).equals(value);
+                return getField(pack, field).equals(value);
             case GREATEREQ:
-                return checkNameAndArch(field, value, pack) && pack.getPackageEvr().compareTo(
-                        PackageEvr.parsePackageEvr(pack.getPackageType(), getEvr(field, value))) >= 0;
+                return checkNameAndArch(field, value, pack) && compareEvr(field, value, pack) >= 0;
             case GREATER:
-                return checkNameAndArch(field, value, pack) && pack.getPackageEvr().compareTo(
-                        PackageEvr.parsePackageEvr(pack.getPackageType(), getEvr(field, value))) > 0;
+                return checkNameAndArch(field, value, pack) && compareEvr(field, value, pack) > 0;
             case MATCHES:
                 if (pattern == null) {
                     pattern = Pattern.compile(value);
                 }
-                return pattern.matcher(getField(pack, field, String.class)).matches();
+                return pattern.matcher(getField(pack, field)).matches();
             case PROVIDES_NAME:
-                return pack.getProvides().stream()
-                        .map(p -> p.getCapability().getName())
-                        .anyMatch(n -> n.equals(value));
+                return pack.provides(value);
             default:
                 throw new UnsupportedOperationException("Matcher " + matcher + " not supported");
         }
     }
 
-    private static <T> T getField(Package pack, String field, Class<T> type) {
+    /**
+     * Sets the criteria and drops the values parsed from the previous one
+     *
+     * @param criteriaIn - the criteria
+     */
+    @Override
+    public void setCriteria(FilterCriteria criteriaIn) {
+        super.setCriteria(criteriaIn);
+        pattern = null;
+        nameAndArch = null;
+        filterEvrs.clear();
+    }
+
+    private static String getField(PackageFilterRow pack, String field) {
         switch (field) {
             case "name":
-                return type.cast(pack.getPackageName().getName());
+                return pack.getName();
             case "nevr":
-                return type.cast(pack.getNameEvr());
+                return pack.getNameEvr();
             case "nevra":
                 //Case for null epoch: Module metadata reports epoch as '0' even if there's none. We need to match it.
-                // pack.getNameEvra() omits the epoch if null so instead, pack.getNevraWithEpoch() is used here.
-                return type.cast(pack.getNevraWithEpoch());
+                return pack.getNevraWithEpoch();
             default:
                 throw new UnsupportedOperationException("Field " + field + " not supported");
         }
     }
 
-    private static boolean checkNameAndArch(String field, String value, Package pack) {
+    private boolean checkNameAndArch(String field, String value, PackageFilterRow pack) {
         if (field.equals("nevr")) {
-            return value.replaceAll("(.*)-(.*:)?(.*)-(.*)", "$1").equals(pack.getPackageName().getName());
+            if (nameAndArch == null) {
+                nameAndArch = value.replaceAll("(.*)-(.*:)?(.*)-(.*)", "$1");
+            }
+            return nameAndArch.equals(pack.getName());
         }
         else if (field.equals("nevra")) {
-            return value.replaceAll("(.*)-(.*:)?(.*)-(.*)\\.(.*)", "$1$5")
-                    .equals(pack.getPackageName().getName() + pack.getPackageArch().getLabel());
+            if (nameAndArch == null) {
+                nameAndArch = value.replaceAll("(.*)-(.*:)?(.*)-(.*)\\.(.*)", "$1$5");
+            }
+            return nameAndArch.equals(pack.getName() + pack.getArch());
         }
         else {
             throw new UnsupportedOperationException("Field " + field + " not supported for filter Package (NEVRA)");
         }
     }
 
+    // the evr of the criteria is parsed once per package type
+    private int compareEvr(String field, String value, PackageFilterRow pack) {
+        PackageEvr evr = pack.getPackageEvr();
+        PackageEvr filterEvr = filterEvrs.computeIfAbsent(evr.getPackageType(),
+                type -> PackageEvr.parsePackageEvr(type, getEvr(field, value)));
+        return evr.compareTo(filterEvr);
+    }
+
     private static String getEvr(String field, String value) {
         if (field.equals("nevr")) {
             return value.replaceAll("(.*)-(.*:)?(.*)-(.*)", "$2$3-$4");
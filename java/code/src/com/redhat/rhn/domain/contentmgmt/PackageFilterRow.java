@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.domain.contentmgmt;
+
+import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Projection of a package holding just what is needed to test it against a {@link PackageFilter}.
+ *
+ * Rows are loaded in bulk and do not reference any Hibernate entity. Provided capabilities are not loaded:
+ * only the names asked for by the filters are attached to the rows, see {@link #addProvidedName(String)}.
+ */
+public class PackageFilterRow {
+
+    private Long id;
+    private String name;
+    private String epoch;
+    private String version;
+    private String release;
+    private String evrType;
+    private String arch;
+    private PackageEvr packageEvr;
+    private Set<String> providedNames;
+
+    /**
+     * Default constructor, used when the rows are loaded from the database
+     */
+    public PackageFilterRow() {
+    }
+
+    /**
+     * Standard constructor
+     * @param idIn the package id
+     * @param nameIn the package name
+     * @param evrIn the package evr
+     * @param archIn the package arch label
+     */
+    public PackageFilterRow(Long idIn, String nameIn, PackageEvr evrIn, String archIn) {
+        id = idIn;
+        name = nameIn;
+        epoch = evrIn.getEpoch();
+        version = evrIn.getVersion();
+        release = evrIn.getRelease();
+        evrType = evrIn.getType();
+        arch = archIn;
+    }
+
+    /**
+     * @return the package id
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * @param idIn the package id
+     */
+    public void setId(Long idIn) {
+        id = idIn;
+    }
+
+    /**
+     * @return the package name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param nameIn the package name
+     */
+    public void setName(String nameIn) {
+        name = nameIn;
+    }
+
+    /**
+     * @return the epoch, may be null
+     */
+    public String getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * @param epochIn the epoch
+     */
+    public void setEpoch(String epochIn) {
+        epoch = epochIn;
+    }
+
+    /**
+     * @return the version
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * @param versionIn the version
+     */
+    public void setVersion(String versionIn) {
+        version = versionIn;
+    }
+
+    /**
+     * @return the release
+     */
+    public String getRelease() {
+        return release;
+    }
+
+    /**
+     * @param releaseIn the release
+     */
+    public void setRelease(String releaseIn) {
+        release = releaseIn;
+    }
+
+    /**
+     * @return the type of the evr (rpm or deb)
+     */
+    public String getEvrType() {
+        return evrType;
+    }
+
+    /**
+     * @param evrTypeIn the type of the evr
+     */
+    public void setEvrType(String evrTypeIn) {
+        evrType = evrTypeIn;
+    }
+
+    /**
+     * @return the package arch label
+     */
+    public String getArch() {
+        return arch;
+    }
+
+    /**
+     * @param archIn the package arch label
+     */
+    public void setArch(String archIn) {
+        arch = archIn;
+    }
+
+    /**
+     * @return the evr of the package
+     */
+    public PackageEvr getPackageEvr() {
+        if (packageEvr == null) {
+            packageEvr = new PackageEvr(epoch, version, release, evrType);
+        }
+        return packageEvr;
+    }
+
+    /**
+     * @return name and evr of the package, as returned by {@link com.redhat.rhn.domain.rhnpackage.Package#getNameEvr()}
+     */
+    public String getNameEvr() {
+        return name + "-" + getPackageEvr().toString();
+    }
+
+    /**
+     * @return name, evr and arch of the package, with the epoch defaulting to 0, as returned by
+     * {@link com.redhat.rhn.domain.rhnpackage.Package#getNevraWithEpoch()}
+     */
+    public String getNevraWithEpoch() {
+        PackageEvr evr = getPackageEvr();
+        if (evr.getEpoch() == null || evr.getEpoch().isEmpty()) {
+            evr = new PackageEvr(evr);
+            evr.setEpoch("0");
+        }
+        return name + "-" + evr.toString() + "." + arch;
+    }
+
+    /**
+     * Records that the package provides a capability
+     * @param capabilityName the name of the capability
+     */
+    public void addProvidedName(String capabilityName) {
+        if (providedNames == null) {
+            providedNames = new HashSet<>();
+        }
+        providedNames.add(capabilityName);
+    }
+
+    /**
+     * Checks if the package provides a capability. Only the names recorded through
+     * {@link #addProvidedName(String)} are known.
+     * @param capabilityName the name of the capability
+     * @return true if the package provides the capability
+     */
+    public boolean provides(String capabilityName) {
+        return providedNames != null && providedNames.contains(capabilityName);
+    }
+}
@@ -1041,6 +1041,52 @@ public class ErrataFactory extends HibernateFactory {
         return results.get(0);
     }
 
+    /**
+     * Get the ErrataOverviews of several errata, see {@link #getOverviewById(Long)}
+     * @param eids the errata ids
+     * @return the ErrataOverviews of the existing errata
+     */
+    public static List<ErrataOverview> listOverviewsByIds(List<Long> eids) {
+        if (eids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        SelectMode mode = ModeFactory.getMode(ERRATA_QUERIES, "overviews_by_ids");
+        DataResult<ErrataOverview> results = mode.execute(eids);
+        results.elaborate();
+        return results;
+    }
+
+    /**
+     * Lists the advisories made of a 3 characters clone prefix and one of the given suffixes
+     * @param suffixes the advisory suffixes
+     * @return the matching advisories
+     */
+    public static Set<String> listAdvisoriesWithSuffixes(Collection<String> suffixes) {
+        return listWithSuffixes("advisories_with_suffixes", "advisory", suffixes);
+    }
+
+    /**
+     * Lists the advisory names made of a 3 characters clone prefix and one of the given suffixes
+     * @param suffixes the advisory name suffixes
+     * @return the matching advisory names
+     */
+    public static Set<String> listAdvisoryNamesWithSuffixes(Collection<String> suffixes) {
+        return listWithSuffixes("advisory_names_with_suffixes", "advisory_name", suffixes);
+    }
+
+    private static Set<String> listWithSuffixes(String query, String column, Collection<String> suffixes) {
+        if (suffixes.isEmpty()) {
+            return new HashSet<>();
+        }
+        SelectMode mode = ModeFactory.getMode(ERRATA_QUERIES, query);
+        // passed as an array literal, each element is quoted and escaped
+        String array = suffixes.stream()
+                .map(suffix -> "\"" + suffix.replace("\\", "\\\\").replace("\"", "\\\"") + "\"")
+                .collect(Collectors.joining(",", "{", "}"));
+        List<Map<String, Object>> results = mode.execute(Map.of("suffixes", array));
+        return results.stream().map(r -> (String) r.get(column)).collect(Collectors.toSet());
+    }
+
     /**
      * Get ErrataOverview by advisory
      * @param advisory the advisory
@@ -1108,5 +1154,53 @@ public class ErrataFactory extends HibernateFactory {
         return clone;
     }
 
+    /**
+     * Clone many errata in the db at once, see {@link #cloneErratum(Long, String, String, Long)}.
+     * The clone ids are allocated upfront, errata and their originals are inserted in JDBC
+     * batches and the bugs, keywords, packages, CVEs and files of all the clones are copied
+     * with one statement per table.
+     * @param clones unique advisory and advisory name of the clone, by id of the original erratum
+     * @param orgId org id to clone into
+     * @return the ids of the clones, by id of their original erratum
+     */
+    public static Map<Long, Long> cloneErrata(Map<Long, Tuple2<String, String>> clones, Long orgId) {
+        Map<Long, Long> cloneIds = new HashMap<>();
+        if (clones.isEmpty()) {
+            return cloneIds;
+        }
+        SelectMode ids = ModeFactory.getMode(ERRATA_QUERIES, "next_errata_ids");
+        List<Map<String, Object>> nextIds = ids.execute(Map.of("count", clones.size()));
+
+        DataResult<Map<String, Object>> errata = new DataResult<>(new ArrayList<>());
+        DataResult<Map<String, Object>> originals = new DataResult<>(new ArrayList<>());
+        int i = 0;
+        for (Map.Entry<Long, Tuple2<String, String>> clone : clones.entrySet()) {
+            Long cloneId = (Long) nextIds.get(i++).get("id");
+            cloneIds.put(clone.getKey(), cloneId);
+
+            Map<String, Object> erratum = new HashMap<>();
+            erratum.put("clone_id", cloneId);
+            erratum.put("eid", clone.getKey());
+            erratum.put("advisory", clone.getValue().getA());
+            erratum.put("name", clone.getValue().getB());
+            erratum.put("org_id", orgId);
+            errata.add(erratum);
+
+            Map<String, Object> original = new HashMap<>();
+            original.put("original_id", clone.getKey());
+            original.put("clone_id", cloneId);
+            originals.add(original);
+        }
+        ModeFactory.getWriteMode(ERRATA_QUERIES, "clone_erratum_with_id").executeBatchUpdates(errata);
+        ModeFactory.getWriteMode(ERRATA_QUERIES, "set_original").executeBatchUpdates(originals);
+
+        List<Long> cloned = new ArrayList<>(cloneIds.values());
+        for (String query : List.of("clone_bugs_of_clones", "clone_keywords_of_clones", "clone_packages_of_clones",
+                "clone_cves_of_clones", "clone_files_of_clones")) {
+            ModeFactory.getWriteMode(ERRATA_QUERIES, query).executeUpdate(new HashMap<>(), cloned);
+        }
+        return cloneIds;
+    }
+
 }
 
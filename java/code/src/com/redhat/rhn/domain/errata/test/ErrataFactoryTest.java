@@ -333,6 +333,44 @@ public class ErrataFactoryTest extends BaseTestCaseWithUser {
         assertEquals(clone.getOriginal(), testErrata);
     }
 
+    /**
+     * Tests cloning several errata at once
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testCloneErrataInBulk() throws Exception {
+        Errata first = createTestErrata(null);
+        Errata second = createTestErrata(null);
+        Long singleId = ErrataHelper.cloneErrataFaster(first.getId(), user.getOrg());
+
+        Map<Long, Long> clones = ErrataHelper.cloneErrataFaster(List.of(first.getId(), second.getId()),
+                user.getOrg());
+        HibernateFactory.getSession().clear();
+
+        assertEquals(2, clones.size());
+        ClonedErrata single = (ClonedErrata) ErrataFactory.lookupById(singleId);
+        ClonedErrata firstClone = (ClonedErrata) ErrataFactory.lookupById(clones.get(first.getId()));
+        ClonedErrata secondClone = (ClonedErrata) ErrataFactory.lookupById(clones.get(second.getId()));
+
+        assertEquals("CL-" + first.getAdvisory(), single.getAdvisory());
+        // the name of the first clone is already taken
+        assertEquals("CM-" + first.getAdvisory(), firstClone.getAdvisory());
+        assertEquals("CL-" + second.getAdvisory(), secondClone.getAdvisory());
+
+        for (Errata original : List.of(first, second)) {
+            original = ErrataFactory.lookupById(original.getId());
+            ClonedErrata clone = (ClonedErrata) ErrataFactory.lookupById(clones.get(original.getId()));
+            assertEquals(original, clone.getOriginal());
+            assertEquals(user.getOrg(), clone.getOrg());
+            assertEquals(original.getSynopsis(), clone.getSynopsis());
+            assertEquals(original.getPackages(), clone.getPackages());
+            assertEquals(original.getCves(), clone.getCves());
+            assertEquals(original.getBugs().size(), clone.getBugs().size());
+            assertEquals(original.getKeywords().size(), clone.getKeywords().size());
+            assertEquals(original.getFiles().size(), clone.getFiles().size());
+        }
+    }
+
     @Test
     public void testListErrataChannelPackages() {
         try {
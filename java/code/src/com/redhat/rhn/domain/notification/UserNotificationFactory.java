@@ -37,6 +37,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -277,6 +278,29 @@ public class UserNotificationFactory extends HibernateFactory {
         return getSession().createQuery(count).getSingleResult();
     }
 
+    /**
+     * Get the count of unread messages of several users at once
+     *
+     * @param userIdsIn the user ids
+     * @return the unread messages size count by user id, users without unread messages are missing
+     */
+    public static Map<Long, Long> unreadUserNotificationsSizes(Collection<Long> userIdsIn) {
+        if (userIdsIn.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        CriteriaBuilder builder = getSession().getCriteriaBuilder();
+        CriteriaQuery<Object[]> criteria = builder.createQuery(Object[].class);
+        Root<UserNotification> root = criteria.from(UserNotification.class);
+        criteria.multiselect(root.get("userId"), builder.count(root))
+                .where(
+                        root.get("userId").in(userIdsIn),
+                        builder.isFalse(root.get("read")))
+                .groupBy(root.get("userId"));
+
+        return getSession().createQuery(criteria).getResultList().stream()
+                .collect(Collectors.toMap(row -> (Long) row[0], row -> (Long) row[1]));
+    }
+
     /**
      * Lookup for a single {@link UserNotification} by its id
      *
@@ -25,8 +25,10 @@ import com.redhat.rhn.domain.notification.UserNotification;
 import com.redhat.rhn.domain.notification.UserNotificationFactory;
 import com.redhat.rhn.domain.notification.types.OnboardingFailed;
 import com.redhat.rhn.domain.role.RoleFactory;
+import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.testing.BaseTestCaseWithUser;
 import com.redhat.rhn.testing.TestUtils;
+import com.redhat.rhn.testing.UserTestUtils;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -36,6 +38,8 @@ import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 
 public class NotificationFactoryTest extends BaseTestCaseWithUser {
@@ -119,6 +123,28 @@ public class NotificationFactoryTest extends BaseTestCaseWithUser {
         assertEquals(1, UserNotificationFactory.listAllByUser(user).size());
     }
 
+    @Test
+    public final void testUnreadUserNotificationsSizes() {
+        UserNotificationFactory.setMailer(mailer);
+        user.setEmailNotify(0);
+        User other = UserTestUtils.createUser("otherUser", user.getOrg().getId());
+        other.setEmailNotify(0);
+
+        UserNotificationFactory.storeForUsers(UserNotificationFactory.createNotificationMessage(
+                new OnboardingFailed("minion1")), Set.of(user, other));
+        UserNotificationFactory.storeForUsers(UserNotificationFactory.createNotificationMessage(
+                new OnboardingFailed("minion2")), Set.of(user));
+
+        Map<Long, Long> sizes = UserNotificationFactory.unreadUserNotificationsSizes(
+                List.of(user.getId(), other.getId()));
+        assertEquals(Map.of(user.getId(), 2L, other.getId(), 1L), sizes);
+
+        UserNotificationFactory.updateStatus(UserNotificationFactory.listUnreadByUser(other).get(0), true);
+        sizes = UserNotificationFactory.unreadUserNotificationsSizes(List.of(user.getId(), other.getId()));
+        assertEquals(Map.of(user.getId(), 2L), sizes);
+        assertEquals(Map.of(), UserNotificationFactory.unreadUserNotificationsSizes(List.of()));
+    }
+
     @Test
     public final void testDeleteNotificationMessagesBefore() {
         UserNotificationFactory.setMailer(mailer);
@@ -186,6 +186,21 @@ public class MinionServerFactory extends HibernateFactory {
                 .list();
     }
 
+    /**
+     * Check whether any minion is contacted via SSH, without loading them.
+     * @return true if there is at least one SSH minion
+     */
+    public static boolean hasSSHMinions() {
+        return !HibernateFactory.getSession().createCriteria(MinionServer.class)
+                .createAlias("contactMethod", "m")
+                .add(Restrictions.in("m.label",
+                        "ssh-push", "ssh-push-tunnel"))
+                .setProjection(Projections.id())
+                .setMaxResults(1)
+                .list()
+                .isEmpty();
+    }
+
    /**
     * Find all the serverActions that involve a traditional client, given an Action Id.
     *
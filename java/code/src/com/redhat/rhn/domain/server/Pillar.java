@@ -57,7 +57,7 @@ public class Pillar implements Identifiable {
 
     @Id
     @GeneratedValue(generator = "pillar_seq")
-    @SequenceGenerator(name = "pillar_seq", sequenceName = "suse_salt_pillar_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "pillar_seq", sequenceName = "suse_salt_pillar_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -1328,6 +1328,23 @@ public class ServerFactory extends HibernateFactory {
      * @return a list of all systems
      */
     public static List<Server> list(boolean fetchingVirtualGuests, boolean fetchingGroups) {
+        return list(null, fetchingVirtualGuests, fetchingGroups);
+    }
+
+    /**
+     * @param ids ids of the systems to look up
+     * @param fetchingVirtualGuests eagerly load virtual guests
+     * @param fetchingGroups eagerly load server groups
+     * @return a list of the systems with the given ids
+     */
+    public static List<Server> lookupByIds(List<Long> ids, boolean fetchingVirtualGuests, boolean fetchingGroups) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return list(ids, fetchingVirtualGuests, fetchingGroups);
+    }
+
+    private static List<Server> list(List<Long> ids, boolean fetchingVirtualGuests, boolean fetchingGroups) {
         CriteriaBuilder builder = getSession().getCriteriaBuilder();
         CriteriaQuery<Server> criteria = builder.createQuery(Server.class);
         Root<Server> r = criteria.from(Server.class);
@@ -1337,11 +1354,21 @@ public class ServerFactory extends HibernateFactory {
         if (fetchingGroups) {
             r.fetch("groups", JoinType.LEFT);
         }
+        if (ids != null) {
+            criteria.where(r.get("id").in(ids));
+        }
         criteria.distinct(true);
         return new ArrayList<>(getSession().createQuery(criteria).getResultList());
 
     }
 
+    /**
+     * @return the ids of all systems, in ascending order
+     */
+    public static List<Long> listIds() {
+        return getSession().createQuery("SELECT s.id FROM Server s ORDER BY s.id", Long.class).getResultList();
+    }
+
     /**
      * Get all SLES systems containing the name query string
      *
@@ -17,6 +17,7 @@ package com.redhat.rhn.domain.server.test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.domain.action.Action;
 import com.redhat.rhn.domain.action.ActionFactory;
 import com.redhat.rhn.domain.action.server.ServerAction;
@@ -100,6 +101,16 @@ public class MinionServerFactoryTest extends BaseTestCaseWithUser {
                 .map(m -> minionServer2.getContactMethod().getLabel())
                 .findFirst().orElse(null));
     }
+
+    @Test
+    public void testHasSSHMinions() throws Exception {
+        MinionServer minionServer = createTestMinionServer(user);
+        minionServer.setContactMethod(ServerFactory.findContactMethodByLabel("ssh-push"));
+        HibernateFactory.getSession().flush();
+
+        assertTrue(MinionServerFactory.hasSSHMinions());
+    }
+
     @Test
     public void testListMinionsByActions() throws Exception {
         MinionServer minion1 = createTestMinionServer(user);
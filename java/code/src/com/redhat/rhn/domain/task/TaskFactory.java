@@ -22,6 +22,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 
@@ -129,6 +130,28 @@ public class TaskFactory extends HibernateFactory {
         session.createQuery(criteriaDelete).executeUpdate();
     }
 
+    /**
+     * Delete tasks matching an organization, a name, any of the given data and a priority.
+     *
+     * @param org The organization
+     * @param name the tasks name
+     * @param data the tasks data
+     * @param priority the tasks priority
+     */
+    public static void deleteByOrgNameDataPriority(Org org, String name, Collection<Long> data, int priority) {
+        Session session = HibernateFactory.getSession();
+        CriteriaBuilder builder = session.getCriteriaBuilder();
+        CriteriaDelete<Task> criteriaDelete = builder.createCriteriaDelete(Task.class);
+        Root<Task> root = criteriaDelete.from(Task.class);
+        criteriaDelete.where(builder.and(
+                builder.equal(root.get("name"), name),
+                root.get("data").in(data),
+                builder.equal(root.get("org"), org),
+                builder.equal(root.get("priority"), priority)
+        ));
+        session.createQuery(criteriaDelete).executeUpdate();
+    }
+
     /**
      * Gets the list of "update errata cache for channel" tasks.
      * @param org The org containing the tasks
@@ -163,4 +186,55 @@ public class TaskFactory extends HibernateFactory {
 
         return session.createQuery(criteriaQuery).list();
     }
+
+    /**
+     * Gets the distinct data of the tasks with the given name, the data of the
+     * oldest tasks coming first.
+     * @param name the tasks name
+     * @return the data of the tasks
+     */
+    public static List<Long> getTaskDataByName(String name) {
+        Session session = HibernateFactory.getSession();
+        CriteriaBuilder builder = session.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = builder.createQuery(Long.class);
+        Root<Task> root = criteriaQuery.from(Task.class);
+        criteriaQuery.select(root.get("data"))
+                .where(builder.equal(root.get("name"), name))
+                .groupBy(root.get("data"))
+                .orderBy(builder.asc(builder.least(root.<Date>get("earliest"))));
+
+        return session.createQuery(criteriaQuery).list();
+    }
+
+    /**
+     * Counts the distinct data of the tasks with the given name.
+     * @param name the tasks name
+     * @return the number of distinct data
+     */
+    public static long countTaskDataByName(String name) {
+        Session session = HibernateFactory.getSession();
+        CriteriaBuilder builder = session.getCriteriaBuilder();
+        CriteriaQuery<Long> criteriaQuery = builder.createQuery(Long.class);
+        Root<Task> root = criteriaQuery.from(Task.class);
+        criteriaQuery.select(builder.countDistinct(root.get("data")))
+                .where(builder.equal(root.get("name"), name));
+
+        return session.createQuery(criteriaQuery).getSingleResult();
+    }
+
+    /**
+     * Gets the time the oldest task with the given name was created at.
+     * @param name the tasks name
+     * @return the creation time of the oldest task, or null if there is no task
+     */
+    public static Date getOldestTaskDateByName(String name) {
+        Session session = HibernateFactory.getSession();
+        CriteriaBuilder builder = session.getCriteriaBuilder();
+        CriteriaQuery<Date> criteriaQuery = builder.createQuery(Date.class);
+        Root<Task> root = criteriaQuery.from(Task.class);
+        criteriaQuery.select(builder.least(root.<Date>get("earliest")))
+                .where(builder.equal(root.get("name"), name));
+
+        return session.createQuery(criteriaQuery).getSingleResult();
+    }
 }
@@ -27,11 +27,16 @@ import com.redhat.rhn.domain.errata.Errata;
 import com.redhat.rhn.domain.errata.ErrataFactory;
 import com.redhat.rhn.domain.errata.Keyword;
 import com.redhat.rhn.domain.org.Org;
+import com.redhat.rhn.domain.product.Tuple2;
 import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.frontend.dto.ErrataOverview;
 
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * ErrataHelper
@@ -78,6 +83,35 @@ public class ErrataHelper {
         return clone.getId();
     }
 
+    /**
+     * Clones several errata at once, like {@link #cloneErrataFaster(Long, Org)} does
+     * for one. The advisories already in use are looked up once for all the errata
+     * and the clones are inserted with a few set based statements.
+     * @param eids Ids of the original errata to clone
+     * @param org Org to clone into
+     * @return Ids of the cloned errata, by id of their original
+     */
+    public static Map<Long, Long> cloneErrataFaster(List<Long> eids, Org org) {
+        List<ErrataOverview> originals = ErrataFactory.listOverviewsByIds(eids);
+
+        Set<String> advisories = ErrataFactory.listAdvisoriesWithSuffixes(originals.stream()
+                .map(o -> getSuffix(o.getAdvisory(), o.isCloned())).collect(Collectors.toSet()));
+        Set<String> advisoryNames = ErrataFactory.listAdvisoryNamesWithSuffixes(originals.stream()
+                .map(o -> getSuffix(o.getAdvisoryName(), o.isCloned())).collect(Collectors.toSet()));
+
+        Map<Long, Tuple2<String, String>> clones = new LinkedHashMap<>();
+        for (ErrataOverview original : originals) {
+            String advisorySuffix = getSuffix(original.getAdvisory(), original.isCloned());
+            String nameSuffix = getSuffix(original.getAdvisoryName(), original.isCloned());
+            String prefix = findNextPrefix(advisorySuffix, nameSuffix, advisories, advisoryNames);
+            // errata of the same batch must not get the same name
+            advisories.add(prefix + advisorySuffix);
+            advisoryNames.add(prefix + nameSuffix);
+            clones.put(original.getId(), new Tuple2<>(prefix + advisorySuffix, prefix + nameSuffix));
+        }
+        return ErrataFactory.cloneErrata(clones, org.getId());
+    }
+
 
     /**
      * Clones an errata
@@ -172,9 +206,12 @@ public class ErrataHelper {
     }
 
     private static String findNextPrefix(String advisoryLike, String nameLike) {
-        Set<String> advisories = ErrataFactory.listAdvisoriesEndingWith(advisoryLike);
-        Set<String> advisoryNames = ErrataFactory.listAdvisoryNamesEndingWith(nameLike);
+        return findNextPrefix(advisoryLike, nameLike, ErrataFactory.listAdvisoriesEndingWith(advisoryLike),
+                ErrataFactory.listAdvisoryNamesEndingWith(nameLike));
+    }
 
+    private static String findNextPrefix(String advisoryLike, String nameLike, Set<String> advisories,
+            Set<String> advisoryNames) {
         boolean unusedNameFound = false;
         String prefix = DEFAULT_ERRATA_CLONE_PREFIX;
 
@@ -40,7 +40,7 @@ public class TasksRenderer extends BaseFragmentRenderer {
         request.setAttribute("documentation", ConfigDefaults.get().isDocAvailable());
         request.setAttribute("amountOfMinions",
                 GlobalInstanceHolder.SALT_API.getKeys().getUnacceptedMinions().size());
-        request.setAttribute("requiringReboot", SystemManager.requiringRebootList(user).size());
+        request.setAttribute("requiringReboot", SystemManager.countSystemsRequiringReboot(user));
         RendererHelper.setTableStyle(request, null);
     }
 
@@ -27,6 +27,7 @@ public class PageControl extends ListControl {
     private int pageSize = DEFAULT_PER_PAGE;
     private String sortColumn;
     private boolean sortDescending;
+    private String cursor;
 
     /** static value for default results per page. */
     public static final int DEFAULT_PER_PAGE = 25;
@@ -137,4 +138,19 @@ public class PageControl extends ListControl {
     public void setSortDescending(boolean sortDescendingIn) {
         sortDescending = sortDescendingIn;
     }
+
+    /**
+     * @return the cursor returned with the previous page, null if there is none
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * @param cursorIn the cursor returned with the previous page, used to seek
+     * to the next page instead of skipping the rows of the previous ones
+     */
+    public void setCursor(String cursorIn) {
+        cursor = cursorIn;
+    }
 }
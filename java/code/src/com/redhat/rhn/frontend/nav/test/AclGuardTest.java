@@ -14,26 +14,36 @@
  */
 package com.redhat.rhn.frontend.nav.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.redhat.rhn.common.security.acl.Access;
 import com.redhat.rhn.common.security.acl.AclFactory;
 import com.redhat.rhn.common.security.acl.AclHandler;
+import com.redhat.rhn.common.security.acl.AclRequestCache;
 import com.redhat.rhn.frontend.nav.AclGuard;
 import com.redhat.rhn.frontend.nav.NavNode;
 import com.redhat.rhn.testing.RhnBaseTestCase;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * AclGuardTest
  */
 public class AclGuardTest extends RhnBaseTestCase {
 
+    private static final Logger LOG = LogManager.getLogger(AclGuardTest.class);
+
     @Test
     public void testNoAclDefined() {
         NavNode node = new NavNode();
@@ -70,7 +80,54 @@ public class AclGuardTest extends RhnBaseTestCase {
         assertTrue(rc);
     }
 
+    /**
+     * Renders a navigation tree of identical ACLs several times, like the
+     * menus of a page, and logs the time taken with and without the per
+     * request memo of the handler results.
+     */
+    @Test
+    public void testNavRenderingThroughput() {
+        List<NavNode> nodes = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            NavNode node = new NavNode();
+            node.setAcl("slow_test(" + (i % 6) + ") or false_test(); not false_test()");
+            nodes.add(node);
+        }
+        Map<String, Object> context = new HashMap<>();
+        context.put("sid", new String[]{"1000010000"});
+        AclGuard aclGuard = new AclGuard(context, MockAclHandler.class.getName(), new AclFactory(new Access()));
+        int renders = 20;
+
+        MockAclHandler.SLOW_CALLS.set(0);
+        long start = System.nanoTime();
+        for (int i = 0; i < renders; i++) {
+            nodes.forEach(node -> assertTrue(aclGuard.canRender(node, 0)));
+        }
+        long uncachedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(renders * nodes.size(), MockAclHandler.SLOW_CALLS.get());
+
+        MockAclHandler.SLOW_CALLS.set(0);
+        start = System.nanoTime();
+        for (int i = 0; i < renders; i++) {
+            AclRequestCache.open();
+            try {
+                nodes.forEach(node -> assertTrue(aclGuard.canRender(node, 0)));
+            }
+            finally {
+                AclRequestCache.close();
+            }
+        }
+        long cachedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(renders * 6, MockAclHandler.SLOW_CALLS.get());
+
+        LOG.info("Rendered {} nodes {} times in {} ms without request cache, {} ms with it",
+                nodes.size(), renders, uncachedMillis, cachedMillis);
+    }
+
     public static class MockAclHandler implements AclHandler {
+
+        private static final AtomicInteger SLOW_CALLS = new AtomicInteger();
+
         /**
          * Always returns true.
          * @param ctx ignored
@@ -90,5 +147,22 @@ public class AclGuardTest extends RhnBaseTestCase {
         public boolean aclFalseTest(Map<String, Object> ctx, String[] params) {
             return false;
         }
+
+        /**
+         * Always returns true, after some work standing for a database query.
+         * @param ctx ignored
+         * @param params ignored
+         * @return true
+         */
+        public boolean aclSlowTest(Map<String, Object> ctx, String[] params) {
+            SLOW_CALLS.incrementAndGet();
+            try {
+                Thread.sleep(1);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return true;
+        }
     }
 }
@@ -80,6 +80,10 @@ public class PxtSessionDelegateImpl implements PxtSessionDelegate {
     @Override
     public void updateWebUserId(HttpServletRequest request, HttpServletResponse response,
                                 Long id) {
+        WebSession previous = getPxtSessionIfExists(request);
+        if (previous != null) {
+            SessionManager.evictCachedSession(previous.getId());
+        }
         // generate new session to prevent session fixation (BZ 672159)
         Object sessionAttribute = createPxtSession(id);
         request.setAttribute("session", sessionAttribute);
@@ -233,6 +237,7 @@ public class PxtSessionDelegateImpl implements PxtSessionDelegate {
         //updateWebUserId(request, response, null);
         WebSession pxtSession = getPxtSession(request);
         pxtSession.setWebUserId(null);
+        SessionManager.evictCachedSession(pxtSession.getId());
 
         // Invalidate csrf_token
         request.getSession().setAttribute("csrf_token", null);
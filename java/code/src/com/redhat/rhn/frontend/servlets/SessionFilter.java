@@ -17,6 +17,7 @@ package com.redhat.rhn.frontend.servlets;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.hibernate.HibernateRuntimeException;
 import com.redhat.rhn.common.localization.LocalizationService;
+import com.redhat.rhn.common.security.acl.AclRequestCache;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -53,6 +54,8 @@ public class SessionFilter implements Filter {
     public void doFilter(ServletRequest request, ServletResponse response,
                          FilterChain chain) throws IOException, ServletException {
         boolean committed = false;
+        // ACL handler results are reused until the end of the request
+        boolean aclScope = AclRequestCache.open();
         try {
             logHere("Calling doFilter");
             // pass up stack
@@ -79,6 +82,9 @@ public class SessionFilter implements Filter {
             throw e;
         }
         finally {
+            if (aclScope) {
+                AclRequestCache.close();
+            }
             HibernateFactory.rollbackTransactionAndCloseSession(committed);
         }
 
@@ -32,13 +32,11 @@ import com.redhat.rhn.domain.product.Tuple2;
 import com.redhat.rhn.domain.role.Role;
 import com.redhat.rhn.domain.role.RoleFactory;
 import com.redhat.rhn.domain.server.Server;
-import com.redhat.rhn.domain.session.WebSession;
 import com.redhat.rhn.domain.user.User;
+import com.redhat.rhn.manager.session.SessionKeyCache.ValidatedSession;
 import com.redhat.rhn.manager.session.SessionManager;
 import com.redhat.rhn.manager.system.SystemManager;
 
-import com.suse.manager.api.ApiIgnore;
-import com.suse.manager.api.ApiType;
 import com.suse.manager.api.ReadOnly;
 import com.suse.salt.netapi.utils.Xor;
 
@@ -51,14 +49,12 @@ import java.io.IOException;
 import java.io.StringReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.lang.reflect.Modifier;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 import redstone.xmlrpc.XmlRpcFault;
@@ -75,7 +71,7 @@ public class BaseHandler implements XmlRpcInvocationHandler {
 
     private static Logger log = LogManager.getLogger(BaseHandler.class);
 
-    private static final String KEY_REGEX = "^[1-9][0-9]*x[a-f0-9]{64}$";
+    private static final Pattern KEY_REGEX = Pattern.compile("^[1-9][0-9]*x[a-f0-9]{64}$");
 
     protected boolean providesAuthentication() {
         return false;
@@ -94,31 +90,31 @@ public class BaseHandler implements XmlRpcInvocationHandler {
     @Override
     public Object invoke(String methodCalled, List params) throws XmlRpcFault {
         Class<? extends BaseHandler> myClass = this.getClass();
-        Method[] methods = Arrays.stream(myClass.getDeclaredMethods())
-                .filter(m -> Modifier.isPublic(m.getModifiers()))
-                .filter(BaseHandler::isMethodAvailable)
-                .toArray(Method[]::new);
+        HandlerMethodIndex index = HandlerMethodIndex.forClass(myClass);
 
         String[] byNamespace = methodCalled.split("\\.");
         String beanifiedMethod = StringUtil.beanify(byNamespace[byNamespace.length - 1]);
-        WebSession session = null;
+        ValidatedSession session = null;
         User user = null;
 
         if (!params.isEmpty() && params.get(0) instanceof String &&
                 isSessionKey((String)params.get(0))) {
             if (!myClass.getName().endsWith("AuthHandler") &&
                 !myClass.getName().endsWith("SearchHandler")) {
-                session = SessionManager.loadSession((String)params.get(0));
-                user = getLoggedInUser((String) params.get(0));
+                String sessionKey = (String) params.get(0);
+                session = SessionManager.validateSessionKey(sessionKey);
+                user = getLoggedInUser(session, sessionKey);
                 params.set(0, user);
             }
         }
 
+        long dispatchStart = System.nanoTime();
+
         //we've found all the methods that have the same number of parameters
-        List<Method> matchedMethods = findMethods(methods, params, beanifiedMethod);
+        List<Method> matchedMethods = findMethods(index, params, beanifiedMethod);
 
         //Attempt to find a perfect match
-        Method foundMethod = findPerfectMethod(params, matchedMethods);
+        Method foundMethod = index.findPerfectMethod(beanifiedMethod, params).orElse(null);
         Object[] converted = params.toArray();
 
         if (foundMethod == null) {
@@ -126,6 +122,7 @@ public class BaseHandler implements XmlRpcInvocationHandler {
             foundMethod = fallbackMethod.getA();
             converted = fallbackMethod.getB();
         }
+        HandlerMethodIndex.recordDispatch(System.nanoTime() - dispatchStart);
 
         if (user != null && user.isReadOnly()) {
             if (!foundMethod.isAnnotationPresent(ReadOnly.class)) {
@@ -220,70 +217,19 @@ public class BaseHandler implements XmlRpcInvocationHandler {
         }
     }
 
-    /**
-     * Finds the perfect match for a method based upon type
-     * @param params The parameters to find the match for.
-     * @param matchedMethods the list of methods to check for a perfect match
-     * @return null if no perfect match was found, otherwise the matched method.
-     */
-    private Method findPerfectMethod(List params, List<Method> matchedMethods) {
-        //now lets try to find one that matches parameters exactly
-        for (Method currMethod : matchedMethods) {
-            if (log.isDebugEnabled()) {
-                log.debug("findPerfectMethod test:{}", currMethod.toGenericString());
-            }
-            Class[] types = currMethod.getParameterTypes();
-            for (int i = 0; i < types.length; i++) {
-                if (log.isDebugEnabled()) {
-                    log.debug("  findPerfectMethod: compare: {} isAssignableFrom {}", types[i].getCanonicalName(),
-                            params.get(i).getClass().getCanonicalName());
-                }
-                //if we find a param that doesn't match, go to the next method
-                if (!types[i].isAssignableFrom(params.get(i).getClass())) {
-                    break;
-                }
-                //if we have gone through all of the params, and are here it is a
-                //      perfect match.
-                if (i == types.length - 1) {
-                    log.debug("  all parameter match");
-                    return currMethod;
-                }
-            }
-        }
-        return null;
-    }
-
     /**
      * Private method to find the method in the java class that is being called
      * via xml-rpc
-     * @param methods The methods contained in the class
+     * @param index The dispatch table of the handler class
      * @param params The parameters sent to us via xml-rpc
      * @param beanifiedMethod The method name we are looking for
-     * @return The matching method we're looking for
+     * @return The methods matching the name and the number of parameters
      * @throws XmlRpcFault Thrown if we can't find the method asked for
      */
-    /*
-     * TODO: Make this method even smarterer.
-     *      Currently this finds methods that match the number of parameters and returns
-     *          those.
-     */
-    private List<Method> findMethods(Method[] methods, Collection params,
+    private List<Method> findMethods(HandlerMethodIndex index, Collection params,
             String beanifiedMethod) throws XmlRpcFault {
 
-        List<Method> toReturn = new ArrayList<>();
-
-        //Loop through the methods array and find the one we are trying to call.
-        for (Method methodIn : methods) {
-            if (methodIn.getName().equals(beanifiedMethod)) {
-                // We found a method with the right name, but does the parameter count
-                // match?
-                int numberOfParams = methodIn.getParameterTypes().length;
-                if (numberOfParams == params.size()) {
-                    //Method name and number of parameters match.
-                    toReturn.add(methodIn);
-                }
-            }
-        }
+        List<Method> toReturn = index.findMethods(beanifiedMethod, params.size());
         if (toReturn.isEmpty()) {
             //The caller didn't get the method name or number of parameters right
             String message = "Could not find method: " + beanifiedMethod +
@@ -310,9 +256,13 @@ public class BaseHandler implements XmlRpcInvocationHandler {
      * sessionkey.
      */
     public static User getLoggedInUser(String sessionKey) {
-        //Load the session
-        WebSession session = SessionManager.loadSession(sessionKey);
-        User user = session.getUser();
+        //The key is validated only if it's not cached
+        return getLoggedInUser(SessionManager.validateSessionKey(sessionKey), sessionKey);
+    }
+
+    private static User getLoggedInUser(ValidatedSession session, String sessionKey) {
+        //Load the session user
+        User user = SessionManager.lookupUser(session);
 
         //Make sure there was a valid user in the session. If not, the session is invalid.
         if (user == null) {
@@ -515,16 +465,6 @@ public class BaseHandler implements XmlRpcInvocationHandler {
     }
 
     private boolean isSessionKey(String string) {
-        return string.matches(KEY_REGEX);
-    }
-
-    /**
-     * Returns true if the method is available to be exposed in the XMLRPC interface
-     * @param method the method
-     * @return true if the method is available
-     */
-    private static boolean isMethodAvailable(Method method) {
-        return !(method.isAnnotationPresent(ApiIgnore.class) &&
-                Arrays.asList(method.getAnnotation(ApiIgnore.class).value()).contains(ApiType.XMLRPC));
+        return KEY_REGEX.matcher(string).matches();
     }
 }
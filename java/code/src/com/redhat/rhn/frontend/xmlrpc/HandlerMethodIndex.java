@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+
+package com.redhat.rhn.frontend.xmlrpc;
+
+import com.suse.manager.api.ApiIgnore;
+import com.suse.manager.api.ApiType;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dispatch table of the XMLRPC methods of a handler class.
+ *
+ * The public methods available to XMLRPC are indexed once per handler class
+ * by (method name, number of parameters). The overload that perfectly matches
+ * a given list of parameter types is cached as well, so repeated calls with
+ * the same signature do not have to look at the candidate methods again.
+ */
+public class HandlerMethodIndex {
+
+    private static final Map<Class<?>, HandlerMethodIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private static final LongAdder DISPATCH_COUNT = new LongAdder();
+    private static final LongAdder DISPATCH_NANOS = new LongAdder();
+    private static final LongAdder SIGNATURE_HITS = new LongAdder();
+
+    private final Map<String, List<Method>> methodsByArity;
+    private final Map<Signature, Optional<Method>> perfectMatches = new ConcurrentHashMap<>();
+
+    private HandlerMethodIndex(Class<?> handlerClass) {
+        Map<String, List<Method>> methods = new HashMap<>();
+        for (Method method : handlerClass.getDeclaredMethods()) {
+            if (Modifier.isPublic(method.getModifiers()) && isMethodAvailable(method)) {
+                methods.computeIfAbsent(key(method.getName(), method.getParameterCount()), k -> new ArrayList<>())
+                        .add(method);
+            }
+        }
+        methods.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        methodsByArity = methods;
+    }
+
+    /**
+     * Returns the dispatch table of the given handler class, building it on first use.
+     * @param handlerClass the handler class
+     * @return the dispatch table
+     */
+    public static HandlerMethodIndex forClass(Class<?> handlerClass) {
+        return INDEXES.computeIfAbsent(handlerClass, HandlerMethodIndex::new);
+    }
+
+    /**
+     * Returns the methods with the given name accepting the given number of parameters.
+     * @param beanifiedMethod the java method name
+     * @param arity the number of parameters
+     * @return the candidate methods, empty if none
+     */
+    public List<Method> findMethods(String beanifiedMethod, int arity) {
+        return methodsByArity.getOrDefault(key(beanifiedMethod, arity), Collections.emptyList());
+    }
+
+    /**
+     * Returns the first candidate method whose parameter types are all assignable
+     * from the classes of the given parameters. The result is cached per parameter classes.
+     * @param beanifiedMethod the java method name
+     * @param params the actual parameters
+     * @return the matching method, or empty if there is no perfect match
+     */
+    public Optional<Method> findPerfectMethod(String beanifiedMethod, List<?> params) {
+        Class<?>[] types = new Class<?>[params.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = params.get(i).getClass();
+        }
+        Signature signature = new Signature(beanifiedMethod, types);
+        Optional<Method> cached = perfectMatches.get(signature);
+        if (cached != null) {
+            SIGNATURE_HITS.increment();
+            return cached;
+        }
+        Optional<Method> found = findMethods(beanifiedMethod, types.length).stream()
+                .filter(m -> isAssignable(m.getParameterTypes(), types))
+                .findFirst();
+        perfectMatches.put(signature, found);
+        return found;
+    }
+
+    /**
+     * Records the time spent to resolve the method of a call.
+     * @param nanos the dispatch time in nanoseconds
+     */
+    public static void recordDispatch(long nanos) {
+        DISPATCH_COUNT.increment();
+        DISPATCH_NANOS.add(nanos);
+    }
+
+    /**
+     * @return the number of calls dispatched since startup
+     */
+    public static long getDispatchCount() {
+        return DISPATCH_COUNT.sum();
+    }
+
+    /**
+     * @return the total time spent resolving methods since startup, in nanoseconds
+     */
+    public static long getDispatchNanos() {
+        return DISPATCH_NANOS.sum();
+    }
+
+    /**
+     * @return the number of calls resolved from the cached parameter signatures
+     */
+    public static long getSignatureHits() {
+        return SIGNATURE_HITS.sum();
+    }
+
+    private static boolean isAssignable(Class<?>[] declared, Class<?>[] actual) {
+        // a method without parameters never was a perfect match
+        if (declared.length == 0) {
+            return false;
+        }
+        for (int i = 0; i < declared.length; i++) {
+            if (!declared[i].isAssignableFrom(actual[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String key(String name, int arity) {
+        return name + "/" + arity;
+    }
+
+    /**
+     * Returns true if the method is available to be exposed in the XMLRPC interface
+     * @param method the method
+     * @return true if the method is available
+     */
+    private static boolean isMethodAvailable(Method method) {
+        return !(method.isAnnotationPresent(ApiIgnore.class) &&
+                Arrays.asList(method.getAnnotation(ApiIgnore.class).value()).contains(ApiType.XMLRPC));
+    }
+
+    /**
+     * Method name and parameter classes of a call
+     */
+    private static final class Signature {
+        private final String name;
+        private final Class<?>[] types;
+        private final int hash;
+
+        Signature(String nameIn, Class<?>[] typesIn) {
+            name = nameIn;
+            types = typesIn;
+            hash = 31 * name.hashCode() + Arrays.hashCode(types);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Signature)) {
+                return false;
+            }
+            Signature that = (Signature) other;
+            return name.equals(that.name) && Arrays.equals(types, that.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
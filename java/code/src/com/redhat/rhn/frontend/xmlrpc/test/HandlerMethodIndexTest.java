@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.frontend.xmlrpc.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.frontend.xmlrpc.HandlerMethodIndex;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * HandlerMethodIndexTest
+ */
+public class HandlerMethodIndexTest {
+
+    @Test
+    public void testFindMethods() {
+        HandlerMethodIndex index = HandlerMethodIndex.forClass(UnitTestHandler.class);
+        assertSame(index, HandlerMethodIndex.forClass(UnitTestHandler.class));
+
+        assertEquals(1, index.findMethods("add", 2).size());
+        assertTrue(index.findMethods("add", 1).isEmpty());
+        assertTrue(index.findMethods("subtract", 2).isEmpty());
+    }
+
+    @Test
+    public void testFindPerfectMethod() throws Exception {
+        HandlerMethodIndex index = HandlerMethodIndex.forClass(UnitTestHandler.class);
+        Method add = UnitTestHandler.class.getMethod("add", Integer.class, Integer.class);
+
+        long hits = HandlerMethodIndex.getSignatureHits();
+        assertEquals(Optional.of(add), index.findPerfectMethod("add", List.of(1, 2)));
+        assertEquals(Optional.of(add), index.findPerfectMethod("add", List.of(3, 4)));
+        assertTrue(HandlerMethodIndex.getSignatureHits() > hits);
+
+        // no perfect match, the caller has to go through the type conversion
+        assertFalse(index.findPerfectMethod("add", List.of("1", "2")).isPresent());
+        // methods without parameters are resolved through the fallback
+        assertFalse(index.findPerfectMethod("login", List.of()).isPresent());
+    }
+}
@@ -126,6 +126,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * ActionManager - the singleton class used to provide Business Operations
@@ -451,9 +452,9 @@ public class ActionManager extends BaseManager {
         // now, delete them
         for (Action action : actions) {
             deleteActionsByIdAndType(action.getId(), action.getActionType().getId());
-            action.getServerActions().stream()
+            SystemManager.updateSystemOverview(action.getServerActions().stream()
                     .map(sa -> sa.getServerId())
-                    .forEach(sid -> SystemManager.updateSystemOverview(sid));
+                    .collect(Collectors.toList()));
         }
     }
 
@@ -85,6 +85,7 @@ import com.redhat.rhn.taskomatic.TaskomaticApiException;
 import com.redhat.rhn.taskomatic.task.TaskConstants;
 
 import com.suse.manager.webui.services.pillar.MinionPillarManager;
+import com.suse.manager.webui.utils.DownloadPathCache;
 import com.suse.utils.Opt;
 
 import org.apache.commons.lang3.StringUtils;
@@ -2161,7 +2162,8 @@ public class ChannelManager extends BaseManager {
     }
 
     /**
-     * Queue regenerating the repo metadata.
+     * Queue regenerating the repo metadata. The package paths cached by the download
+     * endpoint for the channel are dropped.
      *
      * @param channelLabel channel label
      * @param client client info
@@ -2184,6 +2186,9 @@ public class ChannelManager extends BaseManager {
         params.put("reason", reason);
         params.put("force", force ? "Y" : "N");
         m.executeUpdate(params);
+
+        DownloadPathCache cache = DownloadPathCache.getInstance();
+        HibernateFactory.doNowAndAfterCommit(() -> cache.invalidate(channelLabel));
     }
 
     /**
@@ -51,6 +51,7 @@ import com.redhat.rhn.domain.contentmgmt.ErrataFilter;
 import com.redhat.rhn.domain.contentmgmt.FilterCriteria;
 import com.redhat.rhn.domain.contentmgmt.ModuleFilter;
 import com.redhat.rhn.domain.contentmgmt.PackageFilter;
+import com.redhat.rhn.domain.contentmgmt.PackageFilterRow;
 import com.redhat.rhn.domain.contentmgmt.ProjectSource;
 import com.redhat.rhn.domain.contentmgmt.ProjectSource.Type;
 import com.redhat.rhn.domain.contentmgmt.SoftwareEnvironmentTarget;
@@ -967,7 +968,9 @@ public class ContentManager {
         List<PackageFilter> packageFilters = extractFiltersOfType(filters, PackageFilter.class);
         List<ErrataFilter> errataFilters = extractFiltersOfType(filters, ErrataFilter.class);
 
-        Set<Package> oldTgtPackages = new HashSet<>(tgt.getPackages());
+        // the packages are aligned with plain SQL: pending changes of the target have to be flushed first
+        HibernateFactory.getSession().flush();
+        Set<Long> oldTgtPackageIds = new HashSet<>(ChannelFactory.getPackageIds(tgt.getId()));
 
         // align packages
         alignPackages(src, tgt, packageFilters);
@@ -978,7 +981,7 @@ public class ContentManager {
         // align the package cache
         // this must be done after aligning errata since some packages may belong to a retracted erratum and we don't
         // want them in the cache. For this we need the errata to be up-to-date in target
-        alignPackageCache(tgt, oldTgtPackages);
+        alignPackageCache(tgt, oldTgtPackageIds);
 
         // a lot was inserted into tables at this point. Make sure stats are up-to-date before continuing
         analyzeAlignTables();
@@ -1012,16 +1015,20 @@ public class ContentManager {
         ChannelFactory.analyzeServerNeededCache();
     }
 
-    private void alignPackageCache(Channel channel, Set<Package> oldChannelPackages) {
+    private void alignPackageCache(Channel channel, Set<Long> oldChannelPackageIds) {
+        Set<Long> newChannelPackageIds = new HashSet<>(ChannelFactory.getPackageIds(channel.getId()));
+
         // remove entries for deleted packages
-        Set<Package> removedPackages = new HashSet<>(oldChannelPackages);
-        removedPackages.removeAll(channel.getPackages());
-        ErrataCacheManager.deleteCacheEntriesForChannelPackages(channel.getId(), extractPackageIds(removedPackages));
+        List<Long> removedPackageIds = oldChannelPackageIds.stream()
+                .filter(id -> !newChannelPackageIds.contains(id))
+                .collect(toList());
+        ErrataCacheManager.deleteCacheEntriesForChannelPackages(channel.getId(), removedPackageIds);
 
         // add cache entries for new ones
-        Set<Package> newTgtPackages = new HashSet<>(channel.getPackages());
-        newTgtPackages.removeAll(oldChannelPackages);
-        ErrataCacheManager.insertCacheForChannelPackages(channel.getId(), null, extractPackageIds(newTgtPackages));
+        List<Long> newPackageIds = newChannelPackageIds.stream()
+                .filter(id -> !oldChannelPackageIds.contains(id))
+                .collect(toList());
+        ErrataCacheManager.insertCacheForChannelPackages(channel.getId(), null, newPackageIds);
     }
 
     // helper for extracting certain filter types
@@ -1034,11 +1041,11 @@ public class ContentManager {
     }
 
     private void alignPackages(Channel srcChannel, Channel tgtChannel, Collection<PackageFilter> filters) {
-        tgtChannel.getPackages().clear();
-        LOG.debug("Filtering {} entities through {} filter(s)", srcChannel.getPackages().size(), filters.size());
-        Set<Package> newPackages = filterEntities(srcChannel.getPackages(), filters).getLeft();
-        tgtChannel.getPackages().addAll(newPackages);
-        ChannelFactory.save(tgtChannel);
+        PackageFilterEngine filterEngine = new PackageFilterEngine(filters);
+        List<PackageFilterRow> srcPackages = filterEngine.loadChannelPackages(srcChannel.getId());
+        LOG.debug("Filtering {} packages through {} filter(s)", srcPackages.size(), filters.size());
+        Set<Long> newPackageIds = filterEngine.filter(srcPackages).getLeft();
+        ChannelFactory.setPackages(tgtChannel, newPackageIds);
     }
 
     /**
@@ -1106,10 +1113,6 @@ public class ContentManager {
         return Pair.of(allowed, denied);
     }
 
-    private static List<Long> extractPackageIds(Collection<Package> packages) {
-        return packages.stream().map(Package::getId).collect(toList());
-    }
-
     /**
      * Ensures that given user has the Org admin role
      *
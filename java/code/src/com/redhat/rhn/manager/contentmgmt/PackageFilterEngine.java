@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.manager.contentmgmt;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.groupingBy;
+
+import com.redhat.rhn.common.db.datasource.DataResult;
+import com.redhat.rhn.common.db.datasource.ModeFactory;
+import com.redhat.rhn.common.db.datasource.SelectMode;
+import com.redhat.rhn.domain.contentmgmt.ContentFilter;
+import com.redhat.rhn.domain.contentmgmt.FilterCriteria;
+import com.redhat.rhn.domain.contentmgmt.PackageFilter;
+import com.redhat.rhn.domain.contentmgmt.PackageFilterRow;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates {@link PackageFilter}s against the packages of a channel.
+ *
+ * The packages are loaded in one query as {@link PackageFilterRow}s instead of Hibernate entities.
+ * Criteria which would need to walk the associations of every package, like {@code provides_name},
+ * are evaluated in the database and their result attached to the rows, so that all the filters can
+ * then be tested in memory.
+ */
+public class PackageFilterEngine {
+
+    private static final String PACKAGE_QUERIES = "Package_queries";
+
+    private final List<PackageFilter> denyFilters;
+    private final List<PackageFilter> allowFilters;
+
+    /**
+     * Standard constructor
+     * @param filters the filters to apply
+     */
+    public PackageFilterEngine(Collection<PackageFilter> filters) {
+        Map<ContentFilter.Rule, List<PackageFilter>> filtersByRule = filters.stream()
+                .collect(groupingBy(ContentFilter::getRule));
+        denyFilters = filtersByRule.getOrDefault(ContentFilter.Rule.DENY, emptyList());
+        allowFilters = filtersByRule.getOrDefault(ContentFilter.Rule.ALLOW, emptyList());
+    }
+
+    /**
+     * Loads the packages of a channel, with the data needed by the filters of this engine
+     * @param channelId the channel id
+     * @return the package rows
+     */
+    public List<PackageFilterRow> loadChannelPackages(Long channelId) {
+        SelectMode m = ModeFactory.getMode(PACKAGE_QUERIES, "channel_packages_for_filtering");
+        DataResult<PackageFilterRow> rows = m.execute(Map.of("cid", channelId));
+
+        Set<String> providedNames = getProvidedNames();
+        if (!providedNames.isEmpty()) {
+            Map<Long, PackageFilterRow> rowsById = rows.stream()
+                    .collect(Collectors.toMap(PackageFilterRow::getId, Function.identity()));
+            SelectMode providing = ModeFactory.getMode(PACKAGE_QUERIES, "channel_packages_providing");
+            for (String name : providedNames) {
+                DataResult<Map<String, Object>> ids = providing.execute(Map.of("cid", channelId, "name", name));
+                ids.stream()
+                        .map(r -> rowsById.get((Long) r.get("id")))
+                        .filter(Objects::nonNull)
+                        .forEach(r -> r.addProvidedName(name));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Filters packages.
+     *
+     * A package is filtered out when any DENY filter matches it, unless an ALLOW filter matches it as well:
+     * ALLOW filters have higher priority.
+     *
+     * @param packages the packages
+     * @return Pair containing (left side) the ids of the packages not filtered-out
+     * and (right side) the ids of the packages filtered out
+     */
+    public Pair<Set<Long>, Set<Long>> filter(Collection<PackageFilterRow> packages) {
+        Set<Long> allowed = new HashSet<>();
+        Set<Long> denied = new HashSet<>();
+        for (PackageFilterRow pack : packages) {
+            if (denyFilters.stream().anyMatch(f -> f.test(pack)) &&
+                    allowFilters.stream().noneMatch(f -> f.test(pack))) {
+                denied.add(pack.getId());
+            }
+            else {
+                allowed.add(pack.getId());
+            }
+        }
+        return Pair.of(allowed, denied);
+    }
+
+    private Set<String> getProvidedNames() {
+        return Stream.concat(denyFilters.stream(), allowFilters.stream())
+                .map(ContentFilter::getCriteria)
+                .filter(c -> c != null && c.getMatcher() == FilterCriteria.Matcher.PROVIDES_NAME)
+                .map(FilterCriteria::getValue)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.manager.contentmgmt.test;
+
+import static com.redhat.rhn.domain.contentmgmt.ContentFilter.Rule.ALLOW;
+import static com.redhat.rhn.domain.contentmgmt.ContentFilter.Rule.DENY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.domain.channel.test.ChannelFactoryTest;
+import com.redhat.rhn.domain.contentmgmt.ContentFilter;
+import com.redhat.rhn.domain.contentmgmt.FilterCriteria;
+import com.redhat.rhn.domain.contentmgmt.ModularPackageFilter;
+import com.redhat.rhn.domain.contentmgmt.PackageFilter;
+import com.redhat.rhn.domain.contentmgmt.PackageFilterRow;
+import com.redhat.rhn.domain.rhnpackage.Package;
+import com.redhat.rhn.domain.rhnpackage.PackageArch;
+import com.redhat.rhn.domain.rhnpackage.PackageCapability;
+import com.redhat.rhn.domain.rhnpackage.PackageEvr;
+import com.redhat.rhn.domain.rhnpackage.PackageName;
+import com.redhat.rhn.domain.rhnpackage.PackageProvides;
+import com.redhat.rhn.domain.rhnpackage.test.PackageCapabilityTest;
+import com.redhat.rhn.domain.rhnpackage.test.PackageTest;
+import com.redhat.rhn.manager.contentmgmt.PackageFilterEngine;
+import com.redhat.rhn.testing.BaseTestCaseWithUser;
+import com.redhat.rhn.testing.TestUtils;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for {@link PackageFilterEngine}
+ */
+public class PackageFilterEngineTest extends BaseTestCaseWithUser {
+
+    private static final Logger LOG = LogManager.getLogger(PackageFilterEngineTest.class);
+
+    private static final int PACKAGES = 80000;
+
+    /**
+     * Tests the filtering of projected rows against the expected allowed and denied packages.
+     */
+    @Test
+    public void testFilterRows() {
+        List<PackageFilterRow> rows = List.of(
+                createRow(1L, "bash", "5.1", "1", "x86_64"),
+                createRow(2L, "pkg-1", "1.0.0", "1", "x86_64"),
+                createRow(3L, "pkg-12", "1.0.0", "1", "x86_64"),
+                // denied by name, allowed by nevr
+                createRow(4L, "pkg-11", "1.4.0", "1.3", "x86_64"),
+                createRow(5L, "pkg-5", "1.10.0", "1.3", "x86_64"),
+                createRow(6L, "pkg-5", "1.20.0", "1.3", "x86_64"),
+                createRow(7L, "pkg-7", "1.30.0", "1.0", "x86_64"),
+                createRow(8L, "pkg-7", "1.40.0", "1.0", "noarch"),
+                createRow(9L, "pkg-7", "1.20.0", "1.0", "x86_64"),
+                createRow(10L, "pkg-9-devel", "1.0.0", "1", "x86_64"),
+                // denied by name, allowed by nevra with the default epoch
+                createRow(11L, "pkg-10", "1.3.0", "1.4", "x86_64"),
+                createRow(12L, "pkg-10", "1.3.0", "1.4", "noarch"),
+                createRow(13L, "vim", "9.0", "1.module+el8", "x86_64"));
+
+        Pair<Set<Long>, Set<Long>> result = new PackageFilterEngine(createFilters()).filter(rows);
+
+        assertEquals(Set.of(1L, 4L, 6L, 8L, 9L, 11L), result.getLeft());
+        assertEquals(Set.of(2L, 3L, 5L, 7L, 10L, 12L, 13L), result.getRight());
+    }
+
+    /**
+     * Logs the time taken to filter a synthetic source channel as package entities and as
+     * projected rows. Not part of the unit tests, run it manually.
+     */
+    @Test
+    @Disabled("Benchmark, run manually")
+    public void benchmarkFilterRows() {
+        List<PackageFilter> filters = createFilters();
+        List<Package> packages = createPackages(PACKAGES);
+
+        long start = System.nanoTime();
+        long deniedEntities = packages.stream()
+                .filter(p -> filters.stream().anyMatch(f -> f.getRule() == DENY && f.test(p)) &&
+                        filters.stream().noneMatch(f -> f.getRule() == ALLOW && f.test(p)))
+                .count();
+        long entityMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        List<PackageFilterRow> rows = packages.stream()
+                .map(p -> new PackageFilterRow(p.getId(), p.getPackageName().getName(), p.getPackageEvr(),
+                        p.getPackageArch().getLabel()))
+                .collect(Collectors.toList());
+        start = System.nanoTime();
+        Pair<Set<Long>, Set<Long>> result = new PackageFilterEngine(filters).filter(rows);
+        long rowMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(deniedEntities, result.getRight().size());
+        LOG.info("Filtered {} packages in {} ms as entities, {} ms as rows", PACKAGES, entityMillis, rowMillis);
+    }
+
+    /**
+     * Tests that the provided capabilities asked for by the filters are loaded with the packages.
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testLoadChannelPackagesWithProvides() throws Exception {
+        Channel channel = ChannelFactoryTest.createTestChannel(user);
+        Package providing = PackageTest.createTestPackage(user.getOrg());
+        Package other = PackageTest.createTestPackage(user.getOrg());
+        channel.addPackage(providing);
+        channel.addPackage(other);
+
+        String capabilityName = "installhint(" + TestUtils.randomString() + ")";
+        PackageCapability capability = PackageCapabilityTest.createTestCapability(capabilityName);
+        PackageProvides provides = new PackageProvides();
+        provides.setCapability(capability);
+        provides.setPack(providing);
+        provides.setSense(0L);
+        TestUtils.saveAndFlush(provides);
+        HibernateFactory.getSession().flush();
+
+        PackageFilterEngine engine = new PackageFilterEngine(List.of(
+                createFilter(DENY, FilterCriteria.Matcher.PROVIDES_NAME, "provides_name", capabilityName)));
+        Map<Long, PackageFilterRow> rows = engine.loadChannelPackages(channel.getId()).stream()
+                .collect(Collectors.toMap(PackageFilterRow::getId, r -> r));
+
+        assertEquals(Set.of(providing.getId(), other.getId()), rows.keySet());
+        PackageFilterRow providingRow = rows.get(providing.getId());
+        assertEquals(providing.getPackageName().getName(), providingRow.getName());
+        assertEquals(providing.getNevraWithEpoch(), providingRow.getNevraWithEpoch());
+        assertTrue(providingRow.provides(capabilityName));
+        assertFalse(rows.get(other.getId()).provides(capabilityName));
+
+        Pair<Set<Long>, Set<Long>> result = engine.filter(rows.values());
+        assertEquals(Set.of(other.getId()), result.getLeft());
+        assertEquals(Set.of(providing.getId()), result.getRight());
+    }
+
+    private static List<PackageFilter> createFilters() {
+        return List.of(
+                createFilter(DENY, FilterCriteria.Matcher.CONTAINS, "name", "pkg-1"),
+                createFilter(DENY, FilterCriteria.Matcher.LOWER, "nevr", "pkg-5-1.20.0-1.3"),
+                createFilter(DENY, FilterCriteria.Matcher.GREATEREQ, "nevra", "pkg-7-1.30.0-1.0.x86_64"),
+                createFilter(DENY, FilterCriteria.Matcher.MATCHES, "name", "pkg-9.*"),
+                createFilter(ALLOW, FilterCriteria.Matcher.EQUALS, "nevra", "pkg-10-0:1.3.0-1.4.x86_64"),
+                createFilter(ALLOW, FilterCriteria.Matcher.EQUALS, "nevr", "pkg-11-1.4.0-1.3"),
+                new ModularPackageFilter());
+    }
+
+    private static PackageFilterRow createRow(Long id, String name, String version, String release, String arch) {
+        return new PackageFilterRow(id, name, new PackageEvr(null, version, release, "rpm"), arch);
+    }
+
+    private static PackageFilter createFilter(ContentFilter.Rule rule, FilterCriteria.Matcher matcher,
+                                              String field, String value) {
+        PackageFilter filter = new PackageFilter();
+        filter.setRule(rule);
+        filter.setCriteria(new FilterCriteria(matcher, field, value));
+        return filter;
+    }
+
+    private static List<Package> createPackages(int count) {
+        PackageArch x8664 = new PackageArch();
+        x8664.setLabel("x86_64");
+        PackageArch noarch = new PackageArch();
+        noarch.setLabel("noarch");
+
+        List<Package> packages = new ArrayList<>(count);
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            PackageName name = new PackageName();
+            name.setName("pkg-" + i % 2000);
+            names.add(name.getName());
+            String release = "1." + i % 7 + (i % 50 == 0 ? ".module+el8" : "");
+            Package pack = new Package();
+            pack.setId((long) i);
+            pack.setPackageName(name);
+            pack.setPackageEvr(new PackageEvr(null, "1." + i / 2000 + ".0", release, "rpm"));
+            pack.setPackageArch(i % 3 == 0 ? noarch : x8664);
+            packages.add(pack);
+        }
+        LOG.debug("Created {} packages with {} names", packages.size(), names.size());
+        return packages;
+    }
+}
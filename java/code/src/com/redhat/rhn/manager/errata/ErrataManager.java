@@ -101,6 +101,7 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -123,6 +124,7 @@ public class ErrataManager extends BaseManager {
     private static final String ERRATA_QUERIES = "Errata_queries";
     private static final String ORG_ID = "org_id";
     private static final String USER_ID = "user_id";
+    private static final int ERRATA_CLONE_BATCH_SIZE = 500;
 
     private static Logger log = LogManager.getLogger(ErrataManager.class);
     private static TaskomaticApi taskomaticApi = new TaskomaticApi();
@@ -1400,13 +1402,11 @@ public class ErrataManager extends BaseManager {
             }
         }
 
+        List<Long> withoutClone = new ArrayList<>();
         for (ErrataOverview erratum : toClone) {
             if (!eidToClone.containsKey(erratum.getId())) {
                 // no owned clones yet, lets make our own
-                // hibernate was too slow, had to rewrite in mode queries
-                Long cloneId = ErrataHelper.cloneErrataFaster(erratum.getId(), user
-                        .getOrg());
-                eids.add(cloneId);
+                withoutClone.add(erratum.getId());
             }
             else {
                 // we have one already, reuse it
@@ -1414,12 +1414,18 @@ public class ErrataManager extends BaseManager {
             }
         }
 
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(withoutClone));
+        for (int i = 0; i < distinct.size(); i += ERRATA_CLONE_BATCH_SIZE) {
+            // hibernate was too slow, had to rewrite in mode queries
+            List<Long> batch = distinct.subList(i, Math.min(i + ERRATA_CLONE_BATCH_SIZE, distinct.size()));
+            eids.addAll(ErrataHelper.cloneErrataFaster(batch, user.getOrg()).values());
+            log.info("Cloned {} of {} errata for channel {}", i + batch.size(), distinct.size(), toCid);
+        }
+
         ChannelFactory.addErrataToChannel(eids, toCid);
 
         // for things like errata email and auto errata updates
-        for (Long eid : eids) {
-            ErrataManager.addErrataChannelNotifications(eid, toCid);
-        }
+        addErrataChannelNotifications(eids, toCid);
         return eids;
     }
 
@@ -1530,6 +1536,27 @@ public class ErrataManager extends BaseManager {
         m.executeUpdate(params);
     }
 
+    /**
+     * Replaces the pending notifications of several errata for a channel, like
+     * {@link #addErrataChannelNotifications(Long, Long)} does for one erratum.
+     * @param eids the errata to enqueue
+     * @param cid affected channel
+     */
+    public static void addErrataChannelNotifications(Collection<Long> eids, Long cid) {
+        if (eids.isEmpty()) {
+            return;
+        }
+        List<Long> errataIds = new ArrayList<>(eids);
+        Map<String, Object> params = new HashMap<>();
+        params.put("cid", cid);
+        WriteMode m = ModeFactory.getWriteMode(ERRATA_QUERIES,
+                "clear_errata_channel_notifications");
+        m.executeUpdate(params, errataIds);
+        params.put("datetime", new java.sql.Date(new java.util.Date().getTime()));
+        m = ModeFactory.getWriteMode(ERRATA_QUERIES, "insert_errata_channel_notifications");
+        m.executeUpdate(params, errataIds);
+    }
+
     /**
      * Delete all errata notifications for an errata in specified channel
      * @param errataId the errata ID to clear notifications for
@@ -2174,26 +2201,29 @@ public class ErrataManager extends BaseManager {
         ChannelFactory.lock(channel);
 
         HibernateFactory.doWithoutAutoFlushing(() -> {
-            for (Long eid : list) {
-                Errata errata = ErrataFactory.lookupById(eid);
-                // we merge custom errata directly (non Redhat and cloned)
-                if (errata.getOrg() != null) {
-                    ErrataCacheManager.addErrataRefreshing(cids, eid);
-                }
-                else {
-                    List<Errata> clones = ErrataFactory.lookupErrataByOriginal(user.getOrg(), errata);
-                    if (clones.isEmpty()) {
-                        log.debug("Cloning errata");
-                        var clonedId = ErrataHelper.cloneErrataFaster(eid, user.getOrg());
-                        ErrataCacheManager.addErrataRefreshing(cids, clonedId);
+            List<Long> eids = new ArrayList<>(new LinkedHashSet<>(list));
+            for (int i = 0; i < eids.size(); i += ERRATA_CLONE_BATCH_SIZE) {
+                List<Long> batch = eids.subList(i, Math.min(i + ERRATA_CLONE_BATCH_SIZE, eids.size()));
+                Set<Long> toPublish = new LinkedHashSet<>();
+                List<Long> toCloneIds = new ArrayList<>();
+                for (Map<String, Object> row : listFirstClones(batch, user.getOrg())) {
+                    Long eid = (Long) row.get("id");
+                    // we merge custom errata directly (non Redhat and cloned)
+                    if (row.get("org_id") != null) {
+                        toPublish.add(eid);
+                    }
+                    else if (row.get("clone_id") == null) {
+                        toCloneIds.add(eid);
                     }
                     else {
-                        log.debug("Re-publishing clone");
-                        Errata firstClone = clones.get(0);
-
-                        ErrataCacheManager.addErrataRefreshing(cids, firstClone.getId());
+                        // re-publishing the oldest clone
+                        toPublish.add((Long) row.get("clone_id"));
                     }
                 }
+                toPublish.addAll(ErrataHelper.cloneErrataFaster(toCloneIds, user.getOrg()).values());
+                ErrataCacheManager.addErrataRefreshing(cids, toPublish);
+                log.info("Merged {} of {} errata into channel {}, {} of them cloned", i + batch.size(),
+                        eids.size(), channel.getLabel(), toCloneIds.size());
             }
         });
 
@@ -2208,6 +2238,14 @@ public class ErrataManager extends BaseManager {
         updateSearchIndex();
     }
 
+    /**
+     * Lists for each erratum its org and the oldest of its clones in an org.
+     */
+    private static List<Map<String, Object>> listFirstClones(List<Long> eids, Org org) {
+        SelectMode m = ModeFactory.getMode(ERRATA_QUERIES, "first_clones_in_org");
+        return m.execute(Map.of(ORG_ID, org.getId()), eids);
+    }
+
     /**
      * Remove from RhnSet erratas that are not needed for the server.
      * This is useful to remove elements that were included when the errata was needed and remained.
@@ -17,6 +17,8 @@ package com.redhat.rhn.manager.errata.cache;
 import com.redhat.rhn.common.db.datasource.CallableMode;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
+import com.redhat.rhn.common.db.datasource.Row;
+import com.redhat.rhn.common.db.datasource.SelectMode;
 import com.redhat.rhn.common.db.datasource.WriteMode;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.messaging.MessageQueue;
@@ -33,13 +35,16 @@ import com.redhat.rhn.manager.errata.ErrataManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * ErrataCacheFactory
@@ -279,6 +284,28 @@ public class ErrataCacheManager extends HibernateFactory {
         }
     }
 
+    /**
+     * Adds several errata to a set of channels, see {@link #addErrataRefreshing(Collection, Long)}.
+     * The errata are linked to each channel and their notifications are replaced with one
+     * statement per channel.
+     * @param channelIdsToUpdate - channel IDs (Long) that need their errata
+     * caches updated
+     * @param errataIds IDs of the errata to update the cache for. Assumes the errata are published
+     */
+    public static void addErrataRefreshing(Collection<Long> channelIdsToUpdate, Set<Long> errataIds) {
+        if (errataIds.isEmpty()) {
+            return;
+        }
+        for (Long cid : channelIdsToUpdate) {
+            ChannelFactory.addErrataToChannel(errataIds, cid);
+            for (Long errataId : errataIds) {
+                List<Long> pids = ErrataFactory.listErrataChannelPackages(cid, errataId);
+                ErrataCacheManager.insertCacheForChannelPackages(cid, errataId, pids);
+            }
+            ErrataManager.addErrataChannelNotifications(errataIds, cid);
+        }
+    }
+
 
     /**
      * Asynchronusly updates the errata caches for the channels passed in.
@@ -433,4 +460,36 @@ public class ErrataCacheManager extends HibernateFactory {
         params.put("package_id", pid);
         return m.executeUpdate(params);
     }
+
+    /**
+     * Recomputes the needed packages and errata of several servers with a single
+     * statement. Only the rows which changed are written.
+     * @param sids the server ids
+     */
+    public static void updateNeededCacheForServers(List<Long> sids) {
+        CallableMode m = ModeFactory.getCallableMode("ErrataCache_queries",
+                "update_servers_needed_cache");
+        String ids = sids.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+        m.execute(Map.of("sids", ids), new HashMap<>());
+    }
+
+    /**
+     * Groups servers by the set of channels they are subscribed to. Servers without
+     * channels and servers which do not exist anymore share the same empty set.
+     * @param sids the server ids
+     * @return the server ids by channel set, keyed by the sorted channel ids
+     */
+    public static Map<String, List<Long>> groupServersByChannelSet(List<Long> sids) {
+        SelectMode m = ModeFactory.getMode("ErrataCache_queries", "server_channel_sets");
+        DataResult<Row> rows = m.execute(sids);
+        Map<Long, String> channelSets = new HashMap<>();
+        for (Row row : rows) {
+            channelSets.put((Long) row.get("server_id"), (String) row.get("channel_set"));
+        }
+        Map<String, List<Long>> groups = new LinkedHashMap<>();
+        for (Long sid : sids) {
+            groups.computeIfAbsent(channelSets.getOrDefault(sid, ""), k -> new ArrayList<>()).add(sid);
+        }
+        return groups;
+    }
 }
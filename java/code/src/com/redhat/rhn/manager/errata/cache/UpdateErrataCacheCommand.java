@@ -117,6 +117,20 @@ public class UpdateErrataCacheCommand extends BaseTransactionCommand {
         log.info("Finished errata cache for server [{}]", serverId);
     }
 
+    /**
+     * Updates the errata cache of several servers at once. The needed packages and
+     * errata of all the servers are computed with a single statement, and only the
+     * changed rows are written. The transaction is left to the caller.
+     * @param serverIds ids of the servers which need to get updated
+     */
+    public void updateErrataCacheForServers(List<Long> serverIds) {
+        log.info("Updating errata cache for {} servers", serverIds.size());
+        ErrataCacheManager.updateNeededCacheForServers(serverIds);
+        serverIds.forEach(ErrataManager::updateErrataSet);
+        SystemManager.updateSystemOverview(serverIds);
+        log.info("Finished errata cache for {} servers", serverIds.size());
+    }
+
     /**
      * Updates the errata cache for the given image.
      * @param imageId Image id which needs to get updated.
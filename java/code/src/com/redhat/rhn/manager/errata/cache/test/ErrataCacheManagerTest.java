@@ -23,6 +23,7 @@ import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
 import com.redhat.rhn.common.db.datasource.WriteMode;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.domain.channel.Channel;
 import com.redhat.rhn.domain.errata.Errata;
 import com.redhat.rhn.domain.errata.test.ErrataFactoryTest;
 import com.redhat.rhn.domain.org.Org;
@@ -40,6 +41,9 @@ import com.redhat.rhn.domain.user.User;
 import com.redhat.rhn.domain.user.UserFactory;
 import com.redhat.rhn.frontend.dto.ErrataCacheDto;
 import com.redhat.rhn.manager.errata.cache.ErrataCacheManager;
+import com.redhat.rhn.manager.system.SystemManager;
+import com.redhat.rhn.testing.ChannelTestUtils;
+import com.redhat.rhn.testing.PackageTestUtils;
 import com.redhat.rhn.testing.RhnBaseTestCase;
 import com.redhat.rhn.testing.TestUtils;
 import com.redhat.rhn.testing.UserTestUtils;
@@ -48,8 +52,12 @@ import org.junit.jupiter.api.Test;
 
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * ErrataFactoryTest
@@ -348,4 +356,48 @@ public class ErrataCacheManagerTest extends RhnBaseTestCase {
         assertFalse(dr.isEmpty());
         assertTrue(dr.size() >= 1);
     }
+
+    @Test
+    public void testUpdateNeededCacheForServers() throws Exception {
+        User user = UserTestUtils.findNewUser("testUser", "testOrg" + this.getClass().getSimpleName());
+        List<Package> packages = PackageTestUtils.createSubsequentPackages(user.getOrg());
+        Channel channel = ChannelTestUtils.createBaseChannel(user);
+        channel.getPackages().addAll(packages);
+        Errata errata = ErrataFactoryTest.createTestErrata(user.getOrg().getId());
+        errata.addPackage(packages.get(2));
+        channel.addErrata(errata);
+
+        Server server1 = ServerFactoryTest.createTestServer(user);
+        Server server2 = ServerFactoryTest.createTestServer(user);
+        Server server3 = ServerFactoryTest.createTestServer(user);
+        for (Server server : List.of(server1, server2)) {
+            SystemManager.subscribeServerToChannel(user, server, channel);
+            PackageTestUtils.installPackageOnServer(packages.get(0), server);
+        }
+        HibernateFactory.getSession().flush();
+
+        // computed the former way
+        ServerFactory.updateServerNeededCache(server1.getId());
+        Set<List<Long>> expected = neededCacheRows(server1.getId());
+        assertEquals(2, expected.size());
+
+        // stale row to be removed
+        ErrataCacheManager.insertNeededErrataCache(server2.getId(), errata.getId(), packages.get(1).getId());
+
+        ErrataCacheManager.updateNeededCacheForServers(List.of(server1.getId(), server2.getId()));
+        assertEquals(expected, neededCacheRows(server1.getId()));
+        assertEquals(expected, neededCacheRows(server2.getId()));
+
+        Map<String, List<Long>> groups = ErrataCacheManager.groupServersByChannelSet(
+                List.of(server1.getId(), server3.getId(), server2.getId()));
+        assertEquals(2, groups.size());
+        assertEquals(List.of(server1.getId(), server2.getId()), groups.get(channel.getId().toString()));
+        assertEquals(List.of(server3.getId()), groups.get(""));
+    }
+
+    private Set<List<Long>> neededCacheRows(Long sid) {
+        return ErrataCacheManager.packagesNeedingUpdates(sid).stream()
+                .map(row -> Arrays.asList(row.getErrataId(), row.getPackageId()))
+                .collect(Collectors.toSet());
+    }
 }
@@ -58,6 +58,14 @@ public class CobblerDistroSyncCommand extends CobblerCommand {
         return toReturn;
     }
 
+    private Map<String, Distro> getDistrosByName() {
+        Map<String, Distro> toReturn = new HashMap<>();
+        for (Distro distro : Distro.list(CobblerXMLRPCHelper.getAutomatedConnection())) {
+            toReturn.put(distro.getName(), distro);
+        }
+        return toReturn;
+    }
+
     /**
      * Sync spacewalk distros that have a null cobblerId
      *  we do this in store as well, (while doing other syncing
@@ -67,6 +75,8 @@ public class CobblerDistroSyncCommand extends CobblerCommand {
     public ValidatorError syncNullDistros() {
         List<String> errors = new LinkedList<>();
         List<KickstartableTree> unSynced = KickstartFactory.listUnsyncedKickstartTrees();
+        // one listing instead of a lookup per tree
+        Map<String, Distro> distrosByName = unSynced.isEmpty() ? Map.of() : getDistrosByName();
         String err;
         for (KickstartableTree tree : unSynced) {
 
@@ -75,9 +85,7 @@ public class CobblerDistroSyncCommand extends CobblerCommand {
                 continue;
             }
 
-            Distro distro = Distro.lookupByName(
-                    CobblerXMLRPCHelper.getAutomatedConnection(),
-                    tree.getCobblerDistroName());
+            Distro distro = distrosByName.get(tree.getCobblerDistroName());
             if (distro != null) {
                 tree.setCobblerId(distro.getUid());
             }
@@ -91,9 +99,7 @@ public class CobblerDistroSyncCommand extends CobblerCommand {
 
             //Now do virt
             if (tree.doesParaVirt() && tree.getCobblerXenId() == null) {
-                distro = Distro.lookupByName(
-                        CobblerXMLRPCHelper.getAutomatedConnection(),
-                        tree.getCobblerXenDistroName());
+                distro = distrosByName.get(tree.getCobblerXenDistroName());
                 if (distro != null) {
                     tree.setCobblerXenId(distro.getUid());
                 }
@@ -121,10 +127,13 @@ public class CobblerDistroSyncCommand extends CobblerCommand {
      * Initial population of 'kernel options' and 'kernel options post' in the database.
      */
     public void backsyncKernelOptions() {
-        for (KickstartableTree candidate : KickstartFactory.listCandidatesForBacksync()) {
-            Distro distro = Distro.lookupById(
-                    CobblerXMLRPCHelper.getAutomatedConnection(),
-                    candidate.getCobblerId());
+        List<KickstartableTree> candidates = KickstartFactory.listCandidatesForBacksync();
+        if (candidates.isEmpty()) {
+            return;
+        }
+        Map<String, Distro> cobblerDistros = getDistros();
+        for (KickstartableTree candidate : candidates) {
+            Distro distro = cobblerDistros.get(candidate.getCobblerId());
             if (hasDistroKernelOptions(distro)) {
                 log.info("Kernel options of kickstartable tree id {} are" +
                         " empty, but corresponding fields in its cobbler distro (uid {})" +
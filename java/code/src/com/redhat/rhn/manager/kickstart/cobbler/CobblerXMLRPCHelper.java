@@ -23,12 +23,12 @@ import com.redhat.rhn.frontend.xmlrpc.util.XMLRPCInvoker;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.cobbler.CobblerConnection;
+import org.cobbler.XmlRpcException;
+import org.cobbler.XmlRpcHttpClient;
 
 import java.net.MalformedURLException;
 import java.util.List;
 
-import redstone.xmlrpc.XmlRpcClient;
-import redstone.xmlrpc.XmlRpcException;
 import redstone.xmlrpc.XmlRpcFault;
 
 /**
@@ -41,14 +41,14 @@ import redstone.xmlrpc.XmlRpcFault;
  */
 public class CobblerXMLRPCHelper implements XMLRPCInvoker {
 
-    private XmlRpcClient client;
+    private XmlRpcHttpClient client;
     private static Logger log = LogManager.getLogger(CobblerXMLRPCHelper.class);
     /**
      * Constructor
      */
     public CobblerXMLRPCHelper() {
         try {
-            client = new XmlRpcClient(getCobblerUrl(), false);
+            client = new XmlRpcHttpClient(getCobblerUrl());
         }
         catch (MalformedURLException e) {
             throw new RuntimeException(e);
@@ -410,7 +410,17 @@ public class RhnSetDecl {
      * @return the set or <code>null</code> if the user has nothing in the set
      */
     public RhnSet lookup(User u) {
-        return RhnSetManager.findByLabel(u.getId(), label, cleanup);
+        return lookup(u.getId());
+    }
+
+    /**
+     * Look the set for the user with the given id up from the database. If the user
+     * has no entries in the set, return <code>null</code>
+     * @param userId the id of the user for whom to look the set up
+     * @return the set or <code>null</code> if the user has nothing in the set
+     */
+    public RhnSet lookup(Long userId) {
+        return RhnSetManager.findByLabel(userId, label, cleanup);
     }
 
     /**
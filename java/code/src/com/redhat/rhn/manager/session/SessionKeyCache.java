@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.manager.session;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.util.BoundedCache;
+import com.redhat.rhn.common.util.TimeUtils;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time-expiring cache of already validated session keys.
+ *
+ * Entries only hold the ids needed to resolve the logged in user, so that API
+ * calls do not have to load the session and recompute the key hash every time.
+ * An entry is dropped when it is older than the configured time to live, when
+ * the session expires, or when the session is removed or extended through
+ * {@link SessionManager}.
+ */
+public class SessionKeyCache extends BoundedCache<String, SessionKeyCache.ValidatedSession> {
+
+    private static final SessionKeyCache INSTANCE = new SessionKeyCache(
+            ConfigDefaults.get().getApiSessionCacheSize(),
+            TimeUnit.SECONDS.toMillis(ConfigDefaults.get().getApiSessionCacheTtl()));
+
+    /**
+     * Standard constructor.
+     * @param maxSize the maximum number of cached keys, 0 disables the cache
+     * @param ttlMillisIn the time in milliseconds after which an entry has to be validated again
+     */
+    public SessionKeyCache(int maxSize, long ttlMillisIn) {
+        super(maxSize, ttlMillisIn);
+    }
+
+    /**
+     * @return the instance used by {@link SessionManager}
+     */
+    public static SessionKeyCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Drops the entry of a session.
+     * @param sessionId the session id
+     */
+    public void evictSession(Long sessionId) {
+        removeIf((key, session) -> session.getSessionId().equals(sessionId));
+    }
+
+    /**
+     * Drops the entries of all the sessions of a user.
+     * @param userId the user id
+     */
+    public void evictUser(Long userId) {
+        removeIf((key, session) -> Objects.equals(session.getUserId(), userId));
+    }
+
+    @Override
+    protected boolean isValid(ValidatedSession session) {
+        return session.getExpires() >= TimeUtils.currentTimeSeconds();
+    }
+
+    /**
+     * A session whose key has been checked against the database.
+     */
+    public static class ValidatedSession {
+        private final Long sessionId;
+        private final Long userId;
+        private final long expires;
+
+        /**
+         * Standard constructor.
+         * @param sessionIdIn the session id
+         * @param userIdIn the id of the logged in user, may be null
+         * @param expiresIn the session expiration time, in seconds since the epoch
+         */
+        public ValidatedSession(Long sessionIdIn, Long userIdIn, long expiresIn) {
+            sessionId = sessionIdIn;
+            userId = userIdIn;
+            expires = expiresIn;
+        }
+
+        /**
+         * @return the session id
+         */
+        public Long getSessionId() {
+            return sessionId;
+        }
+
+        /**
+         * @return the id of the logged in user, may be null
+         */
+        public Long getUserId() {
+            return userId;
+        }
+
+        /**
+         * @return the session expiration time, in seconds since the epoch
+         */
+        public long getExpires() {
+            return expires;
+        }
+    }
+}
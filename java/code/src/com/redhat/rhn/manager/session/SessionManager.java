@@ -24,7 +24,9 @@ import com.redhat.rhn.domain.session.InvalidSessionIdException;
 import com.redhat.rhn.domain.session.WebSession;
 import com.redhat.rhn.domain.session.WebSessionFactory;
 import com.redhat.rhn.domain.user.User;
+import com.redhat.rhn.domain.user.UserFactory;
 import com.redhat.rhn.manager.BaseManager;
+import com.redhat.rhn.manager.session.SessionKeyCache.ValidatedSession;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -33,6 +35,7 @@ import org.apache.logging.log4j.Logger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Calendar;
+import java.util.function.Consumer;
 
 /**
  * SessionManager is the helper class used to fetch configuration
@@ -49,6 +52,8 @@ public class SessionManager extends BaseManager {
     public static final String SEC_PARM_TOKENIZER_CHAR = ":";
     // Timeout value 900,000 = 15 min
     public static final long TIMEOUT_VAL = 900000;
+    // Minimum lifetime extension in seconds worth writing the session to the database
+    public static final long EXTEND_GRANULARITY = 60;
 
     protected SessionManager() {
     }
@@ -96,7 +101,9 @@ public class SessionManager extends BaseManager {
      * @return number of sessions removed (typically 1 or 0).
      */
     public static int removeSession(WebSession s) {
-        return WebSessionFactory.remove(s);
+        int removed = WebSessionFactory.remove(s);
+        evictCachedSession(s.getId());
+        return removed;
     }
 
     /**
@@ -108,6 +115,42 @@ public class SessionManager extends BaseManager {
         return SessionManager.lookupByKey(sessionKey);
     }
 
+    /**
+     * Returns the session identified by sessionKey, without loading it if its key
+     * has recently been validated.
+     * @param sessionKey The key for the session that is requested
+     * @return Returns the ids of the validated session
+     */
+    public static ValidatedSession validateSessionKey(String sessionKey) {
+        SessionKeyCache cache = SessionKeyCache.getInstance();
+        ValidatedSession validated = cache.get(sessionKey);
+        if (validated == null) {
+            WebSession session = lookupByKey(sessionKey);
+            validated = new ValidatedSession(session.getId(), session.getWebUserId(), session.getExpires());
+            cache.put(sessionKey, validated);
+        }
+        return validated;
+    }
+
+    /**
+     * Returns the user logged into the session identified by sessionKey.
+     * @param sessionKey The key for the session
+     * @return the logged in user, or null if the session has no user
+     */
+    public static User lookupUserByKey(String sessionKey) {
+        return lookupUser(validateSessionKey(sessionKey));
+    }
+
+    /**
+     * Returns the user logged into a session whose key has already been validated.
+     * @param session The validated session
+     * @return the logged in user, or null if the session has no user
+     */
+    public static User lookupUser(ValidatedSession session) {
+        Long userId = session.getUserId();
+        return userId == null ? null : UserFactory.lookupById(userId);
+    }
+
     /**
      * Removes the session specified by sessionKey from the database.
      * @param sessionKey Key for the session you want to remove.
@@ -394,6 +437,8 @@ public class SessionManager extends BaseManager {
      */
     public static void purgeUserSessions(User user) {
         WebSessionFactory.purgeUserSessions(user);
+        Long userId = user.getId();
+        evictCached(cache -> cache.evictUser(userId));
     }
 
     /**
@@ -403,6 +448,37 @@ public class SessionManager extends BaseManager {
         session.setExpires(TimeUtils.currentTimeSeconds() +
                 SessionManager.lifetimeValue());
         WebSessionFactory.save(session);
+        evictCachedSession(session.getId());
+    }
+
+    /**
+     * Drops a session from the cache of validated session keys. Has to be called
+     * whenever the session is removed or its user or lifetime change.
+     * @param sessionId the session id
+     */
+    public static void evictCachedSession(Long sessionId) {
+        evictCached(cache -> cache.evictSession(sessionId));
+    }
+
+    private static void evictCached(Consumer<SessionKeyCache> eviction) {
+        SessionKeyCache cache = SessionKeyCache.getInstance();
+        HibernateFactory.doNowAndAfterCommit(() -> eviction.accept(cache));
+    }
+
+    /**
+     * Extends the lifetime of a validated session, unless it has already been extended
+     * less than {@link #EXTEND_GRANULARITY} seconds ago.
+     * @param session session which lifetime should be extended
+     */
+    public static void extendSessionLifetime(ValidatedSession session) {
+        long extended = TimeUtils.currentTimeSeconds() + SessionManager.lifetimeValue();
+        if (extended - session.getExpires() < EXTEND_GRANULARITY) {
+            return;
+        }
+        WebSession webSession = WebSessionFactory.lookupById(session.getSessionId());
+        if (webSession != null) {
+            extendSessionLifetime(webSession);
+        }
     }
 }
 
@@ -19,7 +19,9 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
@@ -31,12 +33,18 @@ import com.redhat.rhn.domain.session.InvalidSessionIdException;
 import com.redhat.rhn.domain.session.WebSession;
 import com.redhat.rhn.domain.session.WebSessionFactory;
 import com.redhat.rhn.domain.user.User;
+import com.redhat.rhn.frontend.xmlrpc.test.UnitTestHandler;
+import com.redhat.rhn.manager.session.SessionKeyCache;
+import com.redhat.rhn.manager.session.SessionKeyCache.ValidatedSession;
 import com.redhat.rhn.manager.session.SessionManager;
 import com.redhat.rhn.testing.RhnBaseTestCase;
 import com.redhat.rhn.testing.UserTestUtils;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /** JUnit test case for the SessionManagerTest.
  */
 
@@ -242,4 +250,86 @@ public class SessionManagerTest extends RhnBaseTestCase {
         }
 
     }
+
+    @Test
+    public void testValidateSessionKeyIsCached() {
+        User u = UserTestUtils.findNewUser("testUser",
+                "testOrg" + this.getClass().getSimpleName());
+        WebSession s = SessionManager.makeSession(u.getId(), SessionManager.lifetimeValue());
+        String key = s.getKey();
+
+        ValidatedSession validated = SessionManager.validateSessionKey(key);
+        assertEquals(s.getId(), validated.getSessionId());
+        assertEquals(u.getId(), validated.getUserId());
+        assertSame(validated, SessionManager.validateSessionKey(key));
+        assertEquals(u, SessionManager.lookupUserByKey(key));
+
+        // purging the user sessions must drop the cached key
+        flushAndEvict(s);
+        SessionManager.purgeUserSessions(u);
+        try {
+            SessionManager.validateSessionKey(key);
+            fail("Purged session key still valid");
+        }
+        catch (LookupException le) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testApiCallLooksUpSessionKeyOnce() throws Exception {
+        User u = UserTestUtils.findNewUser("testUser",
+                "testOrg" + this.getClass().getSimpleName());
+        WebSession s = SessionManager.makeSession(u.getId(), SessionManager.lifetimeValue());
+        SessionKeyCache cache = SessionKeyCache.getInstance();
+        long lookups = cache.getHits() + cache.getMisses();
+
+        Object login = new UnitTestHandler().invoke("unittest.getUserLogin",
+                new ArrayList<>(List.of(s.getKey())));
+
+        assertEquals(u.getLogin(), login);
+        assertEquals(lookups + 1, cache.getHits() + cache.getMisses());
+    }
+
+    @Test
+    public void testSessionKeyCacheInvalidation() {
+        User u = UserTestUtils.findNewUser("testUser",
+                "testOrg" + this.getClass().getSimpleName());
+        WebSession s = SessionManager.makeSession(u.getId(), SessionManager.lifetimeValue());
+        String key = s.getKey();
+
+        ValidatedSession validated = SessionManager.validateSessionKey(key);
+        SessionManager.extendSessionLifetime(s);
+        assertNotSame(validated, SessionManager.validateSessionKey(key));
+
+        SessionManager.killSession(key);
+        try {
+            SessionManager.validateSessionKey(key);
+            fail("Killed session key still valid");
+        }
+        catch (LookupException le) {
+            //expected
+        }
+    }
+
+    @Test
+    public void testSessionKeyCacheBounds() {
+        SessionKeyCache cache = new SessionKeyCache(2, 60000);
+        cache.put("1xa", new ValidatedSession(1L, 10L, TimeUtils.currentTimeSeconds() + 3600));
+        cache.put("2xb", new ValidatedSession(2L, 10L, TimeUtils.currentTimeSeconds() + 3600));
+        cache.put("3xc", new ValidatedSession(3L, 20L, TimeUtils.currentTimeSeconds() + 3600));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("1xa"));
+        assertEquals(1, cache.getMisses());
+
+        // expired sessions are not cached and do not evict valid entries
+        cache.put("4xd", new ValidatedSession(4L, 20L, TimeUtils.currentTimeSeconds() - 1));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("4xd"));
+
+        cache.evictUser(20L);
+        assertNull(cache.get("3xc"));
+        assertNotNull(cache.get("2xb"));
+        assertEquals(1, cache.getHits());
+    }
 }
@@ -170,6 +170,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -339,13 +340,21 @@ public class SystemManager extends BaseManager {
      * @return true if the system requires a reboot i.e: because kernel updates.
      */
     public static boolean requiresReboot(User user, Long sid) {
-        PageControl pc = new PageControl();
-        pc.setPageSize(0);
-        pc.setFilter(true);
-        pc.setFilterColumn("id");
-        pc.setFilterData("=" + sid.toString());
-        DataResult<SystemOverview> systems = systemListNew(user, PagedSqlQueryBuilder::parseFilterAsNumber, pc);
-        return !systems.stream().filter(sys -> sys.getRequiresReboot()).findFirst().isEmpty();
+        return new PagedSqlQueryBuilder()
+                .from("suseSystemOverview O, rhnUserServerPerms USP")
+                .where("O.id = USP.server_id AND USP.user_id = :user_id AND O.id = :sid AND O.requires_reboot")
+                .exists(Map.of("user_id", user.getId(), "sid", sid), null, null);
+    }
+
+    /**
+     * @param user
+     *            Currently logged in user.
+     * @return the number of systems visible to the user requiring a reboot.
+     */
+    public static int countSystemsRequiringReboot(User user) {
+        return systemListQueryBuilder()
+                .count(Map.of("user_id", user.getId()), requiringRebootPageControl(),
+                        PagedSqlQueryBuilder::parseFilterAsBoolean);
     }
 
     /**
@@ -357,13 +366,17 @@ public class SystemManager extends BaseManager {
      * @return list of SystemOverviews.
      */
     public static DataResult<SystemOverview> requiringRebootList(User user) {
+        return systemListNew(user, PagedSqlQueryBuilder::parseFilterAsBoolean, requiringRebootPageControl());
+    }
+
+    private static PageControl requiringRebootPageControl() {
         PageControl pc = new PageControl();
         pc.setStart(1);
         pc.setPageSize(0);
         pc.setFilter(true);
         pc.setFilterColumn("requires_reboot");
         pc.setFilterData("true");
-        return systemListNew(user, PagedSqlQueryBuilder::parseFilterAsBoolean, pc);
+        return pc;
     }
 
     /**
@@ -907,11 +920,20 @@ public class SystemManager extends BaseManager {
      */
     public static DataResult<SystemOverview> systemListNew(User user,
                       Function<Optional<PageControl>, PagedSqlQueryBuilder.FilterWithValue> parser, PageControl pc) {
+        return systemListQueryBuilder()
+                .run(Map.of("user_id", user.getId()), pc, parser, SystemOverview.class);
+    }
+
+    /**
+     * @return the Paged SQL query builder used for the systems list, with keyset paging
+     * enabled. It expects a user_id parameter.
+     */
+    public static PagedSqlQueryBuilder systemListQueryBuilder() {
         return new PagedSqlQueryBuilder()
                 .select("O.*")
                 .from("suseSystemOverview O, rhnUserServerPerms USP")
                 .where("O.id = USP.server_id AND USP.user_id = :user_id")
-                .run(Map.of("user_id", user.getId()), pc, parser, SystemOverview.class);
+                .keyset();
     }
 
     /**
@@ -3964,6 +3986,24 @@ public class SystemManager extends BaseManager {
     }
 
 
+    /**
+     * Update the suseSystemOverview table data for several systems. Systems
+     * which already have a pending update are not queued again.
+     * @param sids the IDs of the systems to update
+     */
+    public static void updateSystemOverview(Collection<Long> sids) {
+        List<Long> ids = sids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (ids.size() == 1) {
+            updateSystemOverview(ids.get(0));
+            return;
+        }
+        WriteMode mode = ModeFactory.getWriteMode("System_queries", "queue_system_overview_updates");
+        Map<String, Object> params = new HashMap<>();
+        params.put("org_id", OrgFactory.getSatelliteOrg().getId());
+        params.put("task_name", SystemsOverviewUpdateDriver.TASK_NAME);
+        mode.executeUpdate(params, ids);
+    }
+
     /**
      * Update the suseSystemOverview table data for a system
      * @param server the server to update. Checked for null value
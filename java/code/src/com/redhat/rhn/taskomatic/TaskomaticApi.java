@@ -23,6 +23,7 @@ import com.redhat.rhn.common.validator.ValidatorException;
 import com.redhat.rhn.domain.action.Action;
 import com.redhat.rhn.domain.action.ActionChain;
 import com.redhat.rhn.domain.action.ActionChainFactory;
+import com.redhat.rhn.domain.action.ActionFactory;
 import com.redhat.rhn.domain.action.channel.SubscribeChannelsAction;
 import com.redhat.rhn.domain.action.server.ServerAction;
 import com.redhat.rhn.domain.channel.Channel;
@@ -609,13 +610,17 @@ public class TaskomaticApi {
     public void scheduleMinionActionExecutions(List<Action> actions, boolean forcePackageListRefresh)
             throws TaskomaticApiException {
         List<Map<String, String>> paramsList = new ArrayList<>();
+        List<Long> actionIds = new ArrayList<>();
         for (Action action: actions) {
             Map<String, String> params = new HashMap<>();
             params.put("action_id", Long.toString(action.getId()));
             params.put("force_pkg_list_refresh", Boolean.toString(forcePackageListRefresh));
             params.put("earliest_action", action.getEarliestAction().toInstant().toString());
             paramsList.add(params);
+            actionIds.add(action.getId());
         }
+        // the jobs can start before the actions are committed, wake them up on commit
+        ActionFactory.notifyActionsScheduled(actionIds);
         invoke("tasko.scheduleRuns", MINION_ACTION_BUNCH_LABEL, MINION_ACTION_JOB_PREFIX, paramsList);
     }
 
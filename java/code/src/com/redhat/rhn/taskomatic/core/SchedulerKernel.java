@@ -107,6 +107,9 @@ public class SchedulerKernel {
 
             PrometheusExporter.INSTANCE.startHttpServer();
             PrometheusExporter.INSTANCE.registerScheduler(SchedulerKernel.scheduler, "taskomatic");
+            PrometheusExporter.INSTANCE.registerMessageQueueCollector();
+            PrometheusExporter.INSTANCE.registerTaskQueueCollector();
+            PrometheusExporter.INSTANCE.registerSystemsOverviewUpdateCollector();
         }
         catch (SchedulerException e) {
             throw new InstantiationException("this.scheduler failed");
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task;
+
+import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.domain.action.ActionFactory;
+
+import com.impossibl.postgres.api.jdbc.PGConnection;
+import com.impossibl.postgres.api.jdbc.PGNotificationListener;
+import com.impossibl.postgres.jdbc.PGDataSource;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listens for the notifications sent by {@link ActionFactory#notifyActionsScheduled(java.util.List)} when
+ * scheduled actions get committed, and wakes up the jobs waiting for them.
+ *
+ * The connection to Postgres is opened on first use and opened again after it was lost. As long as it is not
+ * available no future is handed out and the callers have to poll the database instead.
+ */
+public class ActionScheduledListener implements PGNotificationListener {
+
+    private static final Logger LOG = LogManager.getLogger(ActionScheduledListener.class);
+    private static final ActionScheduledListener INSTANCE = new ActionScheduledListener();
+    private static final long RECONNECT_DELAY = 60_000;
+
+    private final Map<Long, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+    private PGConnection connection;
+    private long lastConnectionAttempt;
+
+    /**
+     * @return the instance shared by the taskomatic jobs
+     */
+    public static ActionScheduledListener getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns a future completed when the given action is notified as committed. To not miss a commit, the
+     * caller has to check whether the action is already visible after registering.
+     * @param actionId the action id
+     * @return the future, or empty if notifications are not available
+     */
+    public Optional<CompletableFuture<Void>> register(long actionId) {
+        if (!startListening()) {
+            return Optional.empty();
+        }
+        return Optional.of(waiters.computeIfAbsent(actionId, id -> new CompletableFuture<>()));
+    }
+
+    /**
+     * Stops waiting for the given action.
+     * @param actionId the action id
+     * @param committed the future returned by {@link #register(long)}
+     */
+    public void unregister(long actionId, CompletableFuture<Void> committed) {
+        waiters.remove(actionId, committed);
+    }
+
+    /**
+     * @return the number of actions being waited for
+     */
+    public int getWaitingCount() {
+        return waiters.size();
+    }
+
+    /**
+     * Makes sure that the notifications are received.
+     * @return true if listening, false if the connection could not be opened
+     */
+    protected synchronized boolean startListening() {
+        if (connection != null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastConnectionAttempt < RECONNECT_DELAY) {
+            return false;
+        }
+        lastConnectionAttempt = now;
+
+        PGDataSource dataSource = new PGDataSource();
+        Config config = Config.get();
+        dataSource.setHost(config.getString(ConfigDefaults.DB_HOST));
+        dataSource.setPort(config.getInt(ConfigDefaults.DB_PORT));
+        dataSource.setDatabaseName(config.getString(ConfigDefaults.DB_NAME));
+        dataSource.setUser(config.getString(ConfigDefaults.DB_USER));
+        dataSource.setPassword(config.getString(ConfigDefaults.DB_PASSWORD));
+        dataSource.setSslMode("allow");
+        dataSource.setProtocolIoMode("nio");
+
+        try {
+            PGConnection newConnection = (PGConnection) dataSource.getConnection();
+            newConnection.addNotificationListener(this);
+            try (Statement stmt = newConnection.createStatement()) {
+                stmt.execute("LISTEN " + ActionFactory.ACTION_SCHEDULED_CHANNEL);
+            }
+            connection = newConnection;
+            LOG.debug("Listening for scheduled actions");
+            return true;
+        }
+        catch (SQLException e) {
+            LOG.warn("Unable to listen for scheduled actions, falling back to polling: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void notification(int processId, String channelName, String payload) {
+        LOG.trace("Got notification: {}", payload);
+        for (String id : payload.split(",")) {
+            wakeUp(Long.valueOf(id));
+        }
+    }
+
+    @Override
+    public void closed() {
+        LOG.warn("Connection listening for scheduled actions was closed");
+        synchronized (this) {
+            connection = null;
+            lastConnectionAttempt = 0;
+        }
+        // let the waiting jobs check the database again
+        waiters.keySet().forEach(this::wakeUp);
+    }
+
+    private void wakeUp(Long actionId) {
+        CompletableFuture<Void> committed = waiters.remove(actionId);
+        if (committed != null) {
+            committed.complete(null);
+        }
+    }
+}
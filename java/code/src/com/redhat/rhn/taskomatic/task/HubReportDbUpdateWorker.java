@@ -36,7 +36,9 @@ import com.redhat.rhn.taskomatic.task.threaded.TaskQueue;
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -105,39 +107,50 @@ public class HubReportDbUpdateWorker implements QueueWorker {
         return tableEntry.stream().map(t -> String.valueOf(t.getValue())).collect(Collectors.toList());
     }
 
-    private void updateRemoteData(Session remoteSession, Session localSession, String tableName, long mgmId) {
+    private boolean updateRemoteData(Session remoteSession, Session localSession, String tableName, long mgmId,
+                                     boolean useCopy) {
+        // The copied rows keep the synced_date of the peripheral: if neither the number of rows nor the last
+        // synced_date changed since the previous run there is nothing to refresh
+        Map<String, Object> remoteState = dbHelper.getTableState(remoteSession, tableName,
+                ReportDBHelper.LOCAL_MGM_ID);
+        Map<String, Object> localState = dbHelper.getTableState(localSession, tableName, mgmId);
+        if (remoteState.equals(localState)) {
+            log.debug("Table {} did not change since the last update, skipping", tableName);
+            return false;
+        }
+
         TimeUtils.logTime(log, "Refreshing table " + tableName, () -> {
-            SelectMode query = dbHelper.generateQuery(remoteSession, tableName, log);
+            // Only copy the columns known to both sides, the schemas may differ between versions
+            List<String> localColumns = dbHelper.listColumns(localSession, tableName);
+            Set<String> columns = dbHelper.listColumns(remoteSession, tableName).stream()
+                    .filter(c -> !c.equals("mgm_id") && localColumns.contains(c))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
 
             // Remove all the existing data
             log.debug("Deleting existing data in table {}", tableName);
             WriteMode delete = dbHelper.generateDelete(localSession, tableName);
             delete.executeUpdate(Map.of("mgm_id", mgmId));
 
-            // Extract the first batch
-            DataResult<Map<String, Object>> firstBatch = query.execute(Map.of("offset", 0, "limit", batchSize));
-            firstBatch.forEach(e -> e.remove("mgm_id"));
-
-            if (!firstBatch.isEmpty()) {
-                // Generate the insert using the column name retrieved from the select
-                WriteMode insert = dbHelper.generateInsert(localSession, tableName, mgmId, firstBatch.get(0).keySet());
-                insert.executeBatchUpdates(firstBatch);
-                log.debug("Extracted {} rows for table {}", firstBatch.size(), tableName);
-
-                // Iterate further if we can have additional rows
-                if (firstBatch.size() == batchSize) {
-                    dbHelper.<Map<String, Object>>batchStream(query, batchSize, batchSize)
-                            .forEach(batch -> {
-                                batch.forEach(e -> e.remove("mgm_id"));
-                                insert.executeBatchUpdates(batch);
-                                log.debug("Extracted {} rows more for table {}", firstBatch.size(), tableName);
-                            });
-                }
+            if (useCopy) {
+                long rows = dbHelper.copyTable(remoteSession, localSession, tableName, mgmId,
+                        new ArrayList<>(columns));
+                log.debug("Copied {} rows for table {}", rows, tableName);
+                return;
             }
-            else {
+
+            WriteMode insert = dbHelper.generateInsert(localSession, tableName, mgmId, columns);
+            long rows = dbHelper.keysetBatchStream(remoteSession, tableName, batchSize, log)
+                    .mapToLong(batch -> {
+                        insert.executeBatchUpdates(batch);
+                        log.debug("Extracted {} rows for table {}", batch.size(), tableName);
+                        return batch.size();
+                    })
+                    .sum();
+            if (rows == 0) {
                 log.debug("No data extracted for table {}", tableName);
             }
         });
+        return true;
     }
 
     @Override
@@ -158,10 +171,20 @@ public class HubReportDbUpdateWorker implements QueueWorker {
             ReportDbHibernateFactory remoteDB = new ReportDbHibernateFactory(remoteDBCM);
             try {
                 List<String> existingTables = filterExistingTables(remoteDB.getSession(), mgrServerInfo.getId());
-                existingTables.forEach(table -> {
-                    updateRemoteData(remoteDB.getSession(), localRh.getSession(), table, mgrServerInfo.getId());
-                });
-                dbHelper.analyzeReportDb(localRh.getSession());
+                boolean useCopy = dbHelper.supportsCopy(remoteDB.getSession()) &&
+                        dbHelper.supportsCopy(localRh.getSession());
+                int changedTables = 0;
+                for (String table : existingTables) {
+                    if (updateRemoteData(remoteDB.getSession(), localRh.getSession(), table, mgrServerInfo.getId(),
+                            useCopy)) {
+                        changedTables++;
+                    }
+                }
+                log.debug("{} of {} tables changed for server {}", changedTables, existingTables.size(),
+                        mgrServerInfo.getId());
+                if (changedTables > 0) {
+                    dbHelper.analyzeReportDb(localRh.getSession());
+                }
                 Server mgrServer = ServerFactory.lookupById(mgrServerInfo.getId());
                 mgrServer.getMgrServerInfo().setReportDbLastSynced(new Date());
                 ServerFactory.save(mgrServer);
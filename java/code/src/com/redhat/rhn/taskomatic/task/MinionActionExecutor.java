@@ -27,7 +27,6 @@ import com.redhat.rhn.manager.system.SystemManager;
 
 import com.suse.manager.webui.services.SaltServerActionService;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.quartz.JobExecutionContext;
 
 import java.time.Duration;
@@ -36,6 +35,10 @@ import java.time.ZonedDateTime;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Execute SUSE Manager actions via Salt.
@@ -44,10 +47,12 @@ public class MinionActionExecutor extends RhnJavaJob {
 
     public static final int ACTION_DATABASE_GRACE_TIME = 600_000;
     public static final int ACTION_DATABASE_POLL_TIME = 100;
+    public static final int ACTION_DATABASE_NOTIFICATION_TIMEOUT = 5_000;
     public static final long MAXIMUM_TIMEDELTA_FOR_SCHEDULED_ACTIONS = 24; // hours
     private static final LocalizationService LOCALIZATION = LocalizationService.getInstance();
 
     private final SaltServerActionService saltServerActionService;
+    private final ActionScheduledListener actionScheduledListener;
 
     /**
      * Default constructor.
@@ -61,7 +66,19 @@ public class MinionActionExecutor extends RhnJavaJob {
      * @param saltServerActionServiceIn the salt service
      */
     public MinionActionExecutor(SaltServerActionService saltServerActionServiceIn) {
+        this(saltServerActionServiceIn, ActionScheduledListener.getInstance());
+    }
+
+    /**
+     * Constructs an instance specifying the {@link SaltServerActionService} and the listener notified when
+     * actions are committed. Meant to be used only for unit test.
+     * @param saltServerActionServiceIn the salt service
+     * @param actionScheduledListenerIn the listener of scheduled actions
+     */
+    public MinionActionExecutor(SaltServerActionService saltServerActionServiceIn,
+                                ActionScheduledListener actionScheduledListenerIn) {
         this.saltServerActionService = saltServerActionServiceIn;
+        this.actionScheduledListener = actionScheduledListenerIn;
     }
 
     @Override
@@ -106,29 +123,17 @@ public class MinionActionExecutor extends RhnJavaJob {
                     .getBooleanValue("force_pkg_list_refresh");
         }
 
-        Action action = ActionFactory.lookupById(actionId);
-
-        // HACK: it is possible that this Taskomatic task triggered before the corresponding Action was really
-        // COMMITted in the database. Wait for some minutes checking if it appears
-        int waitedTime = 0;
-        while (countQueuedServerActions(action) == 0 && waitedTime < ACTION_DATABASE_GRACE_TIME) {
-            action = ActionFactory.lookupById(actionId);
-            try {
-                Thread.sleep(ACTION_DATABASE_POLL_TIME);
-            }
-            catch (InterruptedException e) {
-                // never happens
-                Thread.currentThread().interrupt();
-            }
-            waitedTime += ACTION_DATABASE_POLL_TIME;
-        }
+        long waitStart = System.currentTimeMillis();
+        int queued = waitForQueuedServerActions(actionId);
+        long waitedTime = System.currentTimeMillis() - waitStart;
 
+        Action action = ActionFactory.lookupById(actionId);
         if (action == null) {
             log.error("Action not found: {}", actionId);
             return;
         }
 
-        if (countQueuedServerActions(action) == 0) {
+        if (queued == 0) {
             log.error("Action with id={} has no server with status QUEUED", actionId);
             return;
         }
@@ -182,14 +187,42 @@ public class MinionActionExecutor extends RhnJavaJob {
         });
     }
 
-    private long countQueuedServerActions(Action action) {
-        if (action == null || CollectionUtils.isEmpty(action.getServerActions())) {
-            return 0;
+    /**
+     * This Taskomatic task can be triggered before the transaction scheduling the action is committed: wait for
+     * the action to show up. The scheduling transaction notifies {@link ActionScheduledListener} on commit, the
+     * count query is repeated as a fallback in case a notification gets lost or the listener is not available.
+     *
+     * @param actionId the action id
+     * @return the number of server actions in QUEUED status, 0 if none showed up within the grace time
+     */
+    private int waitForQueuedServerActions(long actionId) {
+        long start = System.currentTimeMillis();
+        int queued = ActionFactory.getServerActionCountByStatus(actionId, ActionFactory.STATUS_QUEUED);
+        while (queued == 0 && System.currentTimeMillis() - start < ACTION_DATABASE_GRACE_TIME) {
+            // register before counting again, so that a commit happening in between is not missed
+            Optional<CompletableFuture<Void>> committed = actionScheduledListener.register(actionId);
+            try {
+                queued = ActionFactory.getServerActionCountByStatus(actionId, ActionFactory.STATUS_QUEUED);
+                if (queued == 0) {
+                    if (committed.isPresent()) {
+                        committed.get().get(ACTION_DATABASE_NOTIFICATION_TIMEOUT, TimeUnit.MILLISECONDS);
+                    }
+                    else {
+                        Thread.sleep(ACTION_DATABASE_POLL_TIME);
+                    }
+                }
+            }
+            catch (TimeoutException | ExecutionException e) {
+                log.debug("No notification for action {}, checking the database again", actionId);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            finally {
+                committed.ifPresent(f -> actionScheduledListener.unregister(actionId, f));
+            }
         }
-
-        return action.getServerActions()
-                     .stream()
-                     .filter(serverAction -> ActionFactory.STATUS_QUEUED.equals(serverAction.getStatus()))
-                     .count();
+        return queued;
     }
 }
@@ -23,7 +23,13 @@ import com.redhat.rhn.common.db.datasource.WriteMode;
 
 import org.apache.logging.log4j.Logger;
 import org.hibernate.Session;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyOperation;
+import org.postgresql.copy.CopyOut;
 
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -60,6 +66,101 @@ public class ReportDBHelper {
                 .takeWhile(batch -> !batch.isEmpty());
     }
 
+    /**
+     * Returns the local entries of a report db table in a stream of batches, paging through the primary key
+     * of the table: every batch is read with an index range scan starting after the last row of the previous
+     * one, instead of scanning and discarding all the previous rows as an OFFSET would do.
+     * Tables without a primary key are paged with {@link #generateQuery(Session, String, Logger)}.
+     * @param session session the queries should use
+     * @param table table name
+     * @param batchSize max size of a batch
+     * @param log the logger
+     * @return stream of batched results
+     */
+    public Stream<DataResult<Map<String, Object>>> keysetBatchStream(Session session, String table, int batchSize,
+                                                                    Logger log) {
+        List<String> keyColumns = getPrimaryKeyColumns(session, table);
+        // mgm_id is fixed by the where clause
+        keyColumns.remove("mgm_id");
+        if (keyColumns.isEmpty()) {
+            log.debug("Table {} has no primary key, paging with offset", table);
+            return batchStream(generateQuery(session, table, log), batchSize, 0);
+        }
+
+        String keys = String.join(", ", keyColumns);
+        List<String> lastParams = keyColumns.stream().map(c -> "last_" + c).collect(Collectors.toList());
+        String select = "SELECT * FROM " + table + " WHERE mgm_id = " + LOCAL_MGM_ID;
+        String order = " ORDER BY " + keys + " LIMIT :limit";
+
+        SelectMode first = new GeneratedSelectMode("select.first." + table, session, select + order,
+                List.of("limit"));
+        List<String> nextParams = new ArrayList<>(lastParams);
+        nextParams.add("limit");
+        SelectMode next = new GeneratedSelectMode("select.next." + table, session,
+                select + " AND (" + keys + ") > (" +
+                        lastParams.stream().map(p -> ":" + p).collect(Collectors.joining(", ")) + ")" + order,
+                nextParams);
+
+        log.debug("Paging table {} by: {}", table, keys);
+        DataResult<Map<String, Object>> firstBatch = first.execute(Map.of("limit", batchSize));
+        return Stream.iterate(new KeysetBatch(firstBatch, keyColumns, batchSize), batch -> {
+                    if (batch.getLastKey() == null) {
+                        return new KeysetBatch(new DataResult<>(List.of()), keyColumns, batchSize);
+                    }
+                    Map<String, Object> params = new HashMap<>();
+                    for (int i = 0; i < keyColumns.size(); i++) {
+                        params.put(lastParams.get(i), batch.getLastKey().get(i));
+                    }
+                    params.put("limit", batchSize);
+                    return new KeysetBatch(next.execute(params), keyColumns, batchSize);
+                })
+                .map(KeysetBatch::getRows)
+                .takeWhile(rows -> !rows.isEmpty());
+    }
+
+    /**
+     * A batch of rows and the key of its last row. The key is captured when the batch is read, as callers
+     * may alter the rows before the next batch is requested. It is null when no more rows can follow.
+     */
+    private static class KeysetBatch {
+        private final DataResult<Map<String, Object>> rows;
+        private final List<Object> lastKey;
+
+        KeysetBatch(DataResult<Map<String, Object>> rowsIn, List<String> keyColumns, int batchSize) {
+            rows = rowsIn;
+            if (rows.size() < batchSize) {
+                lastKey = null;
+            }
+            else {
+                Map<String, Object> last = rows.get(rows.size() - 1);
+                lastKey = keyColumns.stream().map(last::get).collect(Collectors.toList());
+            }
+        }
+
+        DataResult<Map<String, Object>> getRows() {
+            return rows;
+        }
+
+        List<Object> getLastKey() {
+            return lastKey;
+        }
+    }
+
+    private List<String> getPrimaryKeyColumns(Session session, String table) {
+        String keySQL =
+                "SELECT a.attname AS name " +
+                "  FROM pg_constraint AS c " +
+                "    CROSS JOIN LATERAL UNNEST(c.conkey) WITH ORDINALITY AS cols(colnum, pos) " +
+                "    INNER JOIN pg_attribute AS a ON a.attrelid = c.conrelid AND cols.colnum = a.attnum " +
+                " WHERE c.contype = 'p' " +
+                "   AND c.conrelid = '" + table + "'::REGCLASS " +
+                " ORDER BY cols.pos";
+
+        GeneratedSelectMode keyQuery = new GeneratedSelectMode("keyquery." + table, session, keySQL, List.of());
+        DataResult<Map<String, String>> keys = keyQuery.execute();
+        return keys.stream().map(k -> k.get("name")).collect(Collectors.toList());
+    }
+
     private String getOrderColumns(Session session, String table, Logger log) {
         String orderSQL =
                 "SELECT string_agg(a.attname, ', ') AS order " +
@@ -172,6 +273,87 @@ public class ReportDBHelper {
         return new GeneratedWriteMode("insert." + table, session, sqlStatement, params);
     }
 
+    /**
+     * Returns the number of rows and the most recent synced_date of the entries of a report db table belonging
+     * to a server. Since the rows copied from a peripheral keep its synced_date, comparing the state of the
+     * peripheral local data with the copy on the hub tells whether the table has to be copied again.
+     * @param session session the query should use
+     * @param table table name
+     * @param mgmId the mgm_id of the entries
+     * @return a map with the row_count and last_synced values
+     */
+    public Map<String, Object> getTableState(Session session, String table, long mgmId) {
+        final String sqlStatement = "SELECT count(*) AS row_count, max(synced_date) AS last_synced FROM " + table +
+                " WHERE mgm_id = :mgm_id";
+        SelectMode query = new GeneratedSelectMode("state." + table, session, sqlStatement, List.of("mgm_id"));
+        DataResult<Map<String, Object>> result = query.execute(Map.of("mgm_id", mgmId));
+        return result.get(0);
+    }
+
+    /**
+     * Lists the columns of a report db table
+     * @param session session the query should use
+     * @param table table name
+     * @return the column names, in table order
+     */
+    public List<String> listColumns(Session session, String table) {
+        final String sqlStatement = "SELECT column_name FROM information_schema.columns " +
+                " WHERE table_schema = current_schema() AND table_name = :table_name " +
+                " ORDER BY ordinal_position";
+        SelectMode query = new GeneratedSelectMode("columns." + table, session, sqlStatement, List.of("table_name"));
+        DataResult<Map<String, String>> result = query.execute(Map.of("table_name", table.toLowerCase()));
+        return result.stream().map(c -> c.get("column_name")).collect(Collectors.toList());
+    }
+
+    /**
+     * Checks if the connection of a session supports the PostgreSQL COPY protocol
+     * @param session the session
+     * @return true if {@link #copyTable(Session, Session, String, long, List)} can be used with the session
+     */
+    public boolean supportsCopy(Session session) {
+        return session.doReturningWork(connection -> connection.isWrapperFor(PGConnection.class));
+    }
+
+    /**
+     * Copies the local entries of a report db table from one database to another, assigning them the given mgm_id.
+     * The rows are streamed from a COPY TO on the source to a COPY FROM on the target, without being parsed.
+     * @param source session of the database to read from
+     * @param target session of the database to write to
+     * @param table table name
+     * @param mgmId mgmId to insert
+     * @param columns the columns to copy (excluding mgm_id)
+     * @return the number of copied rows
+     */
+    public long copyTable(Session source, Session target, String table, long mgmId, List<String> columns) {
+        final String columnList = String.join(", ", columns);
+        final String copyOutSql = "COPY (SELECT " + mgmId + ", " + columnList + " FROM " + table +
+                " WHERE mgm_id = " + LOCAL_MGM_ID + ") TO STDOUT";
+        final String copyInSql = "COPY " + table + " (mgm_id, " + columnList + ") FROM STDIN";
+
+        return source.doReturningWork(sourceConnection -> target.doReturningWork(targetConnection -> {
+            CopyIn copyIn = targetConnection.unwrap(PGConnection.class).getCopyAPI().copyIn(copyInSql);
+            CopyOut copyOut = null;
+            try {
+                copyOut = sourceConnection.unwrap(PGConnection.class).getCopyAPI().copyOut(copyOutSql);
+                byte[] buffer;
+                while ((buffer = copyOut.readFromCopy()) != null) {
+                    copyIn.writeToCopy(buffer, 0, buffer.length);
+                }
+                return copyIn.endCopy();
+            }
+            finally {
+                cancelCopy(copyOut);
+                cancelCopy(copyIn);
+            }
+        }));
+    }
+
+    private static void cancelCopy(CopyOperation copy) throws SQLException {
+        if (copy != null && copy.isActive()) {
+            copy.cancelCopy();
+        }
+    }
+
     /**
      * Analyzes the report database tables after massive inserts
      * @param session session the query should use
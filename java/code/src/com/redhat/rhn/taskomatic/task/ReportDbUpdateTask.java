@@ -79,14 +79,14 @@ public class ReportDbUpdateTask extends RhnJavaJob {
                 Set<String> columnParameters = firstBatch.get(0).keySet();
                 WriteMode insert = dbHelper.generateInsertWithDate(session, tableName, LOCAL_MGM_ID, columnParameters);
 
-                insert.executeUpdates(firstBatch);
+                insert.executeBatchUpdates(firstBatch);
                 log.debug("Extracted {} rows for table {}", firstBatch.size(), tableName);
 
                 // Iterate further if we can have additional rows
                 if (firstBatch.size() == batchSize) {
                     dbHelper.<Map<String, Object>>batchStream(query, batchSize, batchSize)
                         .forEach(batch -> {
-                            insert.executeUpdates(batch);
+                            insert.executeBatchUpdates(batch);
                             log.debug("Extracted {} rows more for table {}", firstBatch.size(), tableName);
                         });
                 }
@@ -14,7 +14,6 @@
  */
 package com.redhat.rhn.taskomatic.task;
 
-import com.redhat.rhn.common.conf.Config;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.taskomatic.domain.TaskoRun;
 import com.redhat.rhn.taskomatic.task.threaded.QueueDriver;
@@ -94,21 +93,10 @@ public abstract class RhnQueueJob<T extends QueueDriver<?>> implements RhnJob {
             HibernateFactory.commitTransaction();
             HibernateFactory.closeSession();
         }
-        int defaultItems = 3;
-        if (queueName.equals("channel_repodata")) {
-            defaultItems = 1;
-        }
-        int maxWorkItems = Config.get().getInt("taskomatic." + queueName + "_max_work_items", defaultItems);
-        int queueSize = queue.getQueueSize();
         if (getLogger().isDebugEnabled()) {
-            getLogger().debug("Queue size (before run): {}", queueSize);
-        }
-        if (queueSize < maxWorkItems) {
-            queue.run();
-        }
-        else {
-            getLogger().warn("Maximum number of workers already put ... skipping.");
+            getLogger().debug("Queue size (before run): {}", queue.getQueueSize());
         }
+        queue.run();
     }
 
     /**
@@ -14,10 +14,7 @@
  */
 package com.redhat.rhn.taskomatic.task;
 
-import com.redhat.rhn.domain.org.OrgFactory;
-import com.redhat.rhn.domain.task.TaskFactory;
 import com.redhat.rhn.manager.system.SystemManager;
-import com.redhat.rhn.taskomatic.task.systems.SystemsOverviewUpdateDriver;
 
 import org.quartz.JobExecutionContext;
 
@@ -35,7 +32,6 @@ public class SystemOverviewUpdateTask extends RhnJavaJob {
     public void execute(JobExecutionContext context) {
 
         // Queue one task for each system to be picked by ServerOverviewUpdateQueue
-        SystemManager.listSystemIds().forEach(sid ->
-            TaskFactory.createTask(OrgFactory.getSatelliteOrg(), SystemsOverviewUpdateDriver.TASK_NAME, sid));
+        SystemManager.updateSystemOverview(SystemManager.listSystemIds());
     }
 }
@@ -17,20 +17,28 @@ package com.redhat.rhn.taskomatic.task.errata;
 import com.redhat.rhn.common.conf.Config;
 import com.redhat.rhn.domain.task.Task;
 import com.redhat.rhn.domain.task.TaskFactory;
+import com.redhat.rhn.manager.errata.cache.ErrataCacheManager;
 import com.redhat.rhn.taskomatic.task.threaded.QueueDriver;
 import com.redhat.rhn.taskomatic.task.threaded.QueueWorker;
 
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
- * Driver for the threaded errata cache update queue
+ * Driver for the threaded errata cache update queue. Channel and image tasks are
+ * handed over to the workers one by one. Server tasks are handed over in batches
+ * of servers subscribed to the same channels, each batch being recomputed with a
+ * single statement. Every server is part of one batch only, so that the workers
+ * write the cache rows of distinct servers and do not wait for each other.
  */
-public class ErrataCacheDriver implements QueueDriver<Task> {
+public class ErrataCacheDriver implements QueueDriver<List<Task>> {
 
     private Logger logger = null;
 
@@ -46,13 +54,15 @@ public class ErrataCacheDriver implements QueueDriver<Task> {
      * {@inheritDoc}
      */
     @Override
-    public List<Task> getCandidates() {
-        List<Task> tasks = TaskFactory.getTaskListByNameLike(ErrataCacheWorker.BY_CHANNEL);
-        tasks.addAll(consolidateTasks(
-                TaskFactory.getTaskListByNameLike(ErrataCacheWorker.FOR_SERVER)));
-        tasks.addAll(consolidateTasks(
-                TaskFactory.getTaskListByNameLike(ErrataCacheWorker.FOR_IMAGE)));
-        return tasks;
+    public List<List<Task>> getCandidates() {
+        List<List<Task>> candidates = new ArrayList<>();
+        TaskFactory.getTaskListByNameLike(ErrataCacheWorker.BY_CHANNEL)
+                .forEach(task -> candidates.add(List.of(task)));
+        candidates.addAll(batchServerTasks(consolidateTasks(
+                TaskFactory.getTaskListByNameLike(ErrataCacheWorker.FOR_SERVER))));
+        consolidateTasks(TaskFactory.getTaskListByNameLike(ErrataCacheWorker.FOR_IMAGE))
+                .forEach(task -> candidates.add(List.of(task)));
+        return candidates;
     }
 
     /**
@@ -83,8 +93,8 @@ public class ErrataCacheDriver implements QueueDriver<Task> {
      * {@inheritDoc}
      */
     @Override
-    public QueueWorker makeWorker(Task task) {
-        return new ErrataCacheWorker(task, logger);
+    public QueueWorker makeWorker(List<Task> tasks) {
+        return new ErrataCacheWorker(tasks, logger);
     }
 
     /**
@@ -113,6 +123,37 @@ public class ErrataCacheDriver implements QueueDriver<Task> {
         return consolidated;
     }
 
+    /**
+     * Split server tasks in batches of servers sharing the same channel subscriptions.
+     *
+     * @param tasks server tasks with unique data
+     * @return the batches of tasks
+     */
+    private List<List<Task>> batchServerTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int batchSize = Math.max(1, Config.get().getInt("taskomatic.errata_cache_batch_size", 100));
+        Map<Long, Task> tasksBySid = new HashMap<>();
+        tasks.forEach(task -> tasksBySid.put(task.getData(), task));
+
+        List<List<Task>> batches = new ArrayList<>();
+        Map<String, List<Long>> groups = ErrataCacheManager.groupServersByChannelSet(
+                new ArrayList<>(tasksBySid.keySet()));
+        for (List<Long> sids : groups.values()) {
+            for (int i = 0; i < sids.size(); i += batchSize) {
+                batches.add(sids.subList(i, Math.min(i + batchSize, sids.size())).stream()
+                        .map(tasksBySid::get)
+                        .collect(Collectors.toList()));
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Split {} server tasks in {} batches of {} channel sets", tasks.size(), batches.size(),
+                    groups.size());
+        }
+        return batches;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -120,4 +161,12 @@ public class ErrataCacheDriver implements QueueDriver<Task> {
     public boolean isBlockingTaskQueue() {
         return false;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isContinuous() {
+        return true;
+    }
 }
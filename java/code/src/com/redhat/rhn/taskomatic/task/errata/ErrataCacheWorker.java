@@ -15,6 +15,7 @@
 package com.redhat.rhn.taskomatic.task.errata;
 
 import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.domain.org.Org;
 import com.redhat.rhn.domain.task.Task;
 import com.redhat.rhn.domain.task.TaskFactory;
 import com.redhat.rhn.manager.errata.cache.UpdateErrataCacheCommand;
@@ -23,8 +24,12 @@ import com.redhat.rhn.taskomatic.task.threaded.TaskQueue;
 
 import org.apache.logging.log4j.Logger;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
- * Performs errata cache recalc for a given server or channel
+ * Performs errata cache recalc for a given channel or image, or for a batch of servers
  */
 public class ErrataCacheWorker implements QueueWorker {
 
@@ -32,17 +37,18 @@ public class ErrataCacheWorker implements QueueWorker {
     public static final String FOR_SERVER = "update_server_errata_cache";
     public static final String FOR_IMAGE  = "update_image_errata_cache";
 
-    private Task task;
+    private List<Task> tasks;
     private Logger logger;
     private TaskQueue parentQueue;
 
     /**
      * Constructor
-     * @param taskIn the task to work on
+     * @param tasksIn the tasks to work on, all with the same name. Only server
+     * tasks are handled in batches, other tasks come alone.
      * @param parentLogger logger to use
      */
-    public ErrataCacheWorker(Task taskIn, Logger parentLogger) {
-        task = taskIn;
+    public ErrataCacheWorker(List<Task> tasksIn, Logger parentLogger) {
+        tasks = tasksIn;
         logger = parentLogger;
     }
 
@@ -52,17 +58,18 @@ public class ErrataCacheWorker implements QueueWorker {
     @Override
     public void run() {
         try {
-            removeTask();
+            removeTasks();
             parentQueue.workerStarting();
             UpdateErrataCacheCommand uecc = new UpdateErrataCacheCommand();
+            Task task = tasks.get(0);
             if (ErrataCacheWorker.FOR_SERVER.equals(task.getName())) {
-                Long sid = task.getData();
+                List<Long> sids = tasks.stream().map(Task::getData).collect(Collectors.toList());
                 if (logger.isDebugEnabled()) {
-                    logger.debug("Updating errata cache for sid [{}]", sid);
+                    logger.debug("Updating errata cache for sids {}", sids);
                 }
-                uecc.updateErrataCacheForServer(sid, false);
+                uecc.updateErrataCacheForServers(sids);
                 if (logger.isDebugEnabled()) {
-                    logger.debug("Finished errata cache for sid [{}]", sid);
+                    logger.debug("Finished errata cache for sids {}", sids);
                 }
             }
             else if (ErrataCacheWorker.FOR_IMAGE.equals(task.getName())) {
@@ -107,9 +114,13 @@ public class ErrataCacheWorker implements QueueWorker {
     }
 
     /**
-     * Remove the task related to this worker from the DB via mode query.
+     * Remove the tasks related to this worker from the DB, with one statement per org and priority.
      */
-    private void removeTask() {
-        TaskFactory.deleteByOrgNameDataPriority(task.getOrg(), task.getName(), task.getData(), task.getPriority());
+    private void removeTasks() {
+        String name = tasks.get(0).getName();
+        Map<Org, Map<Integer, List<Long>>> data = tasks.stream().collect(Collectors.groupingBy(Task::getOrg,
+                Collectors.groupingBy(Task::getPriority, Collectors.mapping(Task::getData, Collectors.toList()))));
+        data.forEach((org, byPriority) -> byPriority.forEach((priority, ids) ->
+                TaskFactory.deleteByOrgNameDataPriority(org, name, ids, priority)));
     }
 }
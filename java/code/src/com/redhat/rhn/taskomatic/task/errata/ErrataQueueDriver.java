@@ -105,4 +105,12 @@ public class ErrataQueueDriver implements QueueDriver<Map<String, Long>> {
     public boolean isBlockingTaskQueue() {
         return false;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isContinuous() {
+        return true;
+    }
 }
@@ -126,4 +126,12 @@ public class ChannelRepodataDriver implements QueueDriver<Map<String, Object>> {
     public boolean isBlockingTaskQueue() {
         return false;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isContinuous() {
+        return true;
+    }
 }
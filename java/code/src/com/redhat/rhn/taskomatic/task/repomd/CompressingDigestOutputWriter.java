@@ -72,6 +72,18 @@ public class CompressingDigestOutputWriter extends OutputStream {
         bufferedStream.write(b);
     }
 
+    /**
+     * write stream with a part of a byte array
+     * @param b byte
+     * @param off offset of the first byte to write
+     * @param len number of bytes to write
+     * @throws IOException ioexception
+     */
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        bufferedStream.write(b, off, len);
+    }
+
     /**
      * flush stream
      * @throws IOException ioexception
@@ -37,7 +37,7 @@ import java.util.Collection;
  *
  *
  */
-public class FilelistsXmlWriter extends RepomdWriter {
+public class FilelistsXmlWriter extends PackageXmlWriter {
 
     /**
      *
@@ -81,17 +81,17 @@ public class FilelistsXmlWriter extends RepomdWriter {
     }
 
     /**
-     *
-     * @param pkgDto pkg info to add to xml
+     * Returns the filelists.xml entry of a package. Entries not cached in the database yet
+     * are rendered and stored.
+     * @param pkgDto pkg info
+     * @return the package entry
      */
-    public void addPackage(PackageDto pkgDto) {
+    @Override
+    public String getPackageXml(PackageDto pkgDto) {
         try {
             String xml = pkgDto.getFilelistXml();
             if (ConfigDefaults.get().useDBRepodata() && !StringUtils.isEmpty(xml)) {
-                if (xml != null) {
-                    handler.addCharacters(xml);
-                    return;
-                }
+                return xml;
             }
 
             OutputStream st = new ByteArrayOutputStream();
@@ -105,9 +105,7 @@ public class FilelistsXmlWriter extends RepomdWriter {
 
             String pkg =  st.toString();
             PackageManager.updateRepoFileList(pkgDto.getId(), pkg);
-            handler.addCharacters(pkg);
-
-
+            return pkg;
         }
         catch (SAXException e) {
             throw new RepomdRuntimeException(e);
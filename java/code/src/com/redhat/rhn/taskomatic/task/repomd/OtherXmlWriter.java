@@ -37,7 +37,7 @@ import java.util.Collection;
  *
  *
  */
-public class OtherXmlWriter extends RepomdWriter {
+public class OtherXmlWriter extends PackageXmlWriter {
 
     /**
      *
@@ -80,18 +80,18 @@ public class OtherXmlWriter extends RepomdWriter {
     }
 
     /**
-     *
-     * @param pkgDto pkg info to add to xml
+     * Returns the other.xml entry of a package. Entries not cached in the database yet
+     * are rendered and stored.
+     * @param pkgDto pkg info
+     * @return the package entry
      */
-    public void addPackage(PackageDto pkgDto) {
+    @Override
+    public String getPackageXml(PackageDto pkgDto) {
 
         try {
             String xml = pkgDto.getOtherXml();
             if (ConfigDefaults.get().useDBRepodata() && !StringUtils.isEmpty(xml)) {
-                if (xml != null) {
-                    handler.addCharacters(xml);
-                    return;
-                }
+                return xml;
             }
 
             OutputStream st = new ByteArrayOutputStream();
@@ -105,8 +105,7 @@ public class OtherXmlWriter extends RepomdWriter {
 
             String pkg =  st.toString();
             PackageManager.updateRepoOther(pkgDto.getId(), pkg);
-            handler.addCharacters(pkg);
-
+            return pkg;
         }
         catch (SAXException e) {
             throw new RepomdRuntimeException(e);
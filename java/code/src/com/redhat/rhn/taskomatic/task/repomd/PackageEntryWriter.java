@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import com.redhat.rhn.frontend.dto.PackageDto;
+
+/**
+ * Writer of a repository metadata file with one entry per package, see {@link PackageXmlPipeline}.
+ * @param <T> the type of the package entries
+ */
+public interface PackageEntryWriter<T> {
+
+    /**
+     * Returns the entry of a package. Called on the thread owning the database session.
+     * @param pkgDto pkg info
+     * @return the entry, or null if the package has no entry in this file
+     */
+    T getPackageEntry(PackageDto pkgDto);
+
+    /**
+     * Appends an entry to the file. Called on the writing thread of the file.
+     * @param entry the entry, nothing is written if null
+     */
+    void addPackageEntry(T entry);
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import com.redhat.rhn.frontend.dto.PackageDto;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Writes batches of packages to several metadata files at once.
+ *
+ * The entries of a batch are fetched on the calling thread, which keeps the
+ * database session, and are then appended to each file by a dedicated thread.
+ * Serialization, compression and digest of each file thus run in parallel, and
+ * while a batch is being written the caller can already load the next one.
+ * At most one batch per file is in flight.
+ */
+public class PackageXmlPipeline implements AutoCloseable {
+
+    private final List<? extends PackageEntryWriter<?>> writers;
+    private final List<ExecutorService> executors = new ArrayList<>();
+    private List<Future<?>> inFlight = Collections.emptyList();
+
+    /**
+     * Constructor
+     * @param name name used for the writing threads
+     * @param writersIn the writers to feed, each of them is only used by one thread
+     */
+    public PackageXmlPipeline(String name, List<? extends PackageEntryWriter<?>> writersIn) {
+        writers = writersIn;
+        for (int i = 0; i < writers.size(); i++) {
+            String threadName = "repomd-" + name + "-" + i;
+            executors.add(Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * Gets the entries of a batch of packages and queues them for writing. Waits
+     * for the previous batch to be written before handing over the new one.
+     * @param packages the packages to add
+     */
+    public void addPackages(Collection<PackageDto> packages) {
+        List<Runnable> tasks = new ArrayList<>(writers.size());
+        for (PackageEntryWriter<?> writer : writers) {
+            tasks.add(prepare(writer, packages));
+        }
+
+        await();
+        List<Future<?>> submitted = new ArrayList<>(writers.size());
+        for (int i = 0; i < writers.size(); i++) {
+            submitted.add(executors.get(i).submit(tasks.get(i)));
+        }
+        inFlight = submitted;
+    }
+
+    /**
+     * Waits for the queued packages to be written. The writers can be used by
+     * the calling thread again once this returns.
+     */
+    public void await() {
+        try {
+            for (Future<?> future : inFlight) {
+                future.get();
+            }
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RepomdRuntimeException(e);
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RepomdRuntimeException(e.getCause());
+        }
+        finally {
+            inFlight = Collections.emptyList();
+        }
+    }
+
+    private static <T> Runnable prepare(PackageEntryWriter<T> writer, Collection<PackageDto> packages) {
+        List<T> entries = new ArrayList<>(packages.size());
+        for (PackageDto pkgDto : packages) {
+            entries.add(writer.getPackageEntry(pkgDto));
+        }
+        return () -> entries.forEach(writer::addPackageEntry);
+    }
+
+    /**
+     * Stops the writing threads. Packages not written yet are discarded.
+     */
+    @Override
+    public void close() {
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import com.redhat.rhn.frontend.dto.PackageDto;
+
+import org.xml.sax.SAXException;
+
+import java.io.Writer;
+
+/**
+ * Writer of a repository metadata file with one entry per package.
+ *
+ * Getting the entry of a package may need the database, while appending it
+ * to the document does not, so the two steps can run on different threads.
+ */
+public abstract class PackageXmlWriter extends RepomdWriter implements PackageEntryWriter<String> {
+
+    /**
+     * Constructor takes in a writer
+     * @param writer content writer
+     * @param shouldEscape says whether write output shall be escaped
+     */
+    protected PackageXmlWriter(Writer writer, boolean shouldEscape) {
+        super(writer, shouldEscape);
+    }
+
+    /**
+     * Returns the XML entry of a package, rendering it if it is not available yet.
+     * @param pkgDto pkg info
+     * @return the XML entry, or null if the package has no entry in this file
+     */
+    public abstract String getPackageXml(PackageDto pkgDto);
+
+    /**
+     * Appends an already rendered package entry to the document.
+     * @param xml the XML entry, nothing is written if null
+     */
+    public void addPackageXml(String xml) {
+        if (xml == null) {
+            return;
+        }
+        try {
+            handler.addCharacters(xml);
+        }
+        catch (SAXException e) {
+            throw new RepomdRuntimeException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getPackageEntry(PackageDto pkgDto) {
+        return getPackageXml(pkgDto);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addPackageEntry(String entry) {
+        addPackageXml(entry);
+    }
+
+    /**
+     *
+     * @param pkgDto pkg info to add to xml
+     */
+    public void addPackage(PackageDto pkgDto) {
+        addPackageXml(getPackageXml(pkgDto));
+    }
+}
@@ -39,7 +39,7 @@ import java.util.Map;
  * Primary.xml writer class
  *
  */
-public class PrimaryXmlWriter extends RepomdWriter {
+public class PrimaryXmlWriter extends PackageXmlWriter {
 
     /**
      *
@@ -83,18 +83,17 @@ public class PrimaryXmlWriter extends RepomdWriter {
     }
 
     /**
-     *
-     * @param pkgDto pkg info to add to xml
+     * Returns the primary.xml entry of a package. Entries not cached in the database yet
+     * are rendered and stored.
+     * @param pkgDto pkg info
+     * @return the package entry
      */
-    public void addPackage(PackageDto pkgDto) {
+    @Override
+    public String getPackageXml(PackageDto pkgDto) {
         try {
             String xml = pkgDto.getPrimaryXml();
             if (ConfigDefaults.get().useDBRepodata() && !StringUtils.isEmpty(xml)) {
-
-                if (xml != null) {
-                    handler.addCharacters(xml);
-                    return;
-                }
+                return xml;
             }
 
             ByteArrayOutputStream st = new ByteArrayOutputStream();
@@ -114,8 +113,7 @@ public class PrimaryXmlWriter extends RepomdWriter {
 
             String pkg =  st.toString();
             PackageManager.updateRepoPrimary(pkgDto.getId(), pkg);
-            handler.addCharacters(pkg);
-
+            return pkg;
         }
         catch (SAXException e) {
             throw new RepomdRuntimeException(e);
@@ -255,98 +255,18 @@ public class RpmRepositoryWriter extends RepositoryWriter {
         log.info("Generating new repository metadata for channel '{}'({}) {} packages, {} errata", channel.getLabel(),
                 checksumType, channel.getPackageCount(), channel.getErrataCount());
 
-        CompressingDigestOutputWriter primaryFile, filelistsFile, otherFile, susedataFile;
-
-        try {
-            primaryFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + PRIMARY_FILE),
-                    checksumAlgo);
-            filelistsFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + FILELISTS_FILE),
-                    checksumAlgo);
-            otherFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + OTHER_FILE), checksumAlgo);
-            susedataFile = new CompressingDigestOutputWriter(
-                    new FileOutputStream(prefix + SUSEDATA_FILE), checksumAlgo);
-        }
-        catch (IOException | NoSuchAlgorithmException e) {
-            throw new RepomdRuntimeException(e);
-        }
-
-        BufferedWriter primaryBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(primaryFile));
-        BufferedWriter filelistsBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(filelistsFile));
-        BufferedWriter otherBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(otherFile));
-        BufferedWriter susedataBufferedWriter = new BufferedWriter(
-                new OutputStreamWriter(susedataFile));
-        PrimaryXmlWriter primary = new PrimaryXmlWriter(
-                primaryBufferedWriter);
-        FilelistsXmlWriter filelists = new FilelistsXmlWriter(
-                filelistsBufferedWriter);
-        OtherXmlWriter other = new OtherXmlWriter(otherBufferedWriter);
-        SuseDataXmlWriter susedata = new SuseDataXmlWriter(
-                susedataBufferedWriter);
         Date start = new Date();
-
-        primary.begin(channel);
-        filelists.begin(channel);
-        other.begin(channel);
-        susedata.begin(channel);
-
-        // batch the elaboration so we don't have to hold many thousands of packages in memory at once
-        final int batchSize = 1000;
-        for (long i = 0; i < channel.getPackageCount(); i += batchSize) {
-            DataResult<PackageDto> packageBatch = TaskManager.getChannelPackageDtos(channel, i, batchSize);
-            packageBatch.elaborate();
-            for (PackageDto pkgDto : packageBatch) {
-                // this is a sanity check
-                // package may have been deleted before packageBatch.elaborate()
-                if (pkgDto.getChecksum() == null) {
-                    // channel content changed, we cannot guarantee correct repodata
-                    throw new RepomdRuntimeException("Package with id " + pkgDto.getId() +
-                            " removed from server, interrupting repo generation for " +
-                            channel.getLabel());
-                }
-                primary.addPackage(pkgDto);
-                filelists.addPackage(pkgDto);
-                other.addPackage(pkgDto);
-                susedata.addPackage(pkgDto);
-                try {
-                    primaryFile.flush();
-                    filelistsFile.flush();
-                    otherFile.flush();
-                    susedataFile.flush();
-                }
-                catch (IOException e) {
-                    throw new RepomdRuntimeException(e);
-                }
-            }
-            log.info("Processed {} packages", i + packageBatch.getEnd());
-        }
-        primary.end();
-        filelists.end();
-        other.end();
-        susedata.end();
-        try {
-            primaryBufferedWriter.close();
-            filelistsBufferedWriter.close();
-            otherBufferedWriter.close();
-            susedataBufferedWriter.close();
+        List<RepomdIndexData> packagesData;
+        if (ConfigDefaults.get().useDBRepodata() && ConfigDefaults.get().spliceRepodata()) {
+            packagesData = writeSplicedPackageFiles(channel, prefix, checksumAlgo);
         }
-        catch (IOException e) {
-            throw new RepomdRuntimeException(e);
+        else {
+            packagesData = writePackageFiles(channel, prefix, checksumAlgo);
         }
-
-        RepomdIndexData primaryData = new RepomdIndexData(primaryFile.getCompressedChecksum(),
-                primaryFile.getUncompressedChecksum(), channel.getLastModified());
-        RepomdIndexData filelistsData = new RepomdIndexData(filelistsFile.getCompressedChecksum(),
-                filelistsFile.getUncompressedChecksum(), channel.getLastModified());
-        RepomdIndexData otherData = new RepomdIndexData(otherFile.getCompressedChecksum(),
-                otherFile.getUncompressedChecksum(), channel.getLastModified());
-        RepomdIndexData susedataData = new RepomdIndexData(susedataFile.getCompressedChecksum(),
-                susedataFile.getUncompressedChecksum(), channel.getLastModified());
+        RepomdIndexData primaryData = packagesData.get(0);
+        RepomdIndexData filelistsData = packagesData.get(1);
+        RepomdIndexData otherData = packagesData.get(2);
+        RepomdIndexData susedataData = packagesData.get(3);
 
         if (log.isDebugEnabled()) {
             log.debug("Starting updateinfo generation for '{}\"", channel.getLabel());
@@ -464,6 +384,166 @@ public class RpmRepositoryWriter extends RepositoryWriter {
         log.info("Solv file successfully create for '{}'", channel.getLabel());
     }
 
+    /**
+     * Writes primary, filelists, other and susedata, compressing each file as a whole.
+     * @param channel the channel
+     * @param prefix the repository directory
+     * @param checksumAlgo checksum algorithm
+     * @return the index data of primary, filelists, other and susedata
+     */
+    private List<RepomdIndexData> writePackageFiles(Channel channel, String prefix, String checksumAlgo) {
+        CompressingDigestOutputWriter primaryFile, filelistsFile, otherFile, susedataFile;
+
+        try {
+            primaryFile = new CompressingDigestOutputWriter(
+                    new FileOutputStream(prefix + PRIMARY_FILE),
+                    checksumAlgo);
+            filelistsFile = new CompressingDigestOutputWriter(
+                    new FileOutputStream(prefix + FILELISTS_FILE),
+                    checksumAlgo);
+            otherFile = new CompressingDigestOutputWriter(
+                    new FileOutputStream(prefix + OTHER_FILE), checksumAlgo);
+            susedataFile = new CompressingDigestOutputWriter(
+                    new FileOutputStream(prefix + SUSEDATA_FILE), checksumAlgo);
+        }
+        catch (IOException | NoSuchAlgorithmException e) {
+            throw new RepomdRuntimeException(e);
+        }
+
+        BufferedWriter primaryBufferedWriter = new BufferedWriter(
+                new OutputStreamWriter(primaryFile));
+        BufferedWriter filelistsBufferedWriter = new BufferedWriter(
+                new OutputStreamWriter(filelistsFile));
+        BufferedWriter otherBufferedWriter = new BufferedWriter(
+                new OutputStreamWriter(otherFile));
+        BufferedWriter susedataBufferedWriter = new BufferedWriter(
+                new OutputStreamWriter(susedataFile));
+        PrimaryXmlWriter primary = new PrimaryXmlWriter(
+                primaryBufferedWriter);
+        FilelistsXmlWriter filelists = new FilelistsXmlWriter(
+                filelistsBufferedWriter);
+        OtherXmlWriter other = new OtherXmlWriter(otherBufferedWriter);
+        SuseDataXmlWriter susedata = new SuseDataXmlWriter(
+                susedataBufferedWriter);
+        primary.begin(channel);
+        filelists.begin(channel);
+        other.begin(channel);
+        susedata.begin(channel);
+        writePackages(channel, List.of(primary, filelists, other, susedata));
+        primary.end();
+        filelists.end();
+        other.end();
+        susedata.end();
+        try {
+            primaryBufferedWriter.close();
+            filelistsBufferedWriter.close();
+            otherBufferedWriter.close();
+            susedataBufferedWriter.close();
+        }
+        catch (IOException e) {
+            throw new RepomdRuntimeException(e);
+        }
+
+        return List.of(new RepomdIndexData(primaryFile.getCompressedChecksum(),
+                primaryFile.getUncompressedChecksum(), channel.getLastModified()),
+                new RepomdIndexData(filelistsFile.getCompressedChecksum(),
+                filelistsFile.getUncompressedChecksum(), channel.getLastModified()),
+                new RepomdIndexData(otherFile.getCompressedChecksum(),
+                otherFile.getUncompressedChecksum(), channel.getLastModified()),
+                new RepomdIndexData(susedataFile.getCompressedChecksum(),
+                susedataFile.getUncompressedChecksum(), channel.getLastModified()));
+    }
+
+    /**
+     * Writes primary, filelists and other by splicing the gzipped package entries cached in
+     * the database, only the packages without a cached entry get rendered and compressed.
+     * The files are concatenations of gzip members. Susedata is not cached and is written
+     * as usual.
+     * @param channel the channel
+     * @param prefix the repository directory
+     * @param checksumAlgo checksum algorithm
+     * @return the index data of primary, filelists, other and susedata
+     */
+    private List<RepomdIndexData> writeSplicedPackageFiles(Channel channel, String prefix, String checksumAlgo) {
+        SplicedPackageXmlWriter primary, filelists, other;
+        CompressingDigestOutputWriter susedataFile;
+        try {
+            primary = new SplicedPackageXmlWriter(PrimaryXmlWriter::new, PackageDto::getPrimaryBlob,
+                    new FileOutputStream(prefix + PRIMARY_FILE), checksumAlgo);
+            filelists = new SplicedPackageXmlWriter(FilelistsXmlWriter::new, PackageDto::getFilelistBlob,
+                    new FileOutputStream(prefix + FILELISTS_FILE), checksumAlgo);
+            other = new SplicedPackageXmlWriter(OtherXmlWriter::new, PackageDto::getOtherBlob,
+                    new FileOutputStream(prefix + OTHER_FILE), checksumAlgo);
+            susedataFile = new CompressingDigestOutputWriter(
+                    new FileOutputStream(prefix + SUSEDATA_FILE), checksumAlgo);
+        }
+        catch (IOException | NoSuchAlgorithmException e) {
+            throw new RepomdRuntimeException(e);
+        }
+        BufferedWriter susedataBufferedWriter = new BufferedWriter(
+                new OutputStreamWriter(susedataFile));
+        SuseDataXmlWriter susedata = new SuseDataXmlWriter(
+                susedataBufferedWriter);
+
+        primary.begin(channel);
+        filelists.begin(channel);
+        other.begin(channel);
+        susedata.begin(channel);
+        writePackages(channel, List.of(primary, filelists, other, susedata));
+        primary.end();
+        filelists.end();
+        other.end();
+        susedata.end();
+        try {
+            primary.close();
+            filelists.close();
+            other.close();
+            susedataBufferedWriter.close();
+        }
+        catch (IOException e) {
+            throw new RepomdRuntimeException(e);
+        }
+
+        return List.of(new RepomdIndexData(primary.getCompressedChecksum(),
+                primary.getUncompressedChecksum(), channel.getLastModified()),
+                new RepomdIndexData(filelists.getCompressedChecksum(),
+                filelists.getUncompressedChecksum(), channel.getLastModified()),
+                new RepomdIndexData(other.getCompressedChecksum(),
+                other.getUncompressedChecksum(), channel.getLastModified()),
+                new RepomdIndexData(susedataFile.getCompressedChecksum(),
+                susedataFile.getUncompressedChecksum(), channel.getLastModified()));
+    }
+
+    /**
+     * Feeds all the packages of the channel to the given writers.
+     * @param channel the channel
+     * @param writers the writers of the package files
+     */
+    private void writePackages(Channel channel, List<? extends PackageEntryWriter<?>> writers) {
+        // batch the elaboration so we don't have to hold many thousands of packages in memory at once,
+        // each batch is written while the next one is being loaded
+        final int batchSize = 1000;
+        try (PackageXmlPipeline pipeline = new PackageXmlPipeline(channel.getLabel(), writers)) {
+            for (long i = 0; i < channel.getPackageCount(); i += batchSize) {
+                DataResult<PackageDto> packageBatch = TaskManager.getChannelPackageDtos(channel, i, batchSize);
+                packageBatch.elaborate();
+                for (PackageDto pkgDto : packageBatch) {
+                    // this is a sanity check
+                    // package may have been deleted before packageBatch.elaborate()
+                    if (pkgDto.getChecksum() == null) {
+                        // channel content changed, we cannot guarantee correct repodata
+                        throw new RepomdRuntimeException("Package with id " + pkgDto.getId() +
+                                " removed from server, interrupting repo generation for " +
+                                channel.getLabel());
+                    }
+                }
+                pipeline.addPackages(packageBatch);
+                log.info("Processed {} packages", i + packageBatch.getEnd());
+            }
+            pipeline.await();
+        }
+    }
+
     /**
      * Deletes existing repo and generates file stating that no repo was generated
      * @param channel the channel to do this for
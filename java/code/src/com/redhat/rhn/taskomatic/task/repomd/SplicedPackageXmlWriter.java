@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.common.util.CompressionUtil;
+import com.redhat.rhn.common.util.StringUtil;
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.frontend.dto.PackageDto;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Blob;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Writes a gzipped metadata file as a concatenation of gzip members: one for the
+ * document header, one per package and one for the document footer.
+ *
+ * The package entries cached in the database are already gzipped, so they are
+ * copied as they are instead of being decompressed and compressed again. Only
+ * the packages without a cached entry are rendered. Readers of the file see the
+ * same document as with {@link CompressingDigestOutputWriter}, since gzip
+ * decompresses concatenated members as one stream.
+ */
+public class SplicedPackageXmlWriter implements PackageEntryWriter<byte[]>, AutoCloseable {
+
+    private static final String PACKAGES_MARKER = "@@PACKAGES@@";
+
+    private final PackageXmlWriter renderer;
+    private final StringWriter frame = new StringWriter();
+    private final Function<PackageDto, Blob> cachedEntry;
+    private final DigestOutputStream compressedDigestStream;
+    private final MessageDigest uncompressedDigest;
+    private final byte[] inflateBuffer = new byte[8192];
+    private String footer;
+
+    /**
+     * Constructor
+     * @param rendererFactory creates the writer rendering the document frame and the
+     * package entries that are not cached, from the writer it should write to
+     * @param cachedEntryIn returns the cached gzipped entry of a package, if any
+     * @param stream the stream to write the file to
+     * @param checksumAlgo checksum algorithm
+     * @throws NoSuchAlgorithmException if the checksum algorithm is not available
+     */
+    public SplicedPackageXmlWriter(Function<Writer, PackageXmlWriter> rendererFactory,
+            Function<PackageDto, Blob> cachedEntryIn, OutputStream stream, String checksumAlgo)
+            throws NoSuchAlgorithmException {
+        renderer = rendererFactory.apply(frame);
+        cachedEntry = cachedEntryIn;
+        compressedDigestStream = new DigestOutputStream(new BufferedOutputStream(stream),
+                MessageDigest.getInstance(checksumAlgo));
+        uncompressedDigest = MessageDigest.getInstance(checksumAlgo);
+    }
+
+    /**
+     * Writes the document header.
+     * @param channel channel data
+     */
+    public void begin(Channel channel) {
+        // render the whole frame at once, the serializer only closes tags when
+        // it knows what comes next
+        renderer.begin(channel);
+        renderer.addPackageXml(PACKAGES_MARKER);
+        renderer.end();
+        String document = frame.toString();
+        int index = document.indexOf(PACKAGES_MARKER);
+        footer = document.substring(index + PACKAGES_MARKER.length());
+        writeMember(CompressionUtil.gzipCompress(document.substring(0, index)));
+    }
+
+    /**
+     * Returns the gzipped entry of a package, rendering it if it is not cached.
+     * @param pkgDto pkg info
+     * @return the gzipped entry, or null if the package has no entry in this file
+     */
+    @Override
+    public byte[] getPackageEntry(PackageDto pkgDto) {
+        if (ConfigDefaults.get().useDBRepodata()) {
+            byte[] cached = HibernateFactory.blobToByteArray(cachedEntry.apply(pkgDto));
+            if (cached.length > 0) {
+                return cached;
+            }
+        }
+        String xml = renderer.getPackageXml(pkgDto);
+        return xml == null ? null : CompressionUtil.gzipCompress(xml);
+    }
+
+    /**
+     * Appends a gzipped entry to the file.
+     * @param entry the gzipped entry, nothing is written if null
+     */
+    @Override
+    public void addPackageEntry(byte[] entry) {
+        if (entry != null) {
+            writeMember(entry);
+        }
+    }
+
+    /**
+     * Writes the document footer.
+     */
+    public void end() {
+        writeMember(CompressionUtil.gzipCompress(footer));
+    }
+
+    /**
+     * Flushes and closes the file.
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public void close() throws IOException {
+        compressedDigestStream.close();
+    }
+
+    /**
+     * @return Returns the HexString of the digest of the compressed file
+     */
+    public String getCompressedChecksum() {
+        return StringUtil.getHexString(compressedDigestStream.getMessageDigest().digest());
+    }
+
+    /**
+     * @return Returns the HexString of the digest of the uncompressed document
+     */
+    public String getUncompressedChecksum() {
+        return StringUtil.getHexString(uncompressedDigest.digest());
+    }
+
+    private void writeMember(byte[] member) {
+        try {
+            compressedDigestStream.write(member);
+            // inflating is much cheaper than deflating, and the uncompressed
+            // checksum is needed for repomd.xml
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(member))) {
+                int len;
+                while ((len = in.read(inflateBuffer)) > 0) {
+                    uncompressedDigest.update(inflateBuffer, 0, len);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new RepomdRuntimeException(e);
+        }
+    }
+}
@@ -30,7 +30,7 @@ import java.util.List;
  * susedata.xml writer class
  *
  */
-public class SuseDataXmlWriter extends RepomdWriter {
+public class SuseDataXmlWriter extends PackageXmlWriter {
 
     private Long channelId;
 
@@ -77,10 +77,12 @@ public class SuseDataXmlWriter extends RepomdWriter {
     }
 
     /**
-     *
-     * @param pkgDto pkg info to add to xml
+     * Returns the susedata.xml entry of a package.
+     * @param pkgDto pkg info
+     * @return the package entry, or null if the package has no keywords and no EULA
      */
-    public void addPackage(PackageDto pkgDto) {
+    @Override
+    public String getPackageXml(PackageDto pkgDto) {
         long pkgId = pkgDto.getId();
         List<String> eulas = new EulaManager().getEulasForPackage(pkgId);
 
@@ -89,7 +91,7 @@ public class SuseDataXmlWriter extends RepomdWriter {
 
         if (keywords.isEmpty() && eulas.isEmpty()) {
             // this package has no keywords and no EULA
-            return;
+            return null;
         }
         try {
             ByteArrayOutputStream st = new ByteArrayOutputStream();
@@ -102,8 +104,7 @@ public class SuseDataXmlWriter extends RepomdWriter {
             tmpHandler.endElement("package");
             tmpHandler.endDocument();
 
-            String pkg =  st.toString();
-            handler.addCharacters(pkg);
+            return st.toString();
         }
         catch (SAXException e) {
             throw new RepomdRuntimeException(e);
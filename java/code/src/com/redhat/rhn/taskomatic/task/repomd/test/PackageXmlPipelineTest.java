@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.redhat.rhn.common.util.CompressionUtil;
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.frontend.dto.PackageDto;
+import com.redhat.rhn.taskomatic.task.repomd.CompressingDigestOutputWriter;
+import com.redhat.rhn.taskomatic.task.repomd.FilelistsXmlWriter;
+import com.redhat.rhn.taskomatic.task.repomd.OtherXmlWriter;
+import com.redhat.rhn.taskomatic.task.repomd.PackageXmlPipeline;
+import com.redhat.rhn.taskomatic.task.repomd.PackageXmlWriter;
+import com.redhat.rhn.taskomatic.task.repomd.PrimaryXmlWriter;
+import com.redhat.rhn.taskomatic.task.repomd.RepomdRuntimeException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.serial.SerialBlob;
+
+/**
+ * Tests the pipelined repodata generation against the sequential one.
+ */
+public class PackageXmlPipelineTest {
+
+    private static final Logger LOG = LogManager.getLogger(PackageXmlPipelineTest.class);
+
+    private static final int PACKAGES = 50000;
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Tests the pipeline writes the same content as the sequential writers, for packages
+     * spread over several batches, the last one being incomplete.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testPipelineWritesSameContent() throws Exception {
+        List<PackageDto> packages = createPackages(BATCH_SIZE * 2 + BATCH_SIZE / 2);
+
+        assertEquals(writeSequentially(packages), writePipelined(packages));
+    }
+
+    /**
+     * Logs the time taken to write a synthetic channel sequentially and pipelined.
+     * Not part of the unit tests, run it manually.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    @Disabled("Benchmark, run manually")
+    public void benchmarkPipeline() throws Exception {
+        List<PackageDto> packages = createPackages(PACKAGES);
+
+        long start = System.nanoTime();
+        List<String> sequential = writeSequentially(packages);
+        long sequentialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        List<String> pipelined = writePipelined(packages);
+        long pipelinedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(sequential, pipelined);
+        LOG.info("Wrote {} packages in {} ms sequentially, {} ms pipelined", PACKAGES,
+                sequentialMillis, pipelinedMillis);
+    }
+
+    @Test
+    public void testWriterFailureIsRethrown() throws Exception {
+        PackageXmlWriter failing = new PrimaryXmlWriter(new BufferedWriter(
+                new OutputStreamWriter(OutputStream.nullOutputStream()))) {
+            @Override
+            public void addPackageXml(String xml) {
+                throw new RepomdRuntimeException("failed");
+            }
+        };
+        try (PackageXmlPipeline pipeline = new PackageXmlPipeline("test", List.of(failing))) {
+            pipeline.addPackages(createPackages(1));
+            assertThrows(RepomdRuntimeException.class, pipeline::await);
+        }
+    }
+
+    private List<String> writeSequentially(List<PackageDto> packages) throws Exception {
+        List<CompressingDigestOutputWriter> files = createFiles();
+        List<BufferedWriter> buffers = createBuffers(files);
+        List<PackageXmlWriter> writers = createWriters(buffers, packages.size());
+        for (PackageDto pkgDto : packages) {
+            for (int i = 0; i < writers.size(); i++) {
+                writers.get(i).addPackage(pkgDto);
+                // the former implementation flushed every file after each package
+                files.get(i).flush();
+            }
+        }
+        return close(writers, buffers, files);
+    }
+
+    private List<String> writePipelined(List<PackageDto> packages) throws Exception {
+        List<CompressingDigestOutputWriter> files = createFiles();
+        List<BufferedWriter> buffers = createBuffers(files);
+        List<PackageXmlWriter> writers = createWriters(buffers, packages.size());
+        try (PackageXmlPipeline pipeline = new PackageXmlPipeline("test", writers)) {
+            for (int i = 0; i < packages.size(); i += BATCH_SIZE) {
+                pipeline.addPackages(packages.subList(i, Math.min(i + BATCH_SIZE, packages.size())));
+            }
+            pipeline.await();
+        }
+        return close(writers, buffers, files);
+    }
+
+    private List<CompressingDigestOutputWriter> createFiles() throws Exception {
+        List<CompressingDigestOutputWriter> files = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            files.add(new CompressingDigestOutputWriter(OutputStream.nullOutputStream(), "SHA-256"));
+        }
+        return files;
+    }
+
+    private List<BufferedWriter> createBuffers(List<CompressingDigestOutputWriter> files) {
+        List<BufferedWriter> buffers = new ArrayList<>();
+        for (CompressingDigestOutputWriter file : files) {
+            buffers.add(new BufferedWriter(new OutputStreamWriter(file)));
+        }
+        return buffers;
+    }
+
+    private List<PackageXmlWriter> createWriters(List<BufferedWriter> buffers, int packageCount) {
+        List<PackageXmlWriter> writers = List.of(
+                new PrimaryXmlWriter(buffers.get(0)),
+                new FilelistsXmlWriter(buffers.get(1)),
+                new OtherXmlWriter(buffers.get(2)));
+        Channel channel = new Channel() {
+            @Override
+            public int getPackageCount() {
+                return packageCount;
+            }
+        };
+        writers.forEach(w -> w.begin(channel));
+        return writers;
+    }
+
+    private List<String> close(List<PackageXmlWriter> writers, List<BufferedWriter> buffers,
+            List<CompressingDigestOutputWriter> files) throws Exception {
+        writers.forEach(PackageXmlWriter::end);
+        List<String> checksums = new ArrayList<>();
+        for (int i = 0; i < files.size(); i++) {
+            buffers.get(i).close();
+            checksums.add(files.get(i).getUncompressedChecksum());
+        }
+        return checksums;
+    }
+
+    private List<PackageDto> createPackages(int count) throws Exception {
+        List<PackageDto> packages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = "package-" + i;
+            PackageDto pkgDto = new PackageDto();
+            pkgDto.setId((long) i);
+            pkgDto.setPrimaryXml(new SerialBlob(CompressionUtil.gzipCompress(
+                    "<package type=\"rpm\"><name>" + name + "</name><arch>x86_64</arch>" +
+                    "<summary>Synthetic package " + i + "</summary></package>")));
+            pkgDto.setFilelistXml(new SerialBlob(CompressionUtil.gzipCompress(
+                    "<package pkgid=\"" + i + "\" name=\"" + name + "\"><file>/usr/bin/" + name +
+                    "</file><file>/usr/share/doc/" + name + "/README</file></package>")));
+            pkgDto.setOtherXml(new SerialBlob(CompressionUtil.gzipCompress(
+                    "<package pkgid=\"" + i + "\" name=\"" + name + "\"><changelog author=\"dev\">" +
+                    "- initial release of " + name + "</changelog></package>")));
+            packages.add(pkgDto);
+        }
+        return packages;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.repomd.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.redhat.rhn.common.util.CompressionUtil;
+import com.redhat.rhn.common.util.StringUtil;
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.frontend.dto.PackageDto;
+import com.redhat.rhn.taskomatic.task.repomd.CompressingDigestOutputWriter;
+import com.redhat.rhn.taskomatic.task.repomd.PackageEntryWriter;
+import com.redhat.rhn.taskomatic.task.repomd.PackageXmlPipeline;
+import com.redhat.rhn.taskomatic.task.repomd.PrimaryXmlWriter;
+import com.redhat.rhn.taskomatic.task.repomd.SplicedPackageXmlWriter;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.rowset.serial.SerialBlob;
+
+/**
+ * Checks that splicing the cached package entries produces the same document as
+ * compressing the whole file.
+ */
+public class SplicedPackageXmlWriterTest {
+
+    private static final Logger LOG = LogManager.getLogger(SplicedPackageXmlWriterTest.class);
+
+    private static final int PACKAGES = 20000;
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Tests the spliced file decompresses to the same document as the compressed one, for
+     * packages spread over several batches, and that both of its checksums are correct.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testSplicedFileHasSameContent() throws Exception {
+        List<PackageDto> packages = createPackages(BATCH_SIZE * 2 + BATCH_SIZE / 2);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        String uncompressedChecksum = writeCompressed(packages, compressed);
+        ByteArrayOutputStream spliced = new ByteArrayOutputStream();
+        SplicedPackageXmlWriter splicer = writeSpliced(packages, spliced);
+
+        assertEquals(CompressionUtil.gzipDecompress(compressed.toByteArray()),
+                CompressionUtil.gzipDecompress(spliced.toByteArray()));
+        assertEquals(uncompressedChecksum, splicer.getUncompressedChecksum());
+        assertEquals(StringUtil.getHexString(MessageDigest.getInstance("SHA-256").digest(spliced.toByteArray())),
+                splicer.getCompressedChecksum());
+    }
+
+    /**
+     * Logs the time taken to write a synthetic channel by compressing the whole file and
+     * by splicing the cached entries. Not part of the unit tests, run it manually.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    @Disabled("Benchmark, run manually")
+    public void benchmarkSplicing() throws Exception {
+        List<PackageDto> packages = createPackages(PACKAGES);
+
+        long start = System.nanoTime();
+        String uncompressedChecksum = writeCompressed(packages, new ByteArrayOutputStream());
+        long compressedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        SplicedPackageXmlWriter splicer = writeSpliced(packages, new ByteArrayOutputStream());
+        long splicedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(uncompressedChecksum, splicer.getUncompressedChecksum());
+        LOG.info("Wrote {} packages in {} ms compressing the file, {} ms splicing", PACKAGES,
+                compressedMillis, splicedMillis);
+    }
+
+    private String writeCompressed(List<PackageDto> packages, ByteArrayOutputStream out) throws Exception {
+        CompressingDigestOutputWriter file = new CompressingDigestOutputWriter(out, "SHA-256");
+        BufferedWriter buffer = new BufferedWriter(new OutputStreamWriter(file));
+        PrimaryXmlWriter primary = new PrimaryXmlWriter(buffer);
+        primary.begin(createChannel(packages.size()));
+        write(primary, packages);
+        primary.end();
+        buffer.close();
+        return file.getUncompressedChecksum();
+    }
+
+    private SplicedPackageXmlWriter writeSpliced(List<PackageDto> packages, ByteArrayOutputStream out)
+            throws Exception {
+        SplicedPackageXmlWriter splicer = new SplicedPackageXmlWriter(PrimaryXmlWriter::new,
+                PackageDto::getPrimaryBlob, out, "SHA-256");
+        splicer.begin(createChannel(packages.size()));
+        write(splicer, packages);
+        splicer.end();
+        splicer.close();
+        return splicer;
+    }
+
+    private Channel createChannel(int packageCount) {
+        return new Channel() {
+            @Override
+            public int getPackageCount() {
+                return packageCount;
+            }
+        };
+    }
+
+    private void write(PackageEntryWriter<?> writer, List<PackageDto> packages) {
+        try (PackageXmlPipeline pipeline = new PackageXmlPipeline("test", List.of(writer))) {
+            for (int i = 0; i < packages.size(); i += BATCH_SIZE) {
+                pipeline.addPackages(packages.subList(i, Math.min(i + BATCH_SIZE, packages.size())));
+            }
+            pipeline.await();
+        }
+    }
+
+    private List<PackageDto> createPackages(int count) throws Exception {
+        List<PackageDto> packages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PackageDto pkgDto = new PackageDto();
+            pkgDto.setId((long) i);
+            pkgDto.setPrimaryXml(new SerialBlob(CompressionUtil.gzipCompress(
+                    "<package type=\"rpm\"><name>package-" + i + "</name><arch>x86_64</arch>" +
+                    "<summary>Synthetic package " + i + "</summary></package>")));
+            packages.add(pkgDto);
+        }
+        return packages;
+    }
+}
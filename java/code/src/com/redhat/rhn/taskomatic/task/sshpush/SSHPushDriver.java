@@ -16,6 +16,7 @@ package com.redhat.rhn.taskomatic.task.sshpush;
 
 import com.redhat.rhn.GlobalInstanceHolder;
 import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.db.datasource.ModeFactory;
 import com.redhat.rhn.common.db.datasource.SelectMode;
@@ -53,7 +54,6 @@ public class SSHPushDriver implements QueueDriver<SystemSummary> {
     private static final Set<SystemSummary> CURRENT_SYSTEMS = Collections.synchronizedSet(new HashSet<>());
 
     // String constants
-    private static final String WORKER_THREADS_KEY = "taskomatic.ssh_push_workers";
     private static final String PORT_HTTPS_KEY = "ssh_push_port_https";
     private static final String JOB_LABEL = "ssh-push-default";
 
@@ -189,7 +189,7 @@ public class SSHPushDriver implements QueueDriver<SystemSummary> {
      */
     @Override
     public int getMaxWorkers() {
-        return Config.get().getInt(WORKER_THREADS_KEY, 2);
+        return ConfigDefaults.get().getSSHPushWorkers();
     }
 
     /**
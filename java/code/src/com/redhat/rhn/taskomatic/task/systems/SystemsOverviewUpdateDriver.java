@@ -21,13 +21,14 @@ import com.redhat.rhn.taskomatic.task.threaded.QueueWorker;
 
 import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
- * Driver for the threaded system overview update queue
+ * Driver for the threaded system overview update queue. The queued systems
+ * are handed over to the workers in batches, each of them refreshed at once.
  */
-public class SystemsOverviewUpdateDriver implements QueueDriver<Long> {
+public class SystemsOverviewUpdateDriver implements QueueDriver<List<Long>> {
 
     public static final String TASK_NAME = "update_system_overview";
     private Logger logger = null;
@@ -43,12 +44,15 @@ public class SystemsOverviewUpdateDriver implements QueueDriver<Long> {
     }
 
     @Override
-    public List<Long> getCandidates() {
-        // Candidates are system IDs, deduplicated to avoid useless updates
-        return TaskFactory.getTaskListByNameLike(TASK_NAME).stream()
-            .map(task -> task.getData())
-            .distinct()
-            .collect(Collectors.toList());
+    public List<List<Long>> getCandidates() {
+        // Candidates are batches of system IDs, deduplicated to avoid useless updates
+        List<Long> sids = TaskFactory.getTaskDataByName(TASK_NAME);
+        int batchSize = Math.max(1, Config.get().getInt("taskomatic.systems_overview_update_batch_size", 500));
+        List<List<Long>> batches = new ArrayList<>();
+        for (int i = 0; i < sids.size(); i += batchSize) {
+            batches.add(new ArrayList<>(sids.subList(i, Math.min(i + batchSize, sids.size()))));
+        }
+        return batches;
     }
 
     @Override
@@ -57,8 +61,8 @@ public class SystemsOverviewUpdateDriver implements QueueDriver<Long> {
     }
 
     @Override
-    public QueueWorker makeWorker(Long sid) {
-        return new SystemsOverviewUpdateWorker(sid, logger);
+    public QueueWorker makeWorker(List<Long> sids) {
+        return new SystemsOverviewUpdateWorker(sids, logger);
     }
 
     @Override
@@ -75,4 +79,9 @@ public class SystemsOverviewUpdateDriver implements QueueDriver<Long> {
     public boolean isBlockingTaskQueue() {
         return false;
     }
+
+    @Override
+    public boolean isContinuous() {
+        return true;
+    }
 }
@@ -25,26 +25,28 @@ import com.redhat.rhn.taskomatic.task.threaded.TaskQueue;
 import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
- * Performs overview table refresh for a given server
+ * Performs overview table refresh for a batch of servers
  */
 public class SystemsOverviewUpdateWorker implements QueueWorker {
 
     private final Logger logger;
-    private final Long sid;
+    private final List<Long> sids;
     private TaskQueue parentQueue;
 
 
     /**
      * Constructor
      *
-     * @param sidIn The ID of server to update the overview from
+     * @param sidsIn The IDs of the servers to update the overview from
      * @param loggerIn the logger
      */
-    public SystemsOverviewUpdateWorker(Long sidIn, Logger loggerIn) {
-        sid = sidIn;
+    public SystemsOverviewUpdateWorker(List<Long> sidsIn, Logger loggerIn) {
+        sids = sidsIn;
         logger = loggerIn;
     }
 
@@ -56,9 +58,9 @@ public class SystemsOverviewUpdateWorker implements QueueWorker {
     @Override
     public void run() {
         try {
-            removeTask(sid);
+            removeTasks(sids);
             parentQueue.workerStarting();
-            doUpdate(sid);
+            doUpdate(sids);
             HibernateFactory.commitTransaction();
         }
         catch (Exception e) {
@@ -85,6 +87,30 @@ public class SystemsOverviewUpdateWorker implements QueueWorker {
         mode.execute(params, new HashMap<>());
     }
 
+    /**
+     * Refresh the overview of several systems with a single statement.
+     *
+     * This should only be called by the worker or unit tests.
+     *
+     * @param sids systems to update
+     */
+    public static void doUpdate(List<Long> sids) {
+        CallableMode mode = ModeFactory.getCallableMode("System_queries", "update_system_overviews");
+        String ids = sids.stream().map(String::valueOf).collect(Collectors.joining(",", "{", "}"));
+        Map<String, Object> params = Map.of("sids", ids);
+        mode.execute(params, new HashMap<>());
+    }
+
+    /**
+     * Remove system overview update tasks for several system IDs
+     *
+     * @param sids the System ids to remove the tasks from
+     */
+    public static void removeTasks(List<Long> sids) {
+        TaskFactory.deleteByOrgNameDataPriority(OrgFactory.getSatelliteOrg(), SystemsOverviewUpdateDriver.TASK_NAME,
+                sids, 0);
+    }
+
     /**
      * Remove system overview update tasks for a system ID
      *
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.domain.action.ActionFactory;
+import com.redhat.rhn.taskomatic.task.ActionScheduledListener;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public class ActionScheduledListenerTest {
+
+    private static class ConnectedListener extends ActionScheduledListener {
+        @Override
+        protected boolean startListening() {
+            return true;
+        }
+    }
+
+    @Test
+    public void testNotificationWakesUpWaiters() {
+        ActionScheduledListener listener = new ConnectedListener();
+        CompletableFuture<Void> first = listener.register(1L).orElseThrow();
+        CompletableFuture<Void> second = listener.register(2L).orElseThrow();
+        CompletableFuture<Void> other = listener.register(3L).orElseThrow();
+        assertSame(first, listener.register(1L).orElseThrow());
+
+        listener.notification(0, ActionFactory.ACTION_SCHEDULED_CHANNEL, "1,2,4");
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(other.isDone());
+        assertEquals(1, listener.getWaitingCount());
+
+        listener.unregister(3L, other);
+        assertEquals(0, listener.getWaitingCount());
+    }
+
+    @Test
+    public void testClosedConnectionWakesUpAllWaiters() {
+        ActionScheduledListener listener = new ConnectedListener();
+        CompletableFuture<Void> first = listener.register(1L).orElseThrow();
+        CompletableFuture<Void> second = listener.register(2L).orElseThrow();
+
+        listener.closed();
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertEquals(0, listener.getWaitingCount());
+    }
+
+    @Test
+    public void testNoFutureWithoutConnection() {
+        ActionScheduledListener listener = new ActionScheduledListener() {
+            @Override
+            protected boolean startListening() {
+                return false;
+            }
+        };
+        assertEquals(Optional.empty(), listener.register(1L));
+        assertEquals(0, listener.getWaitingCount());
+    }
+}
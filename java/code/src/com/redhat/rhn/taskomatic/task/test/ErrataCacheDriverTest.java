@@ -15,17 +15,26 @@
 package com.redhat.rhn.taskomatic.task.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.domain.channel.test.ChannelFactoryTest;
 import com.redhat.rhn.domain.server.Server;
 import com.redhat.rhn.domain.server.test.ServerFactoryTest;
 import com.redhat.rhn.domain.task.Task;
 import com.redhat.rhn.manager.errata.ErrataManager;
+import com.redhat.rhn.manager.system.SystemManager;
 import com.redhat.rhn.taskomatic.task.errata.ErrataCacheDriver;
 import com.redhat.rhn.testing.BaseTestCaseWithUser;
 
 import org.apache.logging.log4j.LogManager;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 /**
  * Tests for ErrataCacheDriver class.
  */
@@ -51,11 +60,41 @@ public class ErrataCacheDriverTest extends BaseTestCaseWithUser {
         ErrataCacheDriver driver = new ErrataCacheDriver();
         driver.setLogger(LogManager.getLogger(ErrataCacheDriverTest.class));
         int candidateCount = 0;
-        for (Task task : driver.getCandidates()) {
-            if (task.getData().equals(server.getId())) {
-                candidateCount++;
+        for (List<Task> batch : driver.getCandidates()) {
+            for (Task task : batch) {
+                if (task.getData().equals(server.getId())) {
+                    candidateCount++;
+                }
             }
         }
         assertEquals(1, candidateCount);
     }
+
+    /**
+     * Test that servers subscribed to the same channels end up in the same batch.
+     *
+     * @throws Exception in case of a problem
+     */
+    @Test
+    public void testGetCandidatesBatchesByChannels() throws Exception {
+        Channel channel = ChannelFactoryTest.createBaseChannel(user);
+        Server server1 = ServerFactoryTest.createTestServer(user);
+        Server server2 = ServerFactoryTest.createTestServer(user);
+        Server server3 = ServerFactoryTest.createTestServer(user);
+        SystemManager.subscribeServerToChannel(user, server1, channel);
+        SystemManager.subscribeServerToChannel(user, server2, channel);
+        ErrataManager.insertErrataCacheTask(server1);
+        ErrataManager.insertErrataCacheTask(server2);
+        ErrataManager.insertErrataCacheTask(server3);
+
+        ErrataCacheDriver driver = new ErrataCacheDriver();
+        driver.setLogger(LogManager.getLogger(ErrataCacheDriverTest.class));
+        Map<Long, List<Long>> batchByServer = new HashMap<>();
+        for (List<Task> batch : driver.getCandidates()) {
+            List<Long> sids = batch.stream().map(Task::getData).collect(Collectors.toList());
+            sids.forEach(sid -> batchByServer.put(sid, sids));
+        }
+        assertEquals(batchByServer.get(server1.getId()), batchByServer.get(server2.getId()));
+        assertFalse(batchByServer.get(server3.getId()).contains(server1.getId()));
+    }
 }
@@ -24,6 +24,7 @@ import com.redhat.rhn.domain.action.Action;
 import com.redhat.rhn.domain.action.ActionFactory;
 import com.redhat.rhn.domain.action.server.ServerAction;
 import com.redhat.rhn.domain.action.test.ActionFactoryTest;
+import com.redhat.rhn.taskomatic.task.ActionScheduledListener;
 import com.redhat.rhn.taskomatic.task.MinionActionExecutor;
 import com.redhat.rhn.testing.JMockBaseTestCaseWithUser;
 import com.redhat.rhn.testing.TestUtils;
@@ -50,6 +51,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public class MinionActionExecutorTest extends JMockBaseTestCaseWithUser {
 
@@ -138,4 +140,63 @@ public class MinionActionExecutorTest extends JMockBaseTestCaseWithUser {
         assertEquals(expectedMessage, sa2.getResultMsg());
         assertEquals(-1, sa2.getResultCode());
     }
+
+    @Test
+    public void executesActionOnceCommitted() {
+        Action a1 = ActionFactoryTest.createEmptyAction(user, ActionFactory.TYPE_REBOOT);
+        TestUtils.saveAndReload(a1);
+
+        // simulates the scheduling transaction committing right after the executor started waiting
+        ActionScheduledListener listener = new ActionScheduledListener() {
+            @Override
+            protected boolean startListening() {
+                return true;
+            }
+
+            @Override
+            public Optional<CompletableFuture<Void>> register(long actionId) {
+                Optional<CompletableFuture<Void>> committed = super.register(actionId);
+                ActionFactoryTest.addServerAction(user, a1, ActionFactory.STATUS_QUEUED);
+                HibernateFactory.getSession().flush();
+                notification(0, ActionFactory.ACTION_SCHEDULED_CHANNEL, String.valueOf(actionId));
+                return committed;
+            }
+        };
+
+        SaltServerActionService saltServerActionService = mock(SaltServerActionService.class);
+
+        checking(expectations -> {
+            expectations.ignoring(jobDetail).getJobDataMap();
+            expectations.will(returnValue(new JobDataMap(Map.of(
+                "action_id", String.valueOf(a1.getId()),
+                "user_id", String.valueOf(user.getId()),
+                "staging_job", String.valueOf(false),
+                "force_pkg_list_refresh", String.valueOf(false)
+            ))));
+
+            expectations.ignoring(jobDetail).getKey();
+            expectations.will(returnValue(new JobKey("dummyJob")));
+
+            expectations.ignoring(trigger).getJobDataMap();
+            expectations.will(returnValue(new JobDataMap()));
+
+            expectations.ignoring(trigger).getKey();
+            expectations.will(returnValue(new TriggerKey("dummyTrigger")));
+
+            expectations.oneOf(saltServerActionService).execute(
+                expectations.with(a1),
+                expectations.with(false),
+                expectations.with(false),
+                expectations.with(Optional.empty())
+            );
+        });
+
+        JobExecutionContext context = new JobExecutionContextImpl(scheduler, firedBundle, job);
+
+        MinionActionExecutor actionExecutor = new MinionActionExecutor(saltServerActionService, listener);
+        actionExecutor.execute(context);
+
+        context().assertIsSatisfied();
+        assertEquals(0, listener.getWaitingCount());
+    }
 }
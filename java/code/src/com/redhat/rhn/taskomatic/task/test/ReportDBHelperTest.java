@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.test;
+
+import static com.redhat.rhn.taskomatic.task.ReportDBHelper.LOCAL_MGM_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.common.db.datasource.DataResult;
+import com.redhat.rhn.common.hibernate.ConnectionManager;
+import com.redhat.rhn.common.hibernate.ConnectionManagerFactory;
+import com.redhat.rhn.taskomatic.task.ReportDBHelper;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ReportDBHelperTest {
+
+    private static final Logger LOG = LogManager.getLogger(ReportDBHelperTest.class);
+
+    private static final long PERIPHERAL_MGM_ID = 1000;
+
+    private ConnectionManager sourceManager;
+    private ConnectionManager targetManager;
+
+    @BeforeEach
+    public void before() {
+        sourceManager = ConnectionManagerFactory.localReportingConnectionManager();
+        targetManager = ConnectionManagerFactory.localReportingConnectionManager();
+    }
+
+    @AfterEach
+    public void after() {
+        for (ConnectionManager manager : List.of(sourceManager, targetManager)) {
+            manager.rollbackTransaction();
+            manager.closeSession();
+            manager.close();
+        }
+    }
+
+    @Test
+    public void testKeysetBatchStream() {
+        Session session = sourceManager.getSession();
+        createSystemGroups(session, 7);
+
+        List<DataResult<Map<String, Object>>> batches = ReportDBHelper.INSTANCE
+                .keysetBatchStream(session, "SystemGroup", 3, LOG)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(3, 3, 1), batches.stream().map(List::size).collect(Collectors.toList()));
+        List<Long> ids = batches.stream()
+                .flatMap(List::stream)
+                .map(row -> (Long) row.get("system_group_id"))
+                .collect(Collectors.toList());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L), ids);
+    }
+
+    @Test
+    public void testCopyTable() {
+        Session source = sourceManager.getSession();
+        Session target = targetManager.getSession();
+        createSystemGroups(source, 5);
+        target.createNativeQuery("DELETE FROM SystemGroup WHERE mgm_id = " + PERIPHERAL_MGM_ID).executeUpdate();
+
+        ReportDBHelper helper = ReportDBHelper.INSTANCE;
+        Map<String, Object> sourceState = helper.getTableState(source, "SystemGroup", LOCAL_MGM_ID);
+        assertNotEquals(sourceState, helper.getTableState(target, "SystemGroup", PERIPHERAL_MGM_ID));
+
+        assertTrue(helper.supportsCopy(source));
+        assertTrue(helper.supportsCopy(target));
+        List<String> columns = helper.listColumns(source, "SystemGroup").stream()
+                .filter(c -> !c.equals("mgm_id"))
+                .collect(Collectors.toList());
+        assertTrue(columns.contains("synced_date"));
+
+        long copied = helper.copyTable(source, target, "SystemGroup", PERIPHERAL_MGM_ID, columns);
+
+        assertEquals(5, copied);
+        // The copied rows keep their synced_date, so the table is seen as unchanged by the next update
+        assertEquals(sourceState, helper.getTableState(target, "SystemGroup", PERIPHERAL_MGM_ID));
+    }
+
+    private static void createSystemGroups(Session session, int count) {
+        session.createNativeQuery("DELETE FROM SystemGroup WHERE mgm_id = " + LOCAL_MGM_ID).executeUpdate();
+        for (int i = count; i > 0; i--) {
+            session.createNativeQuery("INSERT INTO SystemGroup (mgm_id, system_group_id, name) " +
+                            "VALUES (:mgm_id, :id, :name)")
+                    .setParameter("mgm_id", LOCAL_MGM_ID)
+                    .setParameter("id", i)
+                    .setParameter("name", "group-" + i)
+                    .executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.domain.rhnpackage.Package;
+import com.redhat.rhn.domain.rhnpackage.test.PackageTest;
+import com.redhat.rhn.domain.server.Server;
+import com.redhat.rhn.domain.server.test.ServerFactoryTest;
+import com.redhat.rhn.domain.task.Task;
+import com.redhat.rhn.domain.task.TaskFactory;
+import com.redhat.rhn.manager.errata.cache.ErrataCacheManager;
+import com.redhat.rhn.manager.system.SystemManager;
+import com.redhat.rhn.taskomatic.task.systems.SystemsOverviewUpdateDriver;
+import com.redhat.rhn.taskomatic.task.systems.SystemsOverviewUpdateWorker;
+import com.redhat.rhn.testing.BaseTestCaseWithUser;
+
+import org.apache.logging.log4j.LogManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for the batched refresh of the systems overview.
+ */
+public class SystemsOverviewUpdateDriverTest extends BaseTestCaseWithUser {
+
+    @Test
+    public void testBatchUpdateMatchesSingleUpdate() throws Exception {
+        Server server = ServerFactoryTest.createTestServer(user, true);
+        Server proxy = ServerFactoryTest.createTestProxyServer(user, true);
+        Package pack = PackageTest.createTestPackage(user.getOrg());
+        ErrataCacheManager.insertNeededErrataCache(server.getId(), null, pack.getId());
+        List<Long> sids = List.of(server.getId(), proxy.getId());
+
+        sids.forEach(SystemsOverviewUpdateWorker::doUpdate);
+        List<String> single = getOverviews(sids);
+        deleteOverviews(sids);
+
+        SystemsOverviewUpdateWorker.doUpdate(sids);
+        List<String> batch = getOverviews(sids);
+
+        assertEquals(2, batch.size());
+        assertEquals(single, batch);
+    }
+
+    @Test
+    public void testQueuedUpdatesAreCoalesced() throws Exception {
+        Server server = ServerFactoryTest.createTestServer(user);
+        Server other = ServerFactoryTest.createTestServer(user);
+
+        SystemManager.updateSystemOverview(List.of(server.getId(), server.getId(), other.getId()));
+        SystemManager.updateSystemOverview(List.of(server.getId(), other.getId()));
+        SystemManager.updateSystemOverview(server.getId());
+
+        assertEquals(1, countTasks(server.getId()));
+        assertEquals(1, countTasks(other.getId()));
+    }
+
+    @Test
+    public void testGetCandidatesInBatches() throws Exception {
+        Config.get().setString("taskomatic.systems_overview_update_batch_size", "2");
+        try {
+            List<Long> sids = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                sids.add(ServerFactoryTest.createTestServer(user).getId());
+            }
+            SystemManager.updateSystemOverview(sids);
+
+            SystemsOverviewUpdateDriver driver = new SystemsOverviewUpdateDriver();
+            driver.setLogger(LogManager.getLogger(SystemsOverviewUpdateDriverTest.class));
+            List<List<Long>> batches = driver.getCandidates();
+            assertTrue(batches.stream().allMatch(b -> b.size() <= 2));
+            assertTrue(batches.stream().flatMap(List::stream).collect(Collectors.toList()).containsAll(sids));
+
+            SystemsOverviewUpdateWorker.removeTasks(sids);
+            SystemsOverviewUpdateWorker.doUpdate(sids);
+            assertFalse(TaskFactory.getTaskDataByName(SystemsOverviewUpdateDriver.TASK_NAME).contains(sids.get(0)));
+            assertEquals(3, getOverviews(sids).size());
+        }
+        finally {
+            Config.get().remove("taskomatic.systems_overview_update_batch_size");
+        }
+    }
+
+    private long countTasks(Long sid) {
+        return TaskFactory.getTaskListByNameLike(SystemsOverviewUpdateDriver.TASK_NAME).stream()
+                .map(Task::getData)
+                .filter(sid::equals)
+                .count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getOverviews(List<Long> sids) {
+        List<Object[]> rows = HibernateFactory.getSession()
+                .createNativeQuery("SELECT * FROM suseSystemOverview WHERE id IN (:sids) ORDER BY id")
+                .setParameterList("sids", sids)
+                .getResultList();
+        return rows.stream().map(Arrays::toString).collect(Collectors.toList());
+    }
+
+    private void deleteOverviews(List<Long> sids) {
+        HibernateFactory.getSession()
+                .createNativeQuery("DELETE FROM suseSystemOverview WHERE id IN (:sids)")
+                .setParameterList("sids", sids)
+                .executeUpdate();
+    }
+}
@@ -75,4 +75,14 @@ public interface QueueDriver<T> {
     default boolean isBlockingTaskQueue() {
         return false;
     }
+
+    /**
+     * Specify if the queue should look for new candidates as soon as its workers are done,
+     * instead of waiting for the next run. Only suitable when getCandidates() does not
+     * return the work items which have been processed successfully.
+     * @return true if the task queue should be fed continuously
+     */
+    default boolean isContinuous() {
+        return false;
+    }
 }
@@ -14,27 +14,48 @@
  */
 package com.redhat.rhn.taskomatic.task.threaded;
 
+import com.redhat.rhn.common.conf.Config;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.taskomatic.domain.TaskoRun;
 
 import java.util.List;
-
-import EDU.oswego.cs.dl.util.concurrent.Channel;
-import EDU.oswego.cs.dl.util.concurrent.LinkedQueue;
-import EDU.oswego.cs.dl.util.concurrent.PooledExecutor;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Generic threaded queue suitable for use wherever Taskomatic
  * tasks need to process a number of work items in parallel.
+ *
+ * The worker threads are long-lived and shared by all the queues: a thread
+ * which is done with the workers of one queue serves whichever queue has
+ * work, while each queue never runs more than
+ * {@link QueueDriver#getMaxWorkers()} workers at once. Queues whose driver
+ * is continuous look for new candidates as soon as they are drained, instead
+ * of waiting for the next scheduled run.
  */
 public class TaskQueue {
 
+    private static final ThreadPoolExecutor WORKER_THREADS = new ThreadPoolExecutor(0, Integer.MAX_VALUE,
+            60L, TimeUnit.SECONDS, new SynchronousQueue<>(), new TaskThreadFactory());
+
     private QueueDriver queueDriver;
-    private PooledExecutor executor = null;
-    private int executingWorkers = 0;
-    private int queueSize = 0;
-    private byte[] emptyQueueWait = new byte[0];
-    private boolean taskQueueDone = true;
+    private final Queue<PendingWorker> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicInteger executingWorkers = new AtomicInteger();
+    private final AtomicInteger activeThreads = new AtomicInteger();
+    private final AtomicBoolean feeding = new AtomicBoolean();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final Object emptyQueueWait = new Object();
+    private volatile long lastFeed;
+    private volatile boolean stopped;
     private TaskoRun queueRun = null;
 
     /**
@@ -57,29 +78,16 @@ public class TaskQueue {
      * Callback all workers should call when starting
      * to process work
      */
-    public synchronized void workerStarting() {
-        executingWorkers++;
+    public void workerStarting() {
+        executingWorkers.incrementAndGet();
     }
 
     /**
      * Callback all workers should call when
      * finished with their work item
      */
-    public synchronized void workerDone() {
-        executingWorkers--;
-        queueSize--;
-        if (executingWorkers < 0) {
-            executingWorkers = 0;
-        }
-        if (queueSize < 0) {
-            queueSize = 0;
-        }
-        if (executingWorkers == 0) {
-            synchronized (emptyQueueWait) {
-                emptyQueueWait.notifyAll();
-            }
-            taskQueueDone = true;
-        }
+    public void workerDone() {
+        executingWorkers.updateAndGet(n -> Math.max(n - 1, 0));
     }
 
     /**
@@ -89,7 +97,7 @@ public class TaskQueue {
      * @return number of currently executing workers
      */
     public int getExecutingWorkerCount() {
-        return executingWorkers;
+        return executingWorkers.get();
     }
 
     /**
@@ -97,40 +105,48 @@ public class TaskQueue {
      * @return number of workers pending
      */
     public int getQueueSize() {
-        return queueSize;
+        return queueSize.get();
+    }
+
+    /**
+     * Returns the number of workers which have been run
+     * @return number of completed workers
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * Returns the total time the completed workers waited before being run
+     * @return the waiting time, in nanoseconds
+     */
+    public long getWaitNanos() {
+        return waitNanos.sum();
+    }
+
+    /**
+     * Returns how long the oldest pending worker has been waiting
+     * @return the waiting time, in nanoseconds, or 0 if no worker is waiting
+     */
+    public long getLagNanos() {
+        PendingWorker oldest = pending.peek();
+        return oldest == null ? 0 : Math.max(System.nanoTime() - oldest.queuedAt, 0);
     }
 
     /**
      * Create workers for all current candidates or set the current job run to FINISHED in
      * case there is no new candidates and workers are all done.
+     * Continuous and blocking queues still working on previous candidates are left alone:
+     * the former look for new candidates by themselves once drained. Other drivers have to
+     * leave out the candidates which are still being worked on.
      */
     public void run() {
-        shutdownExecutor();
-        Channel workers = new LinkedQueue();
-        List candidates = queueDriver.getCandidates();
-        queueSize += candidates.size();
-        if (queueSize > 0) {
-            queueDriver.getLogger().info("In the queue: {}", queueSize);
-        }
-        while (!candidates.isEmpty() && queueDriver.canContinue()) {
-            Object candidate = candidates.remove(0);
-            QueueWorker worker = queueDriver.makeWorker(candidate);
-            worker.setParentQueue(this);
-            try {
-                queueDriver.getLogger().debug("Putting worker");
-                workers.put(worker);
-                queueDriver.getLogger().debug("Put worker");
-                unsetTaskQueueDone();
-            }
-            catch (InterruptedException e) {
-                queueDriver.getLogger().error(e);
-                HibernateFactory.commitTransaction();
-                HibernateFactory.closeSession();
-                HibernateFactory.getSession();
-                return;
-            }
+        boolean busy = queueSize.get() > 0 &&
+                (queueDriver.isContinuous() || queueDriver.isBlockingTaskQueue());
+        if (busy || !feed()) {
+            queueDriver.getLogger().debug("Queue still busy with {} workers, skipping", queueSize.get());
+            return;
         }
-        setupQueue(workers);
 
         if (queueDriver.isBlockingTaskQueue()) {
             try {
@@ -145,19 +161,8 @@ public class TaskQueue {
             }
         }
 
-        if (isTaskQueueDone()) {
-            // everything done
-            if (queueRun != null) {
-                queueDriver.getLogger().debug("Finishing run {}", queueRun.getId());
-                queueRun.finished();
-                queueRun.saveStatus(TaskoRun.STATUS_FINISHED);
-            }
-            else {
-                queueDriver.getLogger().debug("Finishing Task Queue");
-            }
-            HibernateFactory.commitTransaction();
-            HibernateFactory.closeSession();
-            changeRun(null);
+        if (queueSize.get() == 0) {
+            finishRun();
         }
     }
 
@@ -167,42 +172,183 @@ public class TaskQueue {
      */
     public void waitForEmptyQueue() throws InterruptedException {
         synchronized (emptyQueueWait) {
-            if (queueSize == 0) {
-                return;
+            while (queueSize.get() > 0) {
+                emptyQueueWait.wait();
             }
-            emptyQueueWait.wait();
         }
     }
 
+    /**
+     * Drops the pending workers. Running workers are interrupted when the
+     * worker threads are shut down.
+     */
     void shutdown() {
-        executor.shutdownNow();
-        while (!executor.isTerminatedAfterShutdown()) {
-            try {
-                Thread.sleep(100);
+        stopped = true;
+        while (pending.poll() != null) {
+            done();
+        }
+    }
+
+    /**
+     * Stops the worker threads shared by all the queues, interrupting the running workers.
+     */
+    static void shutdownWorkerThreads() {
+        WORKER_THREADS.shutdownNow();
+        try {
+            WORKER_THREADS.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets the candidates from the driver and queues their workers, unless another
+     * thread is already doing it.
+     * @return false if the queue was already being fed
+     */
+    private boolean feed() {
+        if (!feeding.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            lastFeed = System.nanoTime();
+            List candidates = queueDriver.getCandidates();
+            int added = 0;
+            for (Object candidate : candidates) {
+                if (stopped || !queueDriver.canContinue()) {
+                    break;
+                }
+                QueueWorker worker = queueDriver.makeWorker(candidate);
+                worker.setParentQueue(this);
+                queueSize.incrementAndGet();
+                pending.add(new PendingWorker(worker));
+                added++;
             }
-            catch (InterruptedException e) {
-                queueDriver.getLogger().error(e);
+            if (added > 0) {
+                queueDriver.getLogger().info("In the queue: {}", added);
+                dispatch();
+            }
+            return true;
+        }
+        finally {
+            feeding.set(false);
+        }
+    }
+
+    /**
+     * Hands pending workers over to worker threads, as long as the queue does
+     * not use its maximum number of threads.
+     */
+    private void dispatch() {
+        int maxThreads = Math.max(queueDriver.getMaxWorkers(), 1);
+        while (!stopped && !pending.isEmpty()) {
+            int active = activeThreads.get();
+            if (active >= maxThreads) {
                 return;
             }
+            if (activeThreads.compareAndSet(active, active + 1)) {
+                try {
+                    WORKER_THREADS.execute(this::drain);
+                }
+                catch (RejectedExecutionException e) {
+                    activeThreads.decrementAndGet();
+                    queueDriver.getLogger().error("Worker threads are shut down", e);
+                    return;
+                }
+            }
         }
     }
 
-    private void shutdownExecutor() {
-        if (executor != null) {
-            executor.shutdownAfterProcessingCurrentlyQueuedTasks();
-            executor = null;
+    /**
+     * Runs pending workers of this queue until there is none left.
+     */
+    private void drain() {
+        try {
+            PendingWorker next = stopped ? null : pending.poll();
+            while (next != null) {
+                execute(next);
+                next = stopped ? null : pending.poll();
+            }
+        }
+        finally {
+            activeThreads.decrementAndGet();
+        }
+        // a worker may have been queued after the last poll
+        dispatch();
+    }
+
+    private void execute(PendingWorker next) {
+        waitNanos.add(System.nanoTime() - next.queuedAt);
+        try {
+            next.worker.run();
+        }
+        catch (RuntimeException e) {
+            queueDriver.getLogger().error(e.getMessage(), e);
+        }
+        finally {
+            completed.increment();
+            if (done() == 0) {
+                drained();
+            }
         }
     }
 
-    private void setupQueue(Channel workers) {
-        int maxPoolSize = queueDriver.getMaxWorkers();
-        executor = new PooledExecutor(workers);
-        executor.waitWhenBlocked();
-        executor.setThreadFactory(new TaskThreadFactory());
-        executor.setKeepAliveTime(5000);
-        executor.setMinimumPoolSize(1);
-        executor.setMaximumPoolSize(maxPoolSize);
-        executor.createThreads(maxPoolSize);
+    private int done() {
+        int size = queueSize.decrementAndGet();
+        if (size == 0) {
+            synchronized (emptyQueueWait) {
+                emptyQueueWait.notifyAll();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Looks for new candidates once all workers are done, if the driver allows it. Failing
+     * work items usually stay candidates, so this is not done more than once per refill interval.
+     */
+    private void drained() {
+        if (stopped || !queueDriver.isContinuous() || queueDriver.isBlockingTaskQueue()) {
+            return;
+        }
+        long interval = TimeUnit.SECONDS.toNanos(Config.get().getInt("taskomatic.queue_refill_interval", 10));
+        if (System.nanoTime() - lastFeed < interval) {
+            return;
+        }
+        try {
+            feed();
+            if (queueSize.get() == 0) {
+                finishRun();
+            }
+            else {
+                HibernateFactory.commitTransaction();
+                HibernateFactory.closeSession();
+            }
+        }
+        catch (RuntimeException e) {
+            queueDriver.getLogger().error("Unable to get new candidates", e);
+            HibernateFactory.rollbackTransaction();
+            HibernateFactory.closeSession();
+        }
+    }
+
+    private void finishRun() {
+        TaskoRun run;
+        synchronized (this) {
+            run = queueRun;
+        }
+        if (run != null) {
+            queueDriver.getLogger().debug("Finishing run {}", run.getId());
+            run.finished();
+            run.saveStatus(TaskoRun.STATUS_FINISHED);
+        }
+        else {
+            queueDriver.getLogger().debug("Finishing Task Queue");
+        }
+        HibernateFactory.commitTransaction();
+        HibernateFactory.closeSession();
+        changeRun(null);
     }
 
     /**
@@ -232,15 +378,19 @@ public class TaskQueue {
      * returns queue run
      * @return queue log run
      */
-    public TaskoRun getQueueRun() {
+    public synchronized TaskoRun getQueueRun() {
         return queueRun;
     }
 
-    private synchronized boolean isTaskQueueDone() {
-        return taskQueueDone;
-    }
+    /**
+     * A worker waiting for a thread
+     */
+    private static class PendingWorker {
+        private final QueueWorker worker;
+        private final long queuedAt = System.nanoTime();
 
-    private synchronized void unsetTaskQueueDone() {
-        taskQueueDone = false;
+        PendingWorker(QueueWorker workerIn) {
+            worker = workerIn;
+        }
     }
 }
@@ -91,11 +91,22 @@ public class TaskQueueFactory {
         }
     }
 
+    /**
+     * Returns the queues created so far
+     * @return queues by name
+     */
+    public Map<String, TaskQueue> getQueues() {
+        synchronized (queues) {
+            return new HashMap<>(queues);
+        }
+    }
+
     void closeAllQueues() {
         synchronized (queues) {
             queues.values().forEach(TaskQueue::shutdown);
+            queues.clear();
         }
-        queues.clear();
+        TaskQueue.shutdownWorkerThreads();
     }
 
     /**
@@ -14,19 +14,22 @@
  */
 package com.redhat.rhn.taskomatic.task.threaded;
 
-import EDU.oswego.cs.dl.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ThreadFactory impl for Taskomatic
  */
 public class TaskThreadFactory implements ThreadFactory {
 
+    private final AtomicInteger count = new AtomicInteger();
+
     /**
      * {@inheritDoc}
      */
     @Override
     public Thread newThread(Runnable task) {
-        Thread retval = new Thread(task);
+        Thread retval = new Thread(task, "TaskQueueWorker-" + count.incrementAndGet());
         retval.setDaemon(true);
         return retval;
     }
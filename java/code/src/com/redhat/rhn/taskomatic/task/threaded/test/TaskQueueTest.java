@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.redhat.rhn.taskomatic.task.threaded.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.taskomatic.task.threaded.QueueDriver;
+import com.redhat.rhn.taskomatic.task.threaded.QueueWorker;
+import com.redhat.rhn.taskomatic.task.threaded.TaskQueue;
+import com.redhat.rhn.testing.RhnBaseTestCase;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Tests for {@link TaskQueue}
+ */
+public class TaskQueueTest extends RhnBaseTestCase {
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Config.get().remove("taskomatic.queue_refill_interval");
+        super.tearDown();
+    }
+
+    @Test
+    public void testWorkersDoNotExceedMaxWorkers() throws Exception {
+        TestDriver driver = new TestDriver(2, true, false);
+        driver.batches.add(IntStream.range(0, 20).boxed().collect(Collectors.toList()));
+        TaskQueue queue = new TaskQueue();
+        queue.setQueueDriver(driver);
+
+        // blocking queue: returns once all workers are done
+        queue.run();
+
+        assertEquals(20, driver.processed.size());
+        assertEquals(20, queue.getCompletedCount());
+        assertEquals(0, queue.getQueueSize());
+        assertEquals(0, queue.getExecutingWorkerCount());
+        assertTrue(driver.maxConcurrent.get() <= 2);
+    }
+
+    @Test
+    public void testContinuousQueueLooksForNewCandidates() throws Exception {
+        Config.get().setString("taskomatic.queue_refill_interval", "0");
+        TestDriver driver = new TestDriver(3, false, true);
+        driver.batches.add(IntStream.range(0, 10).boxed().collect(Collectors.toList()));
+        driver.batches.add(IntStream.range(10, 15).boxed().collect(Collectors.toList()));
+        TaskQueue queue = new TaskQueue();
+        queue.setQueueDriver(driver);
+
+        // only the first batch is fetched by the run, the second one once it is drained
+        queue.run();
+        waitFor(() -> driver.processed.size() == 15);
+
+        List<Integer> processed = new ArrayList<>(driver.processed);
+        Collections.sort(processed);
+        assertEquals(IntStream.range(0, 15).boxed().collect(Collectors.toList()), processed);
+        waitFor(() -> driver.fetches.get() == 3);
+    }
+
+    @Test
+    public void testBusyContinuousQueueIsNotFedAgain() throws Exception {
+        TestDriver driver = new TestDriver(1, false, true);
+        driver.batches.add(List.of(1, 2, 3));
+        driver.batches.add(List.of(1, 2, 3));
+        driver.delayMillis = 200;
+        TaskQueue queue = new TaskQueue();
+        queue.setQueueDriver(driver);
+
+        queue.run();
+        queue.run();
+        waitFor(() -> driver.processed.size() == 3);
+
+        assertEquals(1, driver.fetches.get());
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out");
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Driver handing out the queued batches of candidates, one per call.
+     */
+    private static class TestDriver implements QueueDriver<Integer> {
+        private final int maxWorkers;
+        private final boolean blocking;
+        private final boolean continuous;
+        private final Queue<List<Integer>> batches = new LinkedList<>();
+        private final Queue<Integer> processed = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxConcurrent = new AtomicInteger();
+        private final AtomicInteger fetches = new AtomicInteger();
+        private volatile long delayMillis = 10;
+        private Logger logger = LogManager.getLogger(TaskQueueTest.class);
+
+        TestDriver(int maxWorkersIn, boolean blockingIn, boolean continuousIn) {
+            maxWorkers = maxWorkersIn;
+            blocking = blockingIn;
+            continuous = continuousIn;
+        }
+
+        @Override
+        public void setLogger(Logger loggerIn) {
+            logger = loggerIn;
+        }
+
+        @Override
+        public Logger getLogger() {
+            return logger;
+        }
+
+        @Override
+        public synchronized List<Integer> getCandidates() {
+            fetches.incrementAndGet();
+            List<Integer> batch = batches.poll();
+            return batch == null ? new ArrayList<>() : new ArrayList<>(batch);
+        }
+
+        @Override
+        public int getMaxWorkers() {
+            return maxWorkers;
+        }
+
+        @Override
+        public QueueWorker makeWorker(Integer workItem) {
+            return new QueueWorker() {
+                private TaskQueue parent;
+
+                @Override
+                public void setParentQueue(TaskQueue queue) {
+                    parent = queue;
+                }
+
+                @Override
+                public void run() {
+                    parent.workerStarting();
+                    try {
+                        maxConcurrent.accumulateAndGet(running.incrementAndGet(), Math::max);
+                        Thread.sleep(delayMillis);
+                        processed.add(workItem);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    finally {
+                        running.decrementAndGet();
+                        parent.workerDone();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean canContinue() {
+            return true;
+        }
+
+        @Override
+        public void initialize() {
+            // empty
+        }
+
+        @Override
+        public boolean isBlockingTaskQueue() {
+            return blocking;
+        }
+
+        @Override
+        public boolean isContinuous() {
+            return continuous;
+        }
+    }
+}
@@ -129,6 +129,11 @@ public class RhnServletListener implements ServletContextListener {
         logStart("Hibernate");
 
         PrometheusExporter.INSTANCE.registerSystemsCollector();
+        PrometheusExporter.INSTANCE.registerXmlRpcDispatchCollector();
+        PrometheusExporter.INSTANCE.registerApiSessionCacheCollector();
+        PrometheusExporter.INSTANCE.registerSaltEventCollector();
+        PrometheusExporter.INSTANCE.registerMessageQueueCollector();
+        PrometheusExporter.INSTANCE.registerNotificationWebSocketCollector();
 
         // the following is not safe to run in the testsuite
         // and will be excluded from test runs
@@ -190,7 +190,7 @@ public class HttpApiLoggingInvocationProcessor extends LoggingInvocationProcesso
     public User getCaller(Request request) {
         try {
             String sessionKey = request.cookie(PxtCookieManager.PXT_SESSION_COOKIE_NAME);
-            return SessionManager.loadSession(sessionKey).getUser();
+            return SessionManager.lookupUserByKey(sessionKey);
         }
         catch (InvalidSessionIdException | LookupException e) {
             // As this code is just for logging, it could keep going when no session is found.
@@ -203,7 +203,7 @@ public class RouteFactory {
      */
     private MethodCall findMethod(List<Method> methods, Map<String, JsonElement> jsonArgs, String sessionKey)
             throws NoSuchMethodException {
-        User user = SessionManager.loadSession(sessionKey).getUser();
+        User user = SessionManager.lookupUserByKey(sessionKey);
         // Filter methods with parameter names that match the request parameters, excluding the User parameter
         return methods.stream()
                 .filter(m -> jsonArgs.keySet().equals(
@@ -22,10 +22,12 @@ import static java.util.Optional.ofNullable;
 import static java.util.stream.Collectors.toList;
 
 import com.redhat.rhn.common.localization.LocalizationService;
+import com.redhat.rhn.common.util.BoundedCache;
 
 import com.suse.manager.model.maintenance.MaintenanceCalendar;
 import com.suse.manager.model.maintenance.MaintenanceSchedule;
 
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -45,6 +47,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -71,6 +74,19 @@ public class IcalUtils {
 
     private static Logger log = LogManager.getLogger(IcalUtils.class);
 
+    /** How far upcoming maintenance windows are looked for: a year and a month */
+    private static final Duration UPCOMING_HORIZON = Duration.ofDays(365 + 31);
+
+    /** Maximum number of calendars whose windows are kept expanded */
+    private static final int MAX_WINDOW_INDEXES = 256;
+
+    /** Time after which the windows of a calendar are expanded again, so that the horizon follows the clock */
+    private static final long WINDOW_INDEX_MAX_AGE = TimeUnit.HOURS.toMillis(24);
+
+    // expanded windows by checksum of the calendar content
+    private static final BoundedCache<String, MaintenanceWindowIndex> WINDOW_INDEXES =
+            new BoundedCache<>(MAX_WINDOW_INDEXES, WINDOW_INDEX_MAX_AGE);
+
     /**
      * Given MaintenanceSchedule calculate upcoming maintenance windows
      *
@@ -88,10 +104,19 @@ public class IcalUtils {
      */
     public Optional<List<MaintenanceWindowData>> calculateUpcomingMaintenanceWindows(MaintenanceSchedule schedule) {
         Optional<String> multiScheduleName = getScheduleNameForMulti(schedule);
+        Instant now = Instant.now();
+        Instant end = now.plus(UPCOMING_HORIZON);
 
         Stream<Pair<Instant, Instant>> periodStream = schedule.getCalendarOpt()
-                .flatMap(this::parseCalendar)
-                .map(c -> calculateUpcomingPeriods(c, multiScheduleName, Instant.now(), 10))
+                .map(calendar -> {
+                    MaintenanceWindowIndex index = getWindowIndex(calendar);
+                    if (index.covers(now, end)) {
+                        return index.listWindows(now, end, multiScheduleName, 10).stream();
+                    }
+                    return parseCalendar(calendar)
+                            .map(c -> calculateUpcomingPeriods(c, multiScheduleName, now, 10))
+                            .orElseGet(Stream::empty);
+                })
                 .orElseGet(Stream::empty);
 
         List<MaintenanceWindowData> result = periodStream
@@ -135,7 +160,7 @@ public class IcalUtils {
                 .orElse(allEvents);
 
         // we will look a year and month to the future
-        Period period = new Period(new DateTime(startDate.toEpochMilli()), Duration.ofDays(365 + 31));
+        Period period = new Period(new DateTime(startDate.toEpochMilli()), UPCOMING_HORIZON);
 
         List<PeriodList> periodLists = filteredEvents.stream()
                 .map(c -> c.calculateRecurrenceSet(period))
@@ -200,6 +225,75 @@ public class IcalUtils {
         return filter.filter(calendar.get().getComponents(Component.VEVENT));
     }
 
+    /**
+     * Check if the given date is in a maintenance window of a calendar.
+     * Filter the windows by summary, if the summary parameter is passed.
+     *
+     * The windows of the calendar are expanded once and kept by content, so that checking many dates
+     * against the same calendar does not compute the recurrences every time. Dates outside of the
+     * expanded horizon are checked with {@link #getCalendarEventsAtDate(Date, Optional, Optional)}.
+     *
+     * @param date the date
+     * @param calendar the calendar
+     * @param summary event summary
+     * @return true if the date is in a maintenance window
+     */
+    public boolean isInMaintenanceWindow(Date date, Optional<MaintenanceCalendar> calendar,
+            Optional<String> summary) {
+        if (calendar.isEmpty()) {
+            return false;
+        }
+
+        // same range as in getCalendarEventsAtDate
+        Instant start = date.toInstant();
+        Instant end = start.plusSeconds(1);
+        MaintenanceWindowIndex index = getWindowIndex(calendar.get());
+        if (index.covers(start, end)) {
+            return index.hasWindow(start, end, summary);
+        }
+        return !getCalendarEventsAtDate(date, parseCalendar(calendar.get()), summary).isEmpty();
+    }
+
+    /**
+     * Get the expanded windows of a calendar, building them if they are not cached yet or are too old.
+     *
+     * @param calendarIn the calendar
+     * @return the windows of the calendar, none if the calendar cannot be parsed
+     */
+    public MaintenanceWindowIndex getWindowIndex(MaintenanceCalendar calendarIn) {
+        String key = DigestUtils.sha256Hex(calendarIn.getIcal());
+        MaintenanceWindowIndex index = WINDOW_INDEXES.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        index = MaintenanceWindowIndex.build(parseCalendar(calendarIn), Instant.now());
+        log.debug("Expanded {} windows of calendar {}", index.size(), calendarIn.getLabel());
+        WINDOW_INDEXES.put(key, index);
+        return index;
+    }
+
+    /**
+     * Drop the expanded windows of a calendar content. To be called when the content of a
+     * calendar is replaced or removed.
+     *
+     * @param ical the calendar content
+     */
+    public static void invalidateWindowIndex(String ical) {
+        if (ical == null) {
+            return;
+        }
+        String key = DigestUtils.sha256Hex(ical);
+        WINDOW_INDEXES.remove(key);
+    }
+
+    /**
+     * Drop all the expanded windows.
+     */
+    public static void clearWindowIndexes() {
+        WINDOW_INDEXES.clear();
+    }
+
     /**
      * Read calendar using given reader and parse it
      *
@@ -343,6 +343,7 @@ public class MaintenanceManager {
         ensureOrgAdmin(user);
         MaintenanceCalendar calendar = lookupCalendarByUserAndLabel(user, label)
                 .orElseThrow(() -> new EntityNotExistsException(label));
+        IcalUtils.invalidateWindowIndex(calendar.getIcal());
         if (details.containsKey("ical")) {
             calendar.setIcal(details.get("ical"));
         }
@@ -377,6 +378,7 @@ public class MaintenanceManager {
         ensureOrgAdmin(user);
         MaintenanceCalendar calendar = lookupCalendarByUserAndLabel(user, label)
                 .orElseThrow(() -> new EntityNotExistsException(label));
+        IcalUtils.invalidateWindowIndex(calendar.getIcal());
         calendar.setIcal(fetchCalendarData(
                 calendar.getUrlOpt().orElseThrow(() -> new EntityNotExistsException("url"))));
         calendarFactory.save(calendar);
@@ -408,6 +410,7 @@ public class MaintenanceManager {
         ensureCalendarAccessible(user, calendar);
         List<RescheduleResult> result = new LinkedList<>();
         List<MaintenanceSchedule> schedules = scheduleFactory.listByUserAndCalendar(user, calendar);
+        IcalUtils.invalidateWindowIndex(calendar.getIcal());
         calendarFactory.remove(calendar);
         for (MaintenanceSchedule schedule: schedules) {
             schedule.setCalendar(null);
@@ -678,14 +681,8 @@ public class MaintenanceManager {
      */
     private Set<MaintenanceSchedule> listSystemSchedulesNotMatchingDate(Set<Long> systemIds, Date date) {
         return listSchedulesBySystems(systemIds).stream()
-                .filter(schedule -> {
-                    Collection<CalendarComponent> events = icalUtils.getCalendarEventsAtDate(
-                            date,
-                            schedule.getCalendarOpt().flatMap(c -> icalUtils.parseCalendar(c)),
-                            getScheduleNameForMulti(schedule)
-                    );
-                    return events.isEmpty();
-                })
+                .filter(schedule -> !icalUtils.isInMaintenanceWindow(date, schedule.getCalendarOpt(),
+                        getScheduleNameForMulti(schedule)))
                 .collect(toSet());
     }
 
@@ -809,12 +806,8 @@ public class MaintenanceManager {
         return false;
     }
 
-    private Collection<CalendarComponent> getCalendarForNow(MaintenanceSchedule ms) {
-        return ms.getCalendarOpt()
-                .map(cal -> icalUtils.getCalendarEventsAtDate(
-                        new Date(), icalUtils.parseCalendar(cal),
-                        getScheduleNameForMulti(ms)))
-                .orElse(Collections.emptyList());
+    private boolean isInMaintenanceWindowNow(MaintenanceSchedule ms) {
+        return icalUtils.isInMaintenanceWindow(new Date(), ms.getCalendarOpt(), getScheduleNameForMulti(ms));
     }
 
     /**
@@ -825,7 +818,7 @@ public class MaintenanceManager {
      */
     public boolean isSystemInMaintenanceMode(Server server) {
         return server.getMaintenanceScheduleOpt()
-                .map(schedule -> !getCalendarForNow(schedule).isEmpty())
+                .map(this::isInMaintenanceWindowNow)
                 .orElse(true);
     }
 
@@ -839,7 +832,7 @@ public class MaintenanceManager {
         Set<MaintenanceSchedule> schedulesInMaintMode = minions.stream()
                 .flatMap(minion -> minion.getMaintenanceScheduleOpt().stream())
                 .distinct()
-                .filter(sched -> !getCalendarForNow(sched).isEmpty())
+                .filter(this::isInMaintenanceWindowNow)
                 .collect(Collectors.toSet());
 
         List<Long> minionsInMaintMode = minions.stream()
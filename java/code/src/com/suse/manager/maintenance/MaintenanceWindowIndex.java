@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.maintenance;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.fortuna.ical4j.model.Calendar;
+import net.fortuna.ical4j.model.Component;
+import net.fortuna.ical4j.model.DateTime;
+import net.fortuna.ical4j.model.Period;
+import net.fortuna.ical4j.model.Property;
+import net.fortuna.ical4j.model.component.CalendarComponent;
+import net.fortuna.ical4j.model.property.Summary;
+
+/**
+ * The maintenance windows of a calendar, expanded once over a horizon around
+ * the time the index is built.
+ *
+ * The windows are kept sorted by start, together with the running maximum of
+ * their ends, so that checking if an instant is in a window or listing the
+ * next windows is a binary search instead of an expansion of the recurrences
+ * of every event. Queries reaching outside of the horizon are not answered by
+ * the index, see {@link #covers(Instant, Instant)}.
+ */
+public class MaintenanceWindowIndex {
+
+    /** How far before the build time the windows are expanded */
+    public static final Duration LOOK_BEHIND = Duration.ofDays(31);
+
+    /** How far after the build time the windows are expanded: more than the year and month of upcoming windows */
+    public static final Duration LOOK_AHEAD = Duration.ofDays(365 + 31 + 7);
+
+    private final long from;
+    private final long to;
+    private final List<Window> windows;
+    private final Windows allWindows;
+    private final Map<String, Windows> windowsByName = new ConcurrentHashMap<>();
+
+    private MaintenanceWindowIndex(long fromIn, long toIn, List<Window> windowsIn) {
+        from = fromIn;
+        to = toIn;
+        windows = windowsIn;
+        allWindows = new Windows(windowsIn);
+    }
+
+    /**
+     * Expands the windows of all the events of a calendar.
+     *
+     * @param calendar the parsed calendar, empty if it could not be parsed
+     * @param now the build time
+     * @return the index
+     */
+    public static MaintenanceWindowIndex build(Optional<Calendar> calendar, Instant now) {
+        long fromMillis = now.minus(LOOK_BEHIND).toEpochMilli();
+        long toMillis = now.plus(LOOK_AHEAD).toEpochMilli();
+        List<Window> windows = new ArrayList<>();
+
+        calendar.ifPresent(c -> {
+            Period horizon = new Period(new DateTime(fromMillis), new DateTime(toMillis));
+            for (CalendarComponent event : c.<CalendarComponent>getComponents(Component.VEVENT)) {
+                Property summaryProp = event.getProperty(Property.SUMMARY);
+                String summary = summaryProp instanceof Summary ? summaryProp.getValue() : null;
+                for (Period p : event.calculateRecurrenceSet(horizon)) {
+                    windows.add(new Window(p.getStart().getTime(), p.getRangeEnd().getTime(), summary));
+                }
+            }
+        });
+        windows.sort(Comparator.comparingLong((Window w) -> w.start).thenComparingLong(w -> w.end));
+        return new MaintenanceWindowIndex(fromMillis, toMillis, windows);
+    }
+
+    /**
+     * @return the number of expanded windows
+     */
+    public int size() {
+        return windows.size();
+    }
+
+    /**
+     * Checks if the windows overlapping a time range are all known to this index.
+     *
+     * @param start the start of the range
+     * @param end the end of the range
+     * @return true if the range is within the horizon of the index
+     */
+    public boolean covers(Instant start, Instant end) {
+        return start.toEpochMilli() >= from && end.toEpochMilli() <= to;
+    }
+
+    /**
+     * Checks if a window overlaps a time range. Like in ical4j, both the range and the windows
+     * include their bounds.
+     *
+     * @param start the start of the range
+     * @param end the end of the range
+     * @param eventName for MULTI calendars: only consider the events with this name
+     * @return true if a window overlaps the range
+     */
+    public boolean hasWindow(Instant start, Instant end, Optional<String> eventName) {
+        return getWindows(eventName).overlaps(start.toEpochMilli(), end.toEpochMilli());
+    }
+
+    /**
+     * Lists the windows overlapping a time range, sorted by start and end.
+     *
+     * @param start the start of the range
+     * @param end the end of the range
+     * @param eventName for MULTI calendars: only consider the events with this name
+     * @param limit maximum number of windows to return
+     * @return the windows start and end
+     */
+    public List<Pair<Instant, Instant>> listWindows(Instant start, Instant end, Optional<String> eventName,
+            int limit) {
+        return getWindows(eventName).list(start.toEpochMilli(), end.toEpochMilli(), limit);
+    }
+
+    private Windows getWindows(Optional<String> eventName) {
+        return eventName
+                .map(name -> windowsByName.computeIfAbsent(name, n -> {
+                    List<Window> named = new ArrayList<>();
+                    for (Window w : windows) {
+                        if (Objects.equals(n, w.summary)) {
+                            named.add(w);
+                        }
+                    }
+                    return new Windows(named);
+                }))
+                .orElse(allWindows);
+    }
+
+    /**
+     * An expanded window.
+     */
+    private static class Window {
+        private final long start;
+        private final long end;
+        private final String summary;
+
+        Window(long startIn, long endIn, String summaryIn) {
+            start = startIn;
+            end = endIn;
+            summary = summaryIn;
+        }
+    }
+
+    /**
+     * Windows sorted by start, with the running maximum of their ends.
+     */
+    private static class Windows {
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        Windows(List<Window> sorted) {
+            int size = sorted.size();
+            starts = new long[size];
+            ends = new long[size];
+            maxEnds = new long[size];
+            long maxEnd = Long.MIN_VALUE;
+            for (int i = 0; i < size; i++) {
+                Window w = sorted.get(i);
+                starts[i] = w.start;
+                ends[i] = w.end;
+                maxEnd = Math.max(maxEnd, w.end);
+                maxEnds[i] = maxEnd;
+            }
+        }
+
+        boolean overlaps(long start, long end) {
+            // last window starting before the end of the range
+            int last = firstIndexAbove(starts, end) - 1;
+            return last >= 0 && maxEnds[last] >= start;
+        }
+
+        List<Pair<Instant, Instant>> list(long start, long end, int limit) {
+            List<Pair<Instant, Instant>> result = new ArrayList<>();
+            // windows before this one all end before the start of the range
+            for (int i = firstIndexNotBelow(maxEnds, start); i < starts.length && starts[i] <= end &&
+                    result.size() < limit; i++) {
+                if (ends[i] >= start) {
+                    result.add(Pair.of(Instant.ofEpochMilli(starts[i]), Instant.ofEpochMilli(ends[i])));
+                }
+            }
+            return result;
+        }
+
+        /** Index of the first value greater or equal to the key in a sorted array */
+        private static int firstIndexNotBelow(long[] sorted, long key) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < key) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** Index of the first value greater than the key in a sorted array */
+        private static int firstIndexAbove(long[] sorted, long key) {
+            return key == Long.MAX_VALUE ? sorted.length : firstIndexNotBelow(sorted, key + 1);
+        }
+    }
+}
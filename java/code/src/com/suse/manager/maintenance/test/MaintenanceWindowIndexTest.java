@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+
+package com.suse.manager.maintenance.test;
+
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.redhat.rhn.testing.TestUtils;
+
+import com.suse.manager.maintenance.IcalUtils;
+import com.suse.manager.maintenance.MaintenanceWindowIndex;
+import com.suse.manager.model.maintenance.MaintenanceCalendar;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import net.fortuna.ical4j.model.Calendar;
+
+/**
+ * Compares the expanded maintenance windows with the ones computed by ical4j
+ */
+public class MaintenanceWindowIndexTest {
+
+    private static final Logger LOG = LogManager.getLogger(MaintenanceWindowIndexTest.class);
+
+    private static final String TESTDATAPATH = "/com/suse/manager/maintenance/test/testdata";
+    private static final String GOOGLE_ICS = "maintenance-windows-google-multizones.ics";
+    private static final String NYC_WINDOWS = "Maint. windows - NYC - weekdays";
+    private static final String SRI_LANKA_WINDOWS = "Maint. windows-Sri Lanka";
+    private static final List<Optional<String>> EVENT_NAMES =
+            List.of(empty(), of(NYC_WINDOWS), of(SRI_LANKA_WINDOWS), of("There is no window, only zuul"));
+
+    private IcalUtils icalUtils = new IcalUtils();
+    private String ical;
+    private Calendar multiZonesCal;
+    private Instant buildTime;
+    private MaintenanceWindowIndex index;
+
+    /**
+     * {@inheritDoc}
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        File file = new File(TestUtils.findTestData(new File(TESTDATAPATH, GOOGLE_ICS).getAbsolutePath()).getPath());
+        ical = FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+        multiZonesCal = icalUtils.parseCalendar(new StringReader(ical)).get();
+        buildTime = ZonedDateTime.parse("2020-06-09T08:00:00-04:00").toInstant();
+        index = MaintenanceWindowIndex.build(of(multiZonesCal), buildTime);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @AfterEach
+    public void tearDown() {
+        IcalUtils.clearWindowIndexes();
+    }
+
+    /**
+     * Dates in and out of windows, with and without event filter, give the same answer as ical4j
+     */
+    @Test
+    public void testInWindowSameAsIcal4j() {
+        for (Optional<String> eventName : EVENT_NAMES) {
+            int inWindow = 0;
+            for (Instant date : probes()) {
+                boolean expected = !icalUtils.getCalendarEventsAtDate(Date.from(date), of(multiZonesCal), eventName)
+                        .isEmpty();
+                assertEquals(expected, index.hasWindow(date, date.plusSeconds(1), eventName),
+                        "Window at " + date + " for " + eventName);
+                inWindow += expected ? 1 : 0;
+            }
+            if (eventName.isEmpty()) {
+                assertTrue(inWindow > 0);
+            }
+        }
+    }
+
+    /**
+     * Upcoming windows are the same as the ones computed by ical4j
+     */
+    @Test
+    public void testUpcomingSameAsIcal4j() {
+        for (Optional<String> eventName : EVENT_NAMES) {
+            for (Instant date : probes()) {
+                Instant end = date.plus(Duration.ofDays(365 + 31));
+                if (!index.covers(date, end)) {
+                    continue;
+                }
+                List<Pair<Instant, Instant>> expected = icalUtils.calculateUpcomingPeriods(multiZonesCal,
+                        eventName, date, 10).collect(Collectors.toList());
+                assertEquals(expected, index.listWindows(date, end, eventName, 10),
+                        "Upcoming windows at " + date + " for " + eventName);
+            }
+        }
+    }
+
+    /**
+     * Only the horizon around the build time is covered
+     */
+    @Test
+    public void testCovers() {
+        assertTrue(index.covers(buildTime, buildTime.plus(Duration.ofDays(365 + 31))));
+        assertTrue(index.covers(buildTime.minus(Duration.ofDays(1)), buildTime));
+        assertFalse(index.covers(buildTime.minus(Duration.ofDays(60)), buildTime));
+        assertFalse(index.covers(buildTime, buildTime.plus(Duration.ofDays(2 * 365))));
+    }
+
+    /**
+     * A calendar which cannot be parsed has no windows
+     */
+    @Test
+    public void testUnparseableCalendar() {
+        MaintenanceWindowIndex empty = MaintenanceWindowIndex.build(empty(), buildTime);
+        assertEquals(0, empty.size());
+        assertFalse(empty.hasWindow(buildTime, buildTime.plusSeconds(1), empty()));
+        assertTrue(empty.listWindows(buildTime, buildTime.plus(Duration.ofDays(30)), empty(), 10).isEmpty());
+    }
+
+    /**
+     * The windows are expanded once per calendar content and dropped when the content changes
+     */
+    @Test
+    public void testIndexCachedByContent() {
+        MaintenanceCalendar calendar = new MaintenanceCalendar();
+        calendar.setLabel("google");
+        calendar.setIcal(ical);
+        MaintenanceCalendar sameContent = new MaintenanceCalendar();
+        sameContent.setLabel("google-copy");
+        sameContent.setIcal(ical);
+
+        MaintenanceWindowIndex cached = icalUtils.getWindowIndex(calendar);
+        assertTrue(cached.size() > 0);
+        assertSame(cached, icalUtils.getWindowIndex(calendar));
+        assertSame(cached, icalUtils.getWindowIndex(sameContent));
+
+        IcalUtils.invalidateWindowIndex(ical);
+        assertNotSame(cached, icalUtils.getWindowIndex(calendar));
+
+        Instant now = Instant.now();
+        assertEquals(!icalUtils.getCalendarEventsAtDate(Date.from(now), of(multiZonesCal), empty()).isEmpty(),
+                icalUtils.isInMaintenanceWindow(Date.from(now), of(calendar), empty()));
+        assertFalse(icalUtils.isInMaintenanceWindow(Date.from(now), empty(), empty()));
+    }
+
+    /**
+     * Logs the time needed to check many dates with ical4j and with the expanded windows
+     */
+    @Test
+    public void testCheckThroughput() {
+        MaintenanceCalendar calendar = new MaintenanceCalendar();
+        calendar.setLabel("google");
+        calendar.setIcal(ical);
+        List<Date> dates = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < 500; i++) {
+            dates.add(Date.from(now.plus(Duration.ofMinutes(37L * i))));
+        }
+
+        long start = System.nanoTime();
+        int ical4jMatches = 0;
+        for (Date date : dates) {
+            if (!icalUtils.getCalendarEventsAtDate(date, icalUtils.parseCalendar(calendar), of(NYC_WINDOWS))
+                    .isEmpty()) {
+                ical4jMatches++;
+            }
+        }
+        long ical4jMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        int indexMatches = 0;
+        for (Date date : dates) {
+            if (icalUtils.isInMaintenanceWindow(date, of(calendar), of(NYC_WINDOWS))) {
+                indexMatches++;
+            }
+        }
+        long indexMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(ical4jMatches, indexMatches);
+        LOG.info("Checked {} dates in {} ms with ical4j, {} ms with the expanded windows", dates.size(),
+                ical4jMillis, indexMillis);
+    }
+
+    // random dates around the build time, plus the middle of each window
+    private List<Instant> probes() {
+        List<Instant> probes = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            long offset = (long) (random.nextDouble() * Duration.ofDays(420).toMillis());
+            probes.add(buildTime.minus(Duration.ofDays(20)).plusMillis(offset));
+        }
+        index.listWindows(buildTime, buildTime.plus(Duration.ofDays(60)), empty(), Integer.MAX_VALUE)
+                .forEach(w -> probes.add(w.getLeft().plus(Duration.between(w.getLeft(), w.getRight()).dividedBy(2))));
+        return probes;
+    }
+}
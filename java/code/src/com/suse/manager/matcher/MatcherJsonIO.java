@@ -35,7 +35,6 @@ import com.redhat.rhn.domain.server.PinnedSubscription;
 import com.redhat.rhn.domain.server.Server;
 import com.redhat.rhn.domain.server.ServerArch;
 import com.redhat.rhn.domain.server.ServerFactory;
-import com.redhat.rhn.domain.server.virtualhostmanager.VirtualHostManagerFactory;
 import com.redhat.rhn.manager.entitlement.EntitlementManager;
 
 import com.suse.matcher.json.InputJson;
@@ -50,20 +49,28 @@ import com.suse.utils.Opt;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.stream.JsonWriter;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -74,6 +81,9 @@ public class MatcherJsonIO {
     /** Fake ID for the SUSE Manager server system. */
     public static final long SELF_SYSTEM_ID = 2000010000L;
 
+    /** Number of systems loaded at once */
+    private static final int SYSTEMS_BATCH_SIZE = 500;
+
     /** Architecture strings **/
     private static final String AMD64_ARCH_STR = "amd64";
     private static final String S390_ARCH_STR = "s390";
@@ -158,25 +168,43 @@ public class MatcherJsonIO {
      * about systems on this Server
      */
     public List<SystemJson> getJsonSystems(boolean includeSelf, String arch, boolean selfMonitoringEnabled) {
-        Stream<SystemJson> systems = ServerFactory.list(true, true).stream()
-            .map(system -> {
-                Long cpus = system.getCpu() == null ? null : system.getCpu().getNrsocket();
-                Set<String> entitlements = system.getEntitlementLabels();
-                boolean virtualHost = entitlements.contains(EntitlementManager.VIRTUALIZATION_ENTITLED) ||
-                        !system.getGuests().isEmpty();
-                Set<Long> productIds = productIdsForServer(system, entitlements).collect(toSet());
-                return new SystemJson(
-                    system.getId(),
-                    system.getName(),
-                    cpus == null ? null : cpus.intValue(),
-                    !system.isVirtualGuest(),
-                    virtualHost,
-                    getVirtualGuests(system),
-                    productIds
-                );
+        return concat(streamJsonSystems(false), jsonSystemForSelf(includeSelf, selfMonitoringEnabled, arch))
+                .collect(toList());
+    }
+
+    /**
+     * Loads the systems in batches and converts them to JSON objects.
+     * @param evict true to evict the loaded systems from the session once converted
+     */
+    private Stream<SystemJson> streamJsonSystems(boolean evict) {
+        List<Long> ids = ServerFactory.listIds();
+        return IntStream.range(0, (ids.size() + SYSTEMS_BATCH_SIZE - 1) / SYSTEMS_BATCH_SIZE)
+            .mapToObj(i -> ids.subList(i * SYSTEMS_BATCH_SIZE, Math.min((i + 1) * SYSTEMS_BATCH_SIZE, ids.size())))
+            .flatMap(batch -> {
+                List<Server> servers = ServerFactory.lookupByIds(batch, true, true);
+                List<SystemJson> systems = servers.stream().map(this::toJsonSystem).collect(toList());
+                if (evict) {
+                    servers.forEach(HibernateFactory.getSession()::evict);
+                }
+                return systems.stream();
             });
+    }
 
-        return concat(systems, jsonSystemForSelf(includeSelf, selfMonitoringEnabled, arch)).collect(toList());
+    private SystemJson toJsonSystem(Server system) {
+        Long cpus = system.getCpu() == null ? null : system.getCpu().getNrsocket();
+        Set<String> entitlements = system.getEntitlementLabels();
+        boolean virtualHost = entitlements.contains(EntitlementManager.VIRTUALIZATION_ENTITLED) ||
+                !system.getGuests().isEmpty();
+        Set<Long> productIds = productIdsForServer(system, entitlements).collect(toSet());
+        return new SystemJson(
+            system.getId(),
+            system.getName(),
+            cpus == null ? null : cpus.intValue(),
+            !system.isVirtualGuest(),
+            virtualHost,
+            getVirtualGuests(system),
+            productIds
+        );
     }
 
     private static Set<Long> getVirtualGuests(Server system) {
@@ -258,14 +286,65 @@ public class MatcherJsonIO {
      * @return an object representation of the JSON input for the matcher
      */
     public String generateMatcherInput(boolean includeSelf, String arch, boolean selfMonitoringEnabled) {
-        return gson.toJson(new InputJson(
-            new Date(),
-            getJsonSystems(includeSelf, arch, selfMonitoringEnabled),
-            getJsonVirtualizationGroups(),
-            getJsonProducts(),
-            getJsonSubscriptions(),
-            getJsonMatches())
-        );
+        StringWriter out = new StringWriter();
+        try {
+            writeMatcherInput(out, includeSelf, arch, selfMonitoringEnabled, false);
+        }
+        catch (IOException e) {
+            // not thrown by a StringWriter
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes the input data for subscription-matcher, see
+     * {@link #generateMatcherInput(boolean, String, boolean)}.
+     *
+     * Systems are loaded in batches, written as soon as they are converted and evicted from the session
+     * afterwards, so that the whole input never needs to be held in memory.
+     *
+     * @param out the writer to write the JSON to
+     * @param includeSelf true if we want to add the products of the SUMA instance running Matcher
+     * @param arch cpu architecture of this SUMA instance
+     * @param selfMonitoringEnabled whether the monitoring of SUMA server itself is enabled
+     * @throws IOException if writing fails
+     */
+    public void writeMatcherInput(Writer out, boolean includeSelf, String arch, boolean selfMonitoringEnabled)
+        throws IOException {
+        writeMatcherInput(out, includeSelf, arch, selfMonitoringEnabled, true);
+    }
+
+    private void writeMatcherInput(Writer out, boolean includeSelf, String arch, boolean selfMonitoringEnabled,
+                                   boolean evict) throws IOException {
+        // the property names are the ones of the fields of InputJson
+        JsonWriter writer = gson.newJsonWriter(out);
+        writer.beginObject();
+        writer.name("timestamp");
+        gson.toJson(new Date(), Date.class, writer);
+        writeJsonArray(writer, "systems",
+                concat(streamJsonSystems(evict), jsonSystemForSelf(includeSelf, selfMonitoringEnabled, arch)),
+                SystemJson.class);
+        writeJsonArray(writer, "virtualization_groups", getJsonVirtualizationGroups().stream(),
+                VirtualizationGroupJson.class);
+        writeJsonArray(writer, "products", getJsonProducts().stream(), ProductJson.class);
+        writeJsonArray(writer, "subscriptions", getJsonSubscriptions().stream(), SubscriptionJson.class);
+        writeJsonArray(writer, "pinned_matches", getJsonMatches().stream(), MatchJson.class);
+        writer.endObject();
+        writer.flush();
+    }
+
+    private <T> void writeJsonArray(JsonWriter writer, String name, Stream<T> elements, Class<T> type)
+        throws IOException {
+        writer.name(name);
+        writer.beginArray();
+        try {
+            elements.forEach(e -> gson.toJson(e, type, writer));
+        }
+        catch (JsonIOException e) {
+            throw new IOException(e.getCause());
+        }
+        writer.endArray();
     }
 
     /**
@@ -275,15 +354,28 @@ public class MatcherJsonIO {
      */
     public List<VirtualizationGroupJson> getJsonVirtualizationGroups() {
         // only group we currently support is by virtual host manager
-        return VirtualHostManagerFactory.getInstance().listVirtualHostManagers().stream()
-                .map(vhm -> new VirtualizationGroupJson(
-                        vhm.getId(),
-                        vhm.getLabel(),
-                        "virtual_host_manager_" + vhm.getGathererModule().toLowerCase(),
-                        vhm.getServers().stream()
-                                .flatMap(s -> getVirtualGuests(s).stream())
-                                .collect(Collectors.toSet())))
-                .collect(Collectors.toList());
+        // the guests are the ones returned by Server.getGuests(): virtual instances having an uuid
+        List<Object[]> rows = HibernateFactory.getSession().createQuery(
+                "SELECT vhm.id, vhm.label, vhm.gathererModule, guest.id " +
+                "  FROM VirtualHostManager vhm " +
+                "  LEFT JOIN vhm.servers host " +
+                "  LEFT JOIN host.virtualGuests vi WITH vi.uuid IS NOT NULL " +
+                "  LEFT JOIN vi.guestSystem guest " +
+                " ORDER BY vhm.id", Object[].class)
+                .getResultList();
+
+        Map<Long, VirtualizationGroupJson> groups = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            VirtualizationGroupJson group = groups.computeIfAbsent((Long) row[0], id -> new VirtualizationGroupJson(
+                    id,
+                    (String) row[1],
+                    "virtual_host_manager_" + ((String) row[2]).toLowerCase(),
+                    new HashSet<>()));
+            if (row[3] != null) {
+                group.getVirtualGuestIds().add((Long) row[3]);
+            }
+        }
+        return new ArrayList<>(groups.values());
     }
 
     /**
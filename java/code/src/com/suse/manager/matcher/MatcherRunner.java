@@ -15,6 +15,7 @@
 
 package com.suse.manager.matcher;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
@@ -30,11 +31,13 @@ import org.apache.commons.io.FileUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Optional;
@@ -88,18 +91,22 @@ public class MatcherRunner {
             boolean isSelfMonitoringEnabled = MonitoringService.isMonitoringEnabled();
             PinnedSubscriptionFactory.getInstance().cleanStalePins();
             String arch = System.getProperty("os.arch");
-            String s = new MatcherJsonIO().generateMatcherInput(isISSMaster, arch, isSelfMonitoringEnabled);
 
             Process p = r.exec(args.toArray(new String[0]));
-            PrintWriter stdin = new PrintWriter(p.getOutputStream());
-            stdin.println(s);
-            stdin.flush();
-            stdin.close();
 
             // we need to exhaust the process output not to get stuck
             errorReaderService = exhaustOutputOnBackground(p.getErrorStream());
             inputReaderService = exhaustOutputOnBackground(p.getInputStream());
 
+            // the input is streamed while it is generated, closing stdin ends it
+            try (Writer stdin = new BufferedWriter(new OutputStreamWriter(p.getOutputStream(), UTF_8))) {
+                new MatcherJsonIO().writeMatcherInput(stdin, isISSMaster, arch, isSelfMonitoringEnabled);
+            }
+            catch (IOException e) {
+                p.destroy();
+                throw e;
+            }
+
             int exitCode = p.waitFor();
             if (exitCode != 0) {
                 logger.error("Error while calling the subscription-matcher, exit code {}", exitCode);
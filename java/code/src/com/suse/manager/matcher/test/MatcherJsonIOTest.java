@@ -62,12 +62,16 @@ import com.suse.matcher.json.SystemJson;
 import com.suse.matcher.json.VirtualizationGroupJson;
 import com.suse.scc.model.SCCSubscriptionJson;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
 import org.jmock.Expectations;
 import org.jmock.imposters.ByteBuddyClassImposteriser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
@@ -208,6 +212,25 @@ public class MatcherJsonIOTest extends JMockBaseTestCaseWithUser {
                 s -> s.getId().equals(MatcherJsonIO.SELF_SYSTEM_ID)));
     }
 
+    @Test
+    public void testWriteMatcherInput() throws Exception {
+        Server s1 = ServerTestUtils.createTestSystem();
+        Server s2 = ServerTestUtils.createTestSystem();
+        HibernateFactory.getSession().flush();
+
+        StringWriter out = new StringWriter();
+        new MatcherJsonIO().writeMatcherInput(out, true, AMD64_ARCH, false);
+
+        JsonObject input = JsonParser.parseString(out.toString()).getAsJsonObject();
+        assertEquals(Set.of("timestamp", "systems", "virtualization_groups", "products", "subscriptions",
+                "pinned_matches"), input.keySet());
+
+        Set<Long> systemIds = new HashSet<>();
+        input.getAsJsonArray("systems").forEach(s -> systemIds.add(s.getAsJsonObject().get("id").getAsLong()));
+        assertTrue(systemIds.containsAll(Set.of(s1.getId(), s2.getId(), MatcherJsonIO.SELF_SYSTEM_ID)));
+        assertEquals(new MatcherJsonIO().getJsonSystems(true, AMD64_ARCH, false).size(), systemIds.size());
+    }
+
     @Test
     public void testSystemsToJsonMonitoringEnabled() {
         // x86_64
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.manager.session.SessionKeyCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Collector for the cache of validated API session keys.
+ */
+public class ApiSessionCacheCollector extends Collector {
+
+    private static final String PREFIX = "api_session_cache";
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> out = new ArrayList<>();
+        SessionKeyCache cache = SessionKeyCache.getInstance();
+
+        out.add(CustomCollectorUtils.counterFor("hits",
+                "Number of session key lookups answered from the cache", cache.getHits(), PREFIX));
+        out.add(CustomCollectorUtils.counterFor("misses",
+                "Number of session key lookups validated against the database", cache.getMisses(), PREFIX));
+        out.add(CustomCollectorUtils.gaugeFor("size",
+                "Number of cached session keys", cache.size(), PREFIX));
+
+        return out;
+    }
+}
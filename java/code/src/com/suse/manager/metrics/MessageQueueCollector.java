@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.common.messaging.EventTypeQueue;
+import com.redhat.rhn.common.messaging.MessageQueue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Collector for the per event type queues of the {@link MessageQueue}.
+ */
+public class MessageQueueCollector extends Collector {
+
+    private static final String PREFIX = "message_queue";
+    private static final List<String> LABELS = List.of("type");
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        GaugeMetricFamily depth = new GaugeMetricFamily(PREFIX + "_depth",
+                PREFIX + " - Number of messages waiting to be dispatched", LABELS);
+        CounterMetricFamily published = new CounterMetricFamily(PREFIX + "_published",
+                PREFIX + " - Number of messages published", LABELS);
+        CounterMetricFamily wait = new CounterMetricFamily(PREFIX + "_wait_seconds",
+                PREFIX + " - Total time the dispatched messages waited in the queue", LABELS);
+
+        for (EventTypeQueue queue : MessageQueue.getEventTypeQueues()) {
+            List<String> labelValues = List.of(queue.getEventType().getSimpleName());
+            depth.addMetric(labelValues, queue.getDepth());
+            published.addMetric(labelValues, queue.getPublished());
+            wait.addMetric(labelValues, queue.getWaitNanos() / 1e9);
+        }
+
+        List<MetricFamilySamples> out = new ArrayList<>();
+        out.add(depth);
+        out.add(published);
+        out.add(wait);
+        out.add(CustomCollectorUtils.counterFor("publish_count",
+                "Number of publish calls", MessageQueue.getPublishCount(), PREFIX));
+        out.add(new CounterMetricFamily(PREFIX + "_publish_seconds",
+                PREFIX + " - Total time spent in publish calls", MessageQueue.getPublishNanos() / 1e9));
+        return out;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.suse.manager.webui.websocket.Notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Collector for the sessions of the notification WebSocket.
+ */
+public class NotificationWebSocketCollector extends Collector {
+
+    private static final String PREFIX = "websocket_notifications";
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> out = new ArrayList<>();
+
+        out.add(CustomCollectorUtils.gaugeFor("sessions",
+                "Number of open notification sessions", Notification.getSessionCount(), PREFIX));
+        out.add(CustomCollectorUtils.gaugeFor("queued_messages",
+                "Number of messages waiting to be sent to the sessions", Notification.getQueuedMessages(), PREFIX));
+        out.add(CustomCollectorUtils.gaugeFor("max_queue_depth",
+                "Highest number of messages waiting to be sent to a single session",
+                Notification.getMaxQueueDepth(), PREFIX));
+        out.add(CustomCollectorUtils.counterFor("dropped_sessions",
+                "Number of sessions dropped for not keeping up with their messages",
+                Notification.getDroppedSessions(), PREFIX));
+
+        return out;
+    }
+}
@@ -83,4 +83,67 @@ public enum PrometheusExporter {
             new SystemsCollector().register();
         }
     }
+
+    /**
+     * Register collector for the XMLRPC method dispatching statistics
+     */
+    public void registerXmlRpcDispatchCollector() {
+        if (ENABLED) {
+            new XmlRpcDispatchCollector().register();
+        }
+    }
+
+    /**
+     * Register collector for the API session key cache statistics
+     */
+    public void registerApiSessionCacheCollector() {
+        if (ENABLED) {
+            new ApiSessionCacheCollector().register();
+        }
+    }
+
+    /**
+     * Register collector for the Salt event queues statistics
+     */
+    public void registerSaltEventCollector() {
+        if (ENABLED) {
+            new SaltEventCollector().register();
+        }
+    }
+
+    /**
+     * Register collector for the message queue statistics
+     */
+    public void registerMessageQueueCollector() {
+        if (ENABLED) {
+            new MessageQueueCollector().register();
+        }
+    }
+
+    /**
+     * Register collector for the Taskomatic work queues statistics
+     */
+    public void registerTaskQueueCollector() {
+        if (ENABLED) {
+            new TaskQueueCollector().register();
+        }
+    }
+
+    /**
+     * Register collector for the pending refreshes of the systems overview
+     */
+    public void registerSystemsOverviewUpdateCollector() {
+        if (ENABLED) {
+            new SystemsOverviewUpdateCollector().register();
+        }
+    }
+
+    /**
+     * Register collector for the notification WebSocket sessions
+     */
+    public void registerNotificationWebSocketCollector() {
+        if (ENABLED) {
+            new NotificationWebSocketCollector().register();
+        }
+    }
 }
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.suse.manager.reactor.PGEventStream;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Collector for the queues of Salt events read from the database, see {@link PGEventStream}.
+ * The events per second of a queue are the rate of its processed events counter.
+ */
+public class SaltEventCollector extends Collector {
+
+    private static final String PREFIX = "salt_events";
+    private static final List<String> LABELS = List.of("queue");
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        GaugeMetricFamily backlog = new GaugeMetricFamily(PREFIX + "_backlog",
+                PREFIX + " - Number of events waiting in the queue", LABELS);
+        CounterMetricFamily processed = new CounterMetricFamily(PREFIX + "_processed",
+                PREFIX + " - Number of events read from the queue", LABELS);
+        CounterMetricFamily coalesced = new CounterMetricFamily(PREFIX + "_coalesced",
+                PREFIX + " - Number of events dropped because a later event superseded them", LABELS);
+
+        for (int queue = 0; queue < PGEventStream.getQueueCount(); queue++) {
+            List<String> labelValues = List.of(Integer.toString(queue));
+            backlog.addMetric(labelValues, PGEventStream.getBacklog(queue));
+            processed.addMetric(labelValues, PGEventStream.getProcessedEvents(queue));
+            coalesced.addMetric(labelValues, PGEventStream.getCoalescedEvents(queue));
+        }
+
+        List<MetricFamilySamples> out = new ArrayList<>();
+        out.add(backlog);
+        out.add(processed);
+        out.add(coalesced);
+        return out;
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.domain.task.TaskFactory;
+import com.redhat.rhn.taskomatic.task.systems.SystemsOverviewUpdateDriver;
+
+import java.util.Date;
+import java.util.List;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Collector for the pending refreshes of the systems overview table.
+ */
+public class SystemsOverviewUpdateCollector extends Collector {
+
+    private static final String PREFIX = "taskomatic_systems_overview";
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        try {
+            long pending = TaskFactory.countTaskDataByName(SystemsOverviewUpdateDriver.TASK_NAME);
+            Date oldest = TaskFactory.getOldestTaskDateByName(SystemsOverviewUpdateDriver.TASK_NAME);
+            double lag = oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime()) / 1e3;
+
+            return List.of(
+                    new GaugeMetricFamily(PREFIX + "_pending",
+                            PREFIX + " - Number of systems waiting for their overview to be refreshed", pending),
+                    new GaugeMetricFamily(PREFIX + "_lag_seconds",
+                            PREFIX + " - Time the oldest overview refresh request has been waiting for", lag));
+        }
+        finally {
+            HibernateFactory.closeSession();
+        }
+    }
+}
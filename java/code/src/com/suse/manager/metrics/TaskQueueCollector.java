@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.taskomatic.task.threaded.TaskQueue;
+import com.redhat.rhn.taskomatic.task.threaded.TaskQueueFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+
+/**
+ * Collector for the Taskomatic work queues.
+ */
+public class TaskQueueCollector extends Collector {
+
+    private static final String PREFIX = "taskomatic_queue";
+    private static final List<String> LABELS = List.of("queue");
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        GaugeMetricFamily size = new GaugeMetricFamily(PREFIX + "_size",
+                PREFIX + " - Number of work items waiting or being worked on", LABELS);
+        GaugeMetricFamily workers = new GaugeMetricFamily(PREFIX + "_workers",
+                PREFIX + " - Number of workers currently executing", LABELS);
+        GaugeMetricFamily lag = new GaugeMetricFamily(PREFIX + "_lag_seconds",
+                PREFIX + " - Time the oldest waiting work item has been queued for", LABELS);
+        CounterMetricFamily completed = new CounterMetricFamily(PREFIX + "_completed",
+                PREFIX + " - Number of work items processed", LABELS);
+        CounterMetricFamily wait = new CounterMetricFamily(PREFIX + "_wait_seconds",
+                PREFIX + " - Total time the processed work items waited for a worker", LABELS);
+
+        for (Map.Entry<String, TaskQueue> entry : TaskQueueFactory.get().getQueues().entrySet()) {
+            List<String> labelValues = List.of(entry.getKey());
+            TaskQueue queue = entry.getValue();
+            size.addMetric(labelValues, queue.getQueueSize());
+            workers.addMetric(labelValues, queue.getExecutingWorkerCount());
+            lag.addMetric(labelValues, queue.getLagNanos() / 1e9);
+            completed.addMetric(labelValues, queue.getCompletedCount());
+            wait.addMetric(labelValues, queue.getWaitNanos() / 1e9);
+        }
+        return List.of(size, workers, lag, completed, wait);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.metrics;
+
+import com.redhat.rhn.frontend.xmlrpc.HandlerMethodIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.prometheus.client.Collector;
+
+/**
+ * Collector for the XMLRPC method dispatching overhead.
+ */
+public class XmlRpcDispatchCollector extends Collector {
+
+    private static final String PREFIX = "xmlrpc_dispatch";
+
+    @Override
+    public List<MetricFamilySamples> collect() {
+        List<MetricFamilySamples> out = new ArrayList<>();
+
+        out.add(CustomCollectorUtils.counterFor("calls",
+                "Number of dispatched API calls", HandlerMethodIndex.getDispatchCount(), PREFIX));
+        out.add(CustomCollectorUtils.counterFor("time_microseconds",
+                "Time spent resolving the called methods",
+                TimeUnit.NANOSECONDS.toMicros(HandlerMethodIndex.getDispatchNanos()), PREFIX));
+        out.add(CustomCollectorUtils.counterFor("signature_cache_hits",
+                "Number of calls resolved from the signature cache", HandlerMethodIndex.getSignatureHits(), PREFIX));
+
+        return out;
+    }
+}
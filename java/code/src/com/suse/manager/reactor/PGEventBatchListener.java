@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.reactor;
+
+import com.suse.salt.netapi.datatypes.Event;
+import com.suse.salt.netapi.event.EventListener;
+
+import java.util.List;
+
+/**
+ * An {@link EventListener} that {@link PGEventStream} notifies with batches of events
+ * instead of single events.
+ */
+public interface PGEventBatchListener extends EventListener {
+
+    /**
+     * Notifies the listener of a batch of events, all of them related to the same minion
+     * (or to no minion at all), in the order they were fired.
+     * @param events the events
+     */
+    void notifyBatch(List<Event> events);
+}
@@ -19,19 +19,22 @@ import com.redhat.rhn.common.messaging.MessageAction;
 import com.redhat.rhn.common.messaging.MessageQueue;
 
 import com.suse.salt.netapi.datatypes.Event;
-import com.suse.salt.netapi.event.EventListener;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * An EventListener that executes notifications immediately in the current thread. This is made to work
  * with {@link PGEventStream}
  */
-public class PGEventListener implements EventListener {
+public class PGEventListener implements PGEventBatchListener {
     /**
      * Logger for this class
      */
@@ -63,24 +66,37 @@ public class PGEventListener implements EventListener {
      */
     @Override
     public void notify(Event event) {
-        if (LOG.isTraceEnabled()) {
-            LOG.trace("Event: {} -> {}", event.getTag(), event.getData());
-        }
+        notifyBatch(List.of(event));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void notifyBatch(List<Event> events) {
+        // the actions registered for a message type do not change while a batch is handled
+        Map<Class<?>, List<MessageAction>> actionsByType = new HashMap<>();
+        for (Event event : events) {
+            if (LOG.isTraceEnabled()) {
+                LOG.trace("Event: {} -> {}", event.getTag(), event.getData());
+            }
 
-        Stream<EventMessage> messages = eventToMessages.apply(event);
-        messages.forEach(message -> {
-            Stream<MessageAction> actions = MessageQueue.getActionsFor(message);
+            Stream<EventMessage> messages = eventToMessages.apply(event);
+            messages.forEach(message -> {
+                List<MessageAction> actions = actionsByType.computeIfAbsent(message.getClass(),
+                        type -> MessageQueue.getActionsFor(message).collect(Collectors.toList()));
 
-            actions.forEach(action -> {
-                try {
-                    action.execute(message);
-                }
-                catch (Exception e) {
-                    LOG.error("Unexpected exception while executing a MessageAction", e);
-                    throw new PGEventListenerException(() -> action.getExceptionHandler().accept(e));
-                }
+                actions.forEach(action -> {
+                    try {
+                        action.execute(message);
+                    }
+                    catch (Exception e) {
+                        LOG.error("Unexpected exception while executing a MessageAction", e);
+                        throw new PGEventListenerException(() -> action.getExceptionHandler().accept(e));
+                    }
+                });
             });
-        });
+        }
     }
 
     /**
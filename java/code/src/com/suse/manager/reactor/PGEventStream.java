@@ -26,7 +26,9 @@ import com.redhat.rhn.domain.reactor.SaltEvent;
 import com.redhat.rhn.domain.reactor.SaltEventFactory;
 import com.redhat.rhn.frontend.events.TransactionHelper;
 
+import com.suse.salt.netapi.datatypes.Event;
 import com.suse.salt.netapi.event.AbstractEventStream;
+import com.suse.salt.netapi.event.EventListener;
 import com.suse.salt.netapi.exception.SaltException;
 import com.suse.salt.netapi.parser.JsonParser;
 
@@ -41,21 +43,29 @@ import org.apache.logging.log4j.Logger;
 import java.io.IOException;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.LongStream;
-import java.util.stream.Stream;
 
 /**
  * Listen for notifications from the Postgres database (suseSaltEvent) and react on those.
+ *
+ * Each job pops a batch of events from one queue, parses it once and hands it to the
+ * listeners minion by minion, after dropping the events made redundant by a later one
+ * (see {@link SaltEventCoalescer}). Listeners implementing {@link PGEventBatchListener}
+ * get the events of a minion at once, the others one by one.
  */
 public class PGEventStream extends AbstractEventStream implements PGNotificationListener {
 
@@ -63,6 +73,12 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
     private static final int MAX_EVENTS_PER_COMMIT = ConfigDefaults.get().getSaltEventsPerCommit();
     private static final int THREAD_POOL_SIZE = ConfigDefaults.get().getSaltEventThreadPoolSize();
 
+    // statistics per queue, shared by the successive instances of the stream
+    private static final AtomicLongArray BACKLOG = new AtomicLongArray(THREAD_POOL_SIZE + 1);
+    private static final AtomicLongArray PROCESSED = new AtomicLongArray(THREAD_POOL_SIZE + 1);
+    private static final AtomicLongArray COALESCED = new AtomicLongArray(THREAD_POOL_SIZE + 1);
+
+    private final List<EventListener> dispatchListeners = new CopyOnWriteArrayList<>();
     private PGConnection connection;
     private final List<ThreadPoolExecutor> executorServices = IntStream.range(0, THREAD_POOL_SIZE + 1).mapToObj(i ->
         new ThreadPoolExecutor(
@@ -133,6 +149,7 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
                         // then schedule tasks for them
                         // this can only happen in case we lost notifications somehow
                         List<Long> allJobs = SaltEventFactory.countSaltEvents(THREAD_POOL_SIZE + 1);
+                        IntStream.range(0, allJobs.size()).forEach(i -> BACKLOG.set(i, allJobs.get(i)));
 
                         List<Long> missingJobs = IntStream.range(0, allJobs.size())
                             .mapToObj(i -> executorServices.get(i).getActiveCount() > 0 ? 0 : allJobs.get(i))
@@ -149,6 +166,7 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
                     // make sure that the callback does not use the old session
                     HibernateFactory.closeSession();
                     cancel();
+                    dispatchListeners.clear();
                     clearListeners(0, "Postgres notification connection was lost");
                 }
                 catch (Exception e) {
@@ -202,17 +220,48 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
      * @param queue the index of the thread processing the events
      */
     private void processEvents(List<SaltEvent> uncommittedEvents, int queue) {
-        Stream<SaltEvent> events = SaltEventFactory.popSaltEvents(MAX_EVENTS_PER_COMMIT, queue)
-                .sorted(comparing(SaltEvent::getMinionId, nullsLast(naturalOrder())).thenComparing(SaltEvent::getId));
+        List<SaltEvent> events = SaltEventFactory.popSaltEvents(MAX_EVENTS_PER_COMMIT, queue)
+                .sorted(comparing(SaltEvent::getMinionId, nullsLast(naturalOrder())).thenComparing(SaltEvent::getId))
+                .collect(toList());
 
-        events.forEach(event -> {
+        // events are sorted by minion, hand them over one minion at a time so that a failure
+        // only discards the events of that minion
+        int start = 0;
+        while (start < events.size()) {
+            String minionId = events.get(start).getMinionId();
+            int end = start + 1;
+            while (end < events.size() && Objects.equals(minionId, events.get(end).getMinionId())) {
+                end++;
+            }
+            List<SaltEvent> minionEvents = events.subList(start, end);
+            uncommittedEvents.addAll(minionEvents);
+            dispatch(minionEvents, queue);
+            start = end;
+        }
+    }
+
+    private void dispatch(List<SaltEvent> events, int queue) {
+        List<Event> parsed = new ArrayList<>(events.size());
+        for (SaltEvent event : events) {
             if (LOG.isTraceEnabled()) {
                 LOG.trace("Handling event {} in worker #{}", event.getId(), queue);
                 LOG.trace(event.getData());
             }
-            uncommittedEvents.add(event);
-            notifyListeners(JsonParser.EVENTS.parse(event.getData()));
-        });
+            parsed.add(JsonParser.EVENTS.parse(event.getData()));
+        }
+        List<Event> coalesced = SaltEventCoalescer.coalesce(parsed);
+        PROCESSED.addAndGet(queue, events.size());
+        COALESCED.addAndGet(queue, (long) events.size() - coalesced.size());
+        BACKLOG.getAndUpdate(queue, backlog -> Math.max(0, backlog - events.size()));
+
+        for (EventListener listener : dispatchListeners) {
+            if (listener instanceof PGEventBatchListener) {
+                ((PGEventBatchListener) listener).notifyBatch(coalesced);
+            }
+            else {
+                coalesced.forEach(listener::notify);
+            }
+        }
     }
 
     /**
@@ -232,6 +281,49 @@ public class PGEventStream extends AbstractEventStream implements PGNotification
         }
     }
 
+    @Override
+    public void addEventListener(EventListener listener) {
+        super.addEventListener(listener);
+        dispatchListeners.add(listener);
+    }
+
+    @Override
+    public void removeEventListener(EventListener listener) {
+        dispatchListeners.remove(listener);
+        super.removeEventListener(listener);
+    }
+
+    /**
+     * @return the number of event queues
+     */
+    public static int getQueueCount() {
+        return THREAD_POOL_SIZE + 1;
+    }
+
+    /**
+     * @param queue the queue index, 0 being the queue of events not related to a minion
+     * @return the number of events waiting in the queue, as of the last check of the watchdog
+     */
+    public static long getBacklog(int queue) {
+        return BACKLOG.get(queue);
+    }
+
+    /**
+     * @param queue the queue index, 0 being the queue of events not related to a minion
+     * @return the number of events read from the queue since startup
+     */
+    public static long getProcessedEvents(int queue) {
+        return PROCESSED.get(queue);
+    }
+
+    /**
+     * @param queue the queue index, 0 being the queue of events not related to a minion
+     * @return the number of events dropped because a later event superseded them
+     */
+    public static long getCoalescedEvents(int queue) {
+        return COALESCED.get(queue);
+    }
+
     @Override
     public boolean isEventStreamClosed() {
         try {
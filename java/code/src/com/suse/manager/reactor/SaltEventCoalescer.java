@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.reactor;
+
+import com.suse.salt.netapi.datatypes.Event;
+import com.suse.salt.netapi.event.BeaconEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Drops the events of a batch that are made redundant by a later event of the same batch.
+ *
+ * Only beacon events whose handling depends on the latest state of the minion are
+ * coalesced: several "pkgset changed" beacons trigger the same package profile refresh,
+ * and only the last "reboot_info" beacon tells whether the minion needs a reboot.
+ * All the other events, job returns in particular, are kept as they are.
+ */
+public class SaltEventCoalescer {
+
+    private static final String PKGSET_BEACON = "pkgset";
+    private static final String REBOOT_INFO_BEACON = "reboot_info";
+
+    private SaltEventCoalescer() { }
+
+    /**
+     * Returns the events of a batch without the ones superseded by a later event.
+     * @param events the events, in the order they were fired
+     * @return the remaining events, in the same order
+     */
+    public static List<Event> coalesce(List<Event> events) {
+        Set<String> seen = new HashSet<>();
+        List<Event> result = new ArrayList<>(events.size());
+        // walk backwards so that the last event of each kind is kept
+        for (int i = events.size() - 1; i >= 0; i--) {
+            Event event = events.get(i);
+            Optional<String> key = coalescingKey(event);
+            if (key.isEmpty() || seen.add(key.get())) {
+                result.add(event);
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private static Optional<String> coalescingKey(Event event) {
+        return BeaconEvent.parse(event).flatMap(beacon -> {
+            if (PKGSET_BEACON.equals(beacon.getBeacon())) {
+                return Optional.of(beacon.getMinionId() + "/" + PKGSET_BEACON + "/" + beacon.getAdditional());
+            }
+            else if (REBOOT_INFO_BEACON.equals(beacon.getBeacon())) {
+                // the rest of the tag changes with every event
+                return Optional.of(beacon.getMinionId() + "/" + REBOOT_INFO_BEACON);
+            }
+            return Optional.empty();
+        });
+    }
+}
@@ -24,6 +24,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.redhat.rhn.common.conf.Config;
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.messaging.MessageQueue;
 import com.redhat.rhn.domain.action.Action;
@@ -110,9 +111,12 @@ import com.google.gson.reflect.TypeToken;
 
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.jmock.Expectations;
 import org.jmock.imposters.ByteBuddyClassImposteriser;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
@@ -130,6 +134,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -139,6 +144,8 @@ import java.util.stream.Collectors;
  */
 public class JobReturnEventMessageActionTest extends JMockBaseTestCaseWithUser {
 
+    private static final Logger LOG = LogManager.getLogger(JobReturnEventMessageActionTest.class);
+
     // JsonParser for parsing events from files
     public static final JsonParser<Event> EVENTS =
             new JsonParser<>(new TypeToken<>() {
@@ -254,6 +261,182 @@ public class JobReturnEventMessageActionTest extends JMockBaseTestCaseWithUser {
                 .findAny().get().getStatus(), ActionFactory.STATUS_COMPLETED);
     }
 
+    /**
+     * Test the processing of packages.profileupdate job return events with the bulk update of
+     * the installed packages.
+     *
+     * @throws Exception in case of an error
+     */
+    @Test
+    public void testPackagesProfileUpdateInBulk() throws Exception {
+        MinionServer minion = MinionServerFactoryTest.createTestMinionServer(user);
+        minion.setMinionId("minionsles12-suma3pg.vagrant.local");
+        SUSEProductTestUtils.createVendorSUSEProducts();
+
+        // a first profile with additional packages, then one without them
+        JobReturnEventMessage first = createPackagesProfileUpdateMessage(minion,
+                Map.of("\"bash\": {", syntheticPackages("synthetic", 100) + "\"bash\": {"));
+        JobReturnEventMessage second = createPackagesProfileUpdateMessage(minion, null);
+
+        Config.get().setBoolean(ConfigDefaults.BULK_PACKAGE_PROFILE_UPDATE, "true");
+        try {
+            processInNewSession(first);
+            assertEquals(103, MinionServerFactory.lookupById(minion.getId()).get().getPackages().size());
+
+            processInNewSession(second);
+        }
+        finally {
+            Config.get().setBoolean(ConfigDefaults.BULK_PACKAGE_PROFILE_UPDATE, "false");
+        }
+
+        Set<InstalledPackage> packages = MinionServerFactory.lookupById(minion.getId()).get().getPackages();
+        assertEquals(3, packages.size());
+        for (InstalledPackage pkg : packages) {
+            if (pkg.getName().getName().equals("bash")) {
+                assertEquals("4.2", pkg.getEvr().getVersion());
+                assertEquals("75.2", pkg.getEvr().getRelease());
+                assertEquals("x86_64", pkg.getArch().getName());
+                assertEquals(new Date(1459866432000L), pkg.getInstallTime());
+            }
+            else if (pkg.getName().getName().equals("timezone-java")) {
+                assertEquals("2016c", pkg.getEvr().getVersion());
+                assertEquals("0.37.1", pkg.getEvr().getRelease());
+                assertEquals("noarch", pkg.getArch().getName());
+            }
+            assertNull(pkg.getEvr().getEpoch());
+        }
+    }
+
+    /**
+     * Test the bulk update of the installed packages stores the same profile as the per
+     * package update, for packages whose names and versions have to be created.
+     *
+     * @throws Exception in case of an error
+     */
+    @Test
+    public void testPackagesProfileUpdateInBulkSameAsPerPackage() throws Exception {
+        SUSEProductTestUtils.createVendorSUSEProducts();
+
+        MinionServer legacy = MinionServerFactoryTest.createTestMinionServer(user);
+        legacy.setMinionId("legacy.vagrant.local");
+        JobReturnEventMessage legacyMessage = createPackagesProfileUpdateMessage(legacy, Map.of(
+                "\"bash\": {", syntheticPackages("legacy", 300) + "\"bash\": {",
+                "minionsles12-suma3pg.vagrant.local", legacy.getMinionId()));
+        MinionServer bulk = MinionServerFactoryTest.createTestMinionServer(user);
+        bulk.setMinionId("bulk.vagrant.local");
+        JobReturnEventMessage bulkMessage = createPackagesProfileUpdateMessage(bulk, Map.of(
+                "\"bash\": {", syntheticPackages("bulk", 300) + "\"bash\": {",
+                "minionsles12-suma3pg.vagrant.local", bulk.getMinionId()));
+
+        processInNewSession(legacyMessage);
+        Config.get().setBoolean(ConfigDefaults.BULK_PACKAGE_PROFILE_UPDATE, "true");
+        try {
+            processInNewSession(bulkMessage);
+        }
+        finally {
+            Config.get().setBoolean(ConfigDefaults.BULK_PACKAGE_PROFILE_UPDATE, "false");
+        }
+
+        Set<String> legacyPackages = describePackages(legacy, "legacy-");
+        assertEquals(303, legacyPackages.size());
+        assertEquals(legacyPackages, describePackages(bulk, "bulk-"));
+    }
+
+    /**
+     * Compares the per package and the bulk update of a profile with 3000 packages, and
+     * logs the time taken by both. Not part of the unit tests, run it manually.
+     *
+     * @throws Exception in case of an error
+     */
+    @Test
+    @Disabled("Benchmark, run manually")
+    public void benchmarkPackagesProfileUpdateInBulk() throws Exception {
+        SUSEProductTestUtils.createVendorSUSEProducts();
+
+        MinionServer legacy = MinionServerFactoryTest.createTestMinionServer(user);
+        legacy.setMinionId("legacy.vagrant.local");
+        JobReturnEventMessage legacyMessage = createPackagesProfileUpdateMessage(legacy, Map.of(
+                "\"bash\": {", syntheticPackages("legacy", 2997) + "\"bash\": {",
+                "minionsles12-suma3pg.vagrant.local", legacy.getMinionId()));
+        MinionServer bulk = MinionServerFactoryTest.createTestMinionServer(user);
+        bulk.setMinionId("bulk.vagrant.local");
+        JobReturnEventMessage bulkMessage = createPackagesProfileUpdateMessage(bulk, Map.of(
+                "\"bash\": {", syntheticPackages("bulk", 2997) + "\"bash\": {",
+                "minionsles12-suma3pg.vagrant.local", bulk.getMinionId()));
+
+        long legacyMillis = processInNewSession(legacyMessage);
+        long bulkMillis;
+        Config.get().setBoolean(ConfigDefaults.BULK_PACKAGE_PROFILE_UPDATE, "true");
+        try {
+            bulkMillis = processInNewSession(bulkMessage);
+        }
+        finally {
+            Config.get().setBoolean(ConfigDefaults.BULK_PACKAGE_PROFILE_UPDATE, "false");
+        }
+
+        assertEquals(3000, MinionServerFactory.lookupById(legacy.getId()).get().getPackages().size());
+        assertEquals(3000, MinionServerFactory.lookupById(bulk.getId()).get().getPackages().size());
+        LOG.info("Updated a profile of 3000 packages in {} ms per package, {} ms in bulk",
+                legacyMillis, bulkMillis);
+    }
+
+    /**
+     * Describes the installed packages of a minion, without the prefix of the synthetic package names.
+     * @param minion the minion
+     * @param prefix the prefix of the synthetic package names
+     * @return the name, EVR, arch and install time of every installed package
+     */
+    private static Set<String> describePackages(MinionServer minion, String prefix) {
+        return MinionServerFactory.lookupById(minion.getId()).get().getPackages().stream()
+                .map(pkg -> String.join(" ", StringUtils.removeStart(pkg.getName().getName(), prefix),
+                        pkg.getEvr().toUniversalEvrString(), pkg.getArch().getLabel(),
+                        String.valueOf(pkg.getInstallTime())))
+                .collect(Collectors.toSet());
+    }
+
+    private JobReturnEventMessage createPackagesProfileUpdateMessage(MinionServer minion,
+            Map<String, String> placeholders) throws Exception {
+        Action action = ActionFactoryTest.createAction(user, ActionFactory.TYPE_PACKAGES_REFRESH_LIST);
+        action.addServerAction(ActionFactoryTest.createServerAction(minion, action));
+        Optional<JobReturnEvent> event = JobReturnEvent.parse(
+                getJobReturnEvent("packages.profileupdate.json", action.getId(), placeholders));
+        return new JobReturnEventMessage(event.get());
+    }
+
+    /**
+     * Processes a message starting from an empty session, like the Salt event processing does.
+     * @param message the message to process
+     * @return the time taken, in milliseconds
+     */
+    private long processInNewSession(JobReturnEventMessage message) {
+        HibernateFactory.getSession().flush();
+        HibernateFactory.getSession().clear();
+        long start = System.nanoTime();
+        new JobReturnEventMessageAction(saltServerActionService, saltUtils).execute(message);
+        HibernateFactory.getSession().flush();
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        HibernateFactory.getSession().clear();
+        return millis;
+    }
+
+    /**
+     * Packages with new names, so that names and versions have to be created for them.
+     * @param prefix the prefix of the package names
+     * @param count the number of packages
+     * @return the packages, as entries of the info_installed result
+     */
+    private static String syntheticPackages(String prefix, int count) {
+        StringBuilder packages = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            packages.append("\"").append(prefix).append("-package-").append(i).append("\": {")
+                    .append("\"release\": \"").append(i % 7).append(".1\", ")
+                    .append("\"arch\": \"").append(i % 3 == 0 ? "noarch" : "x86_64").append("\", ")
+                    .append("\"version\": \"1.").append(i).append("\", ")
+                    .append("\"install_date_time_t\": \"1459866432\"},\n");
+        }
+        return packages.toString();
+    }
+
     @Test
     public void testApplyPackageDelta() throws Exception {
         MinionServer minion = MinionServerFactoryTest.createTestMinionServer(user);
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.reactor.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.suse.manager.reactor.SaltEventCoalescer;
+import com.suse.salt.netapi.datatypes.Event;
+import com.suse.salt.netapi.parser.JsonParser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+/**
+ * Tests for {@link SaltEventCoalescer}.
+ */
+public class SaltEventCoalescerTest {
+
+    @Test
+    public void testRepeatedBeaconsAreCoalesced() {
+        Event pkgset1 = event("salt/beacon/minion1/pkgset/changed", "{}");
+        Event reboot1 = event("salt/beacon/minion1/reboot_info/1", "{\"reboot_needed\": true}");
+        Event pkgset2 = event("salt/beacon/minion1/pkgset/changed", "{}");
+        Event reboot2 = event("salt/beacon/minion1/reboot_info/2", "{\"reboot_needed\": false}");
+
+        List<Event> result = SaltEventCoalescer.coalesce(List.of(pkgset1, reboot1, pkgset2, reboot2));
+
+        assertEquals(2, result.size());
+        assertSame(pkgset2, result.get(0));
+        assertSame(reboot2, result.get(1));
+    }
+
+    @Test
+    public void testOtherEventsAreKept() {
+        Event ret1 = event("salt/job/20230101000000000000/ret/minion1", "{\"fun\": \"state.apply\"}");
+        Event ret2 = event("salt/job/20230101000000000000/ret/minion1", "{\"fun\": \"state.apply\"}");
+        Event pkgset = event("salt/beacon/minion1/pkgset/changed", "{}");
+        Event otherMinion = event("salt/beacon/minion2/pkgset/changed", "{}");
+
+        List<Event> events = List.of(ret1, pkgset, ret2, otherMinion);
+        assertEquals(events, SaltEventCoalescer.coalesce(events));
+    }
+
+    private Event event(String tag, String data) {
+        return JsonParser.EVENTS.parse("{\"tag\": \"" + tag + "\", \"data\": " + data + "}");
+    }
+}
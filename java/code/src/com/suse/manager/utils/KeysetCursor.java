@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Position of the last row of a page in a list sorted by a column and an id.
+ *
+ * A cursor allows to fetch the next page by seeking to the rows following that
+ * position instead of reading and skipping all the rows of the previous pages.
+ * It is handed out to the client as an opaque string, and is only valid for the
+ * sort column and direction it was created for.
+ */
+public class KeysetCursor {
+
+    private static final Gson GSON = new Gson();
+
+    private final String sortColumn;
+    private final boolean descending;
+    private final Object value;
+    private final Object id;
+
+    /**
+     * Standard constructor.
+     * @param sortColumnIn the sort column, null if the list is only sorted by id
+     * @param descendingIn true if the list is sorted in descending order
+     * @param valueIn the value of the sort column in the last row, may be null
+     * @param idIn the id of the last row
+     */
+    public KeysetCursor(String sortColumnIn, boolean descendingIn, Object valueIn, Object idIn) {
+        sortColumn = sortColumnIn;
+        descending = descendingIn;
+        value = valueIn instanceof Date && !(valueIn instanceof Timestamp) ?
+                new Timestamp(((Date) valueIn).getTime()) : valueIn;
+        id = idIn;
+    }
+
+    /**
+     * @return the sort column, null if the list is only sorted by id
+     */
+    public String getSortColumn() {
+        return sortColumn;
+    }
+
+    /**
+     * @return true if the list is sorted in descending order
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return the value of the sort column in the last row, may be null
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return the id of the last row
+     */
+    public Object getId() {
+        return id;
+    }
+
+    /**
+     * Checks if this cursor can be used for a list with the given sort order.
+     * @param sortColumnIn the sort column of the list, may be null
+     * @param descendingIn true if the list is sorted in descending order
+     * @return true if the cursor matches the sort order
+     */
+    public boolean matches(String sortColumnIn, boolean descendingIn) {
+        return Objects.equals(sortColumn, sortColumnIn) && (sortColumn == null || descending == descendingIn);
+    }
+
+    /**
+     * Checks if a value can be stored in a cursor.
+     * @param valueIn the value
+     * @return true if the value is supported
+     */
+    public static boolean isSupported(Object valueIn) {
+        return valueIn == null || valueIn instanceof String || valueIn instanceof Number ||
+                valueIn instanceof Boolean || valueIn instanceof Date;
+    }
+
+    /**
+     * Serializes this cursor to an opaque string.
+     * @return the encoded cursor
+     */
+    public String encode() {
+        JsonObject json = new JsonObject();
+        if (sortColumn != null) {
+            json.addProperty("c", sortColumn);
+            json.addProperty("d", descending);
+            if (value != null) {
+                json.addProperty("t", typeOf(value));
+                json.addProperty("v", value.toString());
+            }
+        }
+        json.addProperty("it", typeOf(id));
+        json.addProperty("i", id.toString());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(GSON.toJson(json).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses a cursor created by {@link #encode()}.
+     * @param encoded the encoded cursor
+     * @return the cursor, empty if it could not be parsed
+     */
+    public static Optional<KeysetCursor> decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            JsonObject json = GSON.fromJson(text, JsonObject.class);
+            String column = json.has("c") ? json.get("c").getAsString() : null;
+            boolean desc = json.has("d") && json.get("d").getAsBoolean();
+            Object val = json.has("v") ? parse(json.get("t").getAsString(), json.get("v").getAsString()) : null;
+            Object lastId = parse(json.get("it").getAsString(), json.get("i").getAsString());
+            return Optional.of(new KeysetCursor(column, desc, val, lastId));
+        }
+        catch (IllegalArgumentException | JsonParseException | NullPointerException | IllegalStateException e) {
+            // Tampered or outdated cursor, the caller falls back to offset paging
+            return Optional.empty();
+        }
+    }
+
+    private static String typeOf(Object obj) {
+        if (obj instanceof Number) {
+            return "n";
+        }
+        if (obj instanceof Boolean) {
+            return "b";
+        }
+        if (obj instanceof Date) {
+            return "d";
+        }
+        return "s";
+    }
+
+    private static Object parse(String type, String text) {
+        switch (type) {
+            case "n":
+                return new BigDecimal(text);
+            case "b":
+                return Boolean.valueOf(text);
+            case "d":
+                return Timestamp.valueOf(text);
+            case "s":
+                return text;
+            default:
+                throw new IllegalArgumentException("Unknown cursor value type: " + type);
+        }
+    }
+}
@@ -14,8 +14,10 @@
  */
 package com.suse.manager.utils;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
+import com.redhat.rhn.common.util.BoundedCache;
 import com.redhat.rhn.frontend.dto.BaseTupleDto;
 import com.redhat.rhn.frontend.listview.PageControl;
 
@@ -31,6 +33,8 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.regex.Matcher;
@@ -55,11 +59,20 @@ public class PagedSqlQueryBuilder {
 
     private static final Logger LOG = LogManager.getLogger(PagedSqlQueryBuilder.class);
 
+    // Counting all the rows matching a filter costs about as much as reading them all, while the
+    // total only changes slowly compared to how often users page through a list. Counts are kept
+    // for a short time, by count query and parameters.
+    private static final BoundedCache<String, Integer> COUNT_CACHE = new BoundedCache<>(
+            ConfigDefaults.get().getPagedListCountCacheSize(),
+            TimeUnit.SECONDS.toMillis(ConfigDefaults.get().getPagedListCountCacheTtl()));
+
     private String select;
     private String from;
     private String where;
     private String idColumn = "id";
     private String countFrom;
+    private boolean keyset;
+    private boolean cacheCount;
 
     /**
      * Create a query builder with count column named 'id'
@@ -122,6 +135,32 @@ public class PagedSqlQueryBuilder {
         return this;
     }
 
+    /**
+     * Enable keyset paging. When the page control holds a cursor returned with the
+     * previous page, the next page is read by seeking past that cursor instead of
+     * skipping the rows of all the previous pages.
+     *
+     * The id column has to be unique in the results and selected under its own
+     * name. A cursor is only returned if the sort column is selected too.
+     *
+     * @return the current object to ease chaining calls
+     */
+    public PagedSqlQueryBuilder keyset() {
+        this.keyset = true;
+        return this;
+    }
+
+    /**
+     * Reuse the total count of a recent identical query, for the time configured by
+     * java.paged_list_count_cache_ttl. The total may then lag a few seconds behind the displayed rows.
+     *
+     * @return the current object to ease chaining calls
+     */
+    public PagedSqlQueryBuilder cacheCount() {
+        this.cacheCount = true;
+        return this;
+    }
+
     /**
      * Transform the PageControl filter into an SQL text query.
      * Operators:
@@ -293,70 +332,244 @@ public class PagedSqlQueryBuilder {
                                                       Function<Optional<PageControl>, FilterWithValue> filterParser,
                                                       Class<T> clazz, Session session) {
         Optional<PageControl> pageControl = Optional.ofNullable(pc);
-        String whereWithFilter = Optional.ofNullable(where).orElse("");
-
-        FilterWithValue filter = Optional.ofNullable(filterParser).map(parser -> parser.apply(pageControl)).
-                orElse(FilterWithValue.NO_FILTER);
-        if (!"".equals(filter.getValue())) {
-            whereWithFilter = (where != null) ?
-                    String.format("(%s) AND %s", where, filter.getFilter()) :
-                    filter.getFilter();
+        FilterWithValue filter = parseFilter(pageControl, filterParser);
+        String whereWithFilter = buildWhere(filter);
+
+        String sortColumn = pageControl.map(PageControl::getSortColumn).orElse(null);
+        boolean descending = sortColumn != null && pc.isSortDescending();
+        Optional<KeysetCursor> cursor = Optional.empty();
+        if (keyset) {
+            cursor = pageControl.map(PageControl::getCursor).flatMap(KeysetCursor::decode)
+                    .filter(c -> c.matches(sortColumn, descending));
         }
 
         String sortSql = "";
-        if (pageControl.map(PageControl::getSortColumn).orElse(null) != null) {
-            String sortDirection = pc.isSortDescending() ? "DESC" : "ASC";
-            sortSql = String.format(" ORDER BY %s %s", pc.getSortColumn(), sortDirection);
+        String sortDirection = descending ? "DESC" : "ASC";
+        if (sortColumn != null) {
+            sortSql = String.format(" ORDER BY %s %s", sortColumn, sortDirection);
+            if (keyset) {
+                // The id makes the order total, which the cursor relies on
+                sortSql += String.format(", %s %s", idColumn, sortDirection);
+            }
+        }
+        else if (keyset) {
+            sortSql = String.format(" ORDER BY %s ASC", idColumn);
+        }
+
+        String pageWhere = whereWithFilter;
+        if (cursor.isPresent()) {
+            String seek = buildSeekCondition(cursor.get());
+            pageWhere = whereWithFilter.isBlank() ? seek : String.format("(%s) AND %s", whereWithFilter, seek);
         }
         String sql = String.format(
                 "SELECT %s FROM %s WHERE %s%s",
-                select, from, whereWithFilter, sortSql);
+                select, from, pageWhere, sortSql);
 
         Query<Tuple> query = session.createNativeQuery(sql, Tuple.class);
 
         if (pageControl.isPresent()) {
-            query.setFirstResult(pageControl.map(PageControl::getStart).orElse(1) - 1);
+            // With a cursor the previous pages are skipped by the WHERE clause
+            query.setFirstResult(cursor.isPresent() ? 0 : pageControl.map(PageControl::getStart).orElse(1) - 1);
             if (pageControl.map(PageControl::getPageSize).orElse(0) > 0) {
                 query.setMaxResults(pc.getPageSize());
             }
         }
+        bindParameters(query, parameters, filter);
+        cursor.ifPresent(c -> {
+            if (c.getValue() != null) {
+                query.setParameter("keyset_value", c.getValue());
+            }
+            query.setParameter("keyset_id", c.getId());
+        });
 
-        String countSql = String.format("SELECT count(%s) FROM %s WHERE %s", idColumn,
-                countFrom != null ? countFrom : from, whereWithFilter);
-        Query<Tuple> countQuery = session.createNativeQuery(countSql, Tuple.class);
+        List<Tuple> tuples = runQuery(query);
+        List<T> rows = createDTOs(tuples, clazz);
+
+        DataResult<T> dr = new DataResult<>(rows);
+        try {
+            dr.setTotalSize(countRows(parameters, filter, whereWithFilter, session));
+        }
+        catch (PersistenceException e) {
+            // Ignore since it would already be reported in the previous error
+            LOG.debug("Failed to get total count", e);
+        }
+
+        if (keyset && pc != null && pc.getPageSize() > 0 && tuples.size() == pc.getPageSize()) {
+            nextCursor(tuples.get(tuples.size() - 1), sortColumn, descending)
+                    .ifPresent(c -> dr.setNextCursor(c.encode()));
+        }
+        return dr;
+    }
+
+    /**
+     * Count the rows matching the query and the page control filter
+     *
+     * @param parameters the query parameters
+     * @param pc the page control holding the filter, may be null
+     * @param filterParser function converting the PageControl filter into a FilterWithValue
+     *
+     * @return the number of matching rows
+     */
+    public int count(Map<String, Object> parameters, PageControl pc,
+                     Function<Optional<PageControl>, FilterWithValue> filterParser) {
+        return count(parameters, pc, filterParser, HibernateFactory.getSession());
+    }
 
+    /**
+     * Count the rows matching the query and the page control filter
+     *
+     * @param parameters the query parameters
+     * @param pc the page control holding the filter, may be null
+     * @param filterParser function converting the PageControl filter into a FilterWithValue
+     * @param session the hibernate session to use
+     *
+     * @return the number of matching rows
+     */
+    public int count(Map<String, Object> parameters, PageControl pc,
+                     Function<Optional<PageControl>, FilterWithValue> filterParser, Session session) {
+        FilterWithValue filter = parseFilter(Optional.ofNullable(pc), filterParser);
+        return countRows(parameters, filter, buildWhere(filter), session);
+    }
+
+    /**
+     * Check if at least one row matches the query and the page control filter.
+     * The database stops at the first matching row instead of reading them all.
+     *
+     * @param parameters the query parameters
+     * @param pc the page control holding the filter, may be null
+     * @param filterParser function converting the PageControl filter into a FilterWithValue
+     *
+     * @return true if there is a matching row
+     */
+    public boolean exists(Map<String, Object> parameters, PageControl pc,
+                          Function<Optional<PageControl>, FilterWithValue> filterParser) {
+        return exists(parameters, pc, filterParser, HibernateFactory.getSession());
+    }
+
+    /**
+     * Check if at least one row matches the query and the page control filter.
+     * The database stops at the first matching row instead of reading them all.
+     *
+     * @param parameters the query parameters
+     * @param pc the page control holding the filter, may be null
+     * @param filterParser function converting the PageControl filter into a FilterWithValue
+     * @param session the hibernate session to use
+     *
+     * @return true if there is a matching row
+     */
+    public boolean exists(Map<String, Object> parameters, PageControl pc,
+                          Function<Optional<PageControl>, FilterWithValue> filterParser, Session session) {
+        FilterWithValue filter = parseFilter(Optional.ofNullable(pc), filterParser);
+        String existsSql = String.format("SELECT EXISTS (SELECT 1 FROM %s WHERE %s) AS found",
+                countFrom != null ? countFrom : from, buildWhere(filter));
+        Query<Tuple> existsQuery = session.createNativeQuery(existsSql, Tuple.class);
+        bindParameters(existsQuery, parameters, filter);
+        return existsQuery.uniqueResult().get(0, Boolean.class);
+    }
+
+    private static FilterWithValue parseFilter(Optional<PageControl> pageControl,
+                                               Function<Optional<PageControl>, FilterWithValue> filterParser) {
+        return Optional.ofNullable(filterParser).map(parser -> parser.apply(pageControl)).
+                orElse(FilterWithValue.NO_FILTER);
+    }
+
+    private String buildWhere(FilterWithValue filter) {
+        String whereWithFilter = Optional.ofNullable(where).orElse("");
+        if (!"".equals(filter.getValue())) {
+            whereWithFilter = (where != null) ?
+                    String.format("(%s) AND %s", where, filter.getFilter()) :
+                    filter.getFilter();
+        }
+        return whereWithFilter;
+    }
+
+    private static void bindParameters(Query<Tuple> query, Map<String, Object> parameters, FilterWithValue filter) {
         for (Map.Entry<String, Object> entry : parameters.entrySet()) {
             query.setParameter(entry.getKey(), entry.getValue());
-            countQuery.setParameter(entry.getKey(), entry.getValue());
         }
-
         if (!"".equals(filter.getValue())) {
-            query = query.setParameter("filter_value", filter.getValue());
-            countQuery = countQuery.setParameter("filter_value", filter.getValue());
+            query.setParameter("filter_value", filter.getValue());
+        }
+    }
+
+    /**
+     * Drops the cached total counts.
+     */
+    public static void clearCountCache() {
+        COUNT_CACHE.clear();
+    }
+
+    private int countRows(Map<String, Object> parameters, FilterWithValue filter, String whereWithFilter,
+                          Session session) {
+        String countSql = String.format("SELECT count(%s) FROM %s WHERE %s", idColumn,
+                countFrom != null ? countFrom : from, whereWithFilter);
+        String cacheKey = null;
+        if (cacheCount) {
+            cacheKey = countSql + "|" + new TreeMap<>(parameters) + "|" + filter.getValue();
+            Integer cached = COUNT_CACHE.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
         }
 
-        List<T> rows = runQuery(query, clazz);
+        Query<Tuple> countQuery = session.createNativeQuery(countSql, Tuple.class);
+        bindParameters(countQuery, parameters, filter);
+        int count = countQuery.uniqueResult().get(0, Number.class).intValue();
+        if (cacheKey != null) {
+            COUNT_CACHE.put(cacheKey, count);
+        }
+        return count;
+    }
+
+    /**
+     * Rows after the cursor in the (sort column, id) order. NULL values come last in
+     * ascending order and first in descending order, like the PostgreSQL defaults.
+     */
+    private String buildSeekCondition(KeysetCursor cursor) {
+        String sortColumn = cursor.getSortColumn();
+        if (sortColumn == null) {
+            return String.format("%s > :keyset_id", idColumn);
+        }
+        if (cursor.isDescending()) {
+            if (cursor.getValue() == null) {
+                return String.format("((%1$s IS NULL AND %2$s < :keyset_id) OR %1$s IS NOT NULL)",
+                        sortColumn, idColumn);
+            }
+            return String.format("(%1$s < :keyset_value OR (%1$s = :keyset_value AND %2$s < :keyset_id))",
+                    sortColumn, idColumn);
+        }
+        if (cursor.getValue() == null) {
+            return String.format("(%1$s IS NULL AND %2$s > :keyset_id)", sortColumn, idColumn);
+        }
+        return String.format(
+                "(%1$s > :keyset_value OR (%1$s = :keyset_value AND %2$s > :keyset_id) OR %1$s IS NULL)",
+                sortColumn, idColumn);
+    }
 
-        DataResult<T> dr = new DataResult<>(rows != null ? rows : List.of());
+    private Optional<KeysetCursor> nextCursor(Tuple last, String sortColumn, boolean descending) {
         try {
-            int count = countQuery.uniqueResult().get(0, Number.class).intValue();
-            dr.setTotalSize(count);
+            Object lastId = last.get(aliasOf(idColumn));
+            Object lastValue = sortColumn != null ? last.get(aliasOf(sortColumn)) : null;
+            if (lastId != null && KeysetCursor.isSupported(lastId) && KeysetCursor.isSupported(lastValue)) {
+                return Optional.of(new KeysetCursor(sortColumn, descending, lastValue, lastId));
+            }
         }
-        catch (PersistenceException e) {
-            // Ignore since it would already be reported in the previous error
-            LOG.debug("Failed to get total count", e);
+        catch (IllegalArgumentException e) {
+            // The sort column is an expression or is not selected: no cursor, paging uses offsets
+            LOG.debug("Cannot create a cursor for sort column {}", sortColumn);
         }
-        return dr;
+        return Optional.empty();
+    }
+
+    private static String aliasOf(String column) {
+        return column.substring(column.lastIndexOf('.') + 1).toLowerCase();
     }
 
-    private <T> List<T> runQuery(Query<Tuple> query, Class<T> clazz) {
+    private List<Tuple> runQuery(Query<Tuple> query) {
         try {
             LOG.debug("Running pages query");
             List<Tuple> results = query.list();
-            LOG.debug("Creating DTOs for {} results", results.size());
-            List<T> dtos = createDTOs(results, clazz);
-            LOG.debug("Finished creating DTOs");
-            return dtos;
+            return results != null ? results : List.of();
         }
         catch (PersistenceException e) {
             // Log the error here, the user shouldn't see those
@@ -366,10 +579,11 @@ public class PagedSqlQueryBuilder {
     }
 
     private <T> List<T> createDTOs(List<Tuple> data, Class<T> clazz) {
+        LOG.debug("Creating DTOs for {} results", data.size());
         try {
             final Constructor<T> ctor = clazz.getConstructor(Tuple.class);
 
-            return data.stream().map(t -> {
+            List<T> dtos = data.stream().map(t -> {
                 try {
                     return ctor.newInstance(t);
                 }
@@ -380,6 +594,8 @@ public class PagedSqlQueryBuilder {
                     return null;
                 }
             }).collect(Collectors.toList());
+            LOG.debug("Finished creating DTOs");
+            return dtos;
         }
         catch (NoSuchMethodException e) {
             LOG.error("Cannot create {} objects from Tuple", clazz.getName());
@@ -20,6 +20,10 @@ import static com.suse.manager.webui.services.SaltConstants.SALT_FILE_GENERATION
 import static com.suse.manager.webui.services.SaltConstants.SCRIPTS_DIR;
 import static com.suse.manager.webui.services.SaltConstants.SUMA_STATE_FILES_ROOT_PATH;
 
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.db.datasource.ModeFactory;
+import com.redhat.rhn.common.db.datasource.SelectMode;
+import com.redhat.rhn.common.db.datasource.WriteMode;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.common.localization.LocalizationService;
 import com.redhat.rhn.common.messaging.MessageQueue;
@@ -147,6 +151,7 @@ import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.hibernate.Hibernate;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -205,6 +210,14 @@ public class SaltUtils {
     // SUSE OS family as defined in Salt grains
     private static final String OS_FAMILY_SUSE = "Suse";
 
+    private static final Comparator<Map<String, Object>> PROFILE_ROW_ORDER =
+            Comparator.comparing((Map<String, Object> row) -> (String) row.get("name"))
+                    .thenComparing(row -> (String) row.get("epoch"),
+                            Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(row -> (String) row.get("version"))
+                    .thenComparing(row -> (String) row.get("release"))
+                    .thenComparing(row -> (String) row.get("arch"));
+
     private static final LocalizationService LOCALIZATION = LocalizationService.getInstance();
 
     /**
@@ -1484,14 +1497,6 @@ public class SaltUtils {
      */
     private static void updatePackages(MinionServer server,
             PkgProfileUpdateSlsResult result) {
-        Set<InstalledPackage> packages = server.getPackages();
-
-        Map<String, InstalledPackage> oldPackageMap = packages.stream()
-            .collect(Collectors.toMap(
-                    SaltUtils::packageToKey,
-                    Function.identity()
-             ));
-
         Map<String, Map.Entry<String, Pkg.Info>> newPackageMap =
             result.getInfoInstalled().getChanges().getRet()
                 .entrySet().stream()
@@ -1509,6 +1514,20 @@ public class SaltUtils {
                         SaltUtils::resolveDuplicatePackage
                 ));
 
+        Set<InstalledPackage> packages = server.getPackages();
+        // the bulk statements bypass Hibernate, a loaded collection would be left stale
+        if (ConfigDefaults.get().isBulkPackageProfileUpdate() && !Hibernate.isInitialized(packages)) {
+            updatePackagesInBulk(server, newPackageMap.values());
+            SystemManager.updateSystemOverview(server.getId());
+            return;
+        }
+
+        Map<String, InstalledPackage> oldPackageMap = packages.stream()
+            .collect(Collectors.toMap(
+                    SaltUtils::packageToKey,
+                    Function.identity()
+             ));
+
         Collection<InstalledPackage> unchanged = oldPackageMap.entrySet().stream().filter(
             e -> newPackageMap.containsKey(e.getKey())
         ).map(Map.Entry::getValue).collect(Collectors.toList());
@@ -1522,6 +1541,56 @@ public class SaltUtils {
         SystemManager.updateSystemOverview(server.getId());
     }
 
+    /**
+     * Replaces the installed packages of a minion with a single statement: names, EVRs and
+     * architectures of the whole profile are resolved in the database, packages not reported
+     * anymore are deleted and the new ones are inserted.
+     *
+     * @param server a Server object corresponding to a minion
+     * @param profile the packages reported by Salt, by name
+     */
+    private static void updatePackagesInBulk(MinionServer server,
+            Collection<Map.Entry<String, Pkg.Info>> profile) {
+        PackageType type = server.getPackageType();
+        List<Map<String, Object>> rows = new ArrayList<>(profile.size());
+        for (Map.Entry<String, Pkg.Info> entry : profile) {
+            Pkg.Info info = entry.getValue();
+            PackageEvr evr = parseTransientPackageEvr(info.getEpoch(), info.getVersion().get(),
+                    info.getRelease(), type);
+            String arch = info.getArchitecture().get();
+            // Add -deb suffix to architectures for Debian systems
+            if (type == PackageType.DEB) {
+                arch += "-deb";
+            }
+            Map<String, Object> row = new HashMap<>();
+            row.put("name", entry.getKey());
+            row.put("epoch", evr.getEpoch());
+            row.put("version", evr.getVersion());
+            row.put("release", evr.getRelease());
+            row.put("arch", arch);
+            row.put("installtime", info.getInstallDateUnixTime().orElse(null));
+            rows.add(row);
+        }
+        rows.sort(PROFILE_ROW_ORDER);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("sid", server.getId());
+        params.put("type", type.getDbString());
+        params.put("profile", Json.GSON.toJson(rows));
+
+        // create the missing names and then the missing EVRs in sorted passes, so that
+        // concurrent profile updates lock them in the same order and cannot deadlock
+        SelectMode names = ModeFactory.getMode("Package_queries", "lookup_profile_package_names");
+        names.execute(Map.of("profile", params.get("profile")));
+        SelectMode evrs = ModeFactory.getMode("Package_queries", "lookup_profile_package_evrs");
+        evrs.execute(Map.of("type", params.get("type"), "profile", params.get("profile")));
+
+        WriteMode mode = ModeFactory.getWriteMode("Package_queries", "update_server_packages");
+        int added = mode.executeUpdate(params);
+        LOG.debug("Package profile of minion {} updated in bulk: {} packages reported, {} added",
+                server.getMinionId(), rows.size(), added);
+    }
+
     private static Map.Entry<String, Info> resolveDuplicatePackage(Map.Entry<String, Info> firstEntry,
             Map.Entry<String, Info> secondEntry) {
         Info first = firstEntry.getValue();
@@ -1718,11 +1787,16 @@ public class SaltUtils {
 
     private static PackageEvr parsePackageEvr(Optional<String> epoch, String version, Optional<String> release,
                                               PackageType type) {
+        return PackageEvrFactory.lookupOrCreatePackageEvr(parseTransientPackageEvr(epoch, version, release, type));
+    }
+
+    private static PackageEvr parseTransientPackageEvr(Optional<String> epoch, String version,
+                                                       Optional<String> release, PackageType type) {
         switch (type) {
             case DEB:
-                return PackageEvrFactory.lookupOrCreatePackageEvr(PackageEvr.parseDebian(version));
+                return PackageEvr.parseDebian(version);
             case RPM:
-                return PackageEvrFactory.lookupOrCreatePackageEvr(epoch.map(StringUtils::trimToNull).orElse(null),
+                return new PackageEvr(epoch.map(StringUtils::trimToNull).orElse(null),
                         version, release.orElse("0"), PackageType.RPM);
             default:
                 throw new RuntimeException("unreachable");
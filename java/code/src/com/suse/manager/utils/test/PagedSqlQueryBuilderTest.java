@@ -15,11 +15,15 @@
 package com.suse.manager.utils.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.redhat.rhn.common.db.datasource.DataResult;
 import com.redhat.rhn.frontend.listview.PageControl;
 import com.redhat.rhn.testing.MockObjectTestCase;
 
+import com.suse.manager.utils.KeysetCursor;
 import com.suse.manager.utils.PagedSqlQueryBuilder;
 
 import org.cobbler.test.MockConnection;
@@ -33,6 +37,8 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +62,7 @@ public class PagedSqlQueryBuilderTest extends MockObjectTestCase {
         MockConnection.clear();
 
         sessionMock = mock(Session.class);
+        PagedSqlQueryBuilder.clearCountCache();
     }
 
     private static Stream<Arguments> provideDataForParseFilter() {
@@ -142,6 +149,161 @@ public class PagedSqlQueryBuilderTest extends MockObjectTestCase {
         assertEquals(new TestDto(2L, "two"), results.get(1));
     }
 
+    @Test
+    public void testRunKeyset() {
+        PageControl pc = new PageControl(3, 2);
+        pc.setSortColumn("O.name");
+        pc.setCursor(new KeysetCursor("O.name", false, "one", 1L).encode());
+
+        NativeQuery<Tuple> mockQuery = mock(NativeQuery.class, "query");
+        NativeQuery<Tuple> mockCountQuery = mock(NativeQuery.class, "countQuery");
+
+        String expectedSql = "SELECT S.id, O.name FROM SomeTable S, OtherTable O " +
+                "WHERE (S.id = O.sid) AND (O.name > :keyset_value OR " +
+                "(O.name = :keyset_value AND S.id > :keyset_id) OR O.name IS NULL) " +
+                "ORDER BY O.name ASC, S.id ASC";
+
+        String expectedCountSql = "SELECT count(S.id) FROM SomeTable S, OtherTable O WHERE S.id = O.sid";
+
+        context().checking(new Expectations() {{
+            oneOf(sessionMock).createNativeQuery(expectedSql, Tuple.class); will(returnValue(mockQuery));
+            oneOf(sessionMock).createNativeQuery(expectedCountSql, Tuple.class); will(returnValue(mockCountQuery));
+            // The previous pages are skipped by the WHERE clause, not by an offset
+            oneOf(mockQuery).setFirstResult(0); will(returnValue(mockQuery));
+            oneOf(mockQuery).setMaxResults(2); will(returnValue(mockQuery));
+            oneOf(mockQuery).setParameter("keyset_value", "one"); will(returnValue(mockQuery));
+            oneOf(mockQuery).setParameter("keyset_id", new BigDecimal(1)); will(returnValue(mockQuery));
+            oneOf(mockQuery).list(); will(returnValue(List.of(new TestTuple(2L, "three"), new TestTuple(3L, "two"))));
+
+            oneOf(mockCountQuery).uniqueResult(); will(returnValue(new TestTuple(List.of(5))));
+        }});
+
+        DataResult<TestDto> results = new PagedSqlQueryBuilder("S.id")
+                .select("S.id, O.name")
+                .from("SomeTable S, OtherTable O")
+                .where("S.id = O.sid")
+                .keyset()
+                .run(Map.of(), pc, PagedSqlQueryBuilder::parseFilterAsText, TestDto.class, sessionMock);
+
+        assertEquals(2, results.size());
+        assertEquals(5, results.getTotalSize());
+
+        KeysetCursor next = KeysetCursor.decode(results.getNextCursor()).orElseThrow();
+        assertTrue(next.matches("O.name", false));
+        assertEquals("two", next.getValue());
+        assertEquals(new BigDecimal(3), next.getId());
+    }
+
+    @Test
+    public void testRunKeysetIgnoresOtherSort() {
+        PageControl pc = new PageControl(3, 2);
+        pc.setSortColumn("O.name");
+        pc.setSortDescending(true);
+        pc.setCursor(new KeysetCursor("O.name", false, "one", 1L).encode());
+
+        NativeQuery<Tuple> mockQuery = mock(NativeQuery.class, "query");
+        NativeQuery<Tuple> mockCountQuery = mock(NativeQuery.class, "countQuery");
+
+        String expectedSql = "SELECT S.id, O.name FROM SomeTable S, OtherTable O " +
+                "WHERE S.id = O.sid ORDER BY O.name DESC, S.id DESC";
+
+        context().checking(new Expectations() {{
+            oneOf(sessionMock).createNativeQuery(expectedSql, Tuple.class); will(returnValue(mockQuery));
+            oneOf(sessionMock).createNativeQuery(with(any(String.class)), with(equal(Tuple.class)));
+            will(returnValue(mockCountQuery));
+            oneOf(mockQuery).setFirstResult(2); will(returnValue(mockQuery));
+            oneOf(mockQuery).setMaxResults(2); will(returnValue(mockQuery));
+            oneOf(mockQuery).list(); will(returnValue(List.of(new TestTuple(2L, "three"))));
+            oneOf(mockCountQuery).uniqueResult(); will(returnValue(new TestTuple(List.of(3))));
+        }});
+
+        DataResult<TestDto> results = new PagedSqlQueryBuilder("S.id")
+                .select("S.id, O.name")
+                .from("SomeTable S, OtherTable O")
+                .where("S.id = O.sid")
+                .keyset()
+                .run(Map.of(), pc, PagedSqlQueryBuilder::parseFilterAsText, TestDto.class, sessionMock);
+
+        // Last page: no cursor
+        assertNull(results.getNextCursor());
+    }
+
+    @Test
+    public void testCachedCount() {
+        PageControl pc = new PageControl(1, 10);
+
+        NativeQuery<Tuple> mockQuery = mock(NativeQuery.class, "query");
+        NativeQuery<Tuple> mockCountQuery = mock(NativeQuery.class, "countQuery");
+
+        String expectedSql = "SELECT id, name FROM SomeTable WHERE value = :value";
+        String expectedCountSql = "SELECT count(id) FROM SomeTable WHERE value = :value";
+
+        context().checking(new Expectations() {{
+            exactly(2).of(sessionMock).createNativeQuery(expectedSql, Tuple.class); will(returnValue(mockQuery));
+            // Only counted once, the second page reuses the count
+            oneOf(sessionMock).createNativeQuery(expectedCountSql, Tuple.class); will(returnValue(mockCountQuery));
+            allowing(mockQuery).setFirstResult(with(any(Integer.class))); will(returnValue(mockQuery));
+            allowing(mockQuery).setMaxResults(10); will(returnValue(mockQuery));
+            allowing(mockQuery).setParameter("value", 123); will(returnValue(mockQuery));
+            allowing(mockQuery).list(); will(returnValue(List.of(new TestTuple(1L, "one"))));
+            oneOf(mockCountQuery).setParameter("value", 123); will(returnValue(mockCountQuery));
+            oneOf(mockCountQuery).uniqueResult(); will(returnValue(new TestTuple(List.of(42))));
+        }});
+
+        for (int start : List.of(1, 11)) {
+            pc.setStart(start);
+            DataResult<TestDto> results = new PagedSqlQueryBuilder()
+                    .select("id, name")
+                    .from("SomeTable")
+                    .where("value = :value")
+                    .cacheCount()
+                    .run(Map.of("value", 123), pc, null, TestDto.class, sessionMock);
+            assertEquals(42, results.getTotalSize());
+        }
+    }
+
+    @Test
+    public void testExists() {
+        PageControl pc = new PageControl();
+        pc.setFilter(true);
+        pc.setFilterColumn("flag");
+        pc.setFilterData("true");
+
+        NativeQuery<Tuple> mockQuery = mock(NativeQuery.class, "query");
+        String expectedSql = "SELECT EXISTS (SELECT 1 FROM SomeTable WHERE (value = :value) AND " +
+                " flag = CAST(:filter_value AS BOOLEAN) ) AS found";
+
+        context().checking(new Expectations() {{
+            oneOf(sessionMock).createNativeQuery(expectedSql, Tuple.class); will(returnValue(mockQuery));
+            oneOf(mockQuery).setParameter("value", 123); will(returnValue(mockQuery));
+            oneOf(mockQuery).setParameter("filter_value", "true"); will(returnValue(mockQuery));
+            oneOf(mockQuery).uniqueResult(); will(returnValue(new TestTuple(List.of(true))));
+        }});
+
+        assertTrue(new PagedSqlQueryBuilder()
+                .from("SomeTable")
+                .where("value = :value")
+                .exists(Map.of("value", 123), pc, PagedSqlQueryBuilder::parseFilterAsBoolean, sessionMock));
+    }
+
+    @Test
+    public void testKeysetCursorEncoding() {
+        Timestamp created = Timestamp.valueOf("2023-05-04 10:11:12.123456");
+        KeysetCursor cursor = KeysetCursor.decode(
+                new KeysetCursor("created", true, created, 42L).encode()).orElseThrow();
+        assertTrue(cursor.matches("created", true));
+        assertFalse(cursor.matches("created", false));
+        assertEquals(created, cursor.getValue());
+        assertEquals(new BigDecimal(42), cursor.getId());
+
+        cursor = KeysetCursor.decode(new KeysetCursor(null, false, null, "uuid-1").encode()).orElseThrow();
+        assertTrue(cursor.matches(null, true));
+        assertNull(cursor.getValue());
+        assertEquals("uuid-1", cursor.getId());
+
+        assertTrue(KeysetCursor.decode("not a cursor").isEmpty());
+    }
+
     private class TestTuple implements Tuple {
         private Map<String, Object> data;
         private List<Object> values;
@@ -32,8 +32,9 @@ import com.redhat.rhn.domain.rhnpackage.Package;
 import com.redhat.rhn.domain.rhnpackage.PackageEvr;
 import com.redhat.rhn.domain.rhnpackage.PackageFactory;
 
+import com.suse.manager.webui.utils.DownloadPathCache;
+import com.suse.manager.webui.utils.DownloadTokenCache;
 import com.suse.manager.webui.utils.TokenBuilder;
-import com.suse.utils.Opt;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -53,6 +54,7 @@ import java.net.URISyntaxException;
 import java.security.Key;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -396,10 +398,14 @@ public class DownloadController {
 
         String mountPoint = Config.get().getString(ConfigDefaults.MOUNT_POINT);
         PkgInfo pkgInfo = parsePackageFileName(path);
-        Package pkg = PackageFactory.lookupByChannelLabelNevraCs(channel, pkgInfo.getName(),
-                pkgInfo.getVersion(), pkgInfo.getRelease(), pkgInfo.getEpoch(), pkgInfo.getArch(),
-                pkgInfo.getChecksum());
-        if (pkg == null) {
+        String file = pkgInfo.getChecksum().map(cs -> cs + "/").orElse("") + FilenameUtils.getName(path);
+        String pkgPath = DownloadPathCache.getInstance().get(channel, file, () -> {
+            Package pkg = PackageFactory.lookupByChannelLabelNevraCs(channel, pkgInfo.getName(),
+                    pkgInfo.getVersion(), pkgInfo.getRelease(), pkgInfo.getEpoch(), pkgInfo.getArch(),
+                    pkgInfo.getChecksum());
+            return pkg == null ? null : pkg.getPath();
+        });
+        if (pkgPath == null) {
             if (LOG.isDebugEnabled()) {
                 LOG.error("{}: Package not found in channel: {}", path, StringUtil.sanitizeLogInput(channel));
             }
@@ -407,9 +413,7 @@ public class DownloadController {
                  String.format("%s not found in %s", basename, channel));
         }
 
-        File file = new File(mountPoint, pkg.getPath()).getAbsoluteFile();
-
-        return downloadFile(request, response, file);
+        return downloadFile(request, response, new File(mountPoint, pkgPath).getAbsoluteFile());
     }
 
     /**
@@ -506,7 +510,54 @@ public class DownloadController {
      * @param filename the filename
      */
     private static void validateToken(String token, String channel, String filename) {
+        DownloadTokenCache.VerifiedToken verified = DownloadTokenCache.getInstance().get(token);
+        if (verified == null) {
+            verified = verifyToken(token, channel, filename);
+            DownloadTokenCache.getInstance().put(token, verified);
+        }
+
+        if (verified.getExpiration() != null && verified.getExpiration() < System.currentTimeMillis()) {
+            LOG.info("Forbidden: Token expired");
+            halt(HttpStatus.SC_FORBIDDEN, "Token expired");
+        }
+
+        // enforce channel claim
+        List<String> channels = verified.getChannels();
+        if (channels.isEmpty()) {
+            LOG.info(String.format("Token %s does provide access to any channel", token));
+        }
+        else if (!channels.contains(channel)) {
+            LOG.info(String.format("Forbidden: Token %s does not provide access to channel %s",
+                                   token, channel));
+            LOG.info(String.format("Token allow access only to the following channels: %s",
+                                   String.join(",", channels)));
+            halt(HttpStatus.SC_FORBIDDEN, "Token " + token + " does not provide access to channel " + channel);
+        }
+
+        // enforce org claim
+        Long orgId = verified.getOrgId();
+        if (orgId == null) {
+            LOG.info("Forbidden: Token does not specify the organization");
+            halt(HttpStatus.SC_BAD_REQUEST, "Token does not specify the organization");
+        }
+        else if (!verified.isKnownAccessible(channel)) {
+            if (!ChannelFactory.isAccessibleBy(channel, orgId)) {
+                LOG.info(String.format("Forbidden: Token does not provide access to channel %s", channel));
+                halt(HttpStatus.SC_FORBIDDEN, "Token does not provide access to channel " + channel);
+            }
+            verified.setAccessible(channel);
+        }
+    }
 
+    /**
+     * Check that a token is valid and has been signed by us, and extract its claims.
+     *
+     * @param token the token to verify
+     * @param channel the channel
+     * @param filename the filename
+     * @return the claims of the token
+     */
+    private static DownloadTokenCache.VerifiedToken verifyToken(String token, String channel, String filename) {
         AccessTokenFactory.lookupByToken(token).ifPresent(obj -> {
             if (!obj.getValid()) {
                 LOG.info(String.format("Forbidden: invalid token %s to access %s", token, filename));
@@ -515,47 +566,19 @@ public class DownloadController {
         });
         try {
             JwtClaims claims = JWT_CONSUMER.processToClaims(token);
-
-            if (Opt.fold(Optional.ofNullable(claims.getExpirationTime()),
-                    () -> false,
-                    exp -> exp.isBefore(NumericDate.now()))) {
-                LOG.info("Forbidden: Token expired");
-                halt(HttpStatus.SC_FORBIDDEN, "Token expired");
-            }
-
-            // enforce channel claim
-            Optional<List<String>> channelClaim = Optional.ofNullable(claims.getStringListClaimValue("onlyChannels"))
+            List<String> channels = Optional.ofNullable(claims.getStringListClaimValue("onlyChannels"))
                     // new versions of getStringListClaimValue() return an empty list instead of null
-                    .filter(l -> !l.isEmpty());
-            Opt.consume(channelClaim,
-                    () -> LOG.info(String.format("Token %s does provide access to any channel", token)),
-                    channels -> {
-                if (!channels.contains(channel)) {
-                    LOG.info(String.format("Forbidden: Token %s does not provide access to channel %s",
-                                           token, channel));
-                    LOG.info(String.format("Token allow access only to the following channels: %s",
-                                           String.join(",", channels)));
-                    halt(HttpStatus.SC_FORBIDDEN, "Token " + token + " does not provide access to channel " + channel);
-                }
-            });
-
-            // enforce org claim
-            Optional<Long> orgClaim = Optional.ofNullable(claims.getClaimValue("org", Long.class));
-            Opt.consume(orgClaim, () -> {
-                LOG.info("Forbidden: Token does not specify the organization");
-                halt(HttpStatus.SC_BAD_REQUEST, "Token does not specify the organization");
-            }, orgId -> {
-                if (!ChannelFactory.isAccessibleBy(channel, orgId)) {
-                    LOG.info(String.format("Forbidden: Token does not provide access to channel %s", channel));
-                    halt(HttpStatus.SC_FORBIDDEN, "Token does not provide access to channel " + channel);
-                }
-            });
+                    .orElse(Collections.emptyList());
+            NumericDate expiration = claims.getExpirationTime();
+            return new DownloadTokenCache.VerifiedToken(claims.getClaimValue("org", Long.class), channels,
+                    expiration == null ? null : expiration.getValueInMillis());
         }
         catch (InvalidJwtException | MalformedClaimException e) {
             LOG.info(String.format("Forbidden: Token %s is not valid to access %s in %s: %s",
                     token, filename, channel, e.getMessage()));
             halt(HttpStatus.SC_FORBIDDEN,
                  String.format("Token is not valid to access %s in %s: %s", filename, channel, e.getMessage()));
+            return null;
         }
     }
 
@@ -181,7 +181,10 @@ public class SystemsController {
             );
         }
 
-        DataResult<VirtualSystemOverview> virtual = SystemManager.virtualSystemsList(user, pc);
+        DataResult<VirtualSystemOverview> virtual = SystemManager.virtualSystemsListQueryBuilder()
+                .cacheCount()
+                .run(Map.of("user_id", user.getId()), pc, PagedSqlQueryBuilder::parseFilterAsText,
+                        VirtualSystemOverview.class);
         RhnSet ssmSet = RhnSetDecl.SYSTEMS.get(user);
 
         return json(response, new PagedDataResultJson<>(virtual, virtual.getTotalSize(), ssmSet.getElementValues()));
@@ -268,7 +271,9 @@ public class SystemsController {
                     .collect(Collectors.toList()));
         }
 
-        DataResult<SystemOverview> systems = SystemManager.systemListNew(user, parser, pc);
+        DataResult<SystemOverview> systems = SystemManager.systemListQueryBuilder()
+                .cacheCount()
+                .run(Map.of("user_id", user.getId()), pc, parser, SystemOverview.class);
         RhnSet ssmSet = RhnSetDecl.SYSTEMS.get(user);
 
         return json(response, new PagedDataResultJson<>(systems, systems.getTotalSize(), ssmSet.getElementValues()));
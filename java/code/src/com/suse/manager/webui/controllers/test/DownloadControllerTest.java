@@ -44,13 +44,16 @@ import com.redhat.rhn.domain.rhnpackage.test.PackageNameTest;
 import com.redhat.rhn.domain.rhnpackage.test.PackageTest;
 import com.redhat.rhn.domain.server.MinionServer;
 import com.redhat.rhn.domain.server.test.MinionServerFactoryTest;
+import com.redhat.rhn.manager.channel.ChannelManager;
 import com.redhat.rhn.testing.BaseTestCaseWithUser;
 import com.redhat.rhn.testing.ErrataTestUtils;
 import com.redhat.rhn.testing.RhnMockHttpServletResponse;
 import com.redhat.rhn.testing.TestUtils;
 
 import com.suse.manager.webui.controllers.DownloadController;
+import com.suse.manager.webui.utils.DownloadPathCache;
 import com.suse.manager.webui.utils.DownloadTokenBuilder;
+import com.suse.manager.webui.utils.DownloadTokenCache;
 import com.suse.manager.webui.utils.SparkTestUtils;
 
 import com.mockobjects.servlet.MockHttpServletResponse;
@@ -58,9 +61,12 @@ import com.mockobjects.servlet.MockHttpServletResponse;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.File;
@@ -87,6 +93,8 @@ import spark.Response;
  */
 public class DownloadControllerTest extends BaseTestCaseWithUser {
 
+    private static final Logger LOG = LogManager.getLogger(DownloadControllerTest.class);
+
     private Channel channel;
     private String uriFile;
     private String uriFile2;
@@ -166,6 +174,8 @@ public class DownloadControllerTest extends BaseTestCaseWithUser {
         Config.get().setString(ConfigDefaults.MOUNT_POINT, packageFile.getParent());
 
         DownloadController.setCheckTokens(true);
+        DownloadTokenCache.getInstance().clear();
+        DownloadPathCache.getInstance().clear();
     }
 
     @Override
@@ -468,6 +478,99 @@ public class DownloadControllerTest extends BaseTestCaseWithUser {
         }
     }
 
+    /**
+     * Test that a token verified and cached by a previous download is refused
+     * once it is invalidated.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testCachedTokenInvalidated() throws Exception {
+        MinionServer testMinionServer = MinionServerFactoryTest.createTestMinionServer(user);
+        testMinionServer.getChannels().add(channel);
+        AccessTokenFactory.refreshTokens(testMinionServer);
+
+        AccessToken token = testMinionServer.getAccessTokens().iterator().next();
+        Map<String, String> params = new HashMap<>();
+        params.put(token.getToken(), "");
+        assertNotNull(DownloadController.downloadPackage(getMockRequestWithParams(params), response));
+        assertNotNull(DownloadTokenCache.getInstance().get(token.getToken()));
+
+        token.setValid(false);
+        AccessTokenFactory.save(token);
+
+        try {
+            DownloadController.downloadPackage(getMockRequestWithParams(params), response);
+            fail(String.format("%s should halt 403 if the token has been invalidated",
+                    DownloadController.class.getSimpleName()));
+        }
+        catch (spark.HaltException e) {
+            assertEquals(403, e.getStatusCode());
+        }
+    }
+
+    /**
+     * Test that downloading the same package again is served from the token and path caches,
+     * and that the cached path is dropped once the channel changes.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    public void testRepeatedDownloadCached() throws Exception {
+        DownloadTokenBuilder tokenBuilder = new DownloadTokenBuilder(user.getOrg().getId());
+        tokenBuilder.useServerSecret();
+        tokenBuilder.onlyChannels(new HashSet<>(List.of(channel.getLabel())));
+        Map<String, String> params = Map.of(tokenBuilder.getToken(), "");
+        DownloadTokenCache tokens = DownloadTokenCache.getInstance();
+        DownloadPathCache paths = DownloadPathCache.getInstance();
+
+        DownloadController.downloadPackage(getMockRequestWithParams(params), response);
+        long tokenHits = tokens.getHits();
+        long pathHits = paths.getHits();
+        DownloadController.downloadPackage(getMockRequestWithParams(params), response);
+
+        assertEquals(packageFile.getAbsolutePath(), response.raw().getHeader("X-Sendfile"));
+        assertEquals(tokenHits + 1, tokens.getHits());
+        assertEquals(pathHits + 1, paths.getHits());
+
+        ChannelManager.queueChannelChange(channel.getLabel(), "test", "test");
+        assertEquals(0, paths.size());
+    }
+
+    /**
+     * Logs the requests per second when downloading the same package repeatedly, with and
+     * without the token and path caches. Not part of the unit tests, run it manually.
+     *
+     * @throws Exception if anything goes wrong
+     */
+    @Test
+    @Disabled("Benchmark, run manually")
+    public void benchmarkDownloadThroughput() throws Exception {
+        DownloadTokenBuilder tokenBuilder = new DownloadTokenBuilder(user.getOrg().getId());
+        tokenBuilder.useServerSecret();
+        tokenBuilder.onlyChannels(new HashSet<>(List.of(channel.getLabel())));
+        Map<String, String> params = Map.of(tokenBuilder.getToken(), "");
+
+        int requests = 2000;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            DownloadTokenCache.getInstance().clear();
+            DownloadPathCache.getInstance().clear();
+            DownloadController.downloadPackage(getMockRequestWithParams(params), response);
+        }
+        double uncached = requests / ((System.nanoTime() - start) / 1e9);
+
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            DownloadController.downloadPackage(getMockRequestWithParams(params), response);
+        }
+        double cached = requests / ((System.nanoTime() - start) / 1e9);
+
+        assertEquals(packageFile.getAbsolutePath(), response.raw().getHeader("X-Sendfile"));
+        LOG.info(String.format("Package downloads: %.0f requests/s without caches, %.0f requests/s with caches",
+                uncached, cached));
+    }
+
     /**
      * Test a download with a correct channel in the token and the token
      * in a query param.
@@ -237,14 +237,18 @@ public class SaltSSHService {
     }
 
     private Optional<SaltRoster> prepareSaltRoster(MinionList target, Optional<Integer> sshTimeout) {
+        // we only need a roster when we may contact pending minions which are not yet in DB
+        // otherwise the roster is generated from DB by the Uyuni roster module, which caches it
+        if (target.getTarget().stream().noneMatch(MinionPendingRegistrationService::containsSSHMinion)) {
+            return Optional.empty();
+        }
+
         SaltRoster roster = new SaltRoster();
-        boolean pendingMinion = false;
 
         // these values are mostly fixed, which should change when we allow configuring
         // per-minion server
         for (String mid : target.getTarget()) {
             if (MinionPendingRegistrationService.containsSSHMinion(mid)) {
-                pendingMinion = true;
                 MinionPendingRegistrationService.get(mid).ifPresent(minion -> {
                     String contactMethodLabel = minion.getContactMethod();
 
@@ -290,9 +294,7 @@ public class SaltSSHService {
                 }, () -> LOG.error("Minion id='{}' not found in the database", mid));
             }
         }
-        // we only need a roster when we may contact pending minions which are not yet in DB
-        // otherwise the roster is generated from DB
-        return pendingMinion ? Optional.of(roster) : Optional.empty();
+        return Optional.of(roster);
     }
 
     /**
@@ -454,25 +456,6 @@ public class SaltSSHService {
         return Optional.of(Arrays.asList("StrictHostKeyChecking=no", proxyCommand.toString()));
     }
 
-    private boolean addSaltSSHMinionsFromDb(SaltRoster roster) {
-        List<MinionServer> minions = MinionServerFactory.listSSHMinions();
-        minions.forEach(minion -> {
-            List<String> proxyPath = proxyPathToHostnames(minion.getServerPaths(), Optional.empty());
-            roster.addHost(minion.getMinionId(),
-                    getSSHUser(),
-                    Optional.empty(),
-                    Opt.wrapFirstNonNull(minion.getSSHPushPort(), SSH_PUSH_PORT),
-                    remotePortForwarding(proxyPath, minion.getContactMethod().getLabel()),
-                    sshProxyCommandOption(proxyPath,
-                        minion.getContactMethod().getLabel(),
-                        minion.getMinionId(),
-                        Optional.ofNullable(minion.getSSHPushPort()).orElse(SSH_PUSH_PORT)),
-                    getSshPushTimeout(),
-                    minionOpts(minion.getMinionId(), minion.getContactMethod().getLabel()));
-        });
-        return !minions.isEmpty();
-    }
-
     /**
      * Bootstrap a system using salt-ssh.
      *
@@ -715,9 +698,8 @@ public class SaltSSHService {
      */
     public Optional<CompletionStage<Map<String, Result<Boolean>>>> matchAsyncSSH(
         String target, CompletableFuture<GenericError> cancel) {
-        SaltRoster roster = new SaltRoster();
-        boolean added = addSaltSSHMinionsFromDb(roster);
-        if (!added) {
+        // the roster itself is generated from the database by the Uyuni roster module
+        if (!MinionServerFactory.hasSSHMinions()) {
             return Optional.empty();
         }
         CompletableFuture<Map<String, Result<Boolean>>> f =
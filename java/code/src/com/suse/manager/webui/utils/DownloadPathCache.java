@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.webui.utils;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.util.BoundedCache;
+import com.redhat.rhn.domain.channel.ChannelFactory;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of the file paths of the packages served by the download endpoint,
+ * by channel and requested file.
+ *
+ * Entries are tied to the last modification date of their channel, which changes
+ * whenever packages are added to or removed from it. The date is read from the
+ * database at most once per check interval, entries cached for an older date are
+ * not used anymore.
+ */
+public class DownloadPathCache {
+
+    private static final DownloadPathCache INSTANCE = new DownloadPathCache(
+            ConfigDefaults.get().getDownloadPathCacheSize(),
+            TimeUnit.SECONDS.toMillis(ConfigDefaults.get().getDownloadPathCacheCheckInterval()));
+
+    // paths by channel, channel modification date and file
+    private final BoundedCache<String, String> entries;
+    private final Map<String, ChannelVersion> channels = new ConcurrentHashMap<>();
+    private final long checkIntervalMillis;
+
+    /**
+     * Standard constructor.
+     * @param maxSize the maximum number of cached paths, 0 disables the cache
+     * @param checkIntervalMillisIn the time in milliseconds after which channels are checked for changes
+     */
+    public DownloadPathCache(int maxSize, long checkIntervalMillisIn) {
+        checkIntervalMillis = checkIntervalMillisIn;
+        entries = new BoundedCache<>(maxSize, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return the instance used by the download endpoint
+     */
+    public static DownloadPathCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the path of a file of a channel, looking it up if it is not cached or if the
+     * channel changed since it was cached.
+     * @param channel the channel label
+     * @param file the requested file, including anything else identifying the package
+     * @param lookup returns the path of the file, or null if the channel does not contain it
+     * @return the path, or null if the channel does not contain the file
+     */
+    public String get(String channel, String file, Supplier<String> lookup) {
+        Date lastModified = getLastModified(channel);
+        String key = channel + "/" + (lastModified == null ? "" : lastModified.getTime()) + "/" + file;
+        String path = entries.get(key);
+        if (path == null) {
+            path = lookup.get();
+            if (path != null) {
+                entries.put(key, path);
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Drops the paths cached for a channel.
+     * @param channel the channel label
+     */
+    public void invalidate(String channel) {
+        channels.remove(channel);
+        entries.removeIf((key, path) -> key.startsWith(channel + "/"));
+    }
+
+    /**
+     * Drops all the entries.
+     */
+    public void clear() {
+        channels.clear();
+        entries.clear();
+    }
+
+    /**
+     * @return the number of cached paths
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public long getHits() {
+        return entries.getHits();
+    }
+
+    /**
+     * @return the number of lookups that had to go to the database
+     */
+    public long getMisses() {
+        return entries.getMisses();
+    }
+
+    private Date getLastModified(String channel) {
+        long now = System.currentTimeMillis();
+        ChannelVersion version = channels.get(channel);
+        if (version == null || now - version.checkedAt >= checkIntervalMillis) {
+            version = new ChannelVersion(ChannelFactory.lookupLastModifiedByLabel(channel), now);
+            channels.put(channel, version);
+        }
+        return version.lastModified;
+    }
+
+    /**
+     * Last modification date of a channel, as read at a given time.
+     */
+    private static class ChannelVersion {
+        private final Date lastModified;
+        private final long checkedAt;
+
+        ChannelVersion(Date lastModifiedIn, long checkedAtIn) {
+            lastModified = lastModifiedIn;
+            checkedAt = checkedAtIn;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.webui.utils;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+import com.redhat.rhn.common.util.BoundedCache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded, time-expiring cache of download tokens whose signature has been verified.
+ *
+ * Entries hold the claims checked by the download endpoint, so that package
+ * downloads do not have to look the token up in the database and verify its
+ * signature every time. An entry is dropped when the token expires, when it is
+ * older than the configured time to live, or when the token is invalidated or
+ * deleted through {@link com.redhat.rhn.domain.channel.AccessTokenFactory}.
+ */
+public class DownloadTokenCache extends BoundedCache<String, DownloadTokenCache.VerifiedToken> {
+
+    private static final DownloadTokenCache INSTANCE = new DownloadTokenCache(
+            ConfigDefaults.get().getDownloadTokenCacheSize(),
+            TimeUnit.SECONDS.toMillis(ConfigDefaults.get().getDownloadTokenCacheTtl()));
+
+    /**
+     * Standard constructor.
+     * @param maxSize the maximum number of cached tokens, 0 disables the cache
+     * @param ttlMillisIn the time in milliseconds after which a token has to be verified again
+     */
+    public DownloadTokenCache(int maxSize, long ttlMillisIn) {
+        super(maxSize, ttlMillisIn);
+    }
+
+    /**
+     * @return the instance used by the download endpoint
+     */
+    public static DownloadTokenCache getInstance() {
+        return INSTANCE;
+    }
+
+    @Override
+    protected boolean isValid(VerifiedToken verified) {
+        return verified.getExpiration() == null || System.currentTimeMillis() < verified.getExpiration();
+    }
+
+    /**
+     * The claims of a token whose signature has been checked.
+     */
+    public static class VerifiedToken {
+        private final Long orgId;
+        private final List<String> channels;
+        private final Long expiration;
+        private final Set<String> accessibleChannels = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Standard constructor.
+         * @param orgIdIn the org claim, may be null
+         * @param channelsIn the channels the token is restricted to, empty if it is not restricted
+         * @param expirationIn the token expiration time, in milliseconds since the epoch, may be null
+         */
+        public VerifiedToken(Long orgIdIn, List<String> channelsIn, Long expirationIn) {
+            orgId = orgIdIn;
+            channels = Collections.unmodifiableList(channelsIn);
+            expiration = expirationIn;
+        }
+
+        /**
+         * @return the org claim, may be null
+         */
+        public Long getOrgId() {
+            return orgId;
+        }
+
+        /**
+         * @return the channels the token is restricted to, empty if it is not restricted
+         */
+        public List<String> getChannels() {
+            return channels;
+        }
+
+        /**
+         * @return the token expiration time, in milliseconds since the epoch, may be null
+         */
+        public Long getExpiration() {
+            return expiration;
+        }
+
+        /**
+         * @param channel the channel label
+         * @return true if the channel has been found accessible by the org of the token
+         */
+        public boolean isKnownAccessible(String channel) {
+            return accessibleChannels.contains(channel);
+        }
+
+        /**
+         * Remembers that a channel is accessible by the org of the token.
+         * @param channel the channel label
+         */
+        public void setAccessible(String channel) {
+            accessibleChannels.add(channel);
+        }
+    }
+}
@@ -41,6 +41,7 @@ public class PageControlHelper {
     private String sortDirection;
     private String sortColumn;
     private String function;
+    private String cursor;
 
     /**
      * Initializes a page control helper with the query parameters from the specified Spark request
@@ -97,6 +98,7 @@ public class PageControlHelper {
 
         sortDirection = request.queryParams("s");
         sortColumn = request.queryParams("sc");
+        cursor = request.queryParams("cursor");
 
         try {
             start = Integer.parseInt(request.queryParams("p"));
@@ -127,6 +129,7 @@ public class PageControlHelper {
 
         pc.setSortColumn(sortColumn);
         pc.setSortDescending("-1".equals(sortDirection));
+        pc.setCursor(cursor);
         return pc;
     }
 
@@ -34,6 +34,8 @@ public class PagedDataResultJson<T, K> {
 
     private final Set<K> selectedIds;
 
+    private final String nextCursor;
+
     /**
      * Create an instance from a {@link DataResult}
      *
@@ -44,6 +46,17 @@ public class PagedDataResultJson<T, K> {
         this(data, data.getTotalSize(), selectedIdsIn);
     }
 
+    /**
+     * Create an instance from a {@link DataResult} and a different total number of items
+     *
+     * @param data the current page of data
+     * @param totalIn total number of items
+     * @param selectedIdsIn list of SSM selected items
+     */
+    public PagedDataResultJson(DataResult<T> data, long totalIn, Set<K> selectedIdsIn) {
+        this(data, totalIn, selectedIdsIn, data.getNextCursor());
+    }
+
     /**
      * Create an instance from a list and the total number of items
      *
@@ -52,9 +65,22 @@ public class PagedDataResultJson<T, K> {
      * @param selectedIdsIn list of SSM selected items
      */
     public PagedDataResultJson(List<T> data, long totalIn, Set<K> selectedIdsIn) {
+        this(data, totalIn, selectedIdsIn, null);
+    }
+
+    /**
+     * Create an instance from a list, the total number of items and the cursor of the next page
+     *
+     * @param data the current page of data
+     * @param totalIn total number of items
+     * @param selectedIdsIn list of SSM selected items
+     * @param nextCursorIn the cursor to fetch the next page, null if not supported
+     */
+    public PagedDataResultJson(List<T> data, long totalIn, Set<K> selectedIdsIn, String nextCursorIn) {
         items = data;
         total = totalIn;
         selectedIds = selectedIdsIn;
+        nextCursor = nextCursorIn;
     }
 
     /**
@@ -80,4 +106,13 @@ public class PagedDataResultJson<T, K> {
     public Set<K> getSelectedIds() {
         return Collections.unmodifiableSet(selectedIds);
     }
+
+    /**
+     * The cursor to pass with the request of the next page, to seek to it instead
+     * of skipping the rows of the previous pages.
+     * @return the cursor or null
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
 }
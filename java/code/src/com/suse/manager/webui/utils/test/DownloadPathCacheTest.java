@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.webui.utils.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.redhat.rhn.domain.channel.Channel;
+import com.redhat.rhn.domain.channel.test.ChannelFactoryTest;
+import com.redhat.rhn.testing.BaseTestCaseWithUser;
+import com.redhat.rhn.testing.TestUtils;
+
+import com.suse.manager.webui.utils.DownloadPathCache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+/**
+ * Tests for the DownloadPathCache class.
+ */
+public class DownloadPathCacheTest extends BaseTestCaseWithUser {
+
+    @Test
+    public void testPathCachedUntilChannelChanges() throws Exception {
+        Channel channel = ChannelFactoryTest.createTestChannel(user);
+        DownloadPathCache cache = new DownloadPathCache(10, 0);
+
+        assertEquals("path/1", cache.get(channel.getLabel(), "pkg.rpm", () -> "path/1"));
+        assertEquals("path/1", cache.get(channel.getLabel(), "pkg.rpm", () -> "path/2"));
+        assertEquals(1, cache.getHits());
+
+        channel.setLastModified(new Date(channel.getLastModified().getTime() + 1000));
+        TestUtils.saveAndFlush(channel);
+
+        assertEquals("path/2", cache.get(channel.getLabel(), "pkg.rpm", () -> "path/2"));
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testMissingPathNotCached() throws Exception {
+        Channel channel = ChannelFactoryTest.createTestChannel(user);
+        DownloadPathCache cache = new DownloadPathCache(10, 0);
+
+        assertNull(cache.get(channel.getLabel(), "pkg.rpm", () -> null));
+        assertEquals("path/1", cache.get(channel.getLabel(), "pkg.rpm", () -> "path/1"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testInvalidateAndBound() throws Exception {
+        Channel channel = ChannelFactoryTest.createTestChannel(user);
+        Channel other = ChannelFactoryTest.createTestChannel(user);
+        DownloadPathCache cache = new DownloadPathCache(2, 60000);
+
+        cache.get(channel.getLabel(), "a.rpm", () -> "path/a");
+        cache.get(other.getLabel(), "b.rpm", () -> "path/b");
+        cache.invalidate(channel.getLabel());
+        assertEquals(1, cache.size());
+        assertEquals("path/c", cache.get(channel.getLabel(), "a.rpm", () -> "path/c"));
+
+        cache.get(channel.getLabel(), "d.rpm", () -> "path/d");
+        assertEquals(2, cache.size());
+    }
+}
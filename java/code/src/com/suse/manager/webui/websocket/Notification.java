@@ -15,11 +15,10 @@
 package com.suse.manager.webui.websocket;
 
 import com.redhat.rhn.GlobalInstanceHolder;
+import com.redhat.rhn.common.conf.ConfigDefaults;
 import com.redhat.rhn.common.hibernate.HibernateFactory;
 import com.redhat.rhn.domain.notification.UserNotificationFactory;
 import com.redhat.rhn.domain.rhnset.RhnSet;
-import com.redhat.rhn.domain.user.User;
-import com.redhat.rhn.domain.user.UserFactory;
 import com.redhat.rhn.manager.rhnset.RhnSetDecl;
 
 import com.google.gson.Gson;
@@ -32,7 +31,10 @@ import org.apache.logging.log4j.Logger;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -42,9 +44,8 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.function.BiFunction;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.websocket.EndpointConfig;
 import javax.websocket.OnClose;
@@ -57,6 +58,11 @@ import javax.websocket.server.ServerEndpoint;
 /**
  * WebSocket EndPoint for showing notifications real-time in web UI.
  * NOTE: there's an EndPoint instance for each WebSocket session
+ *
+ * Messages are queued per session and sent asynchronously, see {@link WebSocketSender}.
+ * Updates are spread shortly after the transaction changing the data has been committed.
+ * Updates committed within that short window are coalesced, so that each session gets at
+ * most one message per window with the values of all the updated properties.
  */
 @ServerEndpoint(value = "/websocket/notifications", configurator = WebsocketSessionConfigurator.class)
 public class Notification {
@@ -71,8 +77,14 @@ public class Notification {
 
     private static final Object LOCK = new Object();
     private static final Gson GSON = new GsonBuilder().create();
-    private static Map<Session, Set<String>> wsSessions = new ConcurrentHashMap();
+    private static final int QUEUE_SIZE = ConfigDefaults.get().getNotificationsWebsocketQueueSize();
+    private static final long COALESCE_WINDOW = ConfigDefaults.get().getNotificationsWebsocketCoalesceWindow();
+    private static Map<Session, Set<String>> wsSessions = new ConcurrentHashMap<>();
+    private static Map<Session, WebSocketSender> senders = new ConcurrentHashMap<>();
     private static Set<Session> brokenSessions = ConcurrentHashMap.newKeySet();
+    private static final Set<String> PENDING_UPDATES = ConcurrentHashMap.newKeySet();
+    private static final AtomicBoolean FLUSH_SCHEDULED = new AtomicBoolean();
+    private static final LongAdder DROPPED_SESSIONS = new LongAdder();
     private static final WebsocketHeartbeatService HEARTBEAT_SERVICE = GlobalInstanceHolder.WEBSOCKET_SESSION_MANAGER;
 
     /**
@@ -117,23 +129,22 @@ public class Notification {
         // Each session sends messages to tell us what action ID they need to monitor
         Set<String> watched = wsSessions.get(session);
         if (watched != null) {
-            Optional<User> userOpt = Optional.ofNullable(session.getUserProperties().get(WEB_USER_ID))
-                    .map(webUserID -> UserFactory.lookupById((Long) webUserID));
-            userOpt.ifPresentOrElse(user -> {
-                        try {
-                            Set<String> request = GSON.fromJson(messageBody,
-                                    new TypeToken<Set<String>>() { }.getType());
-                            watched.addAll(request);
-
-                            // Send the data
-                            sendData(session, user, request);
-                        }
-                        catch (JsonSyntaxException e) {
-                            LOG.error(String.format("Received invalid request: [message:%s]", messageBody));
-                        }
-                    },
-                    () -> LOG.debug("no authenticated user.")
-                );
+            if (session.getUserProperties().get(WEB_USER_ID) != null) {
+                try {
+                    Set<String> request = GSON.fromJson(messageBody,
+                            new TypeToken<Set<String>>() { }.getType());
+                    watched.addAll(request);
+
+                    // Send the data
+                    sendData(Map.of(session, request));
+                }
+                catch (JsonSyntaxException e) {
+                    LOG.error(String.format("Received invalid request: [message:%s]", messageBody));
+                }
+            }
+            else {
+                LOG.debug("no authenticated user.");
+            }
         }
         else {
             LOG.debug("Session not registered or broken: [id:{}]", session.getId());
@@ -161,73 +172,148 @@ public class Notification {
     }
 
     /**
-     * Must be synchronized. Sending messages concurrently from separate threads
-     * will result in IllegalStateException.
+     * Queues a message to be sent to a session. Sessions not keeping up with their
+     * messages are dropped.
      *
      * @param session the WebSocket session
      * @param message the message to be sent
      */
     public static void sendMessage(Session session, String message) {
-        synchronized (LOCK) {
-            try {
-                if (session.isOpen()) {
-                    session.getBasicRemote().sendText(message);
-                }
-                else {
-                    LOG.debug("Could not send websocket message. Session [id:{}] is already closed.", session.getId());
-                    handbreakSession(session);
-                }
-            }
-            catch (IOException e) {
-                LOG.debug(String.format("Could not send websocket message. Session [id:%s] is already closed.",
-                        session.getId()));
-                handbreakSession(session);
-            }
+        WebSocketSender sender = senders.get(session);
+        if (sender == null) {
+            LOG.debug("Could not send websocket message. Session [id:{}] is already closed.", session.getId());
+            handbreakSession(session);
+        }
+        else if (!sender.send(message)) {
+            DROPPED_SESSIONS.increment();
+            LOG.warn("Dropping websocket session [id:{}] not keeping up with its {} pending messages",
+                    session.getId(), sender.getQueueSize());
+            handbreakSession(session);
         }
     }
 
     /**
-     * A static method to notify all {@link Session}s attached to WebSocket from the outside
+     * A static method to notify all {@link Session}s attached to WebSocket from the outside.
+     * The sessions are notified shortly after the current transaction has been committed, so
+     * that the values sent to them include its changes, together with the other properties
+     * updated in the meantime.
      *
      * @param property which property to spread to all sessions
      */
     public static void spreadUpdate(String property) {
+        HibernateFactory.doAfterCommit(() -> {
+            PENDING_UPDATES.add(property);
+            if (FLUSH_SCHEDULED.compareAndSet(false, true)) {
+                scheduledExecutorService.schedule(Notification::flushUpdates, COALESCE_WINDOW,
+                        TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    private static void flushUpdates() {
+        FLUSH_SCHEDULED.set(false);
+        Set<String> properties = new HashSet<>();
+        for (Iterator<String> it = PENDING_UPDATES.iterator(); it.hasNext();) {
+            properties.add(it.next());
+            it.remove();
+        }
+        try {
+            spreadUpdateNow(properties);
+        }
+        catch (Exception e) {
+            LOG.error("Error spreading the notification updates", e);
+        }
+        finally {
+            HibernateFactory.closeSession();
+        }
+    }
+
+    private static void spreadUpdateNow(Set<String> properties) {
         // Check for closed sessions before notifying them
         clearBrokenSessions();
 
-        // if there are unread messages, notify it to all attached WebSocket sessions
+        Map<Session, Set<String>> requests = new HashMap<>();
         wsSessions.forEach((session, watched) -> {
-            if (watched.contains(property)) {
-                Optional.ofNullable(session.getUserProperties().get(WEB_USER_ID))
-                        .map(webUserID -> UserFactory.lookupById((Long) webUserID))
-                        .ifPresent(user -> sendData(session, user, Set.of(property)));
+            Set<String> requested = new HashSet<>(properties);
+            requested.retainAll(watched);
+            if (!requested.isEmpty()) {
+                requests.put(session, requested);
             }
         });
+        sendData(requests);
     }
 
-    private static void sendData(Session session, User user, Set<String> properties) {
-        Map<String, BiFunction<Session, User, Object>> preparers = Map.of(
-                USER_NOTIFICATIONS, Notification::prepareUserNotifications,
-                SSM_COUNT, Notification::prepareSsmCount
-        );
-        Map<String, Object> data = properties.stream()
-                .filter(preparers::containsKey)
-                .collect(Collectors.toMap(Function.identity(),
-                        property -> preparers.get(property).apply(session, user)));
-        if (!data.isEmpty()) {
-            sendMessage(session, GSON.toJson(data));
-        }
-    }
+    /**
+     * Computes the requested properties and queues them for the sessions. The values are
+     * computed once per user, the unread notifications of all the users with one query.
+     *
+     * @param requests the properties to send by session
+     */
+    private static void sendData(Map<Session, Set<String>> requests) {
+        Map<Session, Long> userIds = new HashMap<>();
+        Set<Long> unreadNotificationsUsers = new HashSet<>();
+        requests.forEach((session, properties) -> Optional.ofNullable(session.getUserProperties().get(WEB_USER_ID))
+                .map(webUserID -> (Long) webUserID)
+                .ifPresent(userId -> {
+                    userIds.put(session, userId);
+                    if (properties.contains(USER_NOTIFICATIONS)) {
+                        unreadNotificationsUsers.add(userId);
+                    }
+                }));
 
-    private static Object prepareUserNotifications(Session session, User user) {
-        return UserNotificationFactory.unreadUserNotificationsSize(user);
+        Map<Long, Long> unreadNotifications = unreadNotificationsUsers.isEmpty() ? Collections.emptyMap() :
+                UserNotificationFactory.unreadUserNotificationsSizes(unreadNotificationsUsers);
+        Map<Long, Integer> ssmCounts = new HashMap<>();
+
+        userIds.forEach((session, userId) -> {
+            Map<String, Object> data = new HashMap<>();
+            for (String property : requests.get(session)) {
+                if (USER_NOTIFICATIONS.equals(property)) {
+                    data.put(property, unreadNotifications.getOrDefault(userId, 0L));
+                }
+                else if (SSM_COUNT.equals(property)) {
+                    data.put(property, ssmCounts.computeIfAbsent(userId, Notification::prepareSsmCount));
+                }
+            }
+            if (!data.isEmpty()) {
+                sendMessage(session, GSON.toJson(data));
+            }
+        });
     }
 
-    private static Object prepareSsmCount(Session session, User user) {
-        RhnSet systemSet = RhnSetDecl.SYSTEMS.lookup(user);
+    private static int prepareSsmCount(Long userId) {
+        RhnSet systemSet = RhnSetDecl.SYSTEMS.lookup(userId);
         return systemSet != null ? systemSet.size() : 0;
     }
 
+    /**
+     * @return the number of open sessions
+     */
+    public static int getSessionCount() {
+        return wsSessions.size();
+    }
+
+    /**
+     * @return the number of messages waiting to be sent to all the sessions
+     */
+    public static int getQueuedMessages() {
+        return senders.values().stream().mapToInt(WebSocketSender::getQueueSize).sum();
+    }
+
+    /**
+     * @return the highest number of messages waiting to be sent to a single session
+     */
+    public static int getMaxQueueDepth() {
+        return senders.values().stream().mapToInt(WebSocketSender::getQueueSize).max().orElse(0);
+    }
+
+    /**
+     * @return the number of sessions dropped because they did not keep up with their messages
+     */
+    public static long getDroppedSessions() {
+        return DROPPED_SESSIONS.sum();
+    }
+
     /**
      * A static method to clean up all invalid sessions
      */
@@ -247,6 +333,7 @@ public class Notification {
             // try to close it if it is still open
             brokenSessions.forEach(session -> {
                 wsSessions.remove(session);
+                senders.remove(session);
                 brokenSessionRemove.add(session);
                 if (session.isOpen()) {
                     try {
@@ -267,7 +354,8 @@ public class Notification {
      */
     private static void handshakeSession(Session session) {
         HEARTBEAT_SERVICE.register(session);
-        wsSessions.put(session, new HashSet<>());
+        senders.put(session, new WebSocketSender(session, QUEUE_SIZE, () -> handbreakSession(session)));
+        wsSessions.put(session, ConcurrentHashMap.newKeySet());
     }
 
     /**
@@ -284,7 +372,7 @@ public class Notification {
         scheduledExecutorService = Executors.newScheduledThreadPool(1);
         scheduledExecutorService.scheduleWithFixedDelay(() -> {
             try {
-                spreadUpdate(USER_NOTIFICATIONS);
+                spreadUpdateNow(Set.of(USER_NOTIFICATIONS));
             }
             catch (Exception e) {
                 LOG.error("Notification scheduledExecutorService exception", e);
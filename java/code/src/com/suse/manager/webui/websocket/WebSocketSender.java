@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.webui.websocket;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.websocket.Session;
+
+/**
+ * Queue of text messages to be sent to a WebSocket session.
+ *
+ * Messages are sent in order through the asynchronous remote endpoint: the next
+ * message is only sent once the previous one completed, so that callers never
+ * wait for the client and a slow client does not delay the other sessions.
+ * The queue is bounded, a message not fitting in it is refused and the caller
+ * is expected to drop the session.
+ */
+public class WebSocketSender {
+
+    private static final Logger LOG = LogManager.getLogger(WebSocketSender.class);
+
+    private final Session session;
+    private final int maxQueueSize;
+    private final Runnable onFailure;
+    private final Queue<String> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private volatile boolean failed;
+
+    /**
+     * Standard constructor.
+     * @param sessionIn the WebSocket session
+     * @param maxQueueSizeIn the maximum number of messages waiting to be sent
+     * @param onFailureIn called once when a message could not be sent
+     */
+    public WebSocketSender(Session sessionIn, int maxQueueSizeIn, Runnable onFailureIn) {
+        session = sessionIn;
+        maxQueueSize = maxQueueSizeIn;
+        onFailure = onFailureIn;
+    }
+
+    /**
+     * Queues a message to be sent, and starts sending it if nothing else is being sent.
+     * @param message the message
+     * @return false if the queue is full or sending failed before, in which case the message is discarded
+     */
+    public boolean send(String message) {
+        if (failed) {
+            return false;
+        }
+        if (queueSize.incrementAndGet() > maxQueueSize) {
+            queueSize.decrementAndGet();
+            return false;
+        }
+        queue.add(message);
+        if (sending.compareAndSet(false, true)) {
+            sendNext();
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of messages waiting to be sent
+     */
+    public int getQueueSize() {
+        return queueSize.get();
+    }
+
+    private void sendNext() {
+        String message = queue.poll();
+        if (message == null || failed) {
+            sending.set(false);
+            // a message could have been queued after the poll but before the flag was reset
+            if (!failed && !queue.isEmpty() && sending.compareAndSet(false, true)) {
+                sendNext();
+            }
+            return;
+        }
+        queueSize.decrementAndGet();
+        try {
+            if (!session.isOpen()) {
+                fail(null);
+                return;
+            }
+            session.getAsyncRemote().sendText(message, result -> {
+                if (result.isOK()) {
+                    sendNext();
+                }
+                else {
+                    fail(result.getException());
+                }
+            });
+        }
+        catch (IllegalStateException | IllegalArgumentException e) {
+            fail(e);
+        }
+    }
+
+    private void fail(Throwable cause) {
+        if (failed) {
+            return;
+        }
+        LOG.debug("Could not send websocket message. Session [id:{}] is closed or broken.", session.getId(), cause);
+        failed = true;
+        queue.clear();
+        queueSize.set(0);
+        sending.set(false);
+        onFailure.run();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package com.suse.manager.webui.websocket.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.suse.manager.webui.websocket.WebSocketSender;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+/**
+ * Tests for {@link WebSocketSender}, with a session whose sends complete when the test says so.
+ */
+public class WebSocketSenderTest {
+
+    private final List<String> sent = new ArrayList<>();
+    private final List<SendHandler> pending = new ArrayList<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private Session session;
+
+    /**
+     * Creates a fake session recording the messages and the completion handlers.
+     */
+    @BeforeEach
+    public void setUp() {
+        RemoteEndpoint.Async remote = (RemoteEndpoint.Async) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RemoteEndpoint.Async.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendText") && args.length == 2) {
+                        sent.add((String) args[0]);
+                        pending.add((SendHandler) args[1]);
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        session = (Session) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Session.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isOpen":
+                            return true;
+                        case "getId":
+                            return "test";
+                        case "getAsyncRemote":
+                            return remote;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Test
+    public void testMessagesAreSentOneAfterTheOther() {
+        WebSocketSender sender = new WebSocketSender(session, 10, failures::incrementAndGet);
+
+        assertTrue(sender.send("a"));
+        assertTrue(sender.send("b"));
+        assertTrue(sender.send("c"));
+        // only the first message is sent until it completes
+        assertEquals(List.of("a"), sent);
+        assertEquals(2, sender.getQueueSize());
+
+        complete(new SendResult());
+        complete(new SendResult());
+        assertEquals(List.of("a", "b", "c"), sent);
+        assertEquals(0, sender.getQueueSize());
+
+        complete(new SendResult());
+        assertTrue(sender.send("d"));
+        assertEquals(List.of("a", "b", "c", "d"), sent);
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testFullQueueIsRefused() {
+        WebSocketSender sender = new WebSocketSender(session, 2, failures::incrementAndGet);
+
+        assertTrue(sender.send("a"));
+        assertTrue(sender.send("b"));
+        assertTrue(sender.send("c"));
+        assertFalse(sender.send("d"));
+        assertEquals(2, sender.getQueueSize());
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testFailedSendDropsTheQueue() {
+        WebSocketSender sender = new WebSocketSender(session, 10, failures::incrementAndGet);
+
+        sender.send("a");
+        sender.send("b");
+        complete(new SendResult(new IOException("broken pipe")));
+
+        assertEquals(List.of("a"), sent);
+        assertEquals(0, sender.getQueueSize());
+        assertEquals(1, failures.get());
+        assertFalse(sender.send("c"));
+    }
+
+    private void complete(SendResult result) {
+        pending.remove(0).onResult(result);
+    }
+}
@@ -23,7 +23,6 @@ import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
-import redstone.xmlrpc.XmlRpcClient;
 import redstone.xmlrpc.XmlRpcInvocationHandler;
 
 /**
@@ -69,7 +68,7 @@ public class CobblerConnection {
     public CobblerConnection(String url) {
         try {
             actualUrl = url + "/cobbler_api";
-            client = new XmlRpcClient(actualUrl, false);
+            client = new XmlRpcHttpClient(actualUrl);
         }
         catch (MalformedURLException e) {
             throw new XmlRpcException(e);
@@ -25,6 +25,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -33,6 +34,10 @@ import java.util.Set;
 
 /**
  * Base class has attributes common to distros, profiles, system records.
+ * <p>
+ * Modifications made through the setters are kept locally and sent to Cobbler by {@link #save()}, in a single
+ * call when the object already exists on the server. The resolved values are fetched from the server the first time
+ * one of them is read.
  *
  * @author paji
  * @see <a href="https://cobbler.readthedocs.io/en/v3.3.3/code-autodoc/cobbler.items.html#module-cobbler.items.item">RTFD - Cobbler - 3.3.3 - Item</a>
@@ -110,6 +115,10 @@ public abstract class CobblerObject {
      * Constant to define the value Cobbler uses for inheritance
      */
     public static final String INHERIT_KEY = "<<inherit>>";
+    /**
+     * Prefix of the XML-RPC handles of objects that were not saved yet
+     */
+    private static final String NEW_HANDLE_PREFIX = "___NEW___";
 
     /**
      * Holds the identifier for the XML-RPC API
@@ -127,6 +136,18 @@ public abstract class CobblerObject {
      * The connection to the Cobbler server
      */
     protected CobblerConnection client;
+    /**
+     * The modifications not sent to the Cobbler server yet, in the order they were made
+     */
+    private final Map<String, Object> pendingModifications = new LinkedHashMap<>();
+    /**
+     * The resolved values that have to be fetched again once the pending modifications are sent
+     */
+    private final Set<String> staleResolvedKeys = new HashSet<>();
+    /**
+     * Whether {@link #dataMapResolved} holds the resolved values of the server
+     */
+    private boolean resolvedLoaded;
 
     /**
      * Helper method used by all cobbler objects to
@@ -241,6 +262,31 @@ public abstract class CobblerObject {
      */
     protected abstract void reload();
 
+    /**
+     * This method retrieves all the resolved values of the object from the Cobbler server
+     *
+     * @return The resolved values or {@code null} if the object does not exist on the server
+     */
+    protected abstract Map<String, Object> invokeGetResolved();
+
+    /**
+     * The type of the object as used by the {@code xapi_object_edit} XML-RPC method, which modifies and saves an
+     * object in a single call.
+     *
+     * @return The object type, e.g. {@code system}
+     */
+    protected abstract String getObjectType();
+
+    /**
+     * Checks if a property can be modified through {@code xapi_object_edit}.
+     *
+     * @param key The property name
+     * @return True if the property can be modified in the batched call
+     */
+    protected boolean isBatchModifiable(String key) {
+        return !NAME.equals(key);
+    }
+
     /**
      * This method renames the current object
      * <p>
@@ -260,9 +306,38 @@ public abstract class CobblerObject {
      * @return The resolved value or in case an attribute doesn't resolve its raw value
      */
     protected final Object getResolvedValue(String key) {
+        flush();
         return client.invokeMethod("get_item_resolved_value", getUid(), key);
     }
 
+    /**
+     * Gets a resolved value of the object, fetching the resolved values from the server if needed. Pending
+     * modifications of the property are sent to the server first.
+     *
+     * @param key The constant for the property of the field name in Cobbler
+     * @return The resolved value
+     */
+    protected Object resolvedValue(String key) {
+        if (staleResolvedKeys.contains(key)) {
+            flush();
+        }
+        if (!resolvedLoaded) {
+            Map<String, Object> resolved = invokeGetResolved();
+            if (resolved != null) {
+                dataMapResolved = resolved;
+            }
+            resolvedLoaded = true;
+        }
+        return dataMapResolved.get(key);
+    }
+
+    /**
+     * Marks the resolved values as unknown, to be fetched from the server when one of them is read.
+     */
+    protected void invalidateResolved() {
+        resolvedLoaded = false;
+    }
+
     /**
      * This helper function checks if the Optional we pass is empty or not. The mechanism in Java works that an Empty
      * means that the object does not have a dedicated value and thus inherits from the parent or the settings.
@@ -322,7 +397,8 @@ public abstract class CobblerObject {
     }
 
     /**
-     * This method modifies the object on Cobbler server side.
+     * This method modifies the object. The modification is sent to the Cobbler server by {@link #save()}, or before
+     * anything reading the object back from the server.
      *
      * @param key   The property name. Normally this is one of the constants defined above.
      * @param value The new value for the property. This must be a "raw" object value and not a resolved one.
@@ -335,13 +411,49 @@ public abstract class CobblerObject {
                     "CobblerObject.modify cannot be null or emtpy! Must be a non-emtpy string!"
             );
         }
-        invokeModify(key, value);
+        // a key set again moves to the end, so that the modifications are sent in the order of the last change
+        pendingModifications.remove(key);
+        pendingModifications.put(key, value);
         dataMap.put(key, value);
         if (updateResolved) {
-            refreshResolved(key);
+            staleResolvedKeys.add(resolvedKeyOf(key));
+        }
+    }
+
+    /**
+     * Sends the pending modifications to the Cobbler server, one call per property, without saving the object.
+     * The resolved values are fetched again when read next.
+     */
+    protected void flush() {
+        if (pendingModifications.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<String, Object> modification : pendingModifications.entrySet()) {
+            invokeModify(modification.getKey(), modification.getValue());
+        }
+        clearPendingModifications();
+    }
+
+    /**
+     * @return The modifications not sent to the Cobbler server yet
+     */
+    protected Map<String, Object> getPendingModifications() {
+        return pendingModifications;
+    }
+
+    private void clearPendingModifications() {
+        pendingModifications.clear();
+        if (!staleResolvedKeys.isEmpty()) {
+            staleResolvedKeys.clear();
+            invalidateResolved();
         }
     }
 
+    private boolean canSaveInOneCall() {
+        return !isBlank(getName()) && (handle == null || !handle.startsWith(NEW_HANDLE_PREFIX)) &&
+                pendingModifications.keySet().stream().allMatch(this::isBatchModifiable);
+    }
+
     /**
      * Refreshes the memory internal Map with the values from the server.
      *
@@ -351,14 +463,20 @@ public abstract class CobblerObject {
         if (getUid() == null) {
             throw new RuntimeException("getUid() was null!");
         }
+        flush();
+        key = resolvedKeyOf(key);
+        Object resolvedValue = client.invokeMethod("get_item_resolved_value", getUid(), key);
+        dataMapResolved.put(key, resolvedValue);
+    }
+
+    private static String resolvedKeyOf(String key) {
         if (key.equals(SystemRecord.SET_INTERFACES)) {
             // This exception is needed here because the API Client cannot yet work with the new style property on
             // Cobbler for Network interfaces. Since the network interface handling has not been polished, this is
             // the most reasonable way to add this special case.
-            key = "interfaces";
+            return "interfaces";
         }
-        Object resolvedValue = client.invokeMethod("get_item_resolved_value", getUid(), key);
-        dataMapResolved.put(key, resolvedValue);
+        return key;
     }
 
     /**
@@ -373,23 +491,38 @@ public abstract class CobblerObject {
      *              value or a resolved one.
      */
     protected void modifyResolved(String key, Object value) {
+        flush();
         invokeModifyResolved(key, value);
         dataMapResolved.put(key, value);
     }
 
     /**
-     * Calls save object to complete the commit
+     * Sends the pending modifications and saves the object. When the object already exists on the server, this
+     * is done in a single {@code xapi_object_edit} call.
      */
     public void save() {
+        if (!pendingModifications.isEmpty() && canSaveInOneCall()) {
+            client.invokeTokenMethod("xapi_object_edit", getObjectType(), getName(), "edit",
+                    new HashMap<>(pendingModifications));
+            clearPendingModifications();
+            return;
+        }
+        flush();
         invokeSave();
+        if (handle != null && handle.startsWith(NEW_HANDLE_PREFIX)) {
+            // the object exists now, later saves go through its regular handle
+            handle = null;
+        }
     }
 
     /**
-     * Removes the kickstart object from cobbler.
+     * Removes the kickstart object from cobbler. Modifications not saved yet are discarded.
      *
      * @return true if successful
      */
     public boolean remove() {
+        pendingModifications.clear();
+        staleResolvedKeys.clear();
         return invokeRemove();
     }
 
@@ -431,7 +564,7 @@ public abstract class CobblerObject {
      */
     @SuppressWarnings("unchecked")
     public List<String> getResolvedManagementClasses() {
-        return (List<String>) dataMapResolved.get(MGMT_CLASSES);
+        return (List<String>) resolvedValue(MGMT_CLASSES);
     }
 
     /**
@@ -540,7 +673,7 @@ public abstract class CobblerObject {
      */
     @SuppressWarnings("unchecked")
     public List<String> getResolvedOwners() {
-        return (List<String>) dataMapResolved.get(OWNERS);
+        return (List<String>) resolvedValue(OWNERS);
     }
 
     /**
@@ -792,7 +925,7 @@ public abstract class CobblerObject {
      */
     @SuppressWarnings("unchecked")
     public Map<String, Object> getResolvedAutoinstallMeta() {
-        return (Map<String, Object>) dataMapResolved.get(KS_META);
+        return (Map<String, Object>) resolvedValue(KS_META);
     }
 
     /**
@@ -829,6 +962,7 @@ public abstract class CobblerObject {
      * @param nameIn sets the new name
      */
     public void setName(String nameIn) {
+        flush();
         invokeRename(nameIn);
         dataMap.put(NAME, nameIn);
         dataMapResolved.put(NAME, nameIn);
@@ -910,7 +1044,7 @@ public abstract class CobblerObject {
      * @see #getRedHatManagementKey()
      */
     public String getResolvedRedHatManagementKey() {
-        return (String) dataMapResolved.get(REDHAT_KEY);
+        return (String) resolvedValue(REDHAT_KEY);
     }
 
     /**
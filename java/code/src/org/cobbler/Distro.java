@@ -98,17 +98,10 @@ public class Distro extends CobblerObject {
      * @param distroMap The Key-Value Map with the content of the distribution
      * @return Either null or the distribution that has been build by the Map
      */
-    @SuppressWarnings("unchecked")
     private static Distro handleLookup(CobblerConnection client, Map<String, Object> distroMap) {
         if (distroMap != null) {
             Distro distro = new Distro(client);
             distro.dataMap = distroMap;
-            distro.dataMapResolved = (Map<String, Object>) client.invokeMethod(
-                    "get_distro",
-                    distro.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             return distro;
         }
         return null;
@@ -129,12 +122,6 @@ public class Distro extends CobblerObject {
         for (Map<String, Object> distroMap : cDistros) {
             Distro distro = new Distro(connection);
             distro.dataMap = distroMap;
-            distro.dataMapResolved = (Map<String, Object>) connection.invokeMethod(
-                    "get_distro",
-                    distro.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             distros.add(distro);
         }
         return distros;
@@ -148,6 +135,24 @@ public class Distro extends CobblerObject {
         return (String) client.invokeTokenMethod("get_distro_handle", this.getName());
     }
 
+    /**
+     * @inheritDoc
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> invokeGetResolved() {
+        Object resolved = client.invokeMethod("get_distro", getName(), false, true);
+        return resolved instanceof Map ? (Map<String, Object>) resolved : null;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    protected String getObjectType() {
+        return "distro";
+    }
+
     /**
      * @inheritDoc
      */
@@ -193,9 +198,10 @@ public class Distro extends CobblerObject {
      */
     @Override
     public void reload() {
+        flush();
         Distro newDistro = lookupById(client, getId());
         dataMap = newDistro.dataMap;
-        dataMapResolved = newDistro.dataMapResolved;
+        invalidateResolved();
     }
 
     /**
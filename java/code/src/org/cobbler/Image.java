@@ -113,12 +113,6 @@ public class Image extends CobblerObject {
         for (Map<String, Object> imageMap : imageMaps) {
             Image image = new Image(client);
             image.dataMap = imageMap;
-            image.dataMapResolved = (Map<String, Object>) client.invokeMethod(
-                    "get_image",
-                    image.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             result.add(image);
         }
         return result;
@@ -131,18 +125,11 @@ public class Image extends CobblerObject {
      * @param imageMap the image map
      * @return the image
      */
-    @SuppressWarnings("unchecked")
     private static Image handleLookup(CobblerConnection client,
         Map<String, Object> imageMap) {
         if (imageMap != null) {
             Image image = new Image(client);
             image.dataMap = imageMap;
-            image.dataMapResolved = (Map<String, Object>) client.invokeMethod(
-                    "get_image",
-                    image.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             return image;
         }
         return null;
@@ -221,14 +208,33 @@ public class Image extends CobblerObject {
         return (String) client.invokeTokenMethod("get_image_handle", this.getName());
     }
 
+    /**
+     * @inheritDoc
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> invokeGetResolved() {
+        Object resolved = client.invokeMethod("get_image", getName(), false, true);
+        return resolved instanceof Map ? (Map<String, Object>) resolved : null;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    protected String getObjectType() {
+        return "image";
+    }
+
     /**
      * @inheritDoc
      */
     @Override
     protected void reload() {
+        flush();
         Image newImage = lookupById(client, getId());
         dataMap = newImage.dataMap;
-        dataMapResolved = newImage.dataMapResolved;
+        invalidateResolved();
     }
 
     /**
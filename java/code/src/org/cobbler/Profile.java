@@ -161,17 +161,10 @@ public class Profile extends CobblerObject {
      * @param profileMap The Key-Value Map with the content of the profile
      * @return Either null or the profile that has been build by the Map
      */
-    @SuppressWarnings("unchecked")
     private static Profile handleLookup(CobblerConnection client, Map<String, Object> profileMap) {
         if (profileMap != null) {
             Profile profile = new Profile(client);
             profile.dataMap = profileMap;
-            profile.dataMapResolved = (Map<String, Object>) client.invokeMethod(
-                    "get_profile",
-                    profile.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             return profile;
         }
         return null;
@@ -192,12 +185,6 @@ public class Profile extends CobblerObject {
         for (Map<String, Object> profMap : cProfiles) {
             Profile profile = new Profile(connection);
             profile.dataMap = profMap;
-            profile.dataMapResolved = (Map<String, Object>) connection.invokeMethod(
-                    "get_profile",
-                    profile.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             profiles.add(profile);
         }
         return profiles;
@@ -221,12 +208,6 @@ public class Profile extends CobblerObject {
         for (Map<String, Object> profMap : cProfiles) {
             Profile profile = new Profile(connection);
             profile.dataMap = profMap;
-            profile.dataMapResolved = (Map<String, Object>) connection.invokeMethod(
-                    "get_profile",
-                    profile.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             if (!excludes.contains(profile.getId())) {
                 profiles.add(profile);
             }
@@ -244,6 +225,24 @@ public class Profile extends CobblerObject {
         return (String) client.invokeTokenMethod("get_profile_handle", this.getName());
     }
 
+    /**
+     * @inheritDoc
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> invokeGetResolved() {
+        Object resolved = client.invokeMethod("get_profile", getName(), false, true);
+        return resolved instanceof Map ? (Map<String, Object>) resolved : null;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    protected String getObjectType() {
+        return "profile";
+    }
+
     /**
      * @inheritDoc
      */
@@ -281,9 +280,10 @@ public class Profile extends CobblerObject {
      */
     @Override
     protected void reload() {
+        flush();
         Profile newProfile = lookupById(client, getId());
         dataMap = newProfile.dataMap;
-        dataMapResolved = newProfile.dataMapResolved;
+        invalidateResolved();
     }
 
     /**
@@ -328,7 +328,7 @@ public class Profile extends CobblerObject {
      * @return The virtual bridge name
      */
     public String getResolvedVirtBridge() {
-        return (String) dataMapResolved.get(VIRT_BRIDGE);
+        return (String) resolvedValue(VIRT_BRIDGE);
     }
 
     /**
@@ -348,7 +348,7 @@ public class Profile extends CobblerObject {
      * @see #getVirtCpus()
      */
     public Integer getResolvedVirtCpus() {
-        return (Integer) dataMapResolved.get(VIRT_CPUS);
+        return (Integer) resolvedValue(VIRT_CPUS);
     }
 
     /**
@@ -368,7 +368,7 @@ public class Profile extends CobblerObject {
      * @see #getVirtType()
      */
     public String getResolvedVirtType() {
-        return (String) dataMapResolved.get(VIRT_TYPE);
+        return (String) resolvedValue(VIRT_TYPE);
     }
 
     /**
@@ -398,7 +398,7 @@ public class Profile extends CobblerObject {
      * @see #getVirtPath()
      */
     public String getResolvedVirtPath() {
-        return (String) dataMapResolved.get(VIRT_PATH);
+        return (String) resolvedValue(VIRT_PATH);
     }
 
     /**
@@ -418,7 +418,7 @@ public class Profile extends CobblerObject {
      * @see #getServer()
      */
     public String getResolvedServer() {
-        return (String) dataMapResolved.get(SERVER);
+        return (String) resolvedValue(SERVER);
     }
 
     /**
@@ -439,7 +439,7 @@ public class Profile extends CobblerObject {
      */
     @SuppressWarnings("unchecked")
     public List<String> getResolvedNameServer() {
-        return (List<String>) dataMapResolved.get(NAME_SERVERS);
+        return (List<String>) resolvedValue(NAME_SERVERS);
     }
 
     /**
@@ -488,7 +488,7 @@ public class Profile extends CobblerObject {
      * @see #getVirtFileSize()
      */
     public Double getResolvedVirtFileSize() {
-        return (Double) dataMapResolved.get(VIRT_FILE_SIZE);
+        return (Double) resolvedValue(VIRT_FILE_SIZE);
     }
 
     /**
@@ -508,7 +508,7 @@ public class Profile extends CobblerObject {
      * @see #getVirtRam()
      */
     public Integer getResolvedVirtRam() {
-        return (Integer) dataMapResolved.get(VIRT_RAM);
+        return (Integer) resolvedValue(VIRT_RAM);
     }
 
     /**
@@ -730,6 +730,7 @@ public class Profile extends CobblerObject {
      * @return the generated kickstart text
      */
     public String generateKickstart() {
+        flush();
         return (String) client.invokeTokenMethod("generate_autoinstall", getName());
     }
 
@@ -221,17 +221,10 @@ public class SystemRecord extends CobblerObject {
      * @param sysMap The Java Map with the already retrieved raw values of a system
      * @return The system object or {@code null}
      */
-    @SuppressWarnings("unchecked")
     private static SystemRecord handleLookup(CobblerConnection client, Map<String, Object> sysMap) {
         if (sysMap != null) {
             SystemRecord sys = new SystemRecord(client);
             sys.dataMap = sysMap;
-            sys.dataMapResolved = (Map<String, Object>) client.invokeMethod(
-                    "get_system",
-                    sys.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             return sys;
         }
         return null;
@@ -252,12 +245,6 @@ public class SystemRecord extends CobblerObject {
         for (Map<String, Object> sysMap : cSystems) {
             SystemRecord sys = new SystemRecord(connection);
             sys.dataMap = sysMap;
-            sys.dataMapResolved = (Map<String, Object>) connection.invokeMethod(
-                    "get_system",
-                    sys.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             systems.add(sys);
         }
         return systems;
@@ -281,12 +268,6 @@ public class SystemRecord extends CobblerObject {
         for (Map<String, Object> sysMap : cSystems) {
             SystemRecord sys = new SystemRecord(connection);
             sys.dataMap = sysMap;
-            sys.dataMapResolved = (Map<String, Object>) connection.invokeMethod(
-                    "get_system",
-                    sys.getName(), // object name
-                    false, // flatten
-                    true // resolved
-            );
             if (!excludes.contains(sys.getId())) {
                 systems.add(sys);
             }
@@ -302,6 +283,35 @@ public class SystemRecord extends CobblerObject {
         return (String) client.invokeTokenMethod("get_system_handle", this.getName());
     }
 
+    /**
+     * @inheritDoc
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Map<String, Object> invokeGetResolved() {
+        Object resolved = client.invokeMethod("get_system", getName(), false, true);
+        return resolved instanceof Map ? (Map<String, Object>) resolved : null;
+    }
+
+    /**
+     * @inheritDoc
+     */
+    @Override
+    protected String getObjectType() {
+        return "system";
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Cobbler handles the properties named like network interface fields, such as {@code virt_bridge}, as
+     * interface modifications in {@code xapi_object_edit}.
+     */
+    @Override
+    protected boolean isBatchModifiable(String key) {
+        return super.isBatchModifiable(key) && !VIRT_BRIDGE.equals(key);
+    }
+
     /**
      * @inheritDoc
      */
@@ -339,9 +349,10 @@ public class SystemRecord extends CobblerObject {
      */
     @Override
     protected void reload() {
+        flush();
         SystemRecord newSystem = lookupById(client, getId());
         dataMap = newSystem.dataMap;
-        dataMapResolved = newSystem.dataMapResolved;
+        invalidateResolved();
     }
 
     /**
@@ -359,6 +370,7 @@ public class SystemRecord extends CobblerObject {
      * @return true if the command was successful
      */
     public boolean powerOn() {
+        flush();
         return (Boolean) client.invokeTokenMethod("power_system", getHandle(), "on");
     }
 
@@ -369,6 +381,7 @@ public class SystemRecord extends CobblerObject {
      * @return true if the command was successful
      */
     public boolean powerOff() {
+        flush();
         return (Boolean) client.invokeTokenMethod("power_system", getHandle(), "off");
     }
 
@@ -379,6 +392,7 @@ public class SystemRecord extends CobblerObject {
      * @return true if the command was successful
      */
     public boolean reboot() {
+        flush();
         return (Boolean)
                 client.invokeTokenMethod("power_system", getHandle(), "reboot");
     }
@@ -390,6 +404,7 @@ public class SystemRecord extends CobblerObject {
      * @return true if the system is on, false if it is off, null if it cannot be determined
      */
     public Boolean getPowerStatus() {
+        flush();
         return (Boolean) client.invokeTokenMethod("power_system", getHandle(), "status");
     }
 
@@ -431,7 +446,7 @@ public class SystemRecord extends CobblerObject {
      * @return The virtual bridge name
      */
     public String getResolvedVirtBridge() {
-        return (String) dataMapResolved.get(VIRT_BRIDGE);
+        return (String) resolvedValue(VIRT_BRIDGE);
     }
 
     /**
@@ -451,7 +466,7 @@ public class SystemRecord extends CobblerObject {
      * @see #getVirtCpus()
      */
     public Integer getResolvedVirtCpus() {
-        return (Integer) dataMapResolved.get(VIRT_CPUS);
+        return (Integer) resolvedValue(VIRT_CPUS);
     }
 
     /**
@@ -471,7 +486,7 @@ public class SystemRecord extends CobblerObject {
      * @see #getVirtType()
      */
     public String getResolvedVirtType() {
-        return (String) dataMapResolved.get(VIRT_TYPE);
+        return (String) resolvedValue(VIRT_TYPE);
     }
 
     /**
@@ -491,7 +506,7 @@ public class SystemRecord extends CobblerObject {
      * @see #getVirtPath()
      */
     public String getResolvedVirtPath() {
-        return (String) dataMapResolved.get(VIRT_PATH);
+        return (String) resolvedValue(VIRT_PATH);
     }
 
     /**
@@ -511,7 +526,7 @@ public class SystemRecord extends CobblerObject {
      * @see #getVirtFileSize()
      */
     public Double getResolvedVirtFileSize() {
-        return (Double) dataMapResolved.get(VIRT_FILE_SIZE);
+        return (Double) resolvedValue(VIRT_FILE_SIZE);
     }
 
     /**
@@ -531,7 +546,7 @@ public class SystemRecord extends CobblerObject {
      * @see #getVirtRam()
      */
     public Integer getResolvedVirtRam() {
-        return (Integer) dataMapResolved.get(VIRT_RAM);
+        return (Integer) resolvedValue(VIRT_RAM);
     }
 
     /**
@@ -776,7 +791,7 @@ public class SystemRecord extends CobblerObject {
      * @see #getServer()
      */
     public String getResolvedServer() {
-        return (String) dataMapResolved.get(SERVER);
+        return (String) resolvedValue(SERVER);
     }
 
     /**
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.cobbler;
+
+import com.redhat.rhn.common.conf.ConfigDefaults;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import redstone.xmlrpc.XmlRpcFault;
+import redstone.xmlrpc.XmlRpcInvocationHandler;
+import redstone.xmlrpc.XmlRpcSerializer;
+
+/**
+ * XML-RPC client that keeps its HTTP connections open between calls.
+ *
+ * Redstone's client opens a new connection for every call, which costs a TCP
+ * handshake per modified field when talking to Cobbler. This client shares a
+ * pool of keep-alive connections between all the instances, requests are still
+ * written by Redstone's serializer and responses are read into plain maps,
+ * lists and values, like Redstone does.
+ */
+public class XmlRpcHttpClient implements XmlRpcInvocationHandler {
+
+    private static final int TO_MILLISECONDS = 1000;
+    private static final ContentType CONTENT_TYPE = ContentType.create("text/xml", StandardCharsets.UTF_8);
+
+    private static final PoolingHttpClientConnectionManager CONNECTION_MANAGER;
+    private static final CloseableHttpClient HTTP_CLIENT;
+
+    static {
+        int maxConnections = ConfigDefaults.get().getCobblerMaxConnections();
+        CONNECTION_MANAGER = new PoolingHttpClientConnectionManager();
+        CONNECTION_MANAGER.setMaxTotal(maxConnections);
+        CONNECTION_MANAGER.setDefaultMaxPerRoute(maxConnections);
+        int connectTimeout = ConfigDefaults.get().getCobblerConnectTimeout() * TO_MILLISECONDS;
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setConnectionRequestTimeout(connectTimeout)
+                .setSocketTimeout(ConfigDefaults.get().getCobblerSocketTimeout() * TO_MILLISECONDS)
+                .build();
+        HTTP_CLIENT = HttpClients.custom()
+                .setConnectionManager(CONNECTION_MANAGER)
+                .setDefaultRequestConfig(requestConfig)
+                .disableCookieManagement()
+                .build();
+    }
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final URI uri;
+    private final XmlRpcSerializer serializer = new XmlRpcSerializer();
+
+    /**
+     * Constructor
+     * @param url the XML-RPC endpoint
+     * @throws MalformedURLException if the url is not valid
+     */
+    public XmlRpcHttpClient(String url) throws MalformedURLException {
+        try {
+            uri = new URL(url).toURI();
+        }
+        catch (URISyntaxException e) {
+            throw new MalformedURLException(e.getMessage());
+        }
+    }
+
+    /**
+     * Invokes a method on the server.
+     * @param method the method name
+     * @param arguments the method arguments
+     * @return the value returned by the server
+     * @throws XmlRpcFault if the server answered with a fault
+     * @throws XmlRpcException if the call failed or the response could not be read
+     */
+    @Override
+    public Object invoke(String method, List arguments) throws XmlRpcFault {
+        try {
+            HttpPost post = new HttpPost(uri);
+            post.setEntity(new ByteArrayEntity(writeCall(method, arguments), CONTENT_TYPE));
+            try (CloseableHttpResponse response = HTTP_CLIENT.execute(post)) {
+                HttpEntity entity = response.getEntity();
+                try {
+                    int status = response.getStatusLine().getStatusCode();
+                    if (status != HttpStatus.SC_OK) {
+                        throw new XmlRpcException("HTTP " + status + " calling " + method + " on " + uri);
+                    }
+                    try (InputStream in = entity.getContent()) {
+                        return readResponse(in);
+                    }
+                }
+                finally {
+                    // reading the body to its end gives the connection back to the pool
+                    EntityUtils.consumeQuietly(entity);
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new XmlRpcException("Error calling " + method + " on " + uri, e);
+        }
+    }
+
+    /**
+     * @return the number of idle connections currently kept open
+     */
+    public static int getIdleConnections() {
+        return CONNECTION_MANAGER.getTotalStats().getAvailable();
+    }
+
+    private byte[] writeCall(String method, List<?> arguments) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?><methodCall><methodName>");
+            writer.write(method);
+            writer.write("</methodName><params>");
+            for (Object argument : arguments) {
+                writer.write("<param>");
+                serializer.serialize(argument, writer);
+                writer.write("</param>");
+            }
+            writer.write("</params></methodCall>");
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a method response.
+     * @param in the response body
+     * @return the returned value
+     * @throws XmlRpcFault if the response is a fault
+     * @throws XmlRpcException if the response is not valid
+     */
+    static Object readResponse(InputStream in) throws XmlRpcFault {
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        if ("params".equals(reader.getLocalName())) {
+                            return nextValue(reader);
+                        }
+                        if ("fault".equals(reader.getLocalName())) {
+                            throw toFault(nextValue(reader));
+                        }
+                    }
+                }
+                throw new XmlRpcException("No value in XML-RPC response");
+            }
+            finally {
+                reader.close();
+            }
+        }
+        catch (XMLStreamException | ParseException | IllegalArgumentException e) {
+            throw new XmlRpcException("Invalid XML-RPC response", e);
+        }
+    }
+
+    private static XmlRpcFault toFault(Object value) {
+        if (!(value instanceof Map)) {
+            return new XmlRpcFault(0, String.valueOf(value));
+        }
+        Map<?, ?> fault = (Map<?, ?>) value;
+        Object code = fault.get("faultCode");
+        return new XmlRpcFault(code instanceof Number ? ((Number) code).intValue() : 0,
+                String.valueOf(fault.get("faultString")));
+    }
+
+    /**
+     * Moves to the next value element and reads it.
+     */
+    private static Object nextValue(XMLStreamReader reader) throws XMLStreamException, ParseException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && "value".equals(reader.getLocalName())) {
+                return readValue(reader);
+            }
+        }
+        throw new XmlRpcException("Missing value in XML-RPC response");
+    }
+
+    /**
+     * Reads a value, the reader is on its start tag and is left on its end tag.
+     */
+    private static Object readValue(XMLStreamReader reader) throws XMLStreamException, ParseException {
+        StringBuilder text = new StringBuilder();
+        Object value = null;
+        boolean typed = false;
+        while (reader.next() != XMLStreamConstants.END_ELEMENT) {
+            if (reader.isCharacters()) {
+                text.append(reader.getText());
+            }
+            else if (reader.isStartElement()) {
+                value = readTypedValue(reader);
+                typed = true;
+            }
+        }
+        // a value without type is a string
+        return typed ? value : text.toString();
+    }
+
+    private static Object readTypedValue(XMLStreamReader reader) throws XMLStreamException, ParseException {
+        String type = reader.getLocalName();
+        switch (type) {
+            case "struct":
+                return readStruct(reader);
+            case "array":
+                return readArray(reader);
+            case "nil":
+                skipElement(reader);
+                return null;
+            default:
+                return parseScalar(type, reader.getElementText());
+        }
+    }
+
+    private static Map<String, Object> readStruct(XMLStreamReader reader)
+        throws XMLStreamException, ParseException {
+        Map<String, Object> struct = new HashMap<>();
+        // reader is on <struct>, members follow
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            String name = null;
+            Object memberValue = null;
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("name".equals(reader.getLocalName())) {
+                    name = reader.getElementText();
+                }
+                else if ("value".equals(reader.getLocalName())) {
+                    memberValue = readValue(reader);
+                }
+                else {
+                    skipElement(reader);
+                }
+            }
+            struct.put(name, memberValue);
+        }
+        return struct;
+    }
+
+    private static List<Object> readArray(XMLStreamReader reader) throws XMLStreamException, ParseException {
+        List<Object> array = new ArrayList<>();
+        // reader is on <array>, a <data> element holds the values
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                array.add(readValue(reader));
+            }
+        }
+        return array;
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static Object parseScalar(String type, String text) throws ParseException {
+        switch (type) {
+            case "i4":
+            case "int":
+                return Integer.valueOf(text.trim());
+            case "i8":
+                return Long.valueOf(text.trim());
+            case "boolean":
+                return "1".equals(text.trim());
+            case "double":
+                return Double.valueOf(text.trim());
+            case "string":
+                return text;
+            case "dateTime.iso8601":
+                return new SimpleDateFormat("yyyyMMdd'T'HH:mm:ss").parse(text.trim());
+            case "base64":
+                return Base64.getMimeDecoder().decode(text.trim());
+            default:
+                throw new XmlRpcException("Unknown XML-RPC type " + type);
+        }
+    }
+}
@@ -151,7 +151,7 @@ public class ImageTest {
     }
 
     /**
-     * Check in MockConnection that the current image has a certain value
+     * Save and check in MockConnection that the current image has a certain value
      * corresponding to a key.
      *
      * @param expected the expected value for key
@@ -159,6 +159,8 @@ public class ImageTest {
      */
     @SuppressWarnings("unchecked")
     private void assertImageKeyEquals(String expected, String key) {
+        // modifications only reach the server when saved
+        image.save();
         HashMap<String, Object> criteria = new HashMap<>();
         criteria.put("uid", image.getId());
         List<Map<String, Object>> result = (List<Map<String, Object>>) connection
@@ -82,6 +82,8 @@ public class MockConnection extends CobblerConnection {
 
     private static final List<String> POWER_COMMANDS = new ArrayList<>();
 
+    private static final Map<String, Integer> CALL_COUNTS = new HashMap<>();
+
     private static final Map<String, String> REMAP_KEYS = new HashMap<>();
 
     static {
@@ -134,6 +136,7 @@ public class MockConnection extends CobblerConnection {
         if (name == null) {
             throw new RuntimeException("name for invokeMethod cannot be null!");
         }
+        CALL_COUNTS.merge(name, 1, Integer::sum);
         for (Object object : args) {
             if (object == null) {
                 throw new RuntimeException("No Argument for invokeMethod can be null!");
@@ -255,6 +258,15 @@ public class MockConnection extends CobblerConnection {
             case "new_image":
                 return newImage();
             // other
+            case "xapi_object_edit":
+                List<MockItem> editCollection = getCollection((String) args[0]);
+                MockItem editItem = findByName((String) args[1], editCollection);
+                if (editItem == null || !"edit".equals(args[2])) {
+                    throw new RuntimeException(String.format("Cannot %s %s '%s'!", args[2], args[0], args[1]));
+                }
+                ((Map<String, Object>) args[3]).forEach((key, value) ->
+                        modifyItem(editCollection, editItem.getXmlrpcHandle(), key, value));
+                return true;
             case "get_item_resolved_value":
                 if (args.length != 2) {
                     throw new RuntimeException("get_item_resolved_value needs exactly two arguments!");
@@ -294,6 +306,21 @@ public class MockConnection extends CobblerConnection {
         return "";
     }
 
+    private List<MockItem> getCollection(String objectType) {
+        switch (objectType) {
+            case "distro":
+                return distros;
+            case "profile":
+                return profiles;
+            case "system":
+                return systems;
+            case "image":
+                return images;
+            default:
+                throw new RuntimeException("Unknown object type: " + objectType);
+        }
+    }
+
     private Map<String, Object> getItem(List<MockItem> collection, String name, boolean resolved) {
         MockItem item = findByName(name, collection);
         if (item == null) {
@@ -506,6 +533,32 @@ public class MockConnection extends CobblerConnection {
         return 2.2;
     }
 
+    /**
+     * Returns how many times a method was called since the counts were last cleared.
+     *
+     * @param name the method name
+     * @return the number of calls
+     */
+    public static int getCallCount(String name) {
+        return CALL_COUNTS.getOrDefault(name, 0);
+    }
+
+    /**
+     * Returns how many methods were called since the counts were last cleared.
+     *
+     * @return the number of calls
+     */
+    public static int getCallCount() {
+        return CALL_COUNTS.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Clears the call counts.
+     */
+    public static void clearCallCounts() {
+        CALL_COUNTS.clear();
+    }
+
     /**
      * Returns a list of strings with the latest power commands received by this
      * connection.
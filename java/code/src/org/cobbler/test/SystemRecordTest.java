@@ -190,7 +190,30 @@ public class SystemRecordTest {
     }
 
     /**
-     * Check in MockConnection that the current system has a certain value
+     * Test that modifications of an existing system are saved in one call.
+     */
+    @Test
+    public void testSaveSendsModificationsInOneCall() {
+        system.save();
+        MockConnection.clearCallCounts();
+
+        system.setPowerType("ipmitool");
+        system.setPowerAddress("192.168.0.1");
+        system.setPowerUsername("admin");
+        system.setPowerPassword("secret");
+        system.setPowerId("1");
+        system.setHostName("test.example.com");
+        system.save();
+
+        assertEquals(1, MockConnection.getCallCount("xapi_object_edit"));
+        assertEquals(0, MockConnection.getCallCount("modify_system"));
+        assertEquals(0, MockConnection.getCallCount("save_system"));
+        assertSystemKeyEquals("192.168.0.1", SystemRecord.POWER_ADDRESS);
+        assertSystemKeyEquals("test.example.com", "hostname");
+    }
+
+    /**
+     * Save and check in MockConnection that the current system has a certain value
      * corresponding to a key
      *
      * @param expected the expected value for key
@@ -198,6 +221,8 @@ public class SystemRecordTest {
      */
     @SuppressWarnings("unchecked")
     private void assertSystemKeyEquals(String expected, String key) {
+        // modifications only reach the server when saved
+        system.save();
         HashMap<String, Object> criteria = new HashMap<>();
         criteria.put("uid", system.getId());
         List<Map<String, Object>> result = (List<Map<String, Object>>) connection
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+package org.cobbler.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.cobbler.CobblerConnection;
+import org.cobbler.XmlRpcHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import redstone.xmlrpc.XmlRpcFault;
+
+/**
+ * Tests XmlRpcHttpClient against a minimal XML-RPC server.
+ */
+public class XmlRpcHttpClientTest {
+
+    private static final String STRUCT_RESPONSE = "<?xml version='1.0'?><methodResponse><params><param>" +
+            "<value><struct>" +
+            "<member><name>name</name><value><string>a &amp; b</string></value></member>" +
+            "<member><name>untyped</name><value>plain</value></member>" +
+            "<member><name>count</name><value><int>42</int></value></member>" +
+            "<member><name>enabled</name><value><boolean>1</boolean></value></member>" +
+            "<member><name>mtime</name><value><double>1.5</double></value></member>" +
+            "<member><name>missing</name><value><nil/></value></member>" +
+            "<member><name>interfaces</name><value><array><data>" +
+            "<value><string>eth0</string></value><value><i4>1</i4></value>" +
+            "</data></array></value></member>" +
+            "</struct></value></param></params></methodResponse>";
+
+    private static final String FAULT_RESPONSE = "<?xml version='1.0'?><methodResponse><fault><value><struct>" +
+            "<member><name>faultCode</name><value><int>1</int></value></member>" +
+            "<member><name>faultString</name><value><string>invalid token</string></value></member>" +
+            "</struct></value></fault></methodResponse>";
+
+    private HttpServer server;
+    private String url;
+    private final Set<InetSocketAddress> clientAddresses = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile String lastContentType;
+    private volatile String lastCall;
+
+    /**
+     * Starts the server.
+     * @throws IOException if the server cannot be started
+     */
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/cobbler_api", this::handle);
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server.
+     */
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        clientAddresses.add(exchange.getRemoteAddress());
+        String call = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        lastContentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        lastCall = call;
+        String response;
+        if (call.contains("<methodName>version</methodName>")) {
+            response = "<?xml version='1.0'?><methodResponse><params><param><value><double>3.3</double>" +
+                    "</value></param></params></methodResponse>";
+        }
+        else if (call.contains("<methodName>get_system</methodName>")) {
+            response = STRUCT_RESPONSE;
+        }
+        else {
+            response = FAULT_RESPONSE;
+        }
+        byte[] body = response.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/xml");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Test that the values of a response are read like Redstone does.
+     * @throws Exception if the call fails
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testReadValues() throws Exception {
+        XmlRpcHttpClient client = new XmlRpcHttpClient(url + "/cobbler_api");
+        Map<String, Object> system = (Map<String, Object>) client.invoke("get_system",
+                List.of("test-system", false, true));
+
+        assertEquals("a & b", system.get("name"));
+        assertEquals("plain", system.get("untyped"));
+        assertEquals(42, system.get("count"));
+        assertEquals(true, system.get("enabled"));
+        assertEquals(1.5, system.get("mtime"));
+        assertTrue(system.containsKey("missing"));
+        assertNull(system.get("missing"));
+        assertEquals(List.of("eth0", 1), system.get("interfaces"));
+    }
+
+    /**
+     * Test that a fault response is thrown.
+     */
+    @Test
+    public void testFault() throws Exception {
+        XmlRpcHttpClient client = new XmlRpcHttpClient(url + "/cobbler_api");
+        XmlRpcFault fault = assertThrows(XmlRpcFault.class,
+                () -> client.invoke("modify_system", List.of("handle", "name", "value", "token")));
+        assertEquals("invalid token", fault.getMessage());
+    }
+
+    /**
+     * Test that calls are sent as UTF-8 and declared as such.
+     * @throws Exception if the call fails
+     */
+    @Test
+    public void testUtf8Request() throws Exception {
+        XmlRpcHttpClient client = new XmlRpcHttpClient(url + "/cobbler_api");
+        assertEquals(3.3, client.invoke("version", List.of("Gr\u00fc\u00dfe")));
+        assertEquals("text/xml; charset=UTF-8", lastContentType);
+        assertTrue(lastCall.contains("Gr\u00fc\u00dfe"));
+    }
+
+    /**
+     * Test that consecutive calls through Cobbler connections reuse the same HTTP connection.
+     */
+    @Test
+    public void testConnectionIsReused() {
+        int calls = 50;
+        for (int i = 0; i < calls; i++) {
+            CobblerConnection connection = new CobblerConnection(url, "token");
+            assertEquals(3.3, connection.getVersion());
+        }
+        assertEquals(calls, requests.get());
+        assertEquals(1, clientAddresses.size());
+        assertTrue(XmlRpcHttpClient.getIdleConnections() >= 1);
+    }
+}
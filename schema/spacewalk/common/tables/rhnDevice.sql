@@ -48,5 +48,5 @@ CREATE INDEX rhn_device_server_id_idx
     
     ;
 
-CREATE SEQUENCE rhn_hw_dev_id_seq;
+CREATE SEQUENCE rhn_hw_dev_id_seq INCREMENT BY 50;
 
@@ -44,7 +44,7 @@ CREATE INDEX rhn_erratafile_eid_file_idx
     ON rhnErrataFile (errata_id, filename)
     ;
 
-CREATE SEQUENCE rhn_erratafile_id_seq;
+CREATE SEQUENCE rhn_erratafile_id_seq INCREMENT BY 50;
 
 ALTER TABLE rhnErrataFile
     ADD CONSTRAINT rhn_erratafile_id_pk PRIMARY KEY (id);
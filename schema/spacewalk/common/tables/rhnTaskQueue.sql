@@ -37,4 +37,4 @@ CREATE INDEX rhn_task_queue_org_task_idx
 CREATE INDEX rhn_task_queue_earliest
     ON rhnTaskQueue (earliest);
 
-CREATE SEQUENCE rhn_task_queue_id_seq START WITH 1;
+CREATE SEQUENCE rhn_task_queue_id_seq START WITH 1 INCREMENT BY 50;
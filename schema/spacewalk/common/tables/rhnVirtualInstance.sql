@@ -48,5 +48,5 @@ CREATE INDEX rhn_vi_uuid_idx
     ON rhnVirtualInstance (uuid)
     ;
 
-CREATE SEQUENCE rhn_vi_id_seq;
+CREATE SEQUENCE rhn_vi_id_seq INCREMENT BY 50;
 
@@ -34,4 +34,4 @@ CREATE INDEX rhn_xccdf_rresult_tresult_idx
     
     ;
 
-CREATE SEQUENCE rhn_xccdf_rresult_id_seq;
+CREATE SEQUENCE rhn_xccdf_rresult_id_seq INCREMENT BY 50;
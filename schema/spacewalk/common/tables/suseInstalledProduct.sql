@@ -27,4 +27,4 @@ suseInstalledProduct
                   DEFAULT (current_timestamp) NOT NULL
 );
 
-CREATE SEQUENCE suse_inst_pr_id_seq START WITH 100;
+CREATE SEQUENCE suse_inst_pr_id_seq START WITH 100 INCREMENT BY 50;
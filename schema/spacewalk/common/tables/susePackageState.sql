@@ -39,7 +39,7 @@ CREATE TABLE susePackageState
 
 ;
 
-CREATE SEQUENCE suse_pkg_state_id_seq;
+CREATE SEQUENCE suse_pkg_state_id_seq INCREMENT BY 50;
 
 ALTER TABLE susePackageState
     ADD CONSTRAINT suse_pkg_state_nid_srid_uq UNIQUE (name_id, state_revision_id);
@@ -42,7 +42,7 @@ CREATE TABLE suseSaltPillar
     )
 );
 
-CREATE SEQUENCE suse_salt_pillar_id_seq;
+CREATE SEQUENCE suse_salt_pillar_id_seq INCREMENT BY 50;
 
 CREATE INDEX suse_salt_pillar_server_id_idx ON suseSaltPillar (server_id);
 
@@ -14,4 +14,4 @@ CREATE TABLE suseUserNotification
     CONSTRAINT suse_notif_uid_mid_uq UNIQUE (user_id, message_id)
 );
 
-CREATE SEQUENCE suse_user_notif_id_seq;
+CREATE SEQUENCE suse_user_notif_id_seq INCREMENT BY 50;
@@ -0,0 +1,295 @@
+-- Set based variant of update_system_overview: refreshes the overview of
+-- all the given systems with a single statement. Systems that do not exist
+-- anymore are skipped.
+create or replace
+function update_system_overviews (
+    sids in numeric[]
+) returns void as
+$$
+begin
+    with
+    group_counts as (
+        SELECT server_id, count(server_group_id) AS group_count
+        FROM rhnVisibleServerGroupMembers
+        WHERE server_id = ANY(sids)
+        GROUP BY server_id
+    ),
+    base_channels as (
+        SELECT DISTINCT ON (SC.server_id) SC.server_id, C.id AS channel_id,
+               coalesce(C.name, '(none)') AS channel_labels
+        FROM rhnChannel C,
+             rhnServerChannel SC
+        WHERE SC.server_id = ANY(sids) AND SC.channel_id = C.id AND C.parent_channel IS NULL
+        ORDER BY SC.server_id, C.id
+    ),
+    errata_counts as (
+        SELECT setv.server_id,
+               count(*) FILTER (WHERE setv.errata_type = 'Security Advisory') AS security_errata,
+               count(*) FILTER (WHERE setv.errata_type = 'Bug Fix Advisory') AS bug_errata,
+               count(*) FILTER (WHERE setv.errata_type = 'Product Enhancement Advisory') AS enhancement_errata
+        FROM rhnServerErrataTypeView setv
+        WHERE setv.server_id = ANY(sids)
+        GROUP BY setv.server_id
+    ),
+    outdated as (
+        SELECT snc.server_id, count(DISTINCT p.name_id) AS outdated_packages
+        FROM rhnPackage p, rhnServerNeededCache snc
+        WHERE snc.server_id = ANY(sids) AND p.id = snc.package_id
+        GROUP BY snc.server_id
+    ),
+    last_config_diffs as (
+        SELECT rSA.server_id, MAX(rA.id) AS action_id
+        FROM rhnAction rA
+             INNER JOIN rhnServerAction rSA ON rSA.action_id = rA.id
+             INNER JOIN rhnActionStatus rAS ON rAS.id = rSA.status
+             INNER JOIN rhnActionType rAT ON rAT.id = rA.action_type
+        WHERE rSA.server_id = ANY(sids)
+          AND rAS.name in ('Completed', 'Failed')
+          AND rAT.label = 'configfiles.diff'
+        GROUP BY rSA.server_id
+    ),
+    config_diffs as (
+        SELECT ACR.server_id, count(*) AS config_files_with_differences
+        FROM last_config_diffs LCD
+        INNER JOIN rhnActionConfigRevision ACR ON ACR.server_id = LCD.server_id AND ACR.action_id = LCD.action_id
+        INNER JOIN rhnActionConfigRevisionResult ACRR on ACR.id = ACRR.action_config_revision_id
+        WHERE ACR.failure_id is null
+          AND ACRR.result is not null
+        GROUP BY ACR.server_id
+    ),
+    entitlements as (
+        SELECT SEV.server_id,
+               string_agg(SEV.label, ',' ORDER BY CASE SEV.is_base WHEN 'Y' THEN 1 WHEN 'N' THEN 2 END, SEV.label)
+                   AS entitlement_level
+        FROM rhnServerEntitlementView AS SEV
+        WHERE SEV.server_id = ANY(sids)
+        GROUP BY SEV.server_id
+    ),
+    extra_packages as (
+        SELECT sp.server_id, count(sp.name_id) AS extra_pkg_count
+        FROM rhnServerPackage sp
+        WHERE sp.server_id = ANY(sids)
+          AND NOT EXISTS (SELECT 1
+                          FROM rhnPackage p,
+                               rhnServerChannel sc,
+                               rhnChannelPackage cp
+                          WHERE cp.package_id = p.id
+                            AND cp.channel_id = sc.channel_id
+                            AND sc.server_id = sp.server_id
+                            AND sp.name_id = p.name_id
+                            AND sp.evr_id = p.evr_id
+                            AND sp.package_arch_id = p.package_arch_id
+                            AND EXISTS (SELECT 1 FROM rhnUserServerPerms usp WHERE usp.server_id = sp.server_id))
+        GROUP BY sp.server_id
+    ),
+    action_counts as (
+        SELECT SA.server_id,
+               count(distinct SA.action_id) AS actions_count,
+               count(A.id) FILTER (WHERE AT.label IN('packages.refresh_list', 'packages.update',
+                       'packages.remove', 'errata.update', 'packages.delta')) AS package_actions_count
+        FROM rhnServerAction SA, rhnActionStatus AST, rhnAction A, rhnActionType AT
+        WHERE SA.server_id = ANY(sids)
+            AND AST.id = SA.status
+            AND AST.name = 'Queued'
+            AND A.id = SA.action_id
+            AND AT.id = A.action_type
+        GROUP BY SA.server_id
+    ),
+    unscheduled_errata as (
+        SELECT SNPC.server_id, COUNT(DISTINCT SNPC.errata_id) AS unscheduled_errata_count
+        FROM rhnServerNeededErrataCache SNPC
+        WHERE SNPC.server_id = ANY(sids)
+            AND NOT EXISTS (SELECT SA.server_id
+                            FROM rhnActionErrataUpdate AEU,
+                               rhnServerAction SA,
+                               rhnActionStatus AST
+                            WHERE SA.server_id = SNPC.server_id
+                                AND SA.status = AST.id
+                                AND AST.name IN('Queued', 'Picked Up')
+                                AND AEU.action_id = SA.action_id
+                                AND AEU.errata_id = SNPC.errata_id)
+        GROUP BY SNPC.server_id
+    ),
+    threshold as (
+        SELECT CAST(coalesce(value, default_value) AS INTEGER) AS threshold
+        FROM rhnconfiguration WHERE key = 'system_checkin_threshold'
+    ),
+    overview as (
+        SELECT S.id,
+               S.name AS server_name,
+               S.created,
+               (SELECT wc.login FROM web_contact wc WHERE wc.id = S.creator_id) AS creator_name,
+               S.modified,
+               coalesce(GC.group_count, 0) AS group_count,
+               BC.channel_id,
+               BC.channel_labels,
+               coalesce(EC.security_errata, 0) AS security_errata,
+               coalesce(EC.bug_errata, 0) AS bug_errata,
+               coalesce(EC.enhancement_errata, 0) AS enhancement_errata,
+               coalesce(O.outdated_packages, 0) AS outdated_packages,
+               coalesce(CD.config_files_with_differences, 0) AS config_files_with_differences,
+               CAST(TO_CHAR(SI.checkin, 'YYYY-MM-DD HH24:MI:SS') AS timestamptz) AS last_checkin,
+               E.entitlement_level,
+               EXISTS (SELECT 1 FROM rhnVirtualInstance VI WHERE VI.virtual_system_id = S.id) AS virtual_guest,
+               (EXISTS (SELECT 1
+                        FROM rhnServerGroup sg
+                            INNER JOIN rhnServerGroupMembers sgm ON sg.id = sgm.server_group_id
+                            INNER JOIN rhnServerGroupType sgt ON sgt.id = sg.group_type
+                        WHERE sgm.server_id = S.id AND sgt.label = 'virtualization_host')
+                OR EXISTS (SELECT 1 FROM rhnVirtualInstance VI WHERE VI.host_system_id = S.id)) AS virtual_host,
+               EXISTS (SELECT 1 FROM rhnProxyInfo PI WHERE PI.server_id = S.id) AS proxy,
+               EXISTS (SELECT 1 FROM suseMgrServerInfo MSI WHERE MSI.server_id = S.id) AS mgr_server,
+               EXISTS (SELECT 1 FROM rhnServerFeaturesView SFV
+                       WHERE SFV.server_id = S.id AND SFV.label = 'ftr_system_grouping') AS selectable,
+               XP.extra_pkg_count,
+               (EXISTS (SELECT 1
+                        FROM rhnServerPackage SP
+                          JOIN rhnPackage P ON (P.evr_id = SP.evr_id AND P.name_id = SP.name_id)
+                          JOIN rhnErrataPackage EP ON EP.package_id = P.id
+                          JOIN rhnErrata ER ON EP.errata_id = ER.id
+                          JOIN rhnerratakeyword EK ON ER.id = EK.errata_id
+                        WHERE SP.server_id = S.id
+                          AND EK.keyword = 'reboot_suggested'
+                          AND (to_date('1970-01-01', 'YYYY-MM-DD')
+                               + numtodsinterval(S.last_boot, 'second')) < SP.installtime at time zone 'UTC')
+                OR EXISTS (SELECT 1
+                           FROM rhnServerPackage SP
+                             JOIN rhnPackage P ON (P.evr_id = SP.evr_id AND P.name_id = SP.name_id)
+                             JOIN rhnPackageProvides PP ON P.id = PP.package_id
+                             JOIN rhnPackageCapability PC ON PP.capability_id = PC.id
+                           WHERE SP.server_id = S.id
+                             AND PC.name = 'installhint(reboot-needed)'
+                             AND (to_date('1970-01-01', 'YYYY-MM-DD')
+                                  + numtodsinterval(S.last_boot, 'second')) < SP.installtime at time zone 'UTC')
+                OR EXISTS (SELECT 1
+                           FROM suseMinionInfo smi
+                           WHERE smi.server_id = S.id
+                             AND smi.reboot_needed = 'Y')) AS requires_reboot,
+               EXISTS (SELECT 1
+                       FROM rhnKickstartSession KSS, rhnKickstartSessionState KSSS
+                       WHERE (KSS.old_server_id = S.id OR KSS.new_server_id = S.id)
+                         AND KSSS.id = KSS.state_id
+                         AND KSSS.label NOT IN ('complete', 'failed')) AS kickstarting,
+               coalesce(AC.actions_count, 0) AS actions_count,
+               coalesce(AC.package_actions_count, 0) AS package_actions_count,
+               coalesce(UE.unscheduled_errata_count, 0) AS unscheduled_errata_count,
+               (SELECT date_diff_in_days(CAST(CAST(TO_CHAR(SI.checkin, 'YYYY-MM-DD HH24:MI:SS') AS timestamptz)
+                                              AS TIMESTAMP), NOW()) > T.threshold
+                FROM threshold T) AS awol
+        FROM rhnServer S
+        LEFT JOIN rhnServerInfo SI ON SI.server_id = S.id
+        LEFT JOIN group_counts GC ON GC.server_id = S.id
+        LEFT JOIN base_channels BC ON BC.server_id = S.id
+        LEFT JOIN errata_counts EC ON EC.server_id = S.id
+        LEFT JOIN outdated O ON O.server_id = S.id
+        LEFT JOIN config_diffs CD ON CD.server_id = S.id
+        LEFT JOIN entitlements E ON E.server_id = S.id
+        LEFT JOIN extra_packages XP ON XP.server_id = S.id
+        LEFT JOIN action_counts AC ON AC.server_id = S.id
+        LEFT JOIN unscheduled_errata UE ON UE.server_id = S.id
+        WHERE S.id = ANY(sids)
+    )
+    insert into suseSystemOverview (
+        id,
+        server_name,
+        created,
+        creator_name,
+        modified,
+        group_count,
+        channel_id,
+        channel_labels,
+        security_errata,
+        bug_errata,
+        enhancement_errata,
+        outdated_packages,
+        config_files_with_differences,
+        last_checkin,
+        entitlement_level,
+        virtual_guest,
+        virtual_host,
+        proxy,
+        mgr_server,
+        selectable,
+        extra_pkg_count,
+        requires_reboot,
+        kickstarting,
+        actions_count,
+        package_actions_count,
+        unscheduled_errata_count,
+        status_type
+    )
+    select
+        id,
+        server_name,
+        created,
+        creator_name,
+        modified,
+        group_count,
+        channel_id,
+        channel_labels,
+        security_errata,
+        bug_errata,
+        enhancement_errata,
+        outdated_packages,
+        config_files_with_differences,
+        last_checkin,
+        entitlement_level,
+        virtual_guest,
+        virtual_host,
+        proxy,
+        mgr_server,
+        selectable,
+        extra_pkg_count,
+        requires_reboot,
+        kickstarting,
+        actions_count,
+        package_actions_count,
+        unscheduled_errata_count,
+        case
+            when entitlement_level = '' then 'unentitled'
+            when awol then 'awol'
+            when kickstarting then 'kickstarting'
+            when requires_reboot then 'reboot needed'
+            when enhancement_errata + bug_errata + security_errata > 0 and unscheduled_errata_count = 0
+                then 'updates scheduled'
+            when actions_count > 0 then 'actions scheduled'
+            when enhancement_errata + bug_errata + security_errata + outdated_packages + package_actions_count = 0
+                then 'up2date'
+            when security_errata > 0 then 'critical'
+            when outdated_packages > 0 then 'updates'
+            else null
+        end
+    from overview
+    -- lock the rows in a stable order, concurrent refreshes may share systems
+    order by id
+    on conflict (id)
+    do update set
+        server_name = EXCLUDED.server_name,
+        created = EXCLUDED.created,
+        creator_name = EXCLUDED.creator_name,
+        modified = EXCLUDED.modified,
+        group_count = EXCLUDED.group_count,
+        channel_id = EXCLUDED.channel_id,
+        channel_labels = EXCLUDED.channel_labels,
+        security_errata = EXCLUDED.security_errata,
+        bug_errata = EXCLUDED.bug_errata,
+        enhancement_errata = EXCLUDED.enhancement_errata,
+        outdated_packages = EXCLUDED.outdated_packages,
+        config_files_with_differences = EXCLUDED.config_files_with_differences,
+        last_checkin = EXCLUDED.last_checkin,
+        entitlement_level = EXCLUDED.entitlement_level,
+        virtual_guest = EXCLUDED.virtual_guest,
+        virtual_host = EXCLUDED.virtual_host,
+        proxy = EXCLUDED.proxy,
+        mgr_server = EXCLUDED.mgr_server,
+        selectable = EXCLUDED.selectable,
+        extra_pkg_count = EXCLUDED.extra_pkg_count,
+        requires_reboot = EXCLUDED.requires_reboot,
+        kickstarting = EXCLUDED.kickstarting,
+        actions_count = EXCLUDED.actions_count,
+        package_actions_count = EXCLUDED.package_actions_count,
+        unscheduled_errata_count = EXCLUDED.unscheduled_errata_count,
+        status_type = EXCLUDED.status_type;
+end;
+$$
+language plpgsql;
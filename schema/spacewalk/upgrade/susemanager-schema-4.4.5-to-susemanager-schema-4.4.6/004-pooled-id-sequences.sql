@@ -0,0 +1,11 @@
+-- Hibernate allocates the ids of these tables in blocks of 50 (pooled-lo),
+-- the sequences need to step by the same amount.
+ALTER SEQUENCE rhn_erratafile_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rhn_hw_dev_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rhn_vi_id_seq INCREMENT BY 50;
+ALTER SEQUENCE suse_inst_pr_id_seq INCREMENT BY 50;
+ALTER SEQUENCE suse_pkg_state_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rhn_xccdf_rresult_id_seq INCREMENT BY 50;
+ALTER SEQUENCE suse_user_notif_id_seq INCREMENT BY 50;
+ALTER SEQUENCE rhn_task_queue_id_seq INCREMENT BY 50;
+ALTER SEQUENCE suse_salt_pillar_id_seq INCREMENT BY 50;
@@ -0,0 +1,61 @@
+
+-- Set based variant of rhn_server.update_needed_cache: computes the needed
+-- packages and errata of all the given servers with a single statement and
+-- only applies the difference to rhnServerNeededCache. Rows which are still
+-- valid are kept, so that recomputing an up to date cache writes nothing.
+create or replace
+function update_servers_needed_cache (
+    sids in numeric[]
+) returns void as
+$$
+begin
+    with
+    needed as (
+        select distinct sp.server_id, x.errata_id, p.id as package_id, x.channel_id
+          FROM (SELECT sp_sp.server_id, sp_sp.name_id,
+                       sp_sp.package_arch_id, max(sp_pe.evr) AS max_evr
+                  FROM rhnServerPackage sp_sp
+                  join rhnPackageEvr sp_pe ON sp_pe.id = sp_sp.evr_id
+                 WHERE sp_sp.server_id = ANY(sids)
+                 GROUP BY sp_sp.server_id, sp_sp.name_id, sp_sp.package_arch_id) sp
+          join susePackageExcludingPartOfPtf p ON p.name_id = sp.name_id
+          join rhnPackageEvr pe ON pe.id = p.evr_id AND (sp.max_evr).type = (pe.evr).type AND sp.max_evr < pe.evr
+          join rhnPackageUpgradeArchCompat puac
+               ON puac.package_arch_id = sp.package_arch_id
+              AND puac.package_upgrade_arch_id = p.package_arch_id
+          join rhnServerChannel sc ON sc.server_id = sp.server_id
+          join rhnChannelPackage cp ON cp.package_id = p.id
+               AND cp.channel_id = sc.channel_id
+          left join (SELECT ep.errata_id, ce.channel_id, ep.package_id
+                       FROM rhnChannelErrata ce
+                       join rhnErrataPackage ep
+                            ON ep.errata_id = ce.errata_id
+                      WHERE ce.channel_id IN (SELECT sc_sc.channel_id
+                                                FROM rhnServerChannel sc_sc
+                                               WHERE sc_sc.server_id = ANY(sids))) x
+               ON x.channel_id = sc.channel_id AND x.package_id = cp.package_id
+          left join rhnErrata e on x.errata_id = e.id
+         where x.errata_id IS NULL or e.advisory_status != 'retracted' -- packages which are part of a retracted errata should not be installed
+    ),
+    deleted as (
+        delete from rhnServerNeededCache snc
+         where snc.server_id = ANY(sids)
+           and not exists (select 1
+                             from needed n
+                            where n.server_id = snc.server_id
+                              and n.package_id = snc.package_id
+                              and n.errata_id is not distinct from snc.errata_id
+                              and n.channel_id is not distinct from snc.channel_id)
+    )
+    insert into rhnServerNeededCache
+           (server_id, errata_id, package_id, channel_id)
+    select n.server_id, n.errata_id, n.package_id, n.channel_id
+      from needed n
+     where not exists (select 1
+                         from rhnServerNeededCache snc
+                        where snc.server_id = n.server_id
+                          and snc.package_id = n.package_id
+                          and snc.errata_id is not distinct from n.errata_id
+                          and snc.channel_id is not distinct from n.channel_id);
+end;
+$$ language plpgsql;
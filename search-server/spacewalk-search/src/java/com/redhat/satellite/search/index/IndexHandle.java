@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 SUSE LLC
+ *
+ * This software is licensed to you under the GNU General Public License,
+ * version 2 (GPLv2). There is NO WARRANTY for this software, express or
+ * implied, including the implied warranties of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. You should have received a copy of GPLv2
+ * along with this software; if not, see
+ * http://www.gnu.org/licenses/old-licenses/gpl-2.0.txt.
+ *
+ * Red Hat trademarks are not licensed under GPLv2. No permission is
+ * granted to use or replicate Red Hat trademarks that are incorporated
+ * in this software or its documentation.
+ */
+
+package com.redhat.satellite.search.index;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * The writer and the shared reader of one index.
+ *
+ * The writer is opened on first use and kept open, changes only become visible
+ * to readers once they are committed. The reader is shared by all searches
+ * and reference counted, it is reopened only when something was committed
+ * since it was opened, so that searches do not have to open the index again.
+ *
+ * @version $Rev$
+ */
+class IndexHandle {
+
+    private static Logger log = LogManager.getLogger(IndexHandle.class);
+
+    private final String path;
+    private final Analyzer analyzer;
+    private Directory directory;
+    private IndexWriter writer;
+    private IndexReader reader;
+    private int pending;
+    private boolean stale;
+
+    /**
+     * Constructor
+     * @param pathIn directory of the index
+     * @param analyzerIn analyzer used to write documents
+     */
+    IndexHandle(String pathIn, Analyzer analyzerIn) {
+        path = pathIn;
+        analyzer = analyzerIn;
+    }
+
+    /**
+     * Returns the writer of this index, opening it and creating the index
+     * if needed. The writer is thread safe and must not be closed by callers.
+     * @return the index writer
+     * @throws IOException if the index could not be opened or is locked
+     */
+    synchronized IndexWriter getWriter() throws IOException {
+        if (writer == null) {
+            File f = new File(path);
+            f.mkdirs();
+            // no auto commit: changes are published by commit()
+            writer = new IndexWriter(getDirectory(), analyzer,
+                    IndexWriter.MaxFieldLength.LIMITED);
+            writer.setUseCompoundFile(true);
+        }
+        return writer;
+    }
+
+    /**
+     * Records a change made through the writer, to be published by the next commit.
+     */
+    synchronized void changed() {
+        pending++;
+    }
+
+    /**
+     * Commits the pending changes, if any.
+     * @throws IOException if the commit failed
+     */
+    synchronized void commit() throws IOException {
+        if (writer != null && pending > 0) {
+            writer.commit();
+            if (log.isDebugEnabled()) {
+                log.debug("Committed " + pending + " changes to " + path);
+            }
+            pending = 0;
+            stale = true;
+        }
+    }
+
+    /**
+     * Returns an up to date reader of this index. Pending changes are committed
+     * first, so that they are visible to the caller. The reader has to be
+     * given back through {@link #release(IndexReader)}.
+     * @return the reader
+     * @throws IOException if the index could not be read
+     */
+    synchronized IndexReader acquireReader() throws IOException {
+        commit();
+        if (reader == null) {
+            reader = IndexReader.open(getDirectory(), true);
+        }
+        else if (stale) {
+            IndexReader newReader = reader.reopen();
+            if (newReader != reader) {
+                reader.decRef();
+                reader = newReader;
+            }
+        }
+        stale = false;
+        reader.incRef();
+        return reader;
+    }
+
+    /**
+     * Gives back a reader obtained from {@link #acquireReader()}. The reader
+     * gets closed when it has been replaced and is not used anymore.
+     * @param readerIn the reader
+     * @throws IOException if closing the reader failed
+     */
+    void release(IndexReader readerIn) throws IOException {
+        readerIn.decRef();
+    }
+
+    /**
+     * Commits the pending changes and closes the writer and the reader.
+     * @throws IOException if something could not be closed
+     */
+    synchronized void close() throws IOException {
+        try {
+            if (writer != null) {
+                // closing the writer commits its pending changes
+                writer.close();
+            }
+        }
+        finally {
+            writer = null;
+            pending = 0;
+            try {
+                if (reader != null) {
+                    reader.decRef();
+                }
+            }
+            finally {
+                reader = null;
+                if (directory != null) {
+                    directory.close();
+                    directory = null;
+                }
+            }
+        }
+    }
+
+    private Directory getDirectory() throws IOException {
+        if (directory == null) {
+            directory = FSDirectory.getDirectory(new File(path));
+        }
+        return directory;
+    }
+}
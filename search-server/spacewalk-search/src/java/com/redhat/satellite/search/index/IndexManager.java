@@ -30,7 +30,6 @@ import org.apache.lucene.document.DateTools;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.index.CorruptIndexException;
 import org.apache.lucene.index.IndexReader;
-import org.apache.lucene.index.IndexWriter;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.queryParser.ParseException;
 import org.apache.lucene.queryParser.QueryParser;
@@ -41,11 +40,12 @@ import org.apache.lucene.search.Query;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.FSDirectory;
 import org.apache.lucene.store.LockObtainFailedException;
+import org.picocontainer.Startable;
 
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -55,9 +55,13 @@ import java.util.TreeMap;
 /**
  * Indexing workhorse class
  *
+ * Each index is written through a single long lived writer and searched
+ * through a shared reader, see {@link IndexHandle}. Changes are batched until
+ * {@link #commit(String)} is called, or until the next search of the index.
+ *
  * @version $Rev$
  */
-public class IndexManager {
+public class IndexManager implements Startable {
 
     private static Logger log = LogManager.getLogger(IndexManager.class);
     private String indexWorkDir;
@@ -73,6 +77,7 @@ public class IndexManager {
     // Name conflict with our Configuration class and Hadoop's
     private Map<String, String> docLocaleLookUp = new TreeMap<String, String>
                                                                                                 (String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, IndexHandle> handles = new HashMap<String, IndexHandle>();
     /**
      * Constructor
      *
@@ -142,12 +147,13 @@ public class IndexManager {
     public List<Result> search(String indexName, String query, String lang,
             boolean isFineGrained)
             throws IndexingException, QueryParseException {
+        IndexHandle handle = getIndexHandle(indexName, lang);
         IndexSearcher searcher = null;
         IndexReader reader = null;
         List<Result> retval = null;
         try {
-            reader = getIndexReader(indexName, lang);
-            searcher = getIndexSearcher(indexName, lang);
+            reader = handle.acquireReader();
+            searcher = new IndexSearcher(reader);
             QueryParser qp = getQueryParser(indexName, lang, isFineGrained);
             Query q = qp.parse(query);
             if (log.isDebugEnabled()) {
@@ -189,10 +195,11 @@ public class IndexManager {
         finally {
             try {
                 if (searcher != null) {
+                    // the searcher was built on the shared reader, this does not close it
                     searcher.close();
                 }
                 if (reader != null) {
-                    reader.close();
+                    handle.release(reader);
                 }
             }
             catch (IOException ex) {
@@ -213,20 +220,11 @@ public class IndexManager {
     public void createIndex(String indexName, String lang)
         throws IndexingException {
 
+        IndexHandle handle = getIndexHandle(indexName, lang);
         try {
-            IndexWriter writer = getIndexWriter(indexName, lang);
-            try {
-                writer.flush();
-            }
-            finally {
-                try {
-                    writer.close();
-                }
-                finally {
-                    // unlock it if it is locked.
-                    unlockIndex(indexName);
-                }
-            }
+            // opening the writer creates the index if it does not exist yet
+            handle.getWriter();
+            handle.commit();
         }
         catch (CorruptIndexException e) {
             throw new IndexingException(e);
@@ -241,7 +239,8 @@ public class IndexManager {
 
 
     /**
-     * Adds a document to an index
+     * Adds a document to an index. The document becomes visible to searches
+     * with the next commit of the index.
      *
      * @param indexName index to use
      * @param doc Document to be indexed.
@@ -251,21 +250,10 @@ public class IndexManager {
     public void addToIndex(String indexName, Document doc, String lang)
         throws IndexingException {
 
+        IndexHandle handle = getIndexHandle(indexName, lang);
         try {
-            IndexWriter writer = getIndexWriter(indexName, lang);
-            try {
-                writer.addDocument(doc);
-                writer.flush();
-            }
-            finally {
-                try {
-                    writer.close();
-                }
-                finally {
-                    // unlock it if it is locked.
-                    unlockIndex(indexName);
-                }
-            }
+            handle.getWriter().addDocument(doc);
+            handle.changed();
         }
         catch (CorruptIndexException e) {
             throw new IndexingException(e);
@@ -278,6 +266,10 @@ public class IndexManager {
         }
     }
     /**
+     * Adds a document to an index, replacing any document with the same
+     * value of the unique field. The deletion is buffered in the same writer
+     * as the addition, so both become visible at the same commit.
+     *
      * @param indexName
      * @param doc document with data to index
      * @param uniqueField field in doc which identifies this uniquely
@@ -287,41 +279,20 @@ public class IndexManager {
     public void addUniqueToIndex(String indexName, Document doc,
             String uniqueField, String lang)
         throws IndexingException {
-        IndexReader reader = null;
-        int numFound = 0;
+        Term term = new Term(uniqueField, doc.get(uniqueField));
+        IndexHandle handle = getIndexHandle(indexName, lang);
         try {
-            reader = getIndexReader(indexName, lang);
-            Term term = new Term(uniqueField, doc.get(uniqueField));
-            numFound = reader.docFreq(term);
-        }
-        catch (FileNotFoundException e) {
-            // Index doesn't exist, so this add will be unique
-            // we don't need to do anything/
+            handle.getWriter().deleteDocuments(term);
         }
         catch (IOException e) {
             throw new IndexingException(e);
         }
-        finally {
-            if (reader != null) {
-                try {
-                    reader.close();
-                }
-                catch (IOException e) {
-                    //
-                }
-            }
-        }
-        if (numFound > 0) {
-            log.info("Found " + numFound + " <" + indexName + " docs for " +
-                    uniqueField + ":" + doc.get(uniqueField) +
-                    " will remove them now.");
-            removeFromIndex(indexName, uniqueField, doc.get(uniqueField));
-        }
         addToIndex(indexName, doc, lang);
     }
 
     /**
-     * Remove a document from an index
+     * Remove a document from an index. The removal becomes visible to
+     * searches with the next commit of the index.
      *
      * @param indexName index to use
      * @param uniqueField field name which represents this data's unique id
@@ -333,18 +304,10 @@ public class IndexManager {
         log.info("Removing <" + indexName + "> " + uniqueField + ":" +
                 objectId);
         Term t = new Term(uniqueField, objectId);
-        IndexReader reader;
+        IndexHandle handle = getIndexHandle(indexName, IndexHandler.DEFAULT_LANG);
         try {
-            reader = getIndexReader(indexName, IndexHandler.DEFAULT_LANG);
-            try {
-                reader.deleteDocuments(t);
-                reader.flush();
-            }
-            finally {
-               if (reader != null) {
-                    reader.close();
-               }
-            }
+            handle.getWriter().deleteDocuments(t);
+            handle.changed();
         }
         catch (CorruptIndexException e) {
             throw new IndexingException(e);
@@ -354,6 +317,55 @@ public class IndexManager {
         }
     }
 
+    /**
+     * Makes the changes done to an index since the last commit durable and
+     * visible to searches. Indexing tasks call this once per batch of records.
+     *
+     * @param indexName index to commit
+     * @throws IndexingException something went wrong committing the changes
+     */
+    public void commit(String indexName) throws IndexingException {
+        IndexHandle handle;
+        synchronized (handles) {
+            handle = handles.get(indexName);
+        }
+        if (handle == null) {
+            return;
+        }
+        try {
+            handle.commit();
+        }
+        catch (IOException e) {
+            throw new IndexingException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void start() {
+        // writers and readers are opened on first use
+    }
+
+    /**
+     * Commits the pending changes and closes all the open indexes.
+     */
+    public void stop() {
+        synchronized (handles) {
+            for (Map.Entry<String, IndexHandle> entry : handles.entrySet()) {
+                try {
+                    entry.getValue().close();
+                    // unlock it if it is locked.
+                    unlockIndex(entry.getKey());
+                }
+                catch (IOException e) {
+                    log.error("Unable to close index " + entry.getKey(), e);
+                }
+            }
+            handles.clear();
+        }
+    }
+
     /**
      * Unlocks the index at the given directory if it is currently locked.
      * Otherwise, does nothing.
@@ -364,40 +376,33 @@ public class IndexManager {
         String path = indexWorkDir + indexName;
         File f = new File(path);
         Directory dir = FSDirectory.getDirectory(f);
-        if (IndexReader.isLocked(dir)) {
-            IndexReader.unlock(dir);
+        try {
+            if (IndexReader.isLocked(dir)) {
+                IndexReader.unlock(dir);
+            }
+        }
+        finally {
+            dir.close();
         }
     }
 
-    private IndexWriter getIndexWriter(String name, String lang)
-            throws CorruptIndexException, LockObtainFailedException,
-            IOException {
-        String path = indexWorkDir + name;
-        File f = new File(path);
-        f.mkdirs();
-        Analyzer analyzer = getAnalyzer(name, lang);
-        IndexWriter writer = new IndexWriter(path, analyzer);
-        writer.setUseCompoundFile(true);
-        return writer;
-    }
-
-    private IndexReader getIndexReader(String indexName, String locale)
-            throws CorruptIndexException, IOException {
-        String path = indexWorkDir + indexName;
-        log.info("IndexManager::getIndexReader(" + indexName + ", " + locale +
-                ") path = " + path);
-        File f = new File(path);
-        IndexReader retval = IndexReader.open(FSDirectory.getDirectory(f));
-        return retval;
-    }
-
-    private IndexSearcher getIndexSearcher(String indexName, String locale)
-            throws CorruptIndexException, IOException {
-        String path = indexWorkDir + indexName;
-        log.info("IndexManager::getIndexSearcher(" + indexName + ", " + locale +
-                ") path = " + path);
-        IndexSearcher retval = new IndexSearcher(path);
-        return retval;
+    /**
+     * Returns the handle keeping the writer and the shared reader of an index.
+     * The analyzer only depends on the index, so there is one handle per index
+     * directory whatever the language.
+     */
+    private IndexHandle getIndexHandle(String indexName, String lang) {
+        synchronized (handles) {
+            IndexHandle handle = handles.get(indexName);
+            if (handle == null) {
+                String path = indexWorkDir + indexName;
+                log.info("IndexManager::getIndexHandle(" + indexName + ", " + lang +
+                        ") path = " + path);
+                handle = new IndexHandle(path, getAnalyzer(indexName, lang));
+                handles.put(indexName, handle);
+            }
+            return handle;
+        }
     }
 
     private QueryParser getQueryParser(String indexName, String lang,
@@ -587,9 +592,10 @@ public class IndexManager {
     public int deleteRecordsNotInList(Set<String> ids, String indexName,
             String uniqField) {
         int count = 0;
+        IndexHandle handle = getIndexHandle(indexName, IndexHandler.DEFAULT_LANG);
         IndexReader reader = null;
         try {
-            reader = getIndexReader(indexName, IndexHandler.DEFAULT_LANG);
+            reader = handle.acquireReader();
 
             // Use maxDoc() to iterate over all docs, numDocs() returns the
             // number of currently alive docs leaving out the deleted ones.
@@ -608,6 +614,7 @@ public class IndexManager {
                     }
                 }
             }
+            commit(indexName);
         }
         catch (IOException e) {
             e.printStackTrace();
@@ -620,7 +627,7 @@ public class IndexManager {
         finally {
             if (reader != null) {
                 try {
-                    reader.close();
+                    handle.release(reader);
                 }
                 catch (IOException e) {
                     //
@@ -57,6 +57,31 @@ public class IndexManagerTest extends BaseTestCase {
         assertTrue(results.size() >= 1);
     }
 
+    public void testAddUniqueReplacesDocument()
+        throws IndexingException, QueryParseException {
+
+        String index = "foo";
+        Map<String, String> meta = new HashMap<String, String>();
+        meta.put("name", "foo");
+        meta.put("desc", "A really nice foo");
+        DocumentBuilder pdb = new PackageDocumentBuilder();
+        indexManager.addUniqueToIndex(index, pdb.buildDocument(new Long(123), meta),
+                "id", "en");
+        indexManager.commit(index);
+        assertEquals(1, indexManager.search(index, "name:foo", "en").size());
+
+        meta.put("desc", "A rather nice foo");
+        indexManager.addUniqueToIndex(index, pdb.buildDocument(new Long(123), meta),
+                "id", "en");
+        // not committed yet, but searching makes the pending changes visible
+        List<Result> results = indexManager.search(index, "name:foo", "en");
+        assertEquals(1, results.size());
+        assertEquals("123", results.get(0).getId());
+
+        indexManager.removeFromIndex(index, "id", "123");
+        assertEquals(0, indexManager.search(index, "name:foo", "en").size());
+    }
+
 
     @SuppressWarnings("unchecked")
     @Override
@@ -48,6 +48,10 @@ import java.util.Map;
 public abstract class GenericIndexTask implements StatefulJob {
 
     private static Logger log = LogManager.getLogger(GenericIndexTask.class);
+    /**
+     * Number of records indexed between two commits of the index
+     */
+    public static final int BATCH_SIZE = 500;
     private String lang = "en";
     /**
      * {@inheritDoc}
@@ -72,7 +76,10 @@ public abstract class GenericIndexTask implements StatefulJob {
                 GenericRecord current = iter.next();
                 indexRecord(indexManager, current);
                 count++;
-                if (count == 10 || !iter.hasNext()) {
+                if (count == BATCH_SIZE || !iter.hasNext()) {
+                    // commit before moving the last record, so that a failure
+                    // does not skip records that never made it to the index
+                    indexManager.commit(getIndexName());
                     if (System.getProperties().get("isTesting") == null) {
                         updateLastRecord(databaseManager, current.getId());
                     }
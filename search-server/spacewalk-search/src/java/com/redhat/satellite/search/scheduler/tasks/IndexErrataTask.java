@@ -67,7 +67,8 @@ public class IndexErrataTask implements Job {
                 Errata current = iter.next();
                 indexErrata(indexManager, current);
                 count++;
-                if (count == 10 || !iter.hasNext()) {
+                if (count == GenericIndexTask.BATCH_SIZE || !iter.hasNext()) {
+                    indexManager.commit("errata");
                     if (System.getProperties().get("isTesting") == null) {
                         updateLastErrataId(databaseManager, current.getId());
                     }
@@ -69,7 +69,8 @@ public class IndexPackagesTask implements Job {
                 RhnPackage current = iter.next();
                 indexPackage(indexManager, current);
                 count++;
-                if (count == 10 || !iter.hasNext()) {
+                if (count == GenericIndexTask.BATCH_SIZE || !iter.hasNext()) {
+                    indexManager.commit("package");
                     if (System.getProperties().get("isTesting") == null) {
                         updateLastPackageId(databaseManager, current.getId());
                     }
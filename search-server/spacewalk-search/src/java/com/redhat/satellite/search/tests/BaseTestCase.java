@@ -23,8 +23,9 @@ public abstract class BaseTestCase extends TestCase {
         super.tearDown();
         Configuration config = (Configuration)
             container.getComponentInstanceOfType(Configuration.class);
-        TestUtil.cleanupDirectories(config);
+        // stop first, so the open indexes are closed before their directories go
         container.stop();
+        TestUtil.cleanupDirectories(config);
     }
 
     @SuppressWarnings("unchecked")
@@ -234,6 +234,123 @@ class UyuniRoster:
 
         return minion
 
+    def _query_minions(self, server_ids=None):
+        query = """
+            SELECT S.id AS server_id,
+                   SMI.minion_id AS minion_id,
+                   SMI.ssh_push_port AS ssh_push_port,
+                   SSCM.label='ssh-push-tunnel' AS tunnel,
+                   SP.hostname AS proxy_hostname,
+                   PI.ssh_port AS ssh_port
+            FROM rhnServer AS S
+            INNER JOIN suseServerContactMethod AS SSCM ON
+                  (SSCM.id=S.contact_method_id)
+            INNER JOIN suseMinionInfo AS SMI ON
+                  (SMI.server_id=S.id)
+            LEFT JOIN rhnServerPath AS SP ON
+                 (SP.server_id=S.id)
+            LEFT JOIN rhnProxyInfo as PI ON
+                 (SP.proxy_server_id = PI.server_id)
+            WHERE SSCM.label IN ('ssh-push', 'ssh-push-tunnel')
+        """
+        params = None
+        if server_ids is not None:
+            query += "  AND S.id = ANY(%s)\n"
+            params = (list(server_ids),)
+        query += "ORDER BY S.id, SP.position DESC"
+
+        h = self._execute_query(query, params)
+        if h is None:
+            return None
+
+        ret = {}
+        prow = None
+        proxies = []
+
+        row = h.fetchone()
+        while True:
+            if prow is not None and (row is None or row.server_id != prow.server_id):
+                ret[prow.minion_id] = self._get_ssh_minion(
+                    minion_id=prow.minion_id,
+                    proxies=proxies,
+                    tunnel=prow.tunnel,
+                    ssh_push_port=int(prow.ssh_push_port or SSH_PUSH_PORT),
+                )
+                proxies = []
+            if row is None:
+                break
+            if row.proxy_hostname:
+                proxies.append(Proxy(row.proxy_hostname, row.ssh_port))
+            prow = row
+            row = h.fetchone()
+
+        return ret
+
+    def _query_stamps(self):
+        """
+        Returns the minion id, the last modification time and the number of proxies
+        of every SSH minion, taking its contact method, SSH port and proxy path into account.
+        The number of proxies detects the proxies removed from the path of a minion,
+        as deleting a path row doesn't change the modification time of the others.
+        """
+        query = """
+            SELECT S.id AS server_id,
+                   SMI.minion_id AS minion_id,
+                   EXTRACT(EPOCH FROM GREATEST(MAX(S.modified), MAX(SMI.modified),
+                                               MAX(SP.modified), MAX(PI.modified))) AS stamp,
+                   COUNT(SP.proxy_server_id) AS proxies
+            FROM rhnServer AS S
+            INNER JOIN suseServerContactMethod AS SSCM ON
+                  (SSCM.id=S.contact_method_id)
+            INNER JOIN suseMinionInfo AS SMI ON
+                  (SMI.server_id=S.id)
+            LEFT JOIN rhnServerPath AS SP ON
+                 (SP.server_id=S.id)
+            LEFT JOIN rhnProxyInfo as PI ON
+                 (SP.proxy_server_id = PI.server_id)
+            WHERE SSCM.label IN ('ssh-push', 'ssh-push-tunnel')
+            GROUP BY S.id, SMI.minion_id
+        """
+        h = self._execute_query(query)
+        if h is None:
+            return None
+        # the keys are strings as the cache is serialized with msgpack
+        return {
+            str(row.server_id): [row.minion_id, float(row.stamp), row.proxies]
+            for row in h
+        }
+
+    def _update_minions(self, cache_data):
+        """
+        Updates the cached roster with the minions changed since it was stored.
+        Returns (None, None) if the cached data can't be updated incrementally.
+        """
+        cached_minions = cache_data.get("minions")
+        cached_stamps = cache_data.get("stamps")
+        if not cached_minions or cached_stamps is None:
+            return None, None
+
+        stamps = self._query_stamps()
+        if stamps is None:
+            return None, None
+
+        minions = dict(cached_minions)
+        for server_id, (minion_id, *_) in cached_stamps.items():
+            if stamps.get(server_id, [None])[0] != minion_id:
+                minions.pop(minion_id, None)
+        changed = [
+            int(server_id)
+            for server_id, stamp in stamps.items()
+            if cached_stamps.get(server_id) != stamp
+        ]
+        log.debug("Updating %d minions of the cached roster", len(changed))
+        if changed:
+            updated = self._query_minions(changed)
+            if updated is None:
+                return None, None
+            minions.update(updated)
+        return minions, stamps
+
     def targets(self):
         cache_data = self.cache.fetch("roster/uyuni", "minions")
         cache_fp = cache_data.get("fp", None)
@@ -283,54 +400,22 @@ class UyuniRoster:
             )
             return cache_data["minions"]
 
-        ret = {}
-
-        query = """
-            SELECT S.id AS server_id,
-                   SMI.minion_id AS minion_id,
-                   SMI.ssh_push_port AS ssh_push_port,
-                   SSCM.label='ssh-push-tunnel' AS tunnel,
-                   SP.hostname AS proxy_hostname,
-                   PI.ssh_port AS ssh_port
-            FROM rhnServer AS S
-            INNER JOIN suseServerContactMethod AS SSCM ON
-                  (SSCM.id=S.contact_method_id)
-            INNER JOIN suseMinionInfo AS SMI ON
-                  (SMI.server_id=S.id)
-            LEFT JOIN rhnServerPath AS SP ON
-                 (SP.server_id=S.id)
-            LEFT JOIN rhnProxyInfo as PI ON
-                 (SP.proxy_server_id = PI.server_id)
-            WHERE SSCM.label IN ('ssh-push', 'ssh-push-tunnel')
-            ORDER BY S.id, SP.position DESC
-        """
-
-        h = self._execute_query(query)
-
-        prow = None
-        proxies = []
-
-        row = h.fetchone()
-        while True:
-            if prow is not None and (row is None or row.server_id != prow.server_id):
-                ret[prow.minion_id] = self._get_ssh_minion(
-                    minion_id=prow.minion_id,
-                    proxies=proxies,
-                    tunnel=prow.tunnel,
-                    ssh_push_port=int(prow.ssh_push_port or SSH_PUSH_PORT),
-                )
-            proxies = []
-            if row is None:
-                break
-            if row.proxy_hostname:
-                proxies.append(Proxy(row.proxy_hostname, row.ssh_port))
-            prow = row
-            row = h.fetchone()
+        # only regenerate the entries of the minions changed since the roster was cached
+        ret, stamps = self._update_minions(cache_data)
+        if ret is None:
+            log.debug("Generating the whole roster")
+            stamps = self._query_stamps()
+            ret = self._query_minions() or {}
 
         self.cache.store(
             "roster/uyuni",
             "minions",
-            {"fp": cache_fp, "minions": ret, "config_hash": self.config_hash},
+            {
+                "fp": cache_fp,
+                "minions": ret,
+                "stamps": stamps,
+                "config_hash": self.config_hash,
+            },
         )
 
         if log.isEnabledFor(logging.TRACE):
@@ -16,6 +16,7 @@ def setup_environment():
         sys.modules['salt'] = MagicMock()
         sys.modules['salt.cache'] = MagicMock()
         sys.modules['salt.config'] = MagicMock()
+        sys.modules['salt.loader'] = MagicMock()
         sys.modules['salt.utils'] = MagicMock()
         sys.modules['salt.utils.versions'] = MagicMock()
         sys.modules['salt.utils.odict'] = MagicMock()
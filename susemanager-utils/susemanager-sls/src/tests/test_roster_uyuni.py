@@ -0,0 +1,134 @@
+"""
+Tests for the incremental update of the cached Uyuni roster
+"""
+
+from collections import namedtuple
+from unittest.mock import MagicMock, patch
+import sys
+
+from . import mockery
+
+mockery.setup_environment()
+
+sys.path.append("../../modules/roster")
+
+import uyuni
+
+StampRow = namedtuple("StampRow", ["server_id", "minion_id", "stamp", "proxies"])
+
+DB_CONFIG = {
+    "db": "susemanager",
+    "user": "spacewalk",
+    "host": "localhost",
+    "pass": "spacewalk",
+}
+
+CACHED_STAMPS = {
+    "1000010000": ["unchanged.example.org", 1700000000.0, 0],
+    "1000010001": ["changed.example.org", 1700000000.0, 0],
+    "1000010002": ["removed.example.org", 1700000000.0, 0],
+    "1000010003": ["proxied.example.org", 1700000000.0, 1],
+}
+
+CACHED_MINIONS = {
+    "unchanged.example.org": {"host": "unchanged.example.org"},
+    "changed.example.org": {"host": "changed.example.org", "port": 22},
+    "removed.example.org": {"host": "removed.example.org"},
+    "proxied.example.org": {
+        "host": "proxied.example.org",
+        "ssh_options": ["ProxyCommand='/usr/bin/ssh proxy.example.org'"],
+    },
+}
+
+
+@patch.object(uyuni, "log", MagicMock())
+@patch.object(uyuni, "__opts__", {}, create=True)
+@patch.object(uyuni.UyuniRoster, "_init_db", MagicMock())
+def get_roster():
+    return uyuni.UyuniRoster(DB_CONFIG, {})
+
+
+def update_minions(stamps, updated):
+    """
+    Update the cached roster with the given stamps, returning the minions,
+    the stamps and the mock used to query the updated minions
+    """
+    roster = get_roster()
+    with patch.object(roster, "_query_stamps", return_value=stamps), patch.object(
+        roster, "_query_minions", return_value=updated
+    ) as mock_query_minions:
+        minions, new_stamps = roster._update_minions(
+            {"minions": CACHED_MINIONS, "stamps": CACHED_STAMPS}
+        )
+    return minions, new_stamps, mock_query_minions
+
+
+def test_query_stamps():
+    """
+    Test the stamps include the number of proxies of the minions
+    """
+    roster = get_roster()
+    rows = [
+        StampRow(1000010000, "unchanged.example.org", 1700000000.0, 0),
+        StampRow(1000010003, "proxied.example.org", 1700000000.0, 2),
+    ]
+    with patch.object(roster, "_execute_query", return_value=rows) as mock_query:
+        stamps = roster._query_stamps()
+
+    assert "COUNT(SP.proxy_server_id)" in mock_query.call_args[0][0]
+    assert stamps == {
+        "1000010000": ["unchanged.example.org", 1700000000.0, 0],
+        "1000010003": ["proxied.example.org", 1700000000.0, 2],
+    }
+
+
+def test_update_changed_minion():
+    """
+    Test only the minions with a newer stamp are queried again
+    """
+    stamps = dict(CACHED_STAMPS)
+    stamps["1000010001"] = ["changed.example.org", 1700000100.0, 0]
+    updated = {"changed.example.org": {"host": "changed.example.org", "port": 2222}}
+
+    minions, new_stamps, mock_query_minions = update_minions(stamps, updated)
+
+    mock_query_minions.assert_called_once_with([1000010001])
+    assert minions["changed.example.org"] == {
+        "host": "changed.example.org",
+        "port": 2222,
+    }
+    assert minions["unchanged.example.org"] == CACHED_MINIONS["unchanged.example.org"]
+    assert new_stamps == stamps
+
+
+def test_update_removed_minion():
+    """
+    Test the minions missing from the stamps are removed from the roster
+    """
+    stamps = dict(CACHED_STAMPS)
+    del stamps["1000010002"]
+
+    minions, _, mock_query_minions = update_minions(stamps, {})
+
+    mock_query_minions.assert_not_called()
+    assert "removed.example.org" not in minions
+    assert set(minions) == {
+        "unchanged.example.org",
+        "changed.example.org",
+        "proxied.example.org",
+    }
+
+
+def test_update_minion_without_proxy():
+    """
+    Test a minion is queried again when its proxy is removed from its path,
+    even if the remaining rows keep their modification time
+    """
+    stamps = dict(CACHED_STAMPS)
+    stamps["1000010003"] = ["proxied.example.org", 1700000000.0, 0]
+    updated = {"proxied.example.org": {"host": "proxied.example.org"}}
+
+    minions, _, mock_query_minions = update_minions(stamps, updated)
+
+    mock_query_minions.assert_called_once_with([1000010003])
+    assert "ssh_options" not in minions["proxied.example.org"]
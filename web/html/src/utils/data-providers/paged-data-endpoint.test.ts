@@ -85,6 +85,40 @@ describe("paged data endpoint", () => {
     expect(queryParams.get("q")).toEqual("myselectallquery");
   });
 
+  test("Cursor of the previous page", () => {
+    const endpoint = new PagedDataEndpoint(new URL(PATH, ORIGIN));
+    endpoint.lastPage = {
+      pageControl: new PageControl(11, 10, "mystring", null, "mycolumn"),
+      nextCursor: "mycursor",
+    };
+
+    // Only sent for the page right after the previous one
+    endpoint.setPage(new PageControl(21, 10, "mystring", null, "mycolumn"));
+    expect(endpoint.uri.searchParams.get("cursor")).toBe("mycursor");
+
+    endpoint.setPage(new PageControl(31, 10, "mystring", null, "mycolumn"));
+    expect(endpoint.uri.searchParams.has("cursor")).toBe(false);
+
+    endpoint.setPage(new PageControl(21, 10, "mystring", null, "mycolumn", -1));
+    expect(endpoint.uri.searchParams.has("cursor")).toBe(false);
+
+    endpoint.setPage(new PageControl(21, 10, "otherstring", null, "mycolumn"));
+    expect(endpoint.uri.searchParams.has("cursor")).toBe(false);
+  });
+
+  test("Cursor returned with a page", async () => {
+    const endpoint = new PagedDataEndpoint(new URL(PATH, ORIGIN));
+    const pageControl = new PageControl(1, 10);
+    const response = { items: [], total: 20, nextCursor: "mycursor" };
+    MockedNetwork.get.mockReturnValue(Utils.cancelable(Promise.resolve(response)));
+
+    let request: Promise<any> = Promise.resolve();
+    endpoint.doGet((promise) => (request = promise), pageControl);
+    await request;
+
+    expect(endpoint.lastPage).toEqual({ pageControl, nextCursor: "mycursor" });
+  });
+
   test("Request call with pagination", (done) => {
     const placeholderResponse = [];
     const endpoint = new PagedDataEndpoint(new URL(PATH, ORIGIN));
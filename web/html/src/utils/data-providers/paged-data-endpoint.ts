@@ -4,6 +4,7 @@ import { Cancelable } from "utils/functions";
 import Network from "utils/network";
 
 import PageControl from "./page-control";
+import { PagedData } from "./types";
 
 /**
  * Provides a data endpoint with pagination, filtering and sorting capabilities
@@ -12,6 +13,8 @@ export default class PagedDataEndpoint {
   uri: URL;
   get: (callback: (promise: Promise<any>) => any, pageControl: PageControl) => void;
   curReq: Cancelable | null | undefined;
+  /** The last requested page and the cursor returned with it, if the endpoint supports keyset paging */
+  lastPage: { pageControl: PageControl; nextCursor: string } | null = null;
 
   constructor(uri: URL) {
     this.uri = uri;
@@ -29,7 +32,16 @@ export default class PagedDataEndpoint {
    */
   doGet(callback: (promise: Promise<any>) => any, pageControl: PageControl) {
     this.setPage(pageControl);
-    this.request(callback);
+    this.request((promise) => {
+      promise.then(
+        (data: PagedData) => {
+          this.lastPage = data?.nextCursor ? { pageControl, nextCursor: data.nextCursor } : null;
+        },
+        // Failures and cancellations are handled by the caller
+        () => undefined
+      );
+      return callback(promise);
+    });
   }
 
   /**
@@ -60,6 +72,7 @@ export default class PagedDataEndpoint {
    *  - p: First item index on the page
    *  - ps: Number of items to retrieve
    *  - q: The query string for filter
+   *  - cursor: The cursor returned with the previous page, when requesting the page right after it
    */
   setPage(pageControl?: PageControl) {
     const query = this.getNewQuery();
@@ -78,7 +91,32 @@ export default class PagedDataEndpoint {
         query.set("s", String(sort.direction));
         query.set("sc", sort.column);
       }
+
+      const cursor = this.getCursor(pageControl);
+      if (cursor) {
+        query.set("cursor", cursor);
+      }
+    }
+  }
+
+  /**
+   * Returns the cursor of the last page if the requested page directly follows it
+   * with the same size, filter and sort order, so that the server can seek to it
+   * instead of skipping all the previous rows
+   */
+  getCursor(pageControl: PageControl): string | null {
+    if (!this.lastPage) {
+      return null;
     }
+    const last = this.lastPage.pageControl;
+    const isNextPage =
+      pageControl.page === last.page + last.pageSize &&
+      pageControl.pageSize === last.pageSize &&
+      pageControl.query === last.query &&
+      pageControl.queryField === last.queryField &&
+      pageControl.sort?.column === last.sort?.column &&
+      pageControl.sort?.direction === last.sort?.direction;
+    return isNextPage ? this.lastPage.nextCursor : null;
   }
 
   /**
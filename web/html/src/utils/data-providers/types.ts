@@ -1,6 +1,8 @@
 export type PagedData = {
   items: Array<any>;
   total: number;
+  /** Cursor to pass when requesting the next page, if the endpoint supports keyset paging */
+  nextCursor?: string;
 };
 
 export type Comparator = (a: any, b: any, key: string, direction: number) => number;